@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark;
+
+import java.util.Random;
+
+/**
+ * Value shapes that we commonly see from real sensors. Each shape fills a {@link SensorSeries} with
+ * timestamps, values and a null mask, so that encoders and page readers are benchmarked on data
+ * that resembles production traffic instead of purely random numbers.
+ */
+public enum SensorDataShape {
+
+  /** A counter that only grows, e.g. energy meters or accumulated running time. */
+  MONOTONIC {
+    @Override
+    double nextValue(Random random, int index, double previous) {
+      return index == 0 ? 0 : previous + random.nextInt(10);
+    }
+  },
+
+  /** A periodic signal with gaussian noise, e.g. temperature or vibration. */
+  NOISY {
+    @Override
+    double nextValue(Random random, int index, double previous) {
+      return 100 + 20 * Math.sin(index / 360.0) + random.nextGaussian();
+    }
+
+    @Override
+    long nextInterval(Random random) {
+      // clocks of edge devices jitter a little around the sampling period
+      return SAMPLING_PERIOD_MS - 5 + random.nextInt(11);
+    }
+  },
+
+  /** A value that never changes, e.g. a switch state or a configuration value. */
+  CONSTANT {
+    @Override
+    double nextValue(Random random, int index, double previous) {
+      return 42;
+    }
+  },
+
+  /** A noisy signal where a few percent of the samples are lost. */
+  SPARSE_NULLS {
+    @Override
+    double nextValue(Random random, int index, double previous) {
+      return NOISY.nextValue(random, index, previous);
+    }
+
+    @Override
+    boolean nextIsNull(Random random) {
+      return random.nextInt(100) < NULL_PERCENTAGE;
+    }
+  };
+
+  private static final long SAMPLING_PERIOD_MS = 1000;
+
+  private static final int NULL_PERCENTAGE = 5;
+
+  private static final long SEED = 20220815L;
+
+  abstract double nextValue(Random random, int index, double previous);
+
+  long nextInterval(Random random) {
+    return SAMPLING_PERIOD_MS;
+  }
+
+  boolean nextIsNull(Random random) {
+    return false;
+  }
+
+  /**
+   * Generate a series of the given size. The generation is deterministic so that results of
+   * different runs and different encodings are comparable.
+   */
+  public SensorSeries generate(int size) {
+    Random random = new Random(SEED);
+    SensorSeries series = new SensorSeries(size);
+    long time = 1_600_000_000_000L;
+    double value = 0;
+    for (int i = 0; i < size; i++) {
+      value = nextValue(random, i, value);
+      series.timestamps[i] = time;
+      series.doubleValues[i] = value;
+      series.isNull[i] = nextIsNull(random);
+      time += nextInterval(random);
+    }
+    series.deriveTypedValues();
+    return series;
+  }
+
+  /**
+   * Generate a series with the given number of non-null points, and the lost samples between them.
+   * Benchmarks that skip the null points use it, so that their scores are per point for all the
+   * shapes.
+   */
+  public SensorSeries generatePoints(int pointNum) {
+    // a longer series starts with the same samples, so the number of non-null points only grows
+    // with the size and never passes pointNum
+    SensorSeries series = generate(pointNum);
+    while (series.getNonNullCount() < pointNum) {
+      series = generate(series.size() + pointNum - series.getNonNullCount());
+    }
+    return series;
+  }
+}
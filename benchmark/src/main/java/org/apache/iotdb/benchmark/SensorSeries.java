@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark;
+
+import org.apache.iotdb.tsfile.utils.Binary;
+
+/**
+ * Generated data of one sensor. Values are kept in every primitive representation so that one
+ * series can feed encoders of all data types.
+ */
+public class SensorSeries {
+
+  /**
+   * Number of points the benchmarks put into one page. It is close to what a page holds with the
+   * default page size, and benchmarks use it to report their score per point.
+   */
+  public static final int POINTS_PER_PAGE = 10_000;
+
+  final long[] timestamps;
+  final double[] doubleValues;
+  final boolean[] isNull;
+
+  private final float[] floatValues;
+  private final long[] longValues;
+  private final int[] intValues;
+  private final boolean[] booleanValues;
+  private final Binary[] binaryValues;
+
+  private int nonNullCount;
+
+  SensorSeries(int size) {
+    this.timestamps = new long[size];
+    this.doubleValues = new double[size];
+    this.isNull = new boolean[size];
+    this.floatValues = new float[size];
+    this.longValues = new long[size];
+    this.intValues = new int[size];
+    this.booleanValues = new boolean[size];
+    this.binaryValues = new Binary[size];
+  }
+
+  void deriveTypedValues() {
+    nonNullCount = 0;
+    for (int i = 0; i < size(); i++) {
+      double value = doubleValues[i];
+      floatValues[i] = (float) value;
+      longValues[i] = Math.round(value);
+      intValues[i] = (int) longValues[i];
+      booleanValues[i] = longValues[i] % 2 == 0;
+      // low cardinality text values, like the status codes reported by devices
+      binaryValues[i] = Binary.valueOf("status_" + (longValues[i] % 16));
+      if (!isNull[i]) {
+        nonNullCount++;
+      }
+    }
+  }
+
+  public int size() {
+    return timestamps.length;
+  }
+
+  public int getNonNullCount() {
+    return nonNullCount;
+  }
+
+  public long[] getTimestamps() {
+    return timestamps;
+  }
+
+  public boolean[] getIsNull() {
+    return isNull;
+  }
+
+  public double[] getDoubleValues() {
+    return doubleValues;
+  }
+
+  public float[] getFloatValues() {
+    return floatValues;
+  }
+
+  public long[] getLongValues() {
+    return longValues;
+  }
+
+  public int[] getIntValues() {
+    return intValues;
+  }
+
+  public boolean[] getBooleanValues() {
+    return booleanValues;
+  }
+
+  public Binary[] getBinaryValues() {
+    return binaryValues;
+  }
+}
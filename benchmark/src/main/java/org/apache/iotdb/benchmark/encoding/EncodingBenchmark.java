@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.encoding;
+
+import org.apache.iotdb.benchmark.SensorDataShape;
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding throughput of every {@link EncodingCase} on every {@link SensorDataShape}.
+ * Scores are reported in ns per point, null points are not counted since they are not encoded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncodingBenchmark {
+
+  @Param public EncodingCase encodingCase;
+
+  @Param public SensorDataShape shape;
+
+  private SensorSeries series;
+
+  private PublicBAOS out;
+
+  private ByteBuffer encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    series = shape.generatePoints(SensorSeries.POINTS_PER_PAGE);
+    out = new PublicBAOS();
+    encodingCase.encode(encodingCase.createEncoder(), series, out);
+    encoded = ByteBuffer.wrap(out.toByteArray());
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SensorSeries.POINTS_PER_PAGE)
+  public int encode() throws IOException {
+    out.reset();
+    encodingCase.encode(encodingCase.createEncoder(), series, out);
+    return out.size();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SensorSeries.POINTS_PER_PAGE)
+  public int decode(Blackhole blackhole) throws IOException {
+    return encodingCase.decode(encodingCase.createDecoder(), encoded.duplicate(), blackhole);
+  }
+}
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.encoding;
+
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Every (encoding, data type) pair supported by {@link TSEncodingBuilder} and {@link
+ * Decoder#getDecoderByType}. Cases suffixed with {@code _TIME} encode the time column of a series
+ * instead of its values, as REGULAR is only meant for timestamps.
+ */
+public enum EncodingCase {
+  PLAIN_INT64(TSEncoding.PLAIN, TSDataType.INT64),
+  PLAIN_DOUBLE(TSEncoding.PLAIN, TSDataType.DOUBLE),
+  GORILLA_V1_FLOAT(TSEncoding.GORILLA_V1, TSDataType.FLOAT),
+  GORILLA_V1_DOUBLE(TSEncoding.GORILLA_V1, TSDataType.DOUBLE),
+  GORILLA_INT32(TSEncoding.GORILLA, TSDataType.INT32),
+  GORILLA_INT64(TSEncoding.GORILLA, TSDataType.INT64),
+  GORILLA_FLOAT(TSEncoding.GORILLA, TSDataType.FLOAT),
+  GORILLA_DOUBLE(TSEncoding.GORILLA, TSDataType.DOUBLE),
+  RLE_BOOLEAN(TSEncoding.RLE, TSDataType.BOOLEAN),
+  RLE_INT32(TSEncoding.RLE, TSDataType.INT32),
+  RLE_INT64(TSEncoding.RLE, TSDataType.INT64),
+  RLE_FLOAT(TSEncoding.RLE, TSDataType.FLOAT),
+  RLE_DOUBLE(TSEncoding.RLE, TSDataType.DOUBLE),
+  TS_2DIFF_INT32(TSEncoding.TS_2DIFF, TSDataType.INT32),
+  TS_2DIFF_INT64(TSEncoding.TS_2DIFF, TSDataType.INT64),
+  TS_2DIFF_FLOAT(TSEncoding.TS_2DIFF, TSDataType.FLOAT),
+  TS_2DIFF_DOUBLE(TSEncoding.TS_2DIFF, TSDataType.DOUBLE),
+  TS_2DIFF_TIME(TSEncoding.TS_2DIFF, TSDataType.INT64, true),
+  REGULAR_TIME(TSEncoding.REGULAR, TSDataType.INT64, true),
+  DICTIONARY_TEXT(TSEncoding.DICTIONARY, TSDataType.TEXT),
+  FREQ_INT64(TSEncoding.FREQ, TSDataType.INT64),
+  FREQ_DOUBLE(TSEncoding.FREQ, TSDataType.DOUBLE),
+  ZIGZAG_INT32(TSEncoding.ZIGZAG, TSDataType.INT32),
+  ZIGZAG_INT64(TSEncoding.ZIGZAG, TSDataType.INT64);
+
+  private final TSEncoding encoding;
+  private final TSDataType dataType;
+  private final boolean timeColumn;
+
+  EncodingCase(TSEncoding encoding, TSDataType dataType) {
+    this(encoding, dataType, false);
+  }
+
+  EncodingCase(TSEncoding encoding, TSDataType dataType, boolean timeColumn) {
+    this.encoding = encoding;
+    this.dataType = dataType;
+    this.timeColumn = timeColumn;
+  }
+
+  public TSEncoding getEncoding() {
+    return encoding;
+  }
+
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  public Encoder createEncoder() {
+    return TSEncodingBuilder.getEncodingBuilder(encoding).getEncoder(dataType);
+  }
+
+  public Decoder createDecoder() {
+    return Decoder.getDecoderByType(encoding, dataType);
+  }
+
+  /** Encode all non-null points of the series and flush the encoder into {@code out}. */
+  public void encode(Encoder encoder, SensorSeries series, ByteArrayOutputStream out)
+      throws IOException {
+    boolean[] isNull = series.getIsNull();
+    int size = series.size();
+    if (timeColumn) {
+      long[] timestamps = series.getTimestamps();
+      for (int i = 0; i < size; i++) {
+        if (!isNull[i]) {
+          encoder.encode(timestamps[i], out);
+        }
+      }
+      encoder.flush(out);
+      return;
+    }
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] booleanValues = series.getBooleanValues();
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(booleanValues[i], out);
+          }
+        }
+        break;
+      case INT32:
+        int[] intValues = series.getIntValues();
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(intValues[i], out);
+          }
+        }
+        break;
+      case INT64:
+        long[] longValues = series.getLongValues();
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(longValues[i], out);
+          }
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = series.getFloatValues();
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(floatValues[i], out);
+          }
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = series.getDoubleValues();
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(doubleValues[i], out);
+          }
+        }
+        break;
+      case TEXT:
+        for (int i = 0; i < size; i++) {
+          if (!isNull[i]) {
+            encoder.encode(series.getBinaryValues()[i], out);
+          }
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    encoder.flush(out);
+  }
+
+  /** Decode all points in {@code buffer}, returning the number of decoded points. */
+  public int decode(Decoder decoder, ByteBuffer buffer, Blackhole blackhole) throws IOException {
+    int count = 0;
+    switch (dataType) {
+      case BOOLEAN:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readBoolean(buffer));
+          count++;
+        }
+        break;
+      case INT32:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readInt(buffer));
+          count++;
+        }
+        break;
+      case INT64:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readLong(buffer));
+          count++;
+        }
+        break;
+      case FLOAT:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readFloat(buffer));
+          count++;
+        }
+        break;
+      case DOUBLE:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readDouble(buffer));
+          count++;
+        }
+        break;
+      case TEXT:
+        while (decoder.hasNext(buffer)) {
+          blackhole.consume(decoder.readBinary(buffer));
+          count++;
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(String.valueOf(dataType));
+    }
+    return count;
+  }
+}
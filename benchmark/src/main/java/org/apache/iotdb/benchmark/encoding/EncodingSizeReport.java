@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.encoding;
+
+import org.apache.iotdb.benchmark.SensorDataShape;
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.IOException;
+
+/**
+ * Prints the encoded size in bytes per point of every {@link EncodingCase} on every {@link
+ * SensorDataShape}. The size is deterministic, so it is reported by this tool instead of a JMH
+ * benchmark. Compare the output of two builds to catch compression ratio regressions.
+ */
+public class EncodingSizeReport {
+
+  private EncodingSizeReport() {}
+
+  public static void main(String[] args) throws IOException {
+    int size = args.length > 0 ? Integer.parseInt(args[0]) : SensorSeries.POINTS_PER_PAGE;
+    PublicBAOS out = new PublicBAOS();
+
+    StringBuilder header = new StringBuilder(String.format("%-18s", "case"));
+    for (SensorDataShape shape : SensorDataShape.values()) {
+      header.append(String.format("%14s", shape));
+    }
+    System.out.println(header);
+
+    for (EncodingCase encodingCase : EncodingCase.values()) {
+      StringBuilder line = new StringBuilder(String.format("%-18s", encodingCase));
+      for (SensorDataShape shape : SensorDataShape.values()) {
+        SensorSeries series = shape.generate(size);
+        out.reset();
+        encodingCase.encode(encodingCase.createEncoder(), series, out);
+        line.append(String.format("%14.3f", (double) out.size() / series.getNonNullCount()));
+      }
+      System.out.println(line);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.read;
+
+import org.apache.iotdb.benchmark.SensorDataShape;
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.benchmark.encoding.EncodingCase;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.page.AlignedPageReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AlignedPageReader#getAllSatisfiedData()} of an aligned page with several value columns.
+ * Scores are reported in ns per row of the page, including the rows whose values are null.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AlignedPageReaderBenchmark {
+
+  @Param({"TS_2DIFF_INT64", "RLE_INT32", "GORILLA_FLOAT", "GORILLA_DOUBLE"})
+  public EncodingCase valueCase;
+
+  @Param public SensorDataShape shape;
+
+  @Param({"1", "10"})
+  public int columnCount;
+
+  @Param({"false", "true"})
+  public boolean withFilter;
+
+  private SensorPage timePage;
+
+  private SensorPage valuePage;
+
+  private List<TSDataType> dataTypes;
+
+  private List<PageHeader> valuePageHeaders;
+
+  private Filter filter;
+
+  private TSEncoding timeEncoding;
+
+  @Setup
+  public void setUp() throws IOException {
+    SensorSeries series = shape.generate(SensorSeries.POINTS_PER_PAGE);
+    timePage = SensorPage.time(series);
+    // all columns share the same content, only the number of columns matters here
+    valuePage = SensorPage.value(valueCase, series);
+    dataTypes = Collections.nCopies(columnCount, valueCase.getDataType());
+    valuePageHeaders = Collections.nCopies(columnCount, valuePage.getPageHeader());
+    filter = withFilter ? TimeFilter.gt(series.getTimestamps()[series.size() / 2]) : null;
+    timeEncoding = SensorPage.timeEncoding();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SensorSeries.POINTS_PER_PAGE)
+  public TsBlock getAllSatisfiedData() throws IOException {
+    List<ByteBuffer> valuePageData = new ArrayList<>(columnCount);
+    List<Decoder> valueDecoders = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      valuePageData.add(valuePage.getPageData());
+      valueDecoders.add(valueCase.createDecoder());
+    }
+    AlignedPageReader reader =
+        new AlignedPageReader(
+            timePage.getPageHeader(),
+            timePage.getPageData(),
+            Decoder.getDecoderByType(timeEncoding, TSDataType.INT64),
+            valuePageHeaders,
+            valuePageData,
+            dataTypes,
+            valueDecoders,
+            filter);
+    reader.initTsBlockBuilder(dataTypes);
+    return reader.getAllSatisfiedData();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.read;
+
+import org.apache.iotdb.benchmark.SensorDataShape;
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.benchmark.encoding.EncodingCase;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.reader.page.PageReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PageReader#getAllSatisfiedData()} of non-aligned pages, with and without a time filter
+ * that keeps the second half of the page. Scores are reported in ns per point of the page, which
+ * has no null points.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageReaderBenchmark {
+
+  @Param({
+    "TS_2DIFF_INT64",
+    "RLE_INT32",
+    "GORILLA_INT64",
+    "GORILLA_FLOAT",
+    "GORILLA_DOUBLE",
+    "PLAIN_DOUBLE",
+    "RLE_BOOLEAN",
+    "DICTIONARY_TEXT"
+  })
+  public EncodingCase valueCase;
+
+  @Param public SensorDataShape shape;
+
+  @Param({"false", "true"})
+  public boolean withFilter;
+
+  private SensorPage page;
+
+  private Filter filter;
+
+  private TSEncoding timeEncoding;
+
+  @Setup
+  public void setUp() throws IOException {
+    SensorSeries series = shape.generatePoints(SensorSeries.POINTS_PER_PAGE);
+    page = SensorPage.nonAligned(valueCase, series);
+    filter = withFilter ? TimeFilter.gt(series.getTimestamps()[series.size() / 2]) : null;
+    timeEncoding = SensorPage.timeEncoding();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SensorSeries.POINTS_PER_PAGE)
+  public TsBlock getAllSatisfiedData() throws IOException {
+    PageReader reader =
+        new PageReader(
+            page.getPageHeader(),
+            page.getPageData(),
+            valueCase.getDataType(),
+            valueCase.createDecoder(),
+            Decoder.getDecoderByType(timeEncoding, TSDataType.INT64),
+            filter);
+    return reader.getAllSatisfiedData();
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.benchmark.read;
+
+import org.apache.iotdb.benchmark.SensorSeries;
+import org.apache.iotdb.benchmark.encoding.EncodingCase;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.write.page.PageWriter;
+import org.apache.iotdb.tsfile.write.page.TimePageWriter;
+import org.apache.iotdb.tsfile.write.page.ValuePageWriter;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/** An uncompressed page built from a {@link SensorSeries} with the writers used by TsFile. */
+class SensorPage {
+
+  private final PageHeader pageHeader;
+  private final ByteBuffer pageData;
+
+  private SensorPage(PageHeader pageHeader, ByteBuffer pageData) {
+    this.pageHeader = pageHeader;
+    this.pageData = pageData;
+  }
+
+  PageHeader getPageHeader() {
+    return pageHeader;
+  }
+
+  /** @return a new buffer over the page data, page readers consume the buffer they are given */
+  ByteBuffer getPageData() {
+    return pageData.duplicate();
+  }
+
+  /** @return the encoding of time columns, configured by {@code time_encoder} */
+  static TSEncoding timeEncoding() {
+    return TSEncoding.valueOf(TSFileDescriptor.getInstance().getConfig().getTimeEncoder());
+  }
+
+  /** Build a non-aligned page, null points of the series are skipped. */
+  static SensorPage nonAligned(EncodingCase valueCase, SensorSeries series) throws IOException {
+    PageWriter writer =
+        new PageWriter(
+            new MeasurementSchema("s", valueCase.getDataType(), valueCase.getEncoding()));
+    long[] timestamps = series.getTimestamps();
+    boolean[] isNull = series.getIsNull();
+    for (int i = 0; i < series.size(); i++) {
+      if (isNull[i]) {
+        continue;
+      }
+      switch (valueCase.getDataType()) {
+        case BOOLEAN:
+          writer.write(timestamps[i], series.getBooleanValues()[i]);
+          break;
+        case INT32:
+          writer.write(timestamps[i], series.getIntValues()[i]);
+          break;
+        case INT64:
+          writer.write(timestamps[i], series.getLongValues()[i]);
+          break;
+        case FLOAT:
+          writer.write(timestamps[i], series.getFloatValues()[i]);
+          break;
+        case DOUBLE:
+          writer.write(timestamps[i], series.getDoubleValues()[i]);
+          break;
+        case TEXT:
+          writer.write(timestamps[i], series.getBinaryValues()[i]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(valueCase.getDataType()));
+      }
+    }
+    ByteBuffer pageData = writer.getUncompressedBytes();
+    int size = pageData.remaining();
+    return new SensorPage(new PageHeader(size, size, writer.getStatistics()), pageData);
+  }
+
+  /** Build the time page of an aligned series, containing every timestamp of the series. */
+  static SensorPage time(SensorSeries series) throws IOException {
+    MeasurementSchema timeSchema = new MeasurementSchema("time", TSDataType.INT64);
+    TimePageWriter writer =
+        new TimePageWriter(
+            timeSchema.getTimeEncoder(), ICompressor.getCompressor(CompressionType.UNCOMPRESSED));
+    writer.write(series.getTimestamps(), series.size(), 0);
+    ByteBuffer pageData = writer.getUncompressedBytes();
+    int size = pageData.remaining();
+    return new SensorPage(new PageHeader(size, size, writer.getStatistics()), pageData);
+  }
+
+  /** Build a value page of an aligned series, null points are recorded in the page bitmap. */
+  static SensorPage value(EncodingCase valueCase, SensorSeries series) throws IOException {
+    TSDataType dataType = valueCase.getDataType();
+    ValuePageWriter writer =
+        new ValuePageWriter(
+            valueCase.createEncoder(),
+            ICompressor.getCompressor(CompressionType.UNCOMPRESSED),
+            dataType);
+    long[] timestamps = series.getTimestamps();
+    boolean[] isNull = series.getIsNull();
+    for (int i = 0; i < series.size(); i++) {
+      switch (dataType) {
+        case BOOLEAN:
+          writer.write(timestamps[i], series.getBooleanValues()[i], isNull[i]);
+          break;
+        case INT32:
+          writer.write(timestamps[i], series.getIntValues()[i], isNull[i]);
+          break;
+        case INT64:
+          writer.write(timestamps[i], series.getLongValues()[i], isNull[i]);
+          break;
+        case FLOAT:
+          writer.write(timestamps[i], series.getFloatValues()[i], isNull[i]);
+          break;
+        case DOUBLE:
+          writer.write(timestamps[i], series.getDoubleValues()[i], isNull[i]);
+          break;
+        case TEXT:
+          writer.write(timestamps[i], series.getBinaryValues()[i], isNull[i]);
+          break;
+        default:
+          throw new UnSupportedDataTypeException(String.valueOf(dataType));
+      }
+    }
+    ByteBuffer pageData = writer.getUncompressedBytes();
+    int size = pageData.remaining();
+    return new SensorPage(new PageHeader(size, size, writer.getStatistics()), pageData);
+  }
+}
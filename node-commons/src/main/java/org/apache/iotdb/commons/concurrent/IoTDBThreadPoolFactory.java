@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.commons.concurrent;
 
+import org.apache.iotdb.commons.concurrent.threadpool.VirtualThreadPerTaskExecutor;
 import org.apache.iotdb.commons.concurrent.threadpool.WrappedScheduledExecutorService;
 import org.apache.iotdb.commons.concurrent.threadpool.WrappedSingleThreadExecutorService;
 import org.apache.iotdb.commons.concurrent.threadpool.WrappedSingleThreadScheduledExecutor;
@@ -55,6 +56,8 @@ public class IoTDBThreadPoolFactory {
   private static final String NEW_SYNCHRONOUS_QUEUE_THREAD_POOL_LOGGER_FORMAT =
       "new SynchronousQueue thread pool: {}";
   private static final String NEW_THREAD_POOL_LOGGER_FORMAT = "new thread pool: {}";
+  private static final String NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR_LOGGER_FORMAT =
+      "new virtual thread per task executor: {}, max thread number: {}";
 
   private IoTDBThreadPoolFactory() {}
 
@@ -286,4 +289,14 @@ public class IoTDBThreadPoolFactory {
         new IoTThreadFactory(poolName, handler),
         poolName);
   }
+
+  /**
+   * function for creating thrift rpc client executor, which runs each connection on a virtual
+   * thread.
+   */
+  public static ExecutorService createThriftRpcClientVirtualThreadExecutor(
+      String poolName, int maxWorkerThreads, int carrierThreadNum) {
+    logger.info(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR_LOGGER_FORMAT, poolName, maxWorkerThreads);
+    return new VirtualThreadPerTaskExecutor(poolName, maxWorkerThreads, carrierThreadNum);
+  }
 }
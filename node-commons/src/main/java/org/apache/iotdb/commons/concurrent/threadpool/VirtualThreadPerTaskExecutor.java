@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.commons.concurrent.threadpool;
+
+import org.apache.iotdb.commons.concurrent.IoTDBDefaultThreadExceptionHandler;
+import org.apache.iotdb.commons.concurrent.IoTThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor which starts a new virtual thread for each task, e.g. each connection of a thrift
+ * server, so that idle connections do not hold the stacks of platform threads. The number of
+ * running tasks is limited by maxTaskNum, and the tasks exceeding it are rejected.
+ *
+ * <p>Virtual threads are created by reflection since the code is compiled for java 8. If the JVM
+ * does not support virtual threads, i.e. it is older than java 21, a platform thread is started for
+ * each task instead.
+ */
+public class VirtualThreadPerTaskExecutor extends AbstractExecutorService {
+
+  private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPerTaskExecutor.class);
+
+  private static final String CARRIER_PARALLELISM_PROPERTY =
+      "jdk.virtualThreadScheduler.parallelism";
+  private static final String CARRIER_MAX_POOL_SIZE_PROPERTY =
+      "jdk.virtualThreadScheduler.maxPoolSize";
+
+  private final String poolName;
+  private final int maxTaskNum;
+  private final ThreadFactory threadFactory;
+  private final boolean virtual;
+
+  private final Set<Thread> runningThreads = ConcurrentHashMap.newKeySet();
+  private volatile boolean shutdown = false;
+
+  /**
+   * @param poolName the name prefix of the threads
+   * @param maxTaskNum the max number of running tasks
+   * @param carrierThreadNum the number of carrier threads to schedule the virtual threads, which
+   *     only takes effect if it is positive and no virtual thread has been created in the JVM yet.
+   *     The JVM default, i.e. the number of cores, is used if it is not positive.
+   */
+  public VirtualThreadPerTaskExecutor(String poolName, int maxTaskNum, int carrierThreadNum) {
+    this.poolName = poolName;
+    this.maxTaskNum = maxTaskNum;
+    if (carrierThreadNum > 0 && System.getProperty(CARRIER_PARALLELISM_PROPERTY) == null) {
+      System.setProperty(CARRIER_PARALLELISM_PROPERTY, Integer.toString(carrierThreadNum));
+      if (System.getProperty(CARRIER_MAX_POOL_SIZE_PROPERTY) == null) {
+        System.setProperty(
+            CARRIER_MAX_POOL_SIZE_PROPERTY, Integer.toString(Math.max(256, carrierThreadNum)));
+      }
+    }
+    ThreadFactory virtualThreadFactory = createVirtualThreadFactory(poolName);
+    if (virtualThreadFactory != null) {
+      this.threadFactory = virtualThreadFactory;
+      this.virtual = true;
+    } else {
+      logger.warn(
+          "Virtual threads are not supported by the current JVM, {} will start a platform thread "
+              + "for each task.",
+          poolName);
+      this.threadFactory = new IoTThreadFactory(poolName);
+      this.virtual = false;
+    }
+  }
+
+  private static ThreadFactory createVirtualThreadFactory(String poolName) {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder =
+          builderClass
+              .getMethod("name", String.class, long.class)
+              .invoke(builder, "IoTDB-" + poolName + "-", 1L);
+      builder =
+          builderClass
+              .getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+              .invoke(builder, new IoTDBDefaultThreadExceptionHandler());
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      // virtual threads are a preview feature which is not enabled
+      return null;
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (shutdown) {
+      throw new RejectedExecutionException(poolName + " has been shut down");
+    }
+    if (runningThreads.size() >= maxTaskNum) {
+      throw new RejectedExecutionException(
+          String.format("%s has reached the max running task number %d", poolName, maxTaskNum));
+    }
+    Thread[] threadHolder = new Thread[1];
+    Thread thread =
+        threadFactory.newThread(
+            () -> {
+              try {
+                command.run();
+              } finally {
+                runningThreads.remove(threadHolder[0]);
+                if (shutdown && runningThreads.isEmpty()) {
+                  synchronized (runningThreads) {
+                    runningThreads.notifyAll();
+                  }
+                }
+              }
+            });
+    threadHolder[0] = thread;
+    runningThreads.add(thread);
+    try {
+      thread.start();
+    } catch (Throwable t) {
+      runningThreads.remove(thread);
+      throw new RejectedExecutionException(t);
+    }
+  }
+
+  /** @return true if the tasks are run on virtual threads */
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  /** @return the number of running tasks */
+  public int getActiveCount() {
+    return runningThreads.size();
+  }
+
+  /**
+   * @return the number of running tasks which are blocked on a monitor. A virtual thread blocked on
+   *     a monitor also pins its carrier thread.
+   */
+  public int getBlockedCount() {
+    int blockedCount = 0;
+    for (Thread thread : runningThreads) {
+      if (thread.getState() == Thread.State.BLOCKED) {
+        blockedCount++;
+      }
+    }
+    return blockedCount;
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    for (Thread thread : runningThreads) {
+      thread.interrupt();
+    }
+    return Collections.emptyList();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && runningThreads.isEmpty();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (runningThreads) {
+      while (!isTerminated()) {
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+          return false;
+        }
+        TimeUnit.NANOSECONDS.timedWait(runningThreads, remainingNanos);
+      }
+      return true;
+    }
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.iotdb.commons.utils.PathUtils;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -82,6 +83,25 @@ public class DataPartition extends Partition {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Get the time partition slots of the device which are stored in the given DataRegion, sorted by
+   * their start time.
+   */
+  public List<TTimePartitionSlot> getTimePartitionSlotList(
+      String deviceName, TRegionReplicaSet regionReplicaSet) {
+    String storageGroup = getStorageGroupByDevice(deviceName);
+    TSeriesPartitionSlot seriesPartitionSlot = calculateDeviceGroupId(deviceName);
+    if (!dataPartitionMap.containsKey(storageGroup)
+        || !dataPartitionMap.get(storageGroup).containsKey(seriesPartitionSlot)) {
+      return Collections.emptyList();
+    }
+    return dataPartitionMap.get(storageGroup).get(seriesPartitionSlot).entrySet().stream()
+        .filter(entry -> entry.getValue().contains(regionReplicaSet))
+        .map(Map.Entry::getKey)
+        .sorted(Comparator.comparingLong(TTimePartitionSlot::getStartTime))
+        .collect(Collectors.toList());
+  }
+
   public List<TRegionReplicaSet> getDataRegionReplicaSetForWriting(
       String deviceName, List<TTimePartitionSlot> timePartitionSlotList) {
     // A list of data region replica sets will store data in a same time partition.
@@ -20,6 +20,7 @@
 package org.apache.iotdb.commons.service;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.threadpool.VirtualThreadPerTaskExecutor;
 import org.apache.iotdb.commons.concurrent.threadpool.WrappedThreadPoolExecutor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.runtime.RPCServiceException;
@@ -165,13 +166,53 @@ public abstract class AbstractThriftServiceThread extends Thread {
       int timeoutSecond,
       TServerEventHandler serverEventHandler,
       boolean compress) {
+    this(
+        processor,
+        serviceName,
+        threadsName,
+        bindAddress,
+        port,
+        maxWorkerThreads,
+        timeoutSecond,
+        serverEventHandler,
+        compress,
+        false,
+        0);
+  }
+
+  /**
+   * for synced ThriftServiceThread, which runs each connection on a virtual thread if
+   * virtualThreadEnable is true.
+   *
+   * @param virtualThreadCarrierNum the number of carrier threads of the virtual threads, the JVM
+   *     default is used if it is not positive
+   */
+  @SuppressWarnings("squid:S107")
+  public AbstractThriftServiceThread(
+      TProcessor processor,
+      String serviceName,
+      String threadsName,
+      String bindAddress,
+      int port,
+      int maxWorkerThreads,
+      int timeoutSecond,
+      TServerEventHandler serverEventHandler,
+      boolean compress,
+      boolean virtualThreadEnable,
+      int virtualThreadCarrierNum) {
     initProtocolFactory(compress);
     this.serviceName = serviceName;
 
     try {
       serverTransport = openTransport(bindAddress, port);
       TThreadPoolServer.Args poolArgs =
-          initSyncedPoolArgs(processor, threadsName, maxWorkerThreads, timeoutSecond);
+          initSyncedPoolArgs(
+              processor,
+              threadsName,
+              maxWorkerThreads,
+              timeoutSecond,
+              virtualThreadEnable,
+              virtualThreadCarrierNum);
       poolServer = new TThreadPoolServer(poolArgs);
       poolServer.setServerEventHandler(serverEventHandler);
     } catch (TTransportException e) {
@@ -180,13 +221,25 @@ public abstract class AbstractThriftServiceThread extends Thread {
   }
 
   private TThreadPoolServer.Args initSyncedPoolArgs(
-      TProcessor processor, String threadsName, int maxWorkerThreads, int timeoutSecond) {
+      TProcessor processor,
+      String threadsName,
+      int maxWorkerThreads,
+      int timeoutSecond,
+      boolean virtualThreadEnable,
+      int virtualThreadCarrierNum) {
     TThreadPoolServer.Args poolArgs = new TThreadPoolServer.Args(serverTransport);
     poolArgs
         .maxWorkerThreads(maxWorkerThreads)
         .minWorkerThreads(Runtime.getRuntime().availableProcessors())
         .stopTimeoutVal(timeoutSecond);
-    executorService = IoTDBThreadPoolFactory.createThriftRpcClientThreadPool(poolArgs, threadsName);
+    if (virtualThreadEnable) {
+      executorService =
+          IoTDBThreadPoolFactory.createThriftRpcClientVirtualThreadExecutor(
+              threadsName, maxWorkerThreads, virtualThreadCarrierNum);
+    } else {
+      executorService =
+          IoTDBThreadPoolFactory.createThriftRpcClientThreadPool(poolArgs, threadsName);
+    }
     poolArgs.executorService = executorService;
     poolArgs.processor(processor);
     poolArgs.protocolFactory(protocolFactory);
@@ -302,12 +355,25 @@ public abstract class AbstractThriftServiceThread extends Thread {
   }
 
   public long getActiveThreadCount() {
-    if (executorService != null) {
+    if (executorService instanceof VirtualThreadPerTaskExecutor) {
+      return ((VirtualThreadPerTaskExecutor) executorService).getActiveCount();
+    } else if (executorService != null) {
       return ((WrappedThreadPoolExecutor) executorService).getActiveCount();
     }
     return -1;
   }
 
+  /**
+   * @return the number of connection threads blocked on a monitor, only supported when each
+   *     connection runs on a virtual thread, otherwise -1
+   */
+  public long getBlockedThreadCount() {
+    if (executorService instanceof VirtualThreadPerTaskExecutor) {
+      return ((VirtualThreadPerTaskExecutor) executorService).getBlockedCount();
+    }
+    return -1;
+  }
+
   public enum ServerType {
     SELECTOR,
     HSHA
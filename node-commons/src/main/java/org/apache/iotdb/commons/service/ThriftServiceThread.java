@@ -86,6 +86,37 @@ public class ThriftServiceThread extends AbstractThriftServiceThread {
         compress);
   }
 
+  /**
+   * for synced ThriftServiceThread, which runs each connection on a virtual thread if
+   * virtualThreadEnable is true.
+   */
+  @SuppressWarnings("squid:S107")
+  public ThriftServiceThread(
+      TProcessor processor,
+      String serviceName,
+      String threadsName,
+      String bindAddress,
+      int port,
+      int maxWorkerThreads,
+      int timeoutSecond,
+      TServerEventHandler serverEventHandler,
+      boolean compress,
+      boolean virtualThreadEnable,
+      int virtualThreadCarrierNum) {
+    super(
+        processor,
+        serviceName,
+        threadsName,
+        bindAddress,
+        port,
+        maxWorkerThreads,
+        timeoutSecond,
+        serverEventHandler,
+        compress,
+        virtualThreadEnable,
+        virtualThreadCarrierNum);
+  }
+
   @Override
   public TTransportFactory getTTransportFactory() {
     return RpcTransportFactory.INSTANCE;
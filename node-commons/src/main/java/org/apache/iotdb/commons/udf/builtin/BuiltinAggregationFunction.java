@@ -35,6 +35,9 @@ public enum BuiltinAggregationFunction {
   COUNT("count"),
   AVG("avg"),
   SUM("sum"),
+  APPROX_COUNT_DISTINCT("approx_count_distinct"),
+  APPROX_MEDIAN("approx_median"),
+  PERCENTILE("percentile"),
   ;
 
   private final String functionName;
@@ -20,6 +20,7 @@ package org.apache.iotdb.commons;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.concurrent.WrappedRunnable;
+import org.apache.iotdb.commons.concurrent.threadpool.VirtualThreadPerTaskExecutor;
 
 import org.apache.thrift.server.TThreadPoolServer;
 import org.apache.thrift.server.TThreadPoolServer.Args;
@@ -30,12 +31,14 @@ import org.junit.Test;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class IoTDBThreadPoolFactoryTest {
@@ -189,6 +192,41 @@ public class IoTDBThreadPoolFactoryTest {
     }
   }
 
+  @Test
+  public void testCreateThriftRpcClientVirtualThreadExecutor() throws InterruptedException {
+    int maxThreadCount = 4;
+    ExecutorService exec =
+        IoTDBThreadPoolFactory.createThriftRpcClientVirtualThreadExecutor(
+            POOL_NAME, maxThreadCount, 0);
+    CountDownLatch startLatch = new CountDownLatch(maxThreadCount);
+    CountDownLatch finishLatch = new CountDownLatch(1);
+    for (int i = 0; i < maxThreadCount; i++) {
+      exec.execute(
+          () -> {
+            startLatch.countDown();
+            try {
+              finishLatch.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            count.incrementAndGet();
+          });
+    }
+    startLatch.await();
+    assertEquals(maxThreadCount, ((VirtualThreadPerTaskExecutor) exec).getActiveCount());
+    try {
+      exec.execute(count::incrementAndGet);
+      fail();
+    } catch (RejectedExecutionException e) {
+      // the running task number has reached the max
+    }
+    finishLatch.countDown();
+    exec.shutdown();
+    assertTrue(exec.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(maxThreadCount, count.get());
+    assertEquals(0, ((VirtualThreadPerTaskExecutor) exec).getActiveCount());
+  }
+
   class TestExceptionHandler implements Thread.UncaughtExceptionHandler {
 
     private String name;
@@ -125,6 +125,19 @@ public class IoTDBConfig {
   /** Max concurrent client number */
   private int rpcMaxConcurrentClientNum = 65535;
 
+  /**
+   * Whether the client rpc service and the internal rpc services run each connection on a virtual
+   * thread instead of a thread of a pool. It needs java 21 or later, otherwise each connection runs
+   * on a new platform thread.
+   */
+  private boolean rpcVirtualThreadEnable = false;
+
+  /**
+   * The number of carrier threads to schedule the virtual threads of connections. The number of
+   * cores is used if it is not positive.
+   */
+  private int rpcVirtualThreadCarrierNum = 0;
+
   /** Memory allocated for the write process */
   private long allocateMemoryForStorageEngine = Runtime.getRuntime().maxMemory() * 4 / 10;
 
@@ -178,6 +191,12 @@ public class IoTDBConfig {
   /** Duration a wal flush operation will wait before calling fsync. Unit: millisecond */
   private volatile long fsyncWalDelayInMs = 3;
 
+  /**
+   * If true, wal nodes decide the wait time before fsync from the arrival rate of writes and the
+   * measured fsync latency, and fsyncWalDelayInMs becomes the upper bound of the wait time.
+   */
+  private volatile boolean walGroupCommitAdaptive = true;
+
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 16 * 1024 * 1024;
 
@@ -311,9 +330,22 @@ public class IoTDBConfig {
   /** How many threads can concurrently flush. When <= 0, use CPU core number. */
   private int concurrentFlushThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * How many threads can concurrently encode the series of flushing memtables. When it is 1, each
+   * memtable is encoded by one thread. When <= 0, use CPU core number.
+   */
+  private int concurrentFlushEncodingThread = 1;
+
   /** How many threads can concurrently execute query statement. When <= 0, use CPU core number. */
   private int concurrentQueryThread = Runtime.getRuntime().availableProcessors();
 
+  /**
+   * The max number of time range splits a single series scan located in one DataRegion can be
+   * divided into, each split running as a separate driver. When it is 1, the splitting is
+   * disabled. When <= 0, use CPU core number.
+   */
+  private int maxSeriesScanSplitNum = Runtime.getRuntime().availableProcessors();
+
   /** How many queries can be concurrently executed. When <= 0, use 1000. */
   private int maxAllowedConcurrentQueries = 1000;
 
@@ -470,7 +502,8 @@ public class IoTDBConfig {
 
   /**
    * The number of sub compaction threads to be set up to perform compaction. Currently only works
-   * for nonAligned data in cross space compaction and unseq inner space compaction.
+   * for nonAligned data in cross space compaction, unseq inner space compaction and seq inner space
+   * compaction with the read chunk performer.
    */
   private int subCompactionTaskNum = 4;
 
@@ -486,6 +519,30 @@ public class IoTDBConfig {
   /** Memory allocated for chunk cache in read process */
   private long allocateMemoryForChunkCache = allocateMemoryForRead * 100 / 1001;
 
+  /**
+   * Whether to keep the data of cached chunks outside the java heap. If true, the chunk cache uses
+   * chunkCacheOffHeapSizeInBytes of direct memory instead of allocateMemoryForChunkCache.
+   */
+  private boolean chunkCacheOffHeapEnable = false;
+
+  /** Direct memory used by the chunk cache when chunkCacheOffHeapEnable is true. */
+  private long chunkCacheOffHeapSizeInBytes = 1024 * 1024 * 1024L;
+
+  /** Size of one direct memory slab that off-heap chunk buffers are allocated from. */
+  private int chunkCacheSlabSizeInBytes = 4 * 1024 * 1024;
+
+  /**
+   * Whether to read closed TsFiles through memory mapped buffers instead of positional reads of the
+   * file channel.
+   */
+  private boolean mmapTsFileReadEnable = false;
+
+  /**
+   * The max total size of the mapped TsFiles. The least recently used mapped files which are not
+   * being read are unmapped when it is exceeded.
+   */
+  private long mmapTsFileMaxSizeInBytes = 4 * 1024 * 1024 * 1024L;
+
   /** Memory allocated for operators */
   private long allocateMemoryForCoordinator = allocateMemoryForRead * 50 / 1001;
 
@@ -528,6 +585,12 @@ public class IoTDBConfig {
    */
   private int externalSortThreshold = 1000;
 
+  /**
+   * Memory that a sort operator of the MPP engine can use to buffer its input. Sorted runs are
+   * spilled to disk once the buffer is full. Unit: byte
+   */
+  private long sortBufferSizeInBytes = 32 * 1024 * 1024L;
+
   /** White list for sync */
   private String ipWhiteList = "0.0.0.0/0";
 
@@ -741,6 +804,19 @@ public class IoTDBConfig {
   /** The default value of primitive array size in array pool */
   private int primitiveArraySize = 32;
 
+  /**
+   * Whether the memtables store the time and value of non-aligned BOOLEAN, INT32, INT64, FLOAT and
+   * DOUBLE series in off-heap arenas instead of pooled primitive arrays.
+   */
+  private boolean enableOffHeapMemTable = false;
+
+  /**
+   * Number of points in each block of a memtable chunk whose statistics are maintained on
+   * insertion, which is also the page size when querying the chunk. Non-positive value disables
+   * the statistics.
+   */
+  private int memChunkStatisticsBlockSize = 256;
+
   /** whether enable data partition. If disabled, all data belongs to partition 0 */
   private boolean enablePartition = false;
 
@@ -832,6 +908,12 @@ public class IoTDBConfig {
 
   private boolean enableDiscardOutOfOrderData = false;
 
+  /**
+   * whether to write new mods files in the binary format. Mods files in the binary format can not
+   * be read by the versions that only know the text format.
+   */
+  private boolean enableBinaryModsFile = false;
+
   /** the method to transform device path to device id, can be 'Plain' or 'SHA256' */
   private String deviceIDTransformationMethod = "Plain";
 
@@ -911,6 +993,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /**
+   * Whether to compress the tsblocks exchanged between data nodes with LZ4. Tsblocks are compressed
+   * only if both of the requester and the provider enable it.
+   */
+  private boolean mppDataExchangeCompressionEnable = false;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(20);
 
@@ -1251,6 +1339,14 @@ public class IoTDBConfig {
     this.enableDiscardOutOfOrderData = enableDiscardOutOfOrderData;
   }
 
+  public boolean isEnableBinaryModsFile() {
+    return enableBinaryModsFile;
+  }
+
+  public void setEnableBinaryModsFile(boolean enableBinaryModsFile) {
+    this.enableBinaryModsFile = enableBinaryModsFile;
+  }
+
   public String getSystemDir() {
     return systemDir;
   }
@@ -1397,6 +1493,14 @@ public class IoTDBConfig {
     this.concurrentFlushThread = concurrentFlushThread;
   }
 
+  public int getConcurrentFlushEncodingThread() {
+    return concurrentFlushEncodingThread;
+  }
+
+  public void setConcurrentFlushEncodingThread(int concurrentFlushEncodingThread) {
+    this.concurrentFlushEncodingThread = concurrentFlushEncodingThread;
+  }
+
   public int getConcurrentQueryThread() {
     return concurrentQueryThread;
   }
@@ -1405,6 +1509,14 @@ public class IoTDBConfig {
     this.concurrentQueryThread = concurrentQueryThread;
   }
 
+  public int getMaxSeriesScanSplitNum() {
+    return maxSeriesScanSplitNum;
+  }
+
+  public void setMaxSeriesScanSplitNum(int maxSeriesScanSplitNum) {
+    this.maxSeriesScanSplitNum = maxSeriesScanSplitNum;
+  }
+
   public int getMaxAllowedConcurrentQueries() {
     return maxAllowedConcurrentQueries;
   }
@@ -1489,6 +1601,22 @@ public class IoTDBConfig {
     this.rpcMaxConcurrentClientNum = rpcMaxConcurrentClientNum;
   }
 
+  public boolean isRpcVirtualThreadEnable() {
+    return rpcVirtualThreadEnable;
+  }
+
+  public void setRpcVirtualThreadEnable(boolean rpcVirtualThreadEnable) {
+    this.rpcVirtualThreadEnable = rpcVirtualThreadEnable;
+  }
+
+  public int getRpcVirtualThreadCarrierNum() {
+    return rpcVirtualThreadCarrierNum;
+  }
+
+  public void setRpcVirtualThreadCarrierNum(int rpcVirtualThreadCarrierNum) {
+    this.rpcVirtualThreadCarrierNum = rpcVirtualThreadCarrierNum;
+  }
+
   public int getSchemaRegionDeviceNodeCacheSize() {
     return schemaRegionDeviceNodeCacheSize;
   }
@@ -1603,6 +1731,14 @@ public class IoTDBConfig {
     this.fsyncWalDelayInMs = fsyncWalDelayInMs;
   }
 
+  public boolean isWalGroupCommitAdaptive() {
+    return walGroupCommitAdaptive;
+  }
+
+  void setWalGroupCommitAdaptive(boolean walGroupCommitAdaptive) {
+    this.walGroupCommitAdaptive = walGroupCommitAdaptive;
+  }
+
   public int getWalBufferSize() {
     return walBufferSize;
   }
@@ -1763,6 +1899,14 @@ public class IoTDBConfig {
     this.externalSortThreshold = externalSortThreshold;
   }
 
+  public long getSortBufferSizeInBytes() {
+    return sortBufferSizeInBytes;
+  }
+
+  void setSortBufferSizeInBytes(long sortBufferSizeInBytes) {
+    this.sortBufferSizeInBytes = sortBufferSizeInBytes;
+  }
+
   public boolean isEnablePartialInsert() {
     return enablePartialInsert;
   }
@@ -1958,6 +2102,46 @@ public class IoTDBConfig {
     this.allocateMemoryForChunkCache = allocateMemoryForChunkCache;
   }
 
+  public boolean isChunkCacheOffHeapEnable() {
+    return chunkCacheOffHeapEnable;
+  }
+
+  public void setChunkCacheOffHeapEnable(boolean chunkCacheOffHeapEnable) {
+    this.chunkCacheOffHeapEnable = chunkCacheOffHeapEnable;
+  }
+
+  public long getChunkCacheOffHeapSizeInBytes() {
+    return chunkCacheOffHeapSizeInBytes;
+  }
+
+  public void setChunkCacheOffHeapSizeInBytes(long chunkCacheOffHeapSizeInBytes) {
+    this.chunkCacheOffHeapSizeInBytes = chunkCacheOffHeapSizeInBytes;
+  }
+
+  public int getChunkCacheSlabSizeInBytes() {
+    return chunkCacheSlabSizeInBytes;
+  }
+
+  public void setChunkCacheSlabSizeInBytes(int chunkCacheSlabSizeInBytes) {
+    this.chunkCacheSlabSizeInBytes = chunkCacheSlabSizeInBytes;
+  }
+
+  public boolean isMmapTsFileReadEnable() {
+    return mmapTsFileReadEnable;
+  }
+
+  public void setMmapTsFileReadEnable(boolean mmapTsFileReadEnable) {
+    this.mmapTsFileReadEnable = mmapTsFileReadEnable;
+  }
+
+  public long getMmapTsFileMaxSizeInBytes() {
+    return mmapTsFileMaxSizeInBytes;
+  }
+
+  public void setMmapTsFileMaxSizeInBytes(long mmapTsFileMaxSizeInBytes) {
+    this.mmapTsFileMaxSizeInBytes = mmapTsFileMaxSizeInBytes;
+  }
+
   public long getAllocateMemoryForCoordinator() {
     return allocateMemoryForCoordinator;
   }
@@ -2399,6 +2583,22 @@ public class IoTDBConfig {
     this.primitiveArraySize = primitiveArraySize;
   }
 
+  public boolean isEnableOffHeapMemTable() {
+    return enableOffHeapMemTable;
+  }
+
+  public void setEnableOffHeapMemTable(boolean enableOffHeapMemTable) {
+    this.enableOffHeapMemTable = enableOffHeapMemTable;
+  }
+
+  public int getMemChunkStatisticsBlockSize() {
+    return memChunkStatisticsBlockSize;
+  }
+
+  public void setMemChunkStatisticsBlockSize(int memChunkStatisticsBlockSize) {
+    this.memChunkStatisticsBlockSize = memChunkStatisticsBlockSize;
+  }
+
   public long getStartUpNanosecond() {
     return startUpNanosecond;
   }
@@ -2906,6 +3106,14 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public boolean isMppDataExchangeCompressionEnable() {
+    return mppDataExchangeCompressionEnable;
+  }
+
+  public void setMppDataExchangeCompressionEnable(boolean mppDataExchangeCompressionEnable) {
+    this.mppDataExchangeCompressionEnable = mppDataExchangeCompressionEnable;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
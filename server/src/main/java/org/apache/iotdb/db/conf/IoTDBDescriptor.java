@@ -302,6 +302,30 @@ public class IoTDBDescriptor {
         Boolean.parseBoolean(
             properties.getProperty(
                 "meta_data_cache_enable", Boolean.toString(conf.isMetaDataCacheEnable()))));
+    conf.setChunkCacheOffHeapEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "chunk_cache_off_heap_enable",
+                Boolean.toString(conf.isChunkCacheOffHeapEnable()))));
+    conf.setChunkCacheOffHeapSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "chunk_cache_off_heap_size_in_bytes",
+                Long.toString(conf.getChunkCacheOffHeapSizeInBytes()))));
+    conf.setChunkCacheSlabSizeInBytes(
+        Integer.parseInt(
+            properties.getProperty(
+                "chunk_cache_slab_size_in_bytes",
+                Integer.toString(conf.getChunkCacheSlabSizeInBytes()))));
+    conf.setMmapTsFileReadEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "mmap_tsfile_read_enable", Boolean.toString(conf.isMmapTsFileReadEnable()))));
+    conf.setMmapTsFileMaxSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "mmap_tsfile_max_size_in_bytes",
+                Long.toString(conf.getMmapTsFileMaxSizeInBytes()))));
 
     initMemoryAllocate(properties);
 
@@ -510,6 +534,16 @@ public class IoTDBDescriptor {
       conf.setConcurrentFlushThread(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setConcurrentFlushEncodingThread(
+        Integer.parseInt(
+            properties.getProperty(
+                "concurrent_flush_encoding_thread",
+                Integer.toString(conf.getConcurrentFlushEncodingThread()))));
+
+    if (conf.getConcurrentFlushEncodingThread() <= 0) {
+      conf.setConcurrentFlushEncodingThread(Runtime.getRuntime().availableProcessors());
+    }
+
     // start: index parameter setting
     conf.setIndexRootFolder(properties.getProperty("index_root_dir", conf.getIndexRootFolder()));
 
@@ -541,6 +575,15 @@ public class IoTDBDescriptor {
       conf.setConcurrentQueryThread(Runtime.getRuntime().availableProcessors());
     }
 
+    conf.setMaxSeriesScanSplitNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "max_series_scan_split_num", Integer.toString(conf.getMaxSeriesScanSplitNum()))));
+
+    if (conf.getMaxSeriesScanSplitNum() <= 0) {
+      conf.setMaxSeriesScanSplitNum(Runtime.getRuntime().availableProcessors());
+    }
+
     conf.setMaxAllowedConcurrentQueries(
         Integer.parseInt(
             properties.getProperty(
@@ -598,6 +641,10 @@ public class IoTDBDescriptor {
         Integer.parseInt(
             properties.getProperty(
                 "external_sort_threshold", Integer.toString(conf.getExternalSortThreshold()))));
+    conf.setSortBufferSizeInBytes(
+        Long.parseLong(
+            properties.getProperty(
+                "sort_buffer_size_in_bytes", Long.toString(conf.getSortBufferSizeInBytes()))));
     conf.setUpgradeThreadNum(
         Integer.parseInt(
             properties.getProperty(
@@ -692,6 +739,16 @@ public class IoTDBDescriptor {
 
     conf.setRpcMaxConcurrentClientNum(maxConcurrentClientNum);
 
+    conf.setRpcVirtualThreadEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "rpc_virtual_thread_enable", Boolean.toString(conf.isRpcVirtualThreadEnable()))));
+    conf.setRpcVirtualThreadCarrierNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "rpc_virtual_thread_carrier_num",
+                Integer.toString(conf.getRpcVirtualThreadCarrierNum()))));
+
     conf.setEnableWatermark(
         Boolean.parseBoolean(
             properties.getProperty(
@@ -758,6 +815,17 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "primitive_array_size", String.valueOf(conf.getPrimitiveArraySize())))));
 
+    conf.setEnableOffHeapMemTable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_off_heap_memtable", Boolean.toString(conf.isEnableOffHeapMemTable()))));
+
+    conf.setMemChunkStatisticsBlockSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "mem_chunk_statistics_block_size",
+                String.valueOf(conf.getMemChunkStatisticsBlockSize()))));
+
     conf.setThriftMaxFrameSize(
         Integer.parseInt(
             properties.getProperty(
@@ -798,6 +866,11 @@ public class IoTDBDescriptor {
                 "enable_discard_out_of_order_data",
                 Boolean.toString(conf.isEnableDiscardOutOfOrderData()))));
 
+    conf.setEnableBinaryModsFile(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_binary_mods_file", Boolean.toString(conf.isEnableBinaryModsFile()))));
+
     conf.setConcurrentWindowEvaluationThread(
         Integer.parseInt(
             properties.getProperty(
@@ -1066,6 +1139,11 @@ public class IoTDBDescriptor {
       conf.setFsyncWalDelayInMs(fsyncWalDelayInMs);
     }
 
+    conf.setWalGroupCommitAdaptive(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "wal_group_commit_adaptive", Boolean.toString(conf.isWalGroupCommitAdaptive()))));
+
     long walFileSizeThreshold =
         Long.parseLong(
             properties.getProperty(
@@ -1612,6 +1690,15 @@ public class IoTDBDescriptor {
       conf.setAllocateMemoryForDataExchange(
           conf.getAllocateMemoryForDataExchange() + partForDataExchange);
       conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
+    } else if (conf.isChunkCacheOffHeapEnable()) {
+      // chunk cache is kept in direct memory, we need to move its heap memory to other parts
+      long chunkCacheMemory = conf.getAllocateMemoryForChunkCache();
+      conf.setAllocateMemoryForChunkCache(0);
+      long partForDataExchange = chunkCacheMemory / 2;
+      long partForOperators = chunkCacheMemory - partForDataExchange;
+      conf.setAllocateMemoryForDataExchange(
+          conf.getAllocateMemoryForDataExchange() + partForDataExchange);
+      conf.setAllocateMemoryForOperators(conf.getAllocateMemoryForOperators() + partForOperators);
     }
   }
 
@@ -1846,6 +1933,12 @@ public class IoTDBDescriptor {
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
 
+    conf.setMppDataExchangeCompressionEnable(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "mpp_data_exchange_compression_enable",
+                Boolean.toString(conf.isMppDataExchangeCompressionEnable()))));
+
     conf.setPartitionCacheSize(
         Integer.parseInt(
             properties.getProperty(
@@ -31,61 +31,119 @@ import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.Weigher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class is used to cache <code>Chunk</code> of <code>ChunkMetaData</code> in IoTDB. The
  * caching strategy is LRU.
+ *
+ * <p>If chunk_cache_off_heap_enable is true, the data of cached chunks is kept in direct memory
+ * allocated by {@link OffHeapSlabAllocator} and every entry is weighed by the exact size of its
+ * data. Readers get a heap copy of the cached data, so a slab can be freed as soon as its entries
+ * are evicted. The bytes wasted in partly used slabs are taken off the maximum weight of the cache,
+ * and an entry that is hit in an underused slab is moved to the current slab, so the direct memory
+ * stays within chunk_cache_off_heap_size_in_bytes plus a couple of slabs.
  */
 public class ChunkCache {
 
   private static final Logger logger = LoggerFactory.getLogger(ChunkCache.class);
   private static final Logger DEBUG_LOGGER = LoggerFactory.getLogger("QUERY_DEBUG");
   private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final boolean OFF_HEAP_ENABLE = config.isChunkCacheOffHeapEnable();
   private static final long MEMORY_THRESHOLD_IN_CHUNK_CACHE =
-      config.getAllocateMemoryForChunkCache();
+      OFF_HEAP_ENABLE
+          ? config.getChunkCacheOffHeapSizeInBytes()
+          : config.getAllocateMemoryForChunkCache();
   private static final boolean CACHE_ENABLE = config.isMetaDataCacheEnable();
 
   private final LoadingCache<ChunkMetadata, Chunk> lruCache;
 
   private final AtomicLong entryAverageSize = new AtomicLong(0);
 
+  private final OffHeapSlabAllocator offHeapAllocator;
+
   private ChunkCache() {
     if (CACHE_ENABLE) {
-      logger.info("ChunkCache size = " + MEMORY_THRESHOLD_IN_CHUNK_CACHE);
+      logger.info(
+          "ChunkCache size = {}, off-heap = {}", MEMORY_THRESHOLD_IN_CHUNK_CACHE, OFF_HEAP_ENABLE);
+    }
+    if (OFF_HEAP_ENABLE) {
+      offHeapAllocator = new OffHeapSlabAllocator(config.getChunkCacheSlabSizeInBytes());
+      lruCache =
+          Caffeine.newBuilder()
+              .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
+              .weigher(
+                  (Weigher<ChunkMetadata, Chunk>)
+                      (chunkMetadata, chunk) -> chunk.getData().capacity())
+              .removalListener(
+                  (ChunkMetadata chunkMetadata, Chunk chunk, RemovalCause cause) -> {
+                    if (chunk != null) {
+                      offHeapAllocator.release(((OffHeapChunk) chunk).allocation);
+                    }
+                  })
+              .recordStats()
+              .build(this::loadOffHeapChunk);
+    } else {
+      offHeapAllocator = null;
+      lruCache =
+          Caffeine.newBuilder()
+              .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
+              .weigher(
+                  (Weigher<ChunkMetadata, Chunk>)
+                      (chunkMetadata, chunk) ->
+                          (int)
+                              (RamUsageEstimator.NUM_BYTES_OBJECT_REF
+                                  + RamUsageEstimator.sizeOf(chunk)))
+              .recordStats()
+              .build(
+                  chunkMetadata -> {
+                    try {
+                      TsFileSequenceReader reader =
+                          FileReaderManager.getInstance()
+                              .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
+                      return reader.readMemChunk(chunkMetadata);
+                    } catch (IOException e) {
+                      logger.error("Something wrong happened in reading {}", chunkMetadata, e);
+                      throw e;
+                    }
+                  });
     }
-    lruCache =
-        Caffeine.newBuilder()
-            .maximumWeight(MEMORY_THRESHOLD_IN_CHUNK_CACHE)
-            .weigher(
-                (Weigher<ChunkMetadata, Chunk>)
-                    (chunkMetadata, chunk) ->
-                        (int)
-                            (RamUsageEstimator.NUM_BYTES_OBJECT_REF
-                                + RamUsageEstimator.sizeOf(chunk)))
-            .recordStats()
-            .build(
-                chunkMetadata -> {
-                  try {
-                    TsFileSequenceReader reader =
-                        FileReaderManager.getInstance()
-                            .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
-                    return reader.readMemChunk(chunkMetadata);
-                  } catch (IOException e) {
-                    logger.error("Something wrong happened in reading {}", chunkMetadata, e);
-                    throw e;
-                  }
-                });
 
     // add metrics
     MetricService.getInstance().addMetricSet(new ChunkCacheMetrics(this));
   }
 
+  /** Read the chunk data from disk directly into an off-heap buffer. */
+  private Chunk loadOffHeapChunk(ChunkMetadata chunkMetadata) throws IOException {
+    OffHeapSlabAllocator.Allocation[] allocation = new OffHeapSlabAllocator.Allocation[1];
+    try {
+      TsFileSequenceReader reader =
+          FileReaderManager.getInstance()
+              .get(chunkMetadata.getFilePath(), chunkMetadata.isClosed());
+      Chunk chunk =
+          reader.readMemChunk(
+              chunkMetadata,
+              size -> {
+                allocation[0] = offHeapAllocator.allocate(size);
+                return allocation[0].getBuffer();
+              });
+      return new OffHeapChunk(chunk, allocation[0]);
+    } catch (IOException e) {
+      if (allocation[0] != null) {
+        offHeapAllocator.release(allocation[0]);
+      }
+      logger.error("Something wrong happened in reading {}", chunkMetadata, e);
+      throw e;
+    }
+  }
+
   public double getHitRate() {
     return lruCache.stats().hitRate() * 100;
   }
@@ -117,13 +175,73 @@ public class ChunkCache {
       DEBUG_LOGGER.info("get chunk from cache whose meta data is: " + chunkMetaData);
     }
 
+    ByteBuffer data;
+    if (OFF_HEAP_ENABLE) {
+      data = copyOffHeapChunk(chunkMetaData, (OffHeapChunk) chunk);
+      adjustOffHeapMaximumWeight();
+    } else {
+      data = chunk.getData().duplicate();
+    }
     return new Chunk(
         chunk.getHeader(),
-        chunk.getData().duplicate(),
+        data,
         chunkMetaData.getDeleteIntervalList(),
         chunkMetaData.getStatistics());
   }
 
+  /**
+   * Copy the off-heap data of a cached chunk into the heap. The allocation is retained during the
+   * copy so that a concurrent eviction can not free it. If the chunk lives in an underused slab, it
+   * is moved to the current slab so that the old slab can be freed.
+   */
+  private ByteBuffer copyOffHeapChunk(ChunkMetadata chunkMetadata, OffHeapChunk chunk)
+      throws IOException {
+    while (!chunk.allocation.retain()) {
+      // the chunk has been evicted after it was got from the cache, load it again
+      chunk = (OffHeapChunk) lruCache.get(chunkMetadata);
+    }
+    try {
+      ByteBuffer data = ByteBuffer.allocate(chunk.getData().remaining());
+      data.put(chunk.getData().duplicate()).flip();
+      if (chunk.allocation.isInUnderusedSlab()) {
+        OffHeapSlabAllocator.Allocation allocation = offHeapAllocator.allocate(data.remaining());
+        allocation.getBuffer().put(data.duplicate()).flip();
+        OffHeapChunk movedChunk = new OffHeapChunk(chunk, allocation);
+        // the removal listener releases the old allocation once it is replaced
+        if (!lruCache.asMap().replace(chunkMetadata, chunk, movedChunk)) {
+          offHeapAllocator.release(allocation);
+        }
+      }
+      return data;
+    } finally {
+      offHeapAllocator.release(chunk.allocation);
+    }
+  }
+
+  /**
+   * Take the bytes wasted in partly used slabs, except the current slab, off the maximum weight of
+   * the cache, so that the direct memory held by the slabs does not exceed the budget. The maximum
+   * weight is only changed by steps of a slab to avoid resizing the cache on every read.
+   */
+  private void adjustOffHeapMaximumWeight() {
+    long wastedBytes =
+        offHeapAllocator.getAllocatedBytes()
+            - offHeapAllocator.getUsedBytes()
+            - offHeapAllocator.getSlabSize();
+    long maximumWeight = MEMORY_THRESHOLD_IN_CHUNK_CACHE - Math.max(0, wastedBytes);
+    lruCache
+        .policy()
+        .eviction()
+        .ifPresent(
+            eviction -> {
+              long currentMaximumWeight = eviction.getMaximum();
+              if (Math.abs(maximumWeight - currentMaximumWeight)
+                  >= offHeapAllocator.getSlabSize()) {
+                eviction.setMaximum(Math.max(0, maximumWeight));
+              }
+            });
+  }
+
   public double calculateChunkHitRatio() {
     return lruCache.stats().hitRate();
   }
@@ -144,6 +262,20 @@ public class ChunkCache {
     return entryAverageSize.get();
   }
 
+  public boolean isOffHeapEnable() {
+    return OFF_HEAP_ENABLE;
+  }
+
+  /** @return bytes of the direct memory held by the off-heap tier, 0 if it is disabled */
+  public long getOffHeapAllocatedBytes() {
+    return offHeapAllocator == null ? 0 : offHeapAllocator.getAllocatedBytes();
+  }
+
+  /** @return bytes of the chunk data kept in the off-heap tier, 0 if it is disabled */
+  public long getOffHeapUsedBytes() {
+    return offHeapAllocator == null ? 0 : offHeapAllocator.getUsedBytes();
+  }
+
   /** clear LRUCache. */
   public void clear() {
     lruCache.invalidateAll();
@@ -159,6 +291,22 @@ public class ChunkCache {
     return lruCache.asMap().isEmpty();
   }
 
+  /** A cached chunk whose data is a read-only view of an off-heap buffer. */
+  private static class OffHeapChunk extends Chunk {
+
+    private final OffHeapSlabAllocator.Allocation allocation;
+
+    /** the data of the allocation should be ready to read */
+    private OffHeapChunk(Chunk chunk, OffHeapSlabAllocator.Allocation allocation) {
+      super(
+          chunk.getHeader(),
+          allocation.getBuffer().asReadOnlyBuffer(),
+          chunk.getDeleteIntervalList(),
+          chunk.getChunkStatistic());
+      this.allocation = allocation;
+    }
+  }
+
   /** singleton pattern. */
   private static class ChunkCacheHolder {
 
@@ -44,12 +44,40 @@ public class ChunkCacheMetrics implements IMetricSet {
         o -> (long) o.getHitRate(),
         Tag.NAME.toString(),
         "chunk");
+    if (chunkCache.isOffHeapEnable()) {
+      metricService.getOrCreateAutoGauge(
+          Metric.MEM.toString(),
+          MetricLevel.IMPORTANT,
+          chunkCache,
+          ChunkCache::getOffHeapAllocatedBytes,
+          Tag.NAME.toString(),
+          "chunk_cache_off_heap_allocated");
+      metricService.getOrCreateAutoGauge(
+          Metric.MEM.toString(),
+          MetricLevel.IMPORTANT,
+          chunkCache,
+          ChunkCache::getOffHeapUsedBytes,
+          Tag.NAME.toString(),
+          "chunk_cache_off_heap_used");
+    }
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.GAUGE, Metric.CACHE_HIT.toString(), Tag.NAME.toString(), "chunk");
+    if (chunkCache.isOffHeapEnable()) {
+      metricService.remove(
+          MetricType.GAUGE,
+          Metric.MEM.toString(),
+          Tag.NAME.toString(),
+          "chunk_cache_off_heap_allocated");
+      metricService.remove(
+          MetricType.GAUGE,
+          Metric.MEM.toString(),
+          Tag.NAME.toString(),
+          "chunk_cache_off_heap_used");
+    }
   }
 
   @Override
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates buffers for {@link ChunkCache} outside the java heap. Small buffers are carved out of
+ * fixed size direct slabs with a bump pointer, and buffers larger than a quarter of a slab get a
+ * slab of their own.
+ *
+ * <p>The memory of a slab is never handed out twice. A slab is sealed when it is full, and it is
+ * freed explicitly as soon as it is sealed and all the buffers in it have been released. An
+ * allocation is reference counted, so a reader that {@link Allocation#retain() retains} it can
+ * safely copy its data while the cache evicts it concurrently.
+ */
+public class OffHeapSlabAllocator {
+
+  private final int slabSize;
+
+  /** the slab that new small buffers are allocated from, guarded by this */
+  private Slab currentSlab;
+
+  /** bytes of all the slabs that have not been freed */
+  private final AtomicLong allocatedBytes = new AtomicLong(0);
+  /** bytes of all the buffers that have not been released */
+  private final AtomicLong usedBytes = new AtomicLong(0);
+
+  public OffHeapSlabAllocator(int slabSize) {
+    if (slabSize <= 0) {
+      throw new IllegalArgumentException("slab size should be positive, but is " + slabSize);
+    }
+    this.slabSize = slabSize;
+  }
+
+  /**
+   * Allocate a direct buffer whose position is 0 and whose limit and capacity are exactly the given
+   * size. The allocation holds one reference, which is dropped by {@link #release(Allocation)}.
+   */
+  public Allocation allocate(int size) {
+    Slab slab;
+    ByteBuffer buffer;
+    if (size > slabSize / 4) {
+      slab = new Slab(size);
+      buffer = slab.slice(size);
+      slab.seal();
+    } else {
+      synchronized (this) {
+        if (currentSlab == null || currentSlab.remaining() < size) {
+          if (currentSlab != null) {
+            currentSlab.seal();
+          }
+          currentSlab = new Slab(slabSize);
+        }
+        slab = currentSlab;
+        buffer = slab.slice(size);
+      }
+    }
+    usedBytes.addAndGet(size);
+    return new Allocation(slab, buffer);
+  }
+
+  /**
+   * Drop a reference of an allocation. Its buffer is given back to the slab once no reference is
+   * left, and should not be used after that.
+   */
+  public void release(Allocation allocation) {
+    if (allocation.referenceCount.decrementAndGet() == 0) {
+      usedBytes.addAndGet(-allocation.buffer.capacity());
+      allocation.slab.release(allocation.buffer.capacity());
+    }
+  }
+
+  public int getSlabSize() {
+    return slabSize;
+  }
+
+  /** @return bytes of the off-heap memory held by the slabs that are still in use */
+  public long getAllocatedBytes() {
+    return allocatedBytes.get();
+  }
+
+  /** @return bytes of the buffers that are still in use */
+  public long getUsedBytes() {
+    return usedBytes.get();
+  }
+
+  /** A reference counted buffer allocated from a slab. */
+  public static class Allocation {
+
+    private final Slab slab;
+    private final ByteBuffer buffer;
+    private final AtomicInteger referenceCount = new AtomicInteger(1);
+
+    private Allocation(Slab slab, ByteBuffer buffer) {
+      this.slab = slab;
+      this.buffer = buffer;
+    }
+
+    public ByteBuffer getBuffer() {
+      return buffer;
+    }
+
+    /**
+     * Add a reference to the allocation unless it has already been released.
+     *
+     * @return false if the buffer has been given back to its slab and must not be read
+     */
+    public boolean retain() {
+      int count;
+      do {
+        count = referenceCount.get();
+        if (count <= 0) {
+          return false;
+        }
+      } while (!referenceCount.compareAndSet(count, count + 1));
+      return true;
+    }
+
+    /**
+     * @return whether the allocation lives in a sealed slab of which less than half is still in
+     *     use, so that moving it elsewhere helps to free the slab
+     */
+    public boolean isInUnderusedSlab() {
+      return slab.isUnderused();
+    }
+  }
+
+  private class Slab {
+
+    private final ByteBuffer memory;
+    private final int capacity;
+    private int liveBytes = 0;
+    private boolean sealed = false;
+    private boolean freed = false;
+
+    private Slab(int capacity) {
+      this.capacity = capacity;
+      memory = ByteBuffer.allocateDirect(capacity);
+      allocatedBytes.addAndGet(capacity);
+    }
+
+    private int remaining() {
+      return memory.remaining();
+    }
+
+    /** only called under the lock of the allocator or before the slab is published */
+    private ByteBuffer slice(int size) {
+      ByteBuffer buffer = memory.slice();
+      buffer.limit(size);
+      memory.position(memory.position() + size);
+      synchronized (this) {
+        liveBytes += size;
+      }
+      return buffer.slice();
+    }
+
+    private synchronized void seal() {
+      sealed = true;
+      freeIfUnused();
+    }
+
+    private synchronized void release(int size) {
+      liveBytes -= size;
+      freeIfUnused();
+    }
+
+    private synchronized boolean isUnderused() {
+      return sealed && liveBytes < capacity / 2;
+    }
+
+    private void freeIfUnused() {
+      if (sealed && liveBytes == 0 && !freed) {
+        freed = true;
+        allocatedBytes.addAndGet(-capacity);
+        PlatformDependent.freeDirectBuffer(memory);
+      }
+    }
+  }
+}
@@ -111,6 +111,18 @@ public class SingleSeriesCompactionExecutor {
    * series compaction may contain more than one chunk.
    */
   public void execute() throws IOException {
+    executeWithoutUpdatingResource();
+    targetResource.updateStartTime(device, minStartTimestamp);
+    targetResource.updateEndTime(device, maxEndTimestamp);
+  }
+
+  /**
+   * Compact the series without updating the time index of the target resource, which is not thread
+   * safe. It is used when several series of a device are compacted concurrently, and the caller
+   * should update the target resource by {@link #getMinStartTimestamp()} and {@link
+   * #getMaxEndTimestamp()} afterwards.
+   */
+  public void executeWithoutUpdatingResource() throws IOException {
     while (readerAndChunkMetadataList.size() > 0) {
       Pair<TsFileSequenceReader, List<ChunkMetadata>> readerListPair =
           readerAndChunkMetadataList.removeFirst();
@@ -151,8 +163,14 @@ public class SingleSeriesCompactionExecutor {
     } else if (pointCountInChunkWriter != 0L) {
       flushChunkWriter();
     }
-    targetResource.updateStartTime(device, minStartTimestamp);
-    targetResource.updateEndTime(device, maxEndTimestamp);
+  }
+
+  public long getMinStartTimestamp() {
+    return minStartTimestamp;
+  }
+
+  public long getMaxEndTimestamp() {
+    return maxEndTimestamp;
   }
 
   private void constructChunkWriterFromReadChunk(Chunk chunk) {
@@ -21,6 +21,8 @@ package org.apache.iotdb.db.engine.compaction.performer.impl;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.inner.utils.AlignedSeriesCompactionExecutor;
 import org.apache.iotdb.db.engine.compaction.inner.utils.MultiTsFileDeviceIterator;
 import org.apache.iotdb.db.engine.compaction.inner.utils.SingleSeriesCompactionExecutor;
@@ -32,15 +34,20 @@ import org.apache.iotdb.tsfile.file.metadata.AlignedChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.utils.Pair;
-import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
+import org.apache.iotdb.tsfile.write.writer.ChunkBufferWriter;
 import org.apache.iotdb.tsfile.write.writer.TsFileIOWriter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private static final Logger LOGGER =
@@ -49,6 +56,16 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
   private List<TsFileResource> seqFiles;
   private CompactionTaskSummary summary;
 
+  private final int subTaskNum =
+      IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
+
+  /**
+   * A series with more points than this is compacted directly into the target file instead of being
+   * buffered in memory by a sub task.
+   */
+  private final long maxPointNumOfBufferedSeries =
+      IoTDBDescriptor.getInstance().getConfig().getTargetChunkPointNum() * 10;
+
   public ReadChunkCompactionPerformer(List<TsFileResource> sourceFiles, TsFileResource targetFile) {
     this.seqFiles = sourceFiles;
     this.targetResource = targetFile;
@@ -132,13 +149,15 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
       TsFileIOWriter writer,
       MultiTsFileDeviceIterator deviceIterator)
       throws IOException, MetadataException, InterruptedException {
+    if (subTaskNum > 1) {
+      compactNotAlignedSeriesConcurrently(device, targetResource, writer, deviceIterator);
+      return;
+    }
     MultiTsFileDeviceIterator.MeasurementIterator seriesIterator =
         deviceIterator.iterateNotAlignedSeries(device, true);
     while (seriesIterator.hasNextSeries()) {
       checkThreadInterrupted();
-      // TODO: we can provide a configuration item to enable concurrent between each series
       PartialPath p = new PartialPath(device, seriesIterator.nextSeries());
-      IMeasurementSchema measurementSchema;
       // TODO: seriesIterator needs to be refactor.
       // This statement must be called before next hasNextSeries() called, or it may be trapped in a
       // dead-loop.
@@ -150,6 +169,143 @@ public class ReadChunkCompactionPerformer implements ISeqCompactionPerformer {
     }
   }
 
+  /**
+   * Compact the series of a device by sub tasks. Each sub task writes the chunks of one series into
+   * its own memory buffer, and the buffers are appended to the target file in the order of the
+   * series. At most 2 * subTaskNum series are buffered at the same time, and a large series is
+   * compacted directly into the target file after all the buffered series are appended.
+   */
+  private void compactNotAlignedSeriesConcurrently(
+      String device,
+      TsFileResource targetResource,
+      TsFileIOWriter writer,
+      MultiTsFileDeviceIterator deviceIterator)
+      throws IOException, MetadataException, InterruptedException {
+    MultiTsFileDeviceIterator.MeasurementIterator seriesIterator =
+        deviceIterator.iterateNotAlignedSeries(device, true);
+    Deque<SeriesCompactionSubTask> runningSubTasks = new ArrayDeque<>();
+    // the min start time and the max end time of all the compacted series
+    long[] timeRange = new long[] {Long.MAX_VALUE, Long.MIN_VALUE};
+    try {
+      while (seriesIterator.hasNextSeries()) {
+        checkThreadInterrupted();
+        PartialPath p = new PartialPath(device, seriesIterator.nextSeries());
+        // This statement must be called before next hasNextSeries() called, or it may be trapped in
+        // a dead-loop.
+        LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList =
+            seriesIterator.getMetadataListForCurrentSeries();
+
+        if (getPointNum(readerAndChunkMetadataList) > maxPointNumOfBufferedSeries) {
+          while (!runningSubTasks.isEmpty()) {
+            runningSubTasks.removeFirst().writeTo(writer, timeRange);
+          }
+          new SeriesCompactionSubTask(p, readerAndChunkMetadataList, writer)
+              .writeTo(writer, timeRange);
+        } else {
+          SeriesCompactionSubTask subTask =
+              new SeriesCompactionSubTask(p, readerAndChunkMetadataList, null);
+          subTask.submit();
+          runningSubTasks.addLast(subTask);
+          if (runningSubTasks.size() >= 2 * subTaskNum) {
+            runningSubTasks.removeFirst().writeTo(writer, timeRange);
+          }
+        }
+      }
+      while (!runningSubTasks.isEmpty()) {
+        runningSubTasks.removeFirst().writeTo(writer, timeRange);
+      }
+    } finally {
+      for (SeriesCompactionSubTask subTask : runningSubTasks) {
+        subTask.cancel();
+      }
+    }
+    targetResource.updateStartTime(device, timeRange[0]);
+    targetResource.updateEndTime(device, timeRange[1]);
+  }
+
+  private long getPointNum(
+      List<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList) {
+    long pointNum = 0;
+    for (Pair<TsFileSequenceReader, List<ChunkMetadata>> readerAndChunkMetadata :
+        readerAndChunkMetadataList) {
+      for (ChunkMetadata chunkMetadata : readerAndChunkMetadata.right) {
+        pointNum += chunkMetadata.getNumOfPoints();
+      }
+    }
+    return pointNum;
+  }
+
+  /**
+   * Compact one series into a memory buffer by the sub task pool, or into the target file in the
+   * current thread if a target writer is given.
+   */
+  private class SeriesCompactionSubTask implements Callable<Void> {
+
+    private final SingleSeriesCompactionExecutor executor;
+    private final ChunkBufferWriter bufferWriter;
+    private Future<Void> future;
+
+    private SeriesCompactionSubTask(
+        PartialPath series,
+        LinkedList<Pair<TsFileSequenceReader, List<ChunkMetadata>>> readerAndChunkMetadataList,
+        TsFileIOWriter targetWriter) {
+      this.bufferWriter = targetWriter == null ? new ChunkBufferWriter() : null;
+      this.executor =
+          new SingleSeriesCompactionExecutor(
+              series,
+              readerAndChunkMetadataList,
+              targetWriter == null ? bufferWriter : targetWriter,
+              targetResource);
+    }
+
+    @Override
+    public Void call() throws IOException {
+      executor.executeWithoutUpdatingResource();
+      return null;
+    }
+
+    private void submit() throws IOException {
+      future = CompactionTaskManager.getInstance().submitSubTask(this);
+      if (future == null) {
+        // the sub task pool has been shut down, compact the series in the current thread
+        call();
+      }
+    }
+
+    /**
+     * Wait for the sub task to finish, append its buffered chunks to the target file and merge the
+     * time range of the series into the given one.
+     */
+    private void writeTo(TsFileIOWriter targetWriter, long[] timeRange)
+        throws IOException, InterruptedException {
+      if (bufferWriter == null) {
+        call();
+      } else {
+        if (future != null) {
+          try {
+            future.get();
+          } catch (ExecutionException e) {
+            LOGGER.error("[Compaction] SubCompactionTask meet errors ", e);
+            throw new IOException(e);
+          }
+        }
+        bufferWriter.writeTo(targetWriter);
+        bufferWriter.close();
+      }
+      timeRange[0] = Math.min(timeRange[0], executor.getMinStartTimestamp());
+      timeRange[1] = Math.max(timeRange[1], executor.getMaxEndTimestamp());
+    }
+
+    private void cancel() {
+      if (future != null) {
+        future.cancel(true);
+      }
+      if (bufferWriter != null) {
+        bufferWriter.close();
+      }
+    }
+  }
+
   @Override
   public void setSourceFiles(List<TsFileResource> seqFiles) {
     this.seqFiles = seqFiles;
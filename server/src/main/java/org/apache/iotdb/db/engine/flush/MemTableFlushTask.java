@@ -20,6 +20,7 @@ package org.apache.iotdb.db.engine.flush;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.flush.pool.FlushEncodingTaskPoolManager;
 import org.apache.iotdb.db.engine.flush.pool.FlushSubTaskPoolManager;
 import org.apache.iotdb.db.engine.memtable.IMemTable;
 import org.apache.iotdb.db.engine.memtable.IWritableMemChunk;
@@ -43,16 +44,24 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
  * encoding -> write to disk (io task)
+ *
+ * <p>When concurrent_flush_encoding_thread is larger than 1, the encoding task only dispatches the
+ * series to the shared encoding pool and hands their futures to the io task in the original order,
+ * so that chunk groups are still written in a deterministic order and the bounded ioTaskQueue still
+ * limits how many encoded chunks are waiting in memory.
  */
 public class MemTableFlushTask {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(MemTableFlushTask.class);
   private static final FlushSubTaskPoolManager SUB_TASK_POOL_MANAGER =
       FlushSubTaskPoolManager.getInstance();
+  private static final FlushEncodingTaskPoolManager ENCODING_TASK_POOL_MANAGER =
+      FlushEncodingTaskPoolManager.getInstance();
   private static IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
   private final Future<?> encodingTaskFuture;
   private final Future<?> ioTaskFuture;
@@ -68,7 +77,9 @@ public class MemTableFlushTask {
 
   private IMemTable memTable;
 
-  private volatile long memSerializeTime = 0L;
+  private final int encodingParallelism = config.getConcurrentFlushEncodingThread();
+
+  private final AtomicLong memSerializeTime = new AtomicLong(0L);
   private volatile long ioTime = 0L;
 
   /**
@@ -120,13 +131,16 @@ public class MemTableFlushTask {
 
       final Map<String, IWritableMemChunk> value = memTableEntry.getValue().getMemChunkMap();
       for (Map.Entry<String, IWritableMemChunk> iWritableMemChunkEntry : value.entrySet()) {
-        long startTime = System.currentTimeMillis();
         IWritableMemChunk series = iWritableMemChunkEntry.getValue();
-        /*
-         * sort task (first task of flush pipeline)
-         */
-        series.sortTvListForFlush();
-        sortTime += System.currentTimeMillis() - startTime;
+        if (encodingParallelism <= 1) {
+          long startTime = System.currentTimeMillis();
+          /*
+           * sort task (first task of flush pipeline)
+           */
+          series.sortTvListForFlush();
+          sortTime += System.currentTimeMillis() - startTime;
+        }
+        // in parallel mode the series is sorted by the encoding worker
         encodingTaskQueue.put(series);
       }
 
@@ -158,7 +172,9 @@ public class MemTableFlushTask {
       if (estimatedTemporaryMemSize != 0) {
         SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
       }
-      SystemInfo.getInstance().setEncodingFasterThanIo(ioTime >= memSerializeTime);
+      // encoding time is summed over all workers, so scale it back to elapsed time
+      SystemInfo.getInstance()
+          .setEncodingFasterThanIo(ioTime >= memSerializeTime.get() / encodingParallelism);
     }
 
     MetricService.getInstance()
@@ -215,19 +231,21 @@ public class MemTableFlushTask {
             } else if (task instanceof TaskEnd) {
               break;
             } else {
-              long starTime = System.currentTimeMillis();
               IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
-              IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
-              writableMemChunk.encode(seriesWriter);
-              seriesWriter.sealCurrentPage();
-              seriesWriter.clearPageWriter();
+              Object encodedTask =
+                  encodingParallelism <= 1
+                      ? encodeSeries(writableMemChunk)
+                      : ENCODING_TASK_POOL_MANAGER.submit(
+                          () -> {
+                            writableMemChunk.sortTvListForFlush();
+                            return encodeSeries(writableMemChunk);
+                          });
               try {
-                ioTaskQueue.put(seriesWriter);
+                ioTaskQueue.put(encodedTask);
               } catch (InterruptedException e) {
                 LOGGER.error("Put task into ioTaskQueue Interrupted");
                 Thread.currentThread().interrupt();
               }
-              memSerializeTime += System.currentTimeMillis() - starTime;
             }
           }
           try {
@@ -241,10 +259,20 @@ public class MemTableFlushTask {
               "Storage group {}, flushing memtable {} into disk: Encoding data cost " + "{} ms.",
               storageGroup,
               writer.getFile().getName(),
-              memSerializeTime);
+              memSerializeTime.get());
         }
       };
 
+  private IChunkWriter encodeSeries(IWritableMemChunk writableMemChunk) {
+    long starTime = System.currentTimeMillis();
+    IChunkWriter seriesWriter = writableMemChunk.createIChunkWriter();
+    writableMemChunk.encode(seriesWriter);
+    seriesWriter.sealCurrentPage();
+    seriesWriter.clearPageWriter();
+    memSerializeTime.addAndGet(System.currentTimeMillis() - starTime);
+    return seriesWriter;
+  }
+
   /** io task (third task of pipeline) */
   @SuppressWarnings("squid:S135")
   private Runnable ioTask =
@@ -262,6 +290,10 @@ public class MemTableFlushTask {
             Thread.currentThread().interrupt();
             break;
           }
+          if (ioMessage instanceof Future) {
+            // wait for the series dispatched to the encoding pool, in their original order
+            ioMessage = getEncodedSeries((Future<?>) ioMessage);
+          }
           long starTime = System.currentTimeMillis();
           try {
             if (ioMessage instanceof StartFlushGroupIOTask) {
@@ -289,6 +321,19 @@ public class MemTableFlushTask {
             ioTime);
       };
 
+  private IChunkWriter getEncodedSeries(Future<?> encodingFuture) {
+    try {
+      return (IChunkWriter) encodingFuture.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new FlushRunTimeException(e);
+    } catch (ExecutionException e) {
+      LOGGER.error(
+          "Storage group {} memtable {}, encoding task meets error.", storageGroup, memTable, e);
+      throw new FlushRunTimeException(e);
+    }
+  }
+
   static class TaskEnd {
 
     TaskEnd() {}
@@ -21,11 +21,13 @@ package org.apache.iotdb.db.engine.memtable;
 import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.chunk.IChunkWriter;
 import org.apache.iotdb.tsfile.write.schema.IMeasurementSchema;
 
+import java.io.Serializable;
 import java.util.List;
 
 public interface IWritableMemChunk extends WALEntryValue {
@@ -112,6 +114,15 @@ public interface IWritableMemChunk extends WALEntryValue {
    */
   TVList getSortedTvListForQuery(List<IMeasurementSchema> schemaList);
 
+  /**
+   * served for query requests along with {@link #getSortedTvListForQuery()}.
+   *
+   * @return statistics of each block of points in time order, or null if they are not maintained
+   */
+  default List<Statistics<? extends Serializable>> getBlockStatisticsForQuery() {
+    return null;
+  }
+
   /**
    * served for flush requests. The logic is just same as getSortedTVListForQuery, but without add
    * reference count
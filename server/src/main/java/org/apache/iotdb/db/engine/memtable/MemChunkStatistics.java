@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.memtable;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistics of the points in a {@link WritableMemChunk}, maintained on insertion for each block of
+ * {@link #BLOCK_SIZE} points, so that a query can skip the unsealed data by statistics just like
+ * sealed pages.
+ *
+ * <p>The blocks are in insertion order, so they only describe the sorted TVList while the points
+ * are inserted in strictly ascending time order. Each update returns false once the order is
+ * broken, and the owner should drop the statistics then.
+ */
+public class MemChunkStatistics {
+
+  public static final int BLOCK_SIZE =
+      IoTDBDescriptor.getInstance().getConfig().getMemChunkStatisticsBlockSize();
+
+  private final TSDataType dataType;
+  private final List<Statistics<? extends Serializable>> blocks = new ArrayList<>();
+  private Statistics<? extends Serializable> lastBlock;
+  private long lastTime = Long.MIN_VALUE;
+
+  public MemChunkStatistics(TSDataType dataType) {
+    this.dataType = dataType;
+  }
+
+  /**
+   * Float values are rounded when encoded by RLE or TS_2DIFF, so the statistics of the inserted
+   * values are different from those of the queried values.
+   */
+  public static boolean isSupported(TSDataType dataType, TSEncoding encoding) {
+    if (BLOCK_SIZE <= 0) {
+      return false;
+    }
+    if (dataType == TSDataType.FLOAT || dataType == TSDataType.DOUBLE) {
+      return encoding != TSEncoding.RLE && encoding != TSEncoding.TS_2DIFF;
+    }
+    return true;
+  }
+
+  /** @return statistics of the block the point belongs to, or null if the order is broken */
+  private Statistics<? extends Serializable> nextPoint(long time) {
+    if (!blocks.isEmpty() && time <= lastTime) {
+      return null;
+    }
+    lastTime = time;
+    if (lastBlock == null || lastBlock.getCount() == BLOCK_SIZE) {
+      lastBlock = Statistics.getStatsByType(dataType);
+      blocks.add(lastBlock);
+    }
+    return lastBlock;
+  }
+
+  public boolean update(long time, boolean value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  public boolean update(long time, int value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  public boolean update(long time, long value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  public boolean update(long time, float value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  public boolean update(long time, double value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  public boolean update(long time, Binary value) {
+    Statistics<? extends Serializable> block = nextPoint(time);
+    if (block == null) {
+      return false;
+    }
+    block.update(time, value);
+    return true;
+  }
+
+  // the null values marked in bitMap are dropped by the TVList, so they are skipped here as well
+
+  public boolean update(long[] times, boolean[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean update(long[] times, int[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean update(long[] times, long[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean update(long[] times, float[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean update(long[] times, double[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public boolean update(long[] times, Binary[] values, BitMap bitMap, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if ((bitMap == null || !bitMap.isMarked(i)) && !update(times[i], values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The full blocks are never updated again and are shared, while the last block is copied.
+   *
+   * @return statistics of the blocks in time order
+   */
+  public List<Statistics<? extends Serializable>> getBlockStatisticsForQuery() {
+    List<Statistics<? extends Serializable>> snapshot = new ArrayList<>(blocks);
+    if (lastBlock != null && lastBlock.getCount() < BLOCK_SIZE) {
+      Statistics<? extends Serializable> copy = Statistics.getStatsByType(dataType);
+      copy.mergeStatistics(lastBlock);
+      snapshot.set(snapshot.size() - 1, copy);
+    }
+    return snapshot;
+  }
+}
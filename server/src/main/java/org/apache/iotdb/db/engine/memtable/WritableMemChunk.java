@@ -22,6 +22,7 @@ import org.apache.iotdb.db.utils.datastructure.TVList;
 import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.BitMap;
 import org.apache.iotdb.tsfile.write.chunk.ChunkWriterImpl;
@@ -34,6 +35,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.List;
 
@@ -41,12 +43,17 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   private IMeasurementSchema schema;
   private TVList list;
+  // null if not supported, or the points are not inserted in ascending time order
+  private MemChunkStatistics statistics;
   private static final String UNSUPPORTED_TYPE = "Unsupported data type:";
   private static final Logger LOGGER = LoggerFactory.getLogger(WritableMemChunk.class);
 
   public WritableMemChunk(IMeasurementSchema schema) {
     this.schema = schema;
     this.list = TVList.newList(schema.getType());
+    if (MemChunkStatistics.isSupported(schema.getType(), schema.getEncodingType())) {
+      this.statistics = new MemChunkStatistics(schema.getType());
+    }
   }
 
   private WritableMemChunk() {}
@@ -129,31 +136,49 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void putLong(long t, long v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putLong(t, v);
   }
 
   @Override
   public void putInt(long t, int v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putInt(t, v);
   }
 
   @Override
   public void putFloat(long t, float v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putFloat(t, v);
   }
 
   @Override
   public void putDouble(long t, double v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putDouble(t, v);
   }
 
   @Override
   public void putBinary(long t, Binary v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putBinary(t, v);
   }
 
   @Override
   public void putBoolean(long t, boolean v) {
+    if (statistics != null && !statistics.update(t, v)) {
+      statistics = null;
+    }
     list.putBoolean(t, v);
   }
 
@@ -164,31 +189,55 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public void putLongs(long[] t, long[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putLongs(t, v, bitMap, start, end);
   }
 
   @Override
   public void putInts(long[] t, int[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putInts(t, v, bitMap, start, end);
   }
 
   @Override
   public void putFloats(long[] t, float[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putFloats(t, v, bitMap, start, end);
   }
 
   @Override
   public void putDoubles(long[] t, double[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putDoubles(t, v, bitMap, start, end);
   }
 
   @Override
   public void putBinaries(long[] t, Binary[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putBinaries(t, v, bitMap, start, end);
   }
 
   @Override
   public void putBooleans(long[] t, boolean[] v, BitMap bitMap, int start, int end) {
+    // before the TVList, which compacts the values to drop nulls
+    if (statistics != null && !statistics.update(t, v, bitMap, start, end)) {
+      statistics = null;
+    }
     list.putBooleans(t, v, bitMap, start, end);
   }
 
@@ -206,6 +255,11 @@ public class WritableMemChunk implements IWritableMemChunk {
     return list;
   }
 
+  @Override
+  public synchronized List<Statistics<? extends Serializable>> getBlockStatisticsForQuery() {
+    return statistics == null ? null : statistics.getBlockStatisticsForQuery();
+  }
+
   @Override
   public synchronized TVList getSortedTvListForQuery(List<IMeasurementSchema> measurementSchema) {
     throw new UnSupportedDataTypeException(UNSUPPORTED_TYPE + list.getDataType());
@@ -267,7 +321,11 @@ public class WritableMemChunk implements IWritableMemChunk {
 
   @Override
   public int delete(long lowerBound, long upperBound) {
-    return list.delete(lowerBound, upperBound);
+    int deletedNum = list.delete(lowerBound, upperBound);
+    if (deletedNum > 0) {
+      statistics = null;
+    }
+    return deletedNum;
   }
 
   @Override
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A static interval tree over the deletions of a timeseries. The deletions are sorted by their
+ * start times and form an implicit balanced binary tree, in which every node keeps the max end time
+ * of its subtree. So the deletions overlapping a time range are found in O(log n + k) instead of
+ * checking all the n deletions.
+ */
+public class DeletionIntervalIndex {
+
+  private final Deletion[] deletions;
+  /** the max end time of the subtree whose root is at the same index in deletions */
+  private final long[] maxEndTimes;
+
+  public DeletionIntervalIndex(Collection<Modification> modifications) {
+    List<Deletion> deletionList = new ArrayList<>(modifications.size());
+    for (Modification modification : modifications) {
+      if (modification instanceof Deletion) {
+        deletionList.add((Deletion) modification);
+      }
+    }
+    deletionList.sort(Comparator.comparingLong(Deletion::getStartTime));
+    deletions = deletionList.toArray(new Deletion[0]);
+    maxEndTimes = new long[deletions.length];
+    buildMaxEndTimes(0, deletions.length - 1);
+  }
+
+  private long buildMaxEndTimes(int low, int high) {
+    if (low > high) {
+      return Long.MIN_VALUE;
+    }
+    int mid = (low + high) >>> 1;
+    long maxEndTime =
+        Math.max(
+            deletions[mid].getEndTime(),
+            Math.max(buildMaxEndTimes(low, mid - 1), buildMaxEndTimes(mid + 1, high)));
+    maxEndTimes[mid] = maxEndTime;
+    return maxEndTime;
+  }
+
+  public boolean isEmpty() {
+    return deletions.length == 0;
+  }
+
+  /** Apply the action to every deletion that overlaps [startTime, endTime]. */
+  public void forEachOverlapping(long startTime, long endTime, Consumer<Deletion> action) {
+    forEachOverlapping(0, deletions.length - 1, startTime, endTime, action);
+  }
+
+  private void forEachOverlapping(
+      int low, int high, long startTime, long endTime, Consumer<Deletion> action) {
+    if (low > high) {
+      return;
+    }
+    int mid = (low + high) >>> 1;
+    if (maxEndTimes[mid] < startTime) {
+      // every deletion in this subtree ends before the range
+      return;
+    }
+    forEachOverlapping(low, mid - 1, startTime, endTime, action);
+    if (deletions[mid].getStartTime() <= endTime) {
+      if (deletions[mid].getEndTime() >= startTime) {
+        action.accept(deletions[mid]);
+      }
+      // the deletions on the right start later, so they are skipped if this one starts too late
+      forEachOverlapping(mid + 1, high, startTime, endTime, action);
+    }
+  }
+
+  /** Apply the action to all the deletions. */
+  public void forEach(Consumer<Deletion> action) {
+    for (Deletion deletion : deletions) {
+      action.accept(deletion);
+    }
+  }
+}
@@ -19,6 +19,9 @@
 
 package org.apache.iotdb.db.engine.modification;
 
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.modification.io.LocalBinaryModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
 import org.apache.iotdb.db.engine.modification.io.ModificationReader;
 import org.apache.iotdb.db.engine.modification.io.ModificationWriter;
@@ -33,7 +36,9 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -42,15 +47,36 @@ import java.util.Random;
 /**
  * ModificationFile stores the Modifications of a TsFile or unseq file in another file in the same
  * directory. Methods in this class are highly synchronized for concurrency safety.
+ *
+ * <p>Mods files in both the text format and the binary format of {@link
+ * LocalBinaryModificationAccessor} can be read. New mods files are written in the binary format
+ * only if enable_binary_mods_file is on, in which case a mods file in the text format is converted
+ * before a modification is written to it. Otherwise, modifications are appended in the format of
+ * the existing file, which is the text format for a new file.
  */
 public class ModificationFile implements AutoCloseable {
 
   private static final Logger logger = LoggerFactory.getLogger(ModificationFile.class);
   public static final String FILE_SUFFIX = ".mods";
   public static final String COMPACTION_FILE_SUFFIX = ".compaction.mods";
+  private static final String CONVERTING_FILE_SUFFIX = ".converting";
+
+  // different ModificationFiles of the same path convert the file under the same lock
+  private static final Object[] CONVERSION_LOCKS = new Object[64];
+
+  static {
+    for (int i = 0; i < CONVERSION_LOCKS.length; i++) {
+      CONVERSION_LOCKS[i] = new Object();
+    }
+  }
 
   // lazy loaded, set null when closed
   private List<Modification> modifications;
+  private ModificationIndex modificationIndex;
+  // the length of the file when the modifications are loaded, used to find out whether the file
+  // has been changed through other ModificationFiles
+  private long loadedFileLength = -1;
+  // lazy opened according to the format of the file, set null when closed
   private ModificationWriter writer;
   private ModificationReader reader;
   private String filePath;
@@ -62,38 +88,97 @@ public class ModificationFile implements AutoCloseable {
    * @param filePath the path of the storage file.
    */
   public ModificationFile(String filePath) {
-    LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(filePath);
-    this.writer = accessor;
-    this.reader = accessor;
+    // reads both the text format and the binary format
+    this.reader = new LocalBinaryModificationAccessor(filePath);
     this.filePath = filePath;
   }
 
   private void init() {
     synchronized (this) {
       modifications = (List<Modification>) reader.read();
+      modificationIndex = new ModificationIndex(modifications);
+      loadedFileLength = getFileLength();
     }
   }
 
   private void checkInit() {
-    if (modifications == null) {
+    if (modifications == null || loadedFileLength != getFileLength()) {
       init();
     }
   }
 
+  private long getFileLength() {
+    File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+    return file.exists() ? file.length() : 0;
+  }
+
+  private ModificationWriter getWriter() throws IOException {
+    if (writer == null) {
+      File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+      if (IoTDBDescriptor.getInstance().getConfig().isEnableBinaryModsFile()) {
+        convertToBinaryIfNecessary(file);
+        writer = new LocalBinaryModificationAccessor(filePath);
+      } else if (file.length() > 0 && LocalBinaryModificationAccessor.isBinaryFormat(file)) {
+        writer = new LocalBinaryModificationAccessor(filePath);
+      } else {
+        writer = new LocalTextModificationAccessor(filePath);
+      }
+    }
+    return writer;
+  }
+
+  /** Convert the file into the binary format if it is written in the text format. */
+  private void convertToBinaryIfNecessary(File file) throws IOException {
+    synchronized (CONVERSION_LOCKS[Math.floorMod(filePath.hashCode(), CONVERSION_LOCKS.length)]) {
+      if (LocalBinaryModificationAccessor.isBinaryFormat(file)) {
+        return;
+      }
+      Collection<Modification> textModifications =
+          new LocalTextModificationAccessor(filePath).read();
+      File directory = file.getAbsoluteFile().getParentFile();
+      Path convertingFile =
+          Files.createTempFile(directory.toPath(), file.getName(), CONVERTING_FILE_SUFFIX);
+      try {
+        LocalBinaryModificationAccessor.writeAll(convertingFile.toFile(), textModifications);
+        Files.move(
+            convertingFile,
+            file.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(convertingFile);
+      }
+      logger.info(
+          "Converted {} modifications in {} into the binary format",
+          textModifications.size(),
+          filePath);
+    }
+  }
+
   /** Release resources such as streams and caches. */
   @Override
   public void close() throws IOException {
     synchronized (this) {
-      writer.close();
+      if (writer != null) {
+        writer.close();
+        writer = null;
+      }
       modifications = null;
+      modificationIndex = null;
     }
   }
 
   public void abort() throws IOException {
     synchronized (this) {
-      writer.abort();
-      if (modifications != null && !modifications.isEmpty()) {
-        modifications.remove(modifications.size() - 1);
+      boolean cacheValid = modifications != null && loadedFileLength == getFileLength();
+      getWriter().abort();
+      if (cacheValid && !modifications.isEmpty()) {
+        Modification aborted = modifications.remove(modifications.size() - 1);
+        modificationIndex.remove(aborted);
+        loadedFileLength = getFileLength();
+      } else {
+        modifications = null;
+        modificationIndex = null;
       }
     }
   }
@@ -107,9 +192,17 @@ public class ModificationFile implements AutoCloseable {
    */
   public void write(Modification mod) throws IOException {
     synchronized (this) {
-      writer.write(mod);
-      if (modifications != null) {
+      ModificationWriter modificationWriter = getWriter();
+      // the cache can only be kept if it is up to date before this write
+      boolean cacheValid = modifications != null && loadedFileLength == getFileLength();
+      modificationWriter.write(mod);
+      if (cacheValid) {
         modifications.add(mod);
+        modificationIndex.add(mod);
+        loadedFileLength = getFileLength();
+      } else {
+        modifications = null;
+        modificationIndex = null;
       }
     }
   }
@@ -126,6 +219,19 @@ public class ModificationFile implements AutoCloseable {
     }
   }
 
+  /**
+   * Get the modifications whose paths match a timeseries, without scanning all the modifications.
+   *
+   * @param path the full path of a timeseries.
+   * @return an ArrayList of modifications.
+   */
+  public List<Modification> getModifications(PartialPath path) {
+    synchronized (this) {
+      checkInit();
+      return modificationIndex.getModifications(path);
+    }
+  }
+
   public String getFilePath() {
     return filePath;
   }
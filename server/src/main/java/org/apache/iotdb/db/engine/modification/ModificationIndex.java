@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.path.PartialPath;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.ONE_LEVEL_PATH_WILDCARD;
+
+/**
+ * ModificationIndex groups the modifications of a mods file by their paths. The modifications of a
+ * plain path are found by a hash lookup, and only the path patterns with wildcards have to be
+ * matched one by one. It is not thread-safe.
+ */
+public class ModificationIndex {
+
+  /** the key is the nodes of a path without wildcards */
+  private final Map<List<String>, List<Modification>> plainPathModifications = new HashMap<>();
+  /** the key is the full path of a pattern */
+  private final Map<String, List<Modification>> patternModifications = new LinkedHashMap<>();
+
+  public ModificationIndex(Collection<Modification> modifications) {
+    modifications.forEach(this::add);
+  }
+
+  public void add(Modification modification) {
+    getModificationList(modification.getPath()).add(modification);
+  }
+
+  /** Remove a modification added before, it is used when the last modification is aborted. */
+  public void remove(Modification modification) {
+    List<Modification> modifications = getModificationList(modification.getPath());
+    // the aborted modification is usually the last one
+    for (int i = modifications.size() - 1; i >= 0; i--) {
+      if (modifications.get(i) == modification) {
+        modifications.remove(i);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Get the modifications whose paths match a timeseries.
+   *
+   * @param path the full path of a timeseries
+   * @return the matched modifications
+   */
+  public List<Modification> getModifications(PartialPath path) {
+    List<Modification> result = new ArrayList<>();
+    List<Modification> plainModifications =
+        plainPathModifications.get(Arrays.asList(path.getNodes()));
+    if (plainModifications != null) {
+      result.addAll(plainModifications);
+    }
+    for (List<Modification> modifications : patternModifications.values()) {
+      if (!modifications.isEmpty() && modifications.get(0).getPath().matchFullPath(path)) {
+        result.addAll(modifications);
+      }
+    }
+    return result;
+  }
+
+  private List<Modification> getModificationList(PartialPath path) {
+    if (hasWildcard(path)) {
+      return patternModifications.computeIfAbsent(path.getFullPath(), k -> new ArrayList<>());
+    }
+    return plainPathModifications.computeIfAbsent(
+        Arrays.asList(path.getNodes()), k -> new ArrayList<>());
+  }
+
+  private static boolean hasWildcard(PartialPath path) {
+    for (String node : path.getNodes()) {
+      if (node.contains(ONE_LEVEL_PATH_WILDCARD)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification.io;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+import org.apache.iotdb.tsfile.fileSystem.FSFactoryProducer;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.utils.ReadWriteIOUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * LocalBinaryModificationAccessor stores modifications in a binary file. The file starts with
+ * {@link #MAGIC_STRING}, followed by records of [int length][byte record type][record body], and an
+ * aborted modification is marked by a record without body. A file written in the text format is
+ * read by {@link LocalTextModificationAccessor}.
+ */
+public class LocalBinaryModificationAccessor
+    implements ModificationReader, ModificationWriter, AutoCloseable {
+
+  private static final Logger logger =
+      LoggerFactory.getLogger(LocalBinaryModificationAccessor.class);
+
+  /** begins with a byte that can never begin a text mods file, the last byte is the version */
+  private static final byte[] MAGIC_STRING = new byte[] {0, 'M', 'O', 'D', 'S', 1};
+
+  private static final byte DELETION_RECORD = 0;
+  private static final byte ABORT_RECORD = 1;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final String filePath;
+  private DataOutputStream writer;
+
+  /**
+   * Construct a LocalBinaryModificationAccessor using a file specified by filePath.
+   *
+   * @param filePath the path of the file that is used for storing modifications.
+   */
+  public LocalBinaryModificationAccessor(String filePath) {
+    this.filePath = filePath;
+  }
+
+  /** @return true if the file does not exist, is empty or is written in the binary format */
+  public static boolean isBinaryFormat(File file) throws IOException {
+    if (!file.exists() || file.length() == 0) {
+      return true;
+    }
+    if (file.length() < MAGIC_STRING.length) {
+      return false;
+    }
+    byte[] head = new byte[MAGIC_STRING.length];
+    try (DataInputStream inputStream = new DataInputStream(new FileInputStream(file))) {
+      inputStream.readFully(head);
+    }
+    return Arrays.equals(head, MAGIC_STRING);
+  }
+
+  @Override
+  public Collection<Modification> read() {
+    File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+    if (!file.exists() || file.length() == 0) {
+      logger.debug("No modification has been written to this file");
+      return new ArrayList<>();
+    }
+    // never truncate a mods file written in the text format as a crashed binary file
+    try {
+      if (!isBinaryFormat(file)) {
+        return new LocalTextModificationAccessor(filePath).read();
+      }
+    } catch (IOException e) {
+      logger.error("Cannot read the format of modification file {}", filePath, e);
+      return new ArrayList<>();
+    }
+
+    long truncatedSize = MAGIC_STRING.length;
+    boolean crashed = false;
+    List<Modification> modificationList = new ArrayList<>();
+    try (DataInputStream inputStream =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+      byte[] head = new byte[MAGIC_STRING.length];
+      inputStream.readFully(head);
+      if (!Arrays.equals(head, MAGIC_STRING)) {
+        throw new IOException("Not a binary modification file: " + filePath);
+      }
+      byte[] record = new byte[0];
+      int length;
+      while ((length = readRecordLength(inputStream)) >= 0) {
+        if (record.length < length) {
+          record = new byte[length];
+        }
+        inputStream.readFully(record, 0, length);
+        Modification modification;
+        try {
+          modification = decodeRecord(ByteBuffer.wrap(record, 0, length));
+        } catch (BufferUnderflowException e) {
+          throw new IOException("Incomplete modification record", e);
+        }
+        if (modification == null) {
+          if (!modificationList.isEmpty()) {
+            modificationList.remove(modificationList.size() - 1);
+          }
+        } else {
+          modificationList.add(modification);
+        }
+        truncatedSize += Integer.BYTES + length;
+      }
+    } catch (IOException e) {
+      crashed = true;
+      logger.error(
+          "An error occurred when reading modifications, and the remaining modifications will be truncated to size {}.",
+          truncatedSize,
+          e);
+    }
+
+    if (crashed) {
+      try (FileOutputStream outputStream = new FileOutputStream(file, true)) {
+        outputStream.getChannel().truncate(truncatedSize);
+      } catch (FileNotFoundException e) {
+        logger.debug("No modification has been written to this file");
+      } catch (IOException e) {
+        logger.error(
+            "An error occurred when truncating modifications to size {}.", truncatedSize, e);
+      }
+    }
+    return modificationList;
+  }
+
+  /**
+   * Write the modifications into a new binary file, the file is replaced if it exists.
+   *
+   * @param file the file to be written.
+   * @param modifications modifications to be written in order.
+   */
+  public static void writeAll(File file, Collection<Modification> modifications)
+      throws IOException {
+    try (FileOutputStream fileOutputStream = new FileOutputStream(file, false);
+        DataOutputStream outputStream =
+            new DataOutputStream(new BufferedOutputStream(fileOutputStream, BUFFER_SIZE))) {
+      outputStream.write(MAGIC_STRING);
+      for (Modification modification : modifications) {
+        writeRecord(outputStream, modification);
+      }
+      outputStream.flush();
+      fileOutputStream.getFD().sync();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  @Override
+  public void abort() throws IOException {
+    openWriter();
+    writer.writeInt(Byte.BYTES);
+    writer.writeByte(ABORT_RECORD);
+    writer.flush();
+  }
+
+  @Override
+  public void write(Modification mod) throws IOException {
+    openWriter();
+    writeRecord(writer, mod);
+    writer.flush();
+  }
+
+  private void openWriter() throws IOException {
+    if (writer == null) {
+      File file = FSFactoryProducer.getFSFactory().getFile(filePath);
+      boolean isNewFile = !file.exists() || file.length() == 0;
+      writer = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+      if (isNewFile) {
+        writer.write(MAGIC_STRING);
+      }
+    }
+  }
+
+  /** Encode the whole record first so that a record is never half written into the buffer. */
+  private static void writeRecord(OutputStream outputStream, Modification mod) throws IOException {
+    if (!(mod instanceof Deletion)) {
+      throw new IOException("Unknown modification type: " + mod.getType());
+    }
+    Deletion deletion = (Deletion) mod;
+    PublicBAOS byteArrayOutputStream = new PublicBAOS();
+    DataOutputStream recordStream = new DataOutputStream(byteArrayOutputStream);
+    recordStream.writeByte(DELETION_RECORD);
+    recordStream.writeLong(deletion.getFileOffset());
+    recordStream.writeLong(deletion.getStartTime());
+    recordStream.writeLong(deletion.getEndTime());
+    ReadWriteIOUtils.write(deletion.getPathString(), recordStream);
+    recordStream.flush();
+
+    ReadWriteIOUtils.write(byteArrayOutputStream.size(), outputStream);
+    outputStream.write(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+  }
+
+  /** @return -1 if the end of the file is reached right before a record */
+  private static int readRecordLength(InputStream inputStream) throws IOException {
+    int ch1 = inputStream.read();
+    if (ch1 < 0) {
+      return -1;
+    }
+    int ch2 = inputStream.read();
+    int ch3 = inputStream.read();
+    int ch4 = inputStream.read();
+    if ((ch2 | ch3 | ch4) < 0) {
+      throw new EOFException("Incomplete record length");
+    }
+    int length = (ch1 << 24) + (ch2 << 16) + (ch3 << 8) + ch4;
+    if (length <= 0) {
+      throw new IOException("Invalid record length: " + length);
+    }
+    return length;
+  }
+
+  /** @return null if it is an abort record */
+  private static Modification decodeRecord(ByteBuffer buffer) throws IOException {
+    byte recordType = buffer.get();
+    switch (recordType) {
+      case ABORT_RECORD:
+        return null;
+      case DELETION_RECORD:
+        long fileOffset = buffer.getLong();
+        long startTime = buffer.getLong();
+        long endTime = buffer.getLong();
+        String path = ReadWriteIOUtils.readString(buffer);
+        try {
+          return new Deletion(new PartialPath(path), fileOffset, startTime, endTime);
+        } catch (IllegalPathException e) {
+          throw new IOException("Invalid series path: " + path);
+        }
+      default:
+        throw new IOException("Unknown modification record type: " + recordType);
+    }
+  }
+}
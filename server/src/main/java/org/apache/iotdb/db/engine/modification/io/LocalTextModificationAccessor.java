@@ -42,7 +42,8 @@ import java.util.List;
 
 /**
  * LocalTextModificationAccessor uses a file on local file system to store the modifications in text
- * format, and writes modifications by appending to the tail of the file.
+ * format, and writes modifications by appending to the tail of the file. A file written in the
+ * binary format is read by {@link LocalBinaryModificationAccessor}.
  */
 public class LocalTextModificationAccessor
     implements ModificationReader, ModificationWriter, AutoCloseable {
@@ -70,6 +71,15 @@ public class LocalTextModificationAccessor
       logger.debug("No modification has been written to this file");
       return new ArrayList<>();
     }
+    // never truncate a mods file written in the binary format as a crashed text file
+    try {
+      if (file.length() > 0 && LocalBinaryModificationAccessor.isBinaryFormat(file)) {
+        return new LocalBinaryModificationAccessor(filePath).read();
+      }
+    } catch (IOException e) {
+      logger.error("Cannot read the format of modification file {}", filePath, e);
+      return new ArrayList<>();
+    }
 
     String line;
     long truncatedSize = 0;
@@ -18,6 +18,7 @@
  */
 package org.apache.iotdb.db.engine.querycontext;
 
+import org.apache.iotdb.db.engine.memtable.MemChunkStatistics;
 import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.query.reader.chunk.MemChunkLoader;
 import org.apache.iotdb.db.utils.datastructure.TVList;
@@ -36,6 +37,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 
@@ -55,6 +57,9 @@ public class ReadOnlyMemChunk {
 
   protected TsBlock tsBlock;
 
+  // statistics of each page in the tsBlock, null if the tsBlock is read as one page
+  protected List<Statistics<? extends Serializable>> pageStatisticsList;
+
   protected ReadOnlyMemChunk() {}
 
   public ReadOnlyMemChunk(
@@ -65,6 +70,22 @@ public class ReadOnlyMemChunk {
       Map<String, String> props,
       List<TimeRange> deletionList)
       throws IOException, QueryProcessException {
+    this(measurementUid, dataType, encoding, tvList, props, deletionList, null);
+  }
+
+  /**
+   * @param blockStatistics statistics maintained on insertion of each block of points in tvList,
+   *     see {@link MemChunkStatistics}
+   */
+  public ReadOnlyMemChunk(
+      String measurementUid,
+      TSDataType dataType,
+      TSEncoding encoding,
+      TVList tvList,
+      Map<String, String> props,
+      List<TimeRange> deletionList,
+      List<Statistics<? extends Serializable>> blockStatistics)
+      throws IOException, QueryProcessException {
     this.measurementUid = measurementUid;
     this.dataType = dataType;
     int floatPrecision = TSFileDescriptor.getInstance().getConfig().getFloatPrecision();
@@ -85,7 +106,43 @@ public class ReadOnlyMemChunk {
       }
     }
     this.tsBlock = tvList.buildTsBlock(floatPrecision, encoding, deletionList);
-    initChunkMetaFromTsBlock();
+    if (canUseBlockStatistics(blockStatistics, encoding)) {
+      initChunkMetaFromBlockStatistics(blockStatistics);
+    } else {
+      initChunkMetaFromTsBlock();
+    }
+  }
+
+  /**
+   * The blocks are in insertion order, and describe the tsBlock only if no point is deleted or
+   * deduplicated when building it, i.e. the numbers of points are the same.
+   */
+  private boolean canUseBlockStatistics(
+      List<Statistics<? extends Serializable>> blockStatistics, TSEncoding encoding) {
+    if (blockStatistics == null || !MemChunkStatistics.isSupported(dataType, encoding)) {
+      return false;
+    }
+    long count = 0;
+    for (Statistics<? extends Serializable> statistics : blockStatistics) {
+      count += statistics.getCount();
+    }
+    return count == tsBlock.getPositionCount();
+  }
+
+  private void initChunkMetaFromBlockStatistics(
+      List<Statistics<? extends Serializable>> blockStatistics) throws IOException {
+    Statistics statsByType = Statistics.getStatsByType(dataType);
+    IChunkMetadata metaData = new ChunkMetadata(measurementUid, dataType, 0, statsByType);
+    for (Statistics<? extends Serializable> statistics : blockStatistics) {
+      statsByType.mergeStatistics(statistics);
+    }
+    statsByType.setEmpty(isEmpty());
+    metaData.setChunkLoader(new MemChunkLoader(this));
+    metaData.setVersion(Long.MAX_VALUE);
+    cachedMetaData = metaData;
+    if (blockStatistics.size() > 1) {
+      pageStatisticsList = blockStatistics;
+    }
   }
 
   private void initChunkMetaFromTsBlock() throws IOException, QueryProcessException {
@@ -152,4 +209,9 @@ public class ReadOnlyMemChunk {
   public TsBlock getTsBlock() {
     return tsBlock;
   }
+
+  /** @return statistics of each page in the tsBlock, or null if it is read as one page */
+  public List<Statistics<? extends Serializable>> getPageStatisticsList() {
+    return pageStatisticsList;
+  }
 }
@@ -1301,18 +1301,17 @@ public class DataRegion {
     if (!IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()) {
       return;
     }
-    for (int i = 0; i < node.getColumns().length; i++) {
-      if (node.getColumns()[i] == null) {
-        continue;
-      }
-      // Update cached last value with high priority
-      DataNodeSchemaCache.getInstance()
-          .updateLastCache(
-              node.getDevicePath().concatNode(node.getMeasurements()[i]),
-              node.composeLastTimeValuePair(i),
-              true,
-              latestFlushedTime);
-    }
+    // Update cached last values with high priority
+    DataNodeSchemaCache.getInstance()
+        .updateLastCache(
+            node.getDevicePath(),
+            node.getMeasurements(),
+            i ->
+                i >= node.getColumns().length || node.getColumns()[i] == null
+                    ? null
+                    : node.composeLastTimeValuePair(i),
+            true,
+            latestFlushedTime);
   }
 
   private void insertToTsFileProcessor(
@@ -1394,18 +1393,17 @@ public class DataRegion {
     if (!IoTDBDescriptor.getInstance().getConfig().isLastCacheEnabled()) {
       return;
     }
-    for (int i = 0; i < node.getValues().length; i++) {
-      if (node.getValues()[i] == null) {
-        continue;
-      }
-      // Update cached last value with high priority
-      DataNodeSchemaCache.getInstance()
-          .updateLastCache(
-              node.getDevicePath().concatNode(node.getMeasurements()[i]),
-              node.composeTimeValuePair(i),
-              true,
-              latestFlushedTime);
-    }
+    // Update cached last values with high priority
+    DataNodeSchemaCache.getInstance()
+        .updateLastCache(
+            node.getDevicePath(),
+            node.getMeasurements(),
+            i ->
+                i >= node.getValues().length || node.getValues()[i] == null
+                    ? null
+                    : node.composeTimeValuePair(i),
+            true,
+            latestFlushedTime);
   }
 
   /**
@@ -1913,7 +1911,7 @@ public class DataRegion {
     try {
       List<TsFileResource> seqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(true),
+              tsFileManager.getTsFileListForQuery(true, singleDeviceId, timeFilter),
               upgradeSeqFileList,
               pathList,
               singleDeviceId,
@@ -1922,7 +1920,7 @@ public class DataRegion {
               true);
       List<TsFileResource> unseqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(false),
+              tsFileManager.getTsFileListForQuery(false, singleDeviceId, timeFilter),
               upgradeUnseqFileList,
               pathList,
               singleDeviceId,
@@ -1952,7 +1950,7 @@ public class DataRegion {
     try {
       List<TsFileResource> seqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(true),
+              tsFileManager.getTsFileListForQuery(true, singleDeviceId, timeFilter),
               upgradeSeqFileList,
               pathList,
               singleDeviceId,
@@ -1961,7 +1959,7 @@ public class DataRegion {
               true);
       List<TsFileResource> unseqResources =
           getFileResourceListForQuery(
-              tsFileManager.getTsFileList(false),
+              tsFileManager.getTsFileListForQuery(false, singleDeviceId, timeFilter),
               upgradeUnseqFileList,
               pathList,
               singleDeviceId,
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.engine.storagegroup;
 import org.apache.iotdb.db.exception.WriteLockFailedException;
 import org.apache.iotdb.db.rescon.TsFileResourceManager;
 import org.apache.iotdb.db.sync.sender.manager.ISyncManager;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -85,6 +86,33 @@ public class TsFileManager {
     }
   }
 
+  /**
+   * Select the files for querying a single device by the interval index of each time partition, so
+   * that the cost does not grow linearly with the number of files. The result keeps the order of
+   * {@link #getTsFileList(boolean)}, but the files still need to be checked by {@link
+   * TsFileResource#isSatisfied}.
+   *
+   * @param deviceId the queried device, all files are returned if it is null
+   * @param timeFilter null means all the time
+   */
+  public List<TsFileResource> getTsFileListForQuery(
+      boolean sequence, String deviceId, Filter timeFilter) {
+    if (deviceId == null) {
+      return getTsFileList(sequence);
+    }
+    readLock();
+    try {
+      List<TsFileResource> candidates = new ArrayList<>();
+      Map<Long, TsFileResourceList> chosenMap = sequence ? sequenceFiles : unsequenceFiles;
+      for (TsFileResourceList tsFileResourceList : chosenMap.values()) {
+        candidates.addAll(tsFileResourceList.getCandidatesForQuery(deviceId, timeFilter));
+      }
+      return candidates;
+    } finally {
+      readUnlock();
+    }
+  }
+
   public TsFileResourceList getSequenceListByTimePartition(long timePartition) {
     readLock();
     try {
@@ -90,6 +90,9 @@ public class TsFileResource {
 
   protected TsFileResource next;
 
+  /** the index of the TsFileResourceList this resource is in, used to select files for query */
+  TsFileResourceIntervalIndex intervalIndex;
+
   /** time index */
   protected ITimeIndex timeIndex;
 
@@ -318,10 +321,20 @@ public class TsFileResource {
 
   public void updateStartTime(String device, long time) {
     timeIndex.updateStartTime(device, time);
+    refreshIntervalIndexIfClosed();
   }
 
   public void updateEndTime(String device, long time) {
     timeIndex.updateEndTime(device, time);
+    refreshIntervalIndexIfClosed();
+  }
+
+  /** the time ranges of an unclosed file are not indexed, so only a closed file is refreshed */
+  private void refreshIntervalIndexIfClosed() {
+    TsFileResourceIntervalIndex index = intervalIndex;
+    if (index != null && isClosed()) {
+      index.refresh(this);
+    }
   }
 
   public boolean resourceFileExists() {
@@ -586,10 +599,17 @@ public class TsFileResource {
   public void setStatus(TsFileResourceStatus status) {
     switch (status) {
       case CLOSED:
+        boolean wasUnclosed = this.status == TsFileResourceStatus.UNCLOSED;
         this.status = TsFileResourceStatus.CLOSED;
+        if (wasUnclosed && intervalIndex != null) {
+          intervalIndex.refresh(this);
+        }
         break;
       case UNCLOSED:
         this.status = TsFileResourceStatus.UNCLOSED;
+        if (intervalIndex != null) {
+          intervalIndex.refresh(this);
+        }
         break;
       case COMPACTING:
         if (this.status == TsFileResourceStatus.COMPACTION_CANDIDATE) {
@@ -840,12 +860,17 @@ public class TsFileResource {
     }
   }
 
-  /** @return resource map size */
+  /** @return resource map size, including the entries of the file in the interval index */
   public long calculateRamSize() {
-    ramSize = timeIndex.calculateRamSize();
+    ramSize = timeIndex.calculateRamSize() + calculateIntervalIndexRamSize();
     return ramSize;
   }
 
+  private long calculateIntervalIndexRamSize() {
+    return TsFileResourceIntervalIndex.estimateRamSize(
+        timeIndex instanceof DeviceTimeIndex ? getDevices().size() : 1);
+  }
+
   public void delete() throws IOException {
     if (file.exists()) {
       Files.delete(file.toPath());
@@ -922,6 +947,7 @@ public class TsFileResource {
 
   public void setTimeIndex(ITimeIndex timeIndex) {
     this.timeIndex = timeIndex;
+    refreshIntervalIndexIfClosed();
   }
 
   // ({systemTime}-{versionNum}-{innerMergeNum}-{crossMergeNum}.tsfile)
@@ -988,7 +1014,9 @@ public class TsFileResource {
     // replace the DeviceTimeIndex with FileTimeIndex
     timeIndex = new FileTimeIndex(startTime, endTime);
     timeIndexType = 2;
-    return ramSize - timeIndex.calculateRamSize();
+    // move this file from the device interval trees to the file interval tree
+    refreshIntervalIndexIfClosed();
+    return ramSize - timeIndex.calculateRamSize() - calculateIntervalIndexRamSize();
   }
 
   private void generatePathToTimeSeriesMetadataMap() throws IOException {
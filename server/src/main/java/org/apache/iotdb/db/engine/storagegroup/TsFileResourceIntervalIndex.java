@@ -0,0 +1,458 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.engine.storagegroup;
+
+import org.apache.iotdb.db.engine.storagegroup.timeindex.DeviceTimeIndex;
+import org.apache.iotdb.tsfile.read.filter.basic.BinaryFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.operator.NotFilter;
+import org.apache.iotdb.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * An index over the TsFileResources of one {@link TsFileResourceList}, which is used to select the
+ * files of a device for query without checking every file in the list.
+ *
+ * <p>A closed file with a {@link DeviceTimeIndex} is put into one interval tree per device, keyed
+ * by the time range of the device in the file. A closed file whose time index has been degraded to
+ * a file level one is put into an interval tree keyed by the time range of the file, and an
+ * unclosed file is always selected because its time range is still growing. The selected files are
+ * only candidates and should still be checked by {@link TsFileResource#isSatisfied}.
+ *
+ * <p>Each file is given an order key which follows its position in the list, so that the selected
+ * files can be returned in the same order as the list.
+ */
+public class TsFileResourceIntervalIndex {
+
+  /** the gap between the order keys of two adjacent files appended to the list */
+  private static final long ORDER_KEY_GAP = 1L << 20;
+
+  /** a map entry with its hash, key, value and next references */
+  private static final long MAP_ENTRY_RAM_SIZE =
+      RamUsageEstimator.alignObjectSize(
+          RamUsageEstimator.NUM_BYTES_OBJECT_HEADER
+              + Integer.BYTES
+              + 3L * RamUsageEstimator.NUM_BYTES_OBJECT_REF);
+
+  /** the IndexedResource of a file and its entry in indexedResources */
+  private static final long INDEXED_RESOURCE_RAM_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(IndexedResource.class) + MAP_ENTRY_RAM_SIZE;
+
+  /** a tree node of a time range of a file, and its device reference and start time */
+  private static final long TIME_RANGE_RAM_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(IntervalTree.Node.class)
+          + RamUsageEstimator.NUM_BYTES_OBJECT_REF
+          + Long.BYTES;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private final Map<TsFileResource, IndexedResource> indexedResources = new IdentityHashMap<>();
+
+  private final Map<String, IntervalTree> deviceIntervalTrees = new HashMap<>();
+
+  /** closed files whose time index only records the time range of the whole file */
+  private final IntervalTree fileIntervalTree = new IntervalTree();
+
+  /** unclosed files and files without a time index, keyed by the id of the resource */
+  private final Map<Long, IndexedResource> unindexedResources = new HashMap<>();
+
+  private long nextId = 0;
+
+  /**
+   * Index a resource which has just been linked into the list. Its neighbours in the list should
+   * have been indexed.
+   */
+  public void add(TsFileResource resource) {
+    lock.writeLock().lock();
+    try {
+      if (indexedResources.containsKey(resource)) {
+        return;
+      }
+      IndexedResource indexedResource = new IndexedResource(resource, nextId++);
+      indexedResources.put(resource, indexedResource);
+      assignOrderKey(indexedResource);
+      place(indexedResource);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(TsFileResource resource) {
+    lock.writeLock().lock();
+    try {
+      IndexedResource indexedResource = indexedResources.remove(resource);
+      if (indexedResource != null) {
+        unplace(indexedResource);
+        if (resource.intervalIndex == this) {
+          resource.intervalIndex = null;
+        }
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Re-index a resource after it is closed, its time index is degraded or its time range is
+   * changed.
+   */
+  public void refresh(TsFileResource resource) {
+    lock.writeLock().lock();
+    try {
+      IndexedResource indexedResource = indexedResources.get(resource);
+      if (indexedResource != null) {
+        unplace(indexedResource);
+        place(indexedResource);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void clear() {
+    lock.writeLock().lock();
+    try {
+      for (TsFileResource resource : indexedResources.keySet()) {
+        if (resource.intervalIndex == this) {
+          resource.intervalIndex = null;
+        }
+      }
+      indexedResources.clear();
+      deviceIntervalTrees.clear();
+      fileIntervalTree.clear();
+      unindexedResources.clear();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @param deviceId the queried device, cannot be null
+   * @param timeFilter the time filter of the query, null means all the time
+   * @return the files which may contain data of the device satisfying the time filter, in the order
+   *     of the list
+   */
+  public List<TsFileResource> getCandidates(String deviceId, Filter timeFilter) {
+    List<IndexedResource> candidates = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      IntervalTree deviceIntervalTree = deviceIntervalTrees.get(deviceId);
+      if (deviceIntervalTree != null) {
+        deviceIntervalTree.search(timeFilter, candidates);
+      }
+      fileIntervalTree.search(timeFilter, candidates);
+      candidates.addAll(unindexedResources.values());
+    } finally {
+      lock.readLock().unlock();
+    }
+    candidates.sort(Comparator.comparingLong(indexedResource -> indexedResource.orderKey));
+    List<TsFileResource> result = new ArrayList<>(candidates.size());
+    for (IndexedResource candidate : candidates) {
+      result.add(candidate.resource);
+    }
+    return result;
+  }
+
+  /**
+   * @param timeRangeNum the number of time ranges the file is indexed with, i.e. the number of
+   *     devices of a DeviceTimeIndex or 1 for a file level time index
+   * @return the estimated memory of the index entries of a file
+   */
+  public static long estimateRamSize(int timeRangeNum) {
+    return INDEXED_RESOURCE_RAM_SIZE + timeRangeNum * TIME_RANGE_RAM_SIZE;
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return indexedResources.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void place(IndexedResource indexedResource) {
+    TsFileResource resource = indexedResource.resource;
+    resource.intervalIndex = this;
+    if (!resource.isClosed() || resource.timeIndex == null) {
+      unindexedResources.put(indexedResource.id, indexedResource);
+    } else if (resource.timeIndex instanceof DeviceTimeIndex) {
+      String[] devices = resource.getDevices().toArray(new String[0]);
+      long[] startTimes = new long[devices.length];
+      for (int i = 0; i < devices.length; i++) {
+        startTimes[i] = resource.getStartTime(devices[i]);
+        deviceIntervalTrees
+            .computeIfAbsent(devices[i], k -> new IntervalTree())
+            .insert(startTimes[i], resource.getEndTime(devices[i]), indexedResource);
+      }
+      indexedResource.devices = devices;
+      indexedResource.startTimes = startTimes;
+    } else {
+      long startTime = resource.getFileStartTime();
+      fileIntervalTree.insert(startTime, resource.getFileEndTime(), indexedResource);
+      indexedResource.startTimes = new long[] {startTime};
+    }
+  }
+
+  private void unplace(IndexedResource indexedResource) {
+    if (unindexedResources.remove(indexedResource.id) != null) {
+      return;
+    }
+    if (indexedResource.devices != null) {
+      for (int i = 0; i < indexedResource.devices.length; i++) {
+        IntervalTree deviceIntervalTree = deviceIntervalTrees.get(indexedResource.devices[i]);
+        if (deviceIntervalTree != null) {
+          deviceIntervalTree.delete(indexedResource.startTimes[i], indexedResource.id);
+          if (deviceIntervalTree.isEmpty()) {
+            deviceIntervalTrees.remove(indexedResource.devices[i]);
+          }
+        }
+      }
+    } else if (indexedResource.startTimes != null) {
+      fileIntervalTree.delete(indexedResource.startTimes[0], indexedResource.id);
+    }
+    indexedResource.devices = null;
+    indexedResource.startTimes = null;
+  }
+
+  /** Give the resource an order key between the keys of its neighbours in the list. */
+  private void assignOrderKey(IndexedResource indexedResource) {
+    TsFileResource resource = indexedResource.resource;
+    IndexedResource prev = resource.prev == null ? null : indexedResources.get(resource.prev);
+    IndexedResource next = resource.next == null ? null : indexedResources.get(resource.next);
+    if (prev == null && next == null) {
+      indexedResource.orderKey = 0;
+    } else if (next == null) {
+      indexedResource.orderKey = prev.orderKey + ORDER_KEY_GAP;
+    } else if (prev == null) {
+      indexedResource.orderKey = next.orderKey - ORDER_KEY_GAP;
+    } else if (next.orderKey - prev.orderKey > 1) {
+      indexedResource.orderKey = prev.orderKey + (next.orderKey - prev.orderKey) / 2;
+    } else {
+      relabel(resource);
+    }
+  }
+
+  /** Spread the order keys of the whole list evenly again when there is no gap left. */
+  private void relabel(TsFileResource resource) {
+    TsFileResource current = resource;
+    while (current.prev != null) {
+      current = current.prev;
+    }
+    long orderKey = 0;
+    while (current != null) {
+      IndexedResource indexedResource = indexedResources.get(current);
+      if (indexedResource != null) {
+        indexedResource.orderKey = orderKey;
+        orderKey += ORDER_KEY_GAP;
+      }
+      current = current.next;
+    }
+  }
+
+  private static class IndexedResource {
+
+    private final TsFileResource resource;
+
+    private final long id;
+
+    private long orderKey;
+
+    /** devices under which the resource is indexed, null if it is indexed by file */
+    private String[] devices;
+
+    /** start times with which the resource is indexed, null if it is unclosed */
+    private long[] startTimes;
+
+    private IndexedResource(TsFileResource resource, long id) {
+      this.resource = resource;
+      this.id = id;
+    }
+  }
+
+  /**
+   * A treap ordered by (start time, resource id) whose nodes record the min start time and the max
+   * end time of their subtrees, so that a time filter can prune a whole subtree at once.
+   */
+  static class IntervalTree {
+
+    private Node root;
+
+    void insert(long startTime, long endTime, IndexedResource value) {
+      root = insert(root, new Node(startTime, endTime, value));
+    }
+
+    void delete(long startTime, long id) {
+      root = delete(root, startTime, id);
+    }
+
+    boolean isEmpty() {
+      return root == null;
+    }
+
+    void clear() {
+      root = null;
+    }
+
+    void search(Filter timeFilter, List<IndexedResource> result) {
+      search(root, timeFilter, timeFilter != null && canPruneSubtree(timeFilter), result);
+    }
+
+    /**
+     * A subtree can only be skipped by the span of its time ranges if a filter rejecting the span
+     * also rejects every range inside it. This holds for the comparisons and their conjunctions and
+     * disjunctions, but not for a negation, e.g. NOT(time >= 100) rejects [0, 200] but not [0, 50].
+     */
+    private static boolean canPruneSubtree(Filter timeFilter) {
+      if (timeFilter instanceof NotFilter) {
+        return false;
+      }
+      if (timeFilter instanceof BinaryFilter) {
+        BinaryFilter binaryFilter = (BinaryFilter) timeFilter;
+        return canPruneSubtree(binaryFilter.getLeft()) && canPruneSubtree(binaryFilter.getRight());
+      }
+      return true;
+    }
+
+    private static void search(
+        Node node, Filter timeFilter, boolean pruneSubtree, List<IndexedResource> result) {
+      if (node == null
+          || (pruneSubtree
+              && !timeFilter.satisfyStartEndTime(node.minStartTime, node.maxEndTime))) {
+        return;
+      }
+      search(node.left, timeFilter, pruneSubtree, result);
+      if (timeFilter == null || timeFilter.satisfyStartEndTime(node.startTime, node.endTime)) {
+        result.add(node.value);
+      }
+      search(node.right, timeFilter, pruneSubtree, result);
+    }
+
+    private static Node insert(Node node, Node newNode) {
+      if (node == null) {
+        return newNode;
+      }
+      if (compare(newNode.startTime, newNode.value.id, node) < 0) {
+        node.left = insert(node.left, newNode);
+        if (node.left.priority > node.priority) {
+          node = rotateRight(node);
+        }
+      } else {
+        node.right = insert(node.right, newNode);
+        if (node.right.priority > node.priority) {
+          node = rotateLeft(node);
+        }
+      }
+      node.update();
+      return node;
+    }
+
+    private static Node delete(Node node, long startTime, long id) {
+      if (node == null) {
+        return null;
+      }
+      int cmp = compare(startTime, id, node);
+      if (cmp < 0) {
+        node.left = delete(node.left, startTime, id);
+      } else if (cmp > 0) {
+        node.right = delete(node.right, startTime, id);
+      } else if (node.left == null) {
+        return node.right;
+      } else if (node.right == null) {
+        return node.left;
+      } else if (node.left.priority > node.right.priority) {
+        node = rotateRight(node);
+        node.right = delete(node.right, startTime, id);
+      } else {
+        node = rotateLeft(node);
+        node.left = delete(node.left, startTime, id);
+      }
+      node.update();
+      return node;
+    }
+
+    private static int compare(long startTime, long id, Node node) {
+      int cmp = Long.compare(startTime, node.startTime);
+      return cmp != 0 ? cmp : Long.compare(id, node.value.id);
+    }
+
+    private static Node rotateRight(Node node) {
+      Node left = node.left;
+      node.left = left.right;
+      left.right = node;
+      node.update();
+      left.update();
+      return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+      Node right = node.right;
+      node.right = right.left;
+      right.left = node;
+      node.update();
+      right.update();
+      return right;
+    }
+
+    private static class Node {
+
+      private final long startTime;
+      private final long endTime;
+      private final IndexedResource value;
+      private final int priority;
+
+      private long minStartTime;
+      private long maxEndTime;
+      private Node left;
+      private Node right;
+
+      private Node(long startTime, long endTime, IndexedResource value) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.value = value;
+        // derive the priority from the id so that the tree shape does not depend on a random seed
+        long hash = value.id * 0x9E3779B97F4A7C15L;
+        this.priority = (int) (hash ^ (hash >>> 32));
+        this.minStartTime = startTime;
+        this.maxEndTime = endTime;
+      }
+
+      private void update() {
+        minStartTime = startTime;
+        maxEndTime = endTime;
+        if (left != null) {
+          minStartTime = Math.min(minStartTime, left.minStartTime);
+          maxEndTime = Math.max(maxEndTime, left.maxEndTime);
+        }
+        if (right != null) {
+          minStartTime = Math.min(minStartTime, right.minStartTime);
+          maxEndTime = Math.max(maxEndTime, right.maxEndTime);
+        }
+      }
+    }
+  }
+}
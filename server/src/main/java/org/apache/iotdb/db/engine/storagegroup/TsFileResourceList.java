@@ -21,6 +21,7 @@ package org.apache.iotdb.db.engine.storagegroup;
 
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.tsfile.exception.NotImplementedException;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,7 @@ public class TsFileResourceList implements List<TsFileResource> {
   private TsFileResource tail;
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private int count = 0;
+  private final TsFileResourceIntervalIndex intervalIndex = new TsFileResourceIntervalIndex();
 
   /**
    * Insert a new node before an existing node
@@ -59,6 +61,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.prev = newNode;
     count++;
+    intervalIndex.add(newNode);
   }
 
   /**
@@ -77,6 +80,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
     node.next = newNode;
     count++;
+    intervalIndex.add(newNode);
   }
 
   @Override
@@ -126,6 +130,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       header = newNode;
       tail = newNode;
       count++;
+      intervalIndex.add(newNode);
     } else {
       insertAfter(tail, newNode);
     }
@@ -146,6 +151,7 @@ public class TsFileResourceList implements List<TsFileResource> {
       header = newNode;
       tail = newNode;
       count++;
+      intervalIndex.add(newNode);
     } else {
       // find the position to insert of this node
       // the list should be ordered by file timestamp
@@ -221,6 +227,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     tsFileResource.prev = null;
     tsFileResource.next = null;
     count--;
+    intervalIndex.remove(tsFileResource);
     return true;
   }
 
@@ -246,6 +253,7 @@ public class TsFileResourceList implements List<TsFileResource> {
     header = null;
     tail = null;
     count = 0;
+    intervalIndex.clear();
   }
 
   @Override
@@ -408,6 +416,17 @@ public class TsFileResourceList implements List<TsFileResource> {
     }
   }
 
+  /**
+   * Select the files which may contain data of the device satisfying the time filter by the
+   * interval index, in the order of this list.
+   *
+   * @param deviceId the queried device, cannot be null
+   * @param timeFilter null means all the time
+   */
+  public List<TsFileResource> getCandidatesForQuery(String deviceId, Filter timeFilter) {
+    return intervalIndex.getCandidates(deviceId, timeFilter);
+  }
+
   @TestOnly
   public TsFileResource getHeader() {
     return header;
@@ -34,7 +34,13 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import static org.apache.iotdb.commons.conf.IoTDBConstant.MULTI_LEVEL_PATH_WILDCARD;
+import static org.apache.iotdb.commons.conf.IoTDBConstant.ONE_LEVEL_PATH_WILDCARD;
 
 /**
  * This class takes the responsibility of metadata cache management of all DataRegions under
@@ -47,8 +53,16 @@ public class DataNodeSchemaCache {
 
   private final Cache<PartialPath, SchemaCacheEntry> cache;
 
-  // cache update or clean have higher priority than cache read
-  private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock(false);
+  /**
+   * Locks striped by device. Schema fetchers hold the read locks of the devices they are resolving
+   * while invalidation holds the write locks of the devices it is cleaning, so that a fetched
+   * schema can never be put back into the cache after it has been invalidated.
+   */
+  private static final int STRIPE_NUM = 64;
+
+  private static final int[] ALL_STRIPES = IntStream.range(0, STRIPE_NUM).toArray();
+
+  private final ReentrantReadWriteLock[] stripeLocks = new ReentrantReadWriteLock[STRIPE_NUM];
 
   private DataNodeSchemaCache() {
     cache =
@@ -58,6 +72,9 @@ public class DataNodeSchemaCache {
                 (PartialPath key, SchemaCacheEntry value) ->
                     PartialPath.estimateSize(key) + SchemaCacheEntry.estimateSize(value))
             .build();
+    for (int i = 0; i < STRIPE_NUM; i++) {
+      stripeLocks[i] = new ReentrantReadWriteLock(false);
+    }
     MetricService.getInstance().addMetricSet(new DataNodeSchemaCacheMetrics(this));
   }
 
@@ -74,21 +91,137 @@ public class DataNodeSchemaCache {
     private static final DataNodeSchemaCache INSTANCE = new DataNodeSchemaCache();
   }
 
-  public void takeReadLock() {
-    readWriteLock.readLock().lock();
+  /**
+   * Take the read lock of the stripe the given device belongs to. Readers of different devices
+   * never contend, and an invalidation of one device only blocks the readers of its own stripe.
+   */
+  public void takeReadLock(PartialPath devicePath) {
+    stripeLocks[getStripe(devicePath)].readLock().lock();
+  }
+
+  public void releaseReadLock(PartialPath devicePath) {
+    stripeLocks[getStripe(devicePath)].readLock().unlock();
+  }
+
+  /**
+   * Take the read locks of all stripes the given devices belong to, in ascending stripe order so
+   * that batch readers and writers can never deadlock with each other.
+   *
+   * @return the locked stripes, which should be passed to {@link #releaseReadLock(int[])}
+   */
+  public int[] takeReadLock(List<PartialPath> devicePaths) {
+    int[] stripes = getSortedStripes(devicePaths);
+    for (int stripe : stripes) {
+      stripeLocks[stripe].readLock().lock();
+    }
+    return stripes;
+  }
+
+  public void releaseReadLock(int[] stripes) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      stripeLocks[stripes[i]].readLock().unlock();
+    }
+  }
+
+  /**
+   * Take the write locks of all stripes that may hold series matched by the given path patterns. A
+   * pattern whose device part contains no wildcard only locks the stripe of that device, otherwise
+   * all stripes are locked.
+   *
+   * @return the locked stripes, which should be passed to {@link #releaseWriteLock(int[])}
+   */
+  public int[] takeWriteLock(List<PartialPath> pathPatterns) {
+    int[] stripes = getSortedStripesOfPatterns(pathPatterns);
+    for (int stripe : stripes) {
+      stripeLocks[stripe].writeLock().lock();
+    }
+    return stripes;
+  }
+
+  public void releaseWriteLock(int[] stripes) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      stripeLocks[stripes[i]].writeLock().unlock();
+    }
+  }
+
+  private int[] getSortedStripes(List<PartialPath> devicePaths) {
+    boolean[] selected = new boolean[STRIPE_NUM];
+    int count = 0;
+    for (PartialPath devicePath : devicePaths) {
+      int stripe = getStripe(devicePath);
+      if (!selected[stripe]) {
+        selected[stripe] = true;
+        count++;
+      }
+    }
+    return collectStripes(selected, count);
+  }
+
+  private int[] getSortedStripesOfPatterns(List<PartialPath> pathPatterns) {
+    boolean[] selected = new boolean[STRIPE_NUM];
+    int count = 0;
+    for (PartialPath pathPattern : pathPatterns) {
+      if (!hasConcreteDevice(pathPattern)) {
+        return ALL_STRIPES.clone();
+      }
+      int stripe = getStripe(pathPattern.getNodes(), pathPattern.getNodeLength() - 1);
+      if (!selected[stripe]) {
+        selected[stripe] = true;
+        count++;
+      }
+    }
+    return collectStripes(selected, count);
+  }
+
+  private static int[] collectStripes(boolean[] selected, int count) {
+    int[] stripes = new int[count];
+    int index = 0;
+    for (int i = 0; i < selected.length; i++) {
+      if (selected[i]) {
+        stripes[index++] = i;
+      }
+    }
+    return stripes;
+  }
+
+  /**
+   * A pattern like root.sg.d.* or root.sg.d.s only matches series of device root.sg.d, while
+   * patterns ending with ** or having wildcards before the last node may match any device.
+   */
+  private static boolean hasConcreteDevice(PartialPath pathPattern) {
+    String[] nodes = pathPattern.getNodes();
+    if (nodes.length < 2 || MULTI_LEVEL_PATH_WILDCARD.equals(nodes[nodes.length - 1])) {
+      return false;
+    }
+    for (int i = 0; i < nodes.length - 1; i++) {
+      if (nodes[i].contains(ONE_LEVEL_PATH_WILDCARD)) {
+        return false;
+      }
+    }
+    return true;
   }
 
-  public void releaseReadLock() {
-    readWriteLock.readLock().unlock();
+  private static boolean hasWildcard(PartialPath pathPattern) {
+    for (String node : pathPattern.getNodes()) {
+      if (node.contains(ONE_LEVEL_PATH_WILDCARD)) {
+        return true;
+      }
+    }
+    return false;
   }
 
-  public void takeWriteLock() {
-    readWriteLock.writeLock().lock();
-    ;
+  private static int getStripe(PartialPath devicePath) {
+    return getStripe(devicePath.getNodes(), devicePath.getNodeLength());
   }
 
-  public void releaseWriteLock() {
-    readWriteLock.writeLock().unlock();
+  /** Hash the first deviceNodeNum nodes without building the device path. */
+  private static int getStripe(String[] nodes, int deviceNodeNum) {
+    int hash = 1;
+    for (int i = 0; i < deviceNodeNum; i++) {
+      hash = 31 * hash + nodes[i].hashCode();
+    }
+    hash ^= (hash >>> 16);
+    return hash & (STRIPE_NUM - 1);
   }
 
   /**
@@ -100,20 +233,42 @@ public class DataNodeSchemaCache {
    */
   public ClusterSchemaTree get(PartialPath devicePath, String[] measurements) {
     ClusterSchemaTree schemaTree = new ClusterSchemaTree();
+    appendCachedSchema(schemaTree, devicePath, measurements);
+    return schemaTree;
+  }
+
+  /**
+   * Get SchemaEntity info of several devices without auto create schema, which is used by the
+   * insert of a batch of rows or tablets to resolve all the measurements with one call.
+   *
+   * @param devicePaths should not be measurementPath or AlignedPath
+   * @param measurementsList measurements of each device
+   * @return all the cached timeseries of the given devices in one schema tree
+   */
+  public ClusterSchemaTree get(List<PartialPath> devicePaths, List<String[]> measurementsList) {
+    ClusterSchemaTree schemaTree = new ClusterSchemaTree();
+    for (int i = 0; i < devicePaths.size(); i++) {
+      appendCachedSchema(schemaTree, devicePaths.get(i), measurementsList.get(i));
+    }
+    return schemaTree;
+  }
+
+  private void appendCachedSchema(
+      ClusterSchemaTree schemaTree, PartialPath devicePath, String[] measurements) {
     SchemaCacheEntry schemaCacheEntry;
     for (String measurement : measurements) {
       PartialPath path = devicePath.concatNode(measurement);
       schemaCacheEntry = cache.getIfPresent(path);
       if (schemaCacheEntry != null) {
+        String schemaEntryId = schemaCacheEntry.getSchemaEntryId();
         schemaTree.appendSingleMeasurement(
-            devicePath.concatNode(
-                schemaCacheEntry.getSchemaEntryId()), // the cached path may be alias path
+            // the cached path may be alias path
+            measurement.equals(schemaEntryId) ? path : devicePath.concatNode(schemaEntryId),
             schemaCacheEntry.getMeasurementSchema(),
             null,
             schemaCacheEntry.isAligned());
       }
     }
-    return schemaTree;
   }
 
   public void put(ISchemaTree schemaTree) {
@@ -150,6 +305,37 @@ public class DataNodeSchemaCache {
         entry, timeValuePair, highPriorityUpdate, latestFlushedTime);
   }
 
+  /**
+   * Update the last cache of the cached series of one device in one pass. The TimeValuePair of a
+   * measurement is only composed if the series is cached.
+   *
+   * @param devicePath the device of the series
+   * @param measurements the measurements of the series, a null measurement is skipped
+   * @param timeValuePairGetter get the latest point of the series by the index of its measurement,
+   *     which may return null if there is no point to update
+   */
+  public void updateLastCache(
+      PartialPath devicePath,
+      String[] measurements,
+      IntFunction<TimeValuePair> timeValuePairGetter,
+      boolean highPriorityUpdate,
+      Long latestFlushedTime) {
+    for (int i = 0; i < measurements.length; i++) {
+      if (measurements[i] == null) {
+        continue;
+      }
+      SchemaCacheEntry entry = cache.getIfPresent(devicePath.concatNode(measurements[i]));
+      if (null == entry) {
+        continue;
+      }
+      TimeValuePair timeValuePair = timeValuePairGetter.apply(i);
+      if (timeValuePair != null) {
+        DataNodeLastCacheManager.updateLastCache(
+            entry, timeValuePair, highPriorityUpdate, latestFlushedTime);
+      }
+    }
+  }
+
   /**
    * get or create SchemaCacheEntry and update last cache, only support non-aligned sensor or
    * aligned sensor without only one sub sensor
@@ -162,16 +348,13 @@ public class DataNodeSchemaCache {
     PartialPath seriesPath = measurementPath.transformToPartialPath();
     SchemaCacheEntry entry = cache.getIfPresent(seriesPath);
     if (null == entry) {
-      synchronized (cache) {
-        entry = cache.getIfPresent(seriesPath);
-        if (null == entry) {
-          entry =
-              new SchemaCacheEntry(
-                  (MeasurementSchema) measurementPath.getMeasurementSchema(),
-                  measurementPath.isUnderAlignedEntity());
-          cache.put(seriesPath, entry);
-        }
-      }
+      entry =
+          cache.get(
+              seriesPath,
+              k ->
+                  new SchemaCacheEntry(
+                      (MeasurementSchema) measurementPath.getMeasurementSchema(),
+                      measurementPath.isUnderAlignedEntity()));
     }
 
     DataNodeLastCacheManager.updateLastCache(
@@ -199,6 +382,10 @@ public class DataNodeSchemaCache {
   }
 
   public void invalidateMatchedSchema(PartialPath pathPattern) {
+    if (!hasWildcard(pathPattern)) {
+      cache.invalidate(pathPattern);
+      return;
+    }
     cache
         .asMap()
         .forEach(
@@ -23,43 +23,64 @@ import org.apache.iotdb.db.metadata.lastCache.container.value.ILastCacheValue;
 import org.apache.iotdb.db.metadata.lastCache.container.value.LastCacheValue;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 /**
  * This class possesses the ILastCacheValue and implements the basic last cache operations.
  *
  * <p>The ILastCacheValue may be extended to ILastCacheValue List in future to support batched last
  * value cache.
+ *
+ * <p>The cached ILastCacheValue is never modified once it is published. An update creates a new one
+ * and replaces the old one by compare-and-set, so that the last queries never block the insertions
+ * and never see a timestamp paired with the value of another point.
  */
 public class LastCacheContainer implements ILastCacheContainer {
 
-  ILastCacheValue lastCacheValue;
+  private static final AtomicReferenceFieldUpdater<LastCacheContainer, ILastCacheValue>
+      LAST_CACHE_VALUE_UPDATER =
+          AtomicReferenceFieldUpdater.newUpdater(
+              LastCacheContainer.class, ILastCacheValue.class, "lastCacheValue");
+
+  volatile ILastCacheValue lastCacheValue;
 
   @Override
   public TimeValuePair getCachedLast() {
-    return lastCacheValue == null ? null : lastCacheValue.getTimeValuePair();
+    ILastCacheValue value = lastCacheValue;
+    return value == null ? null : value.getTimeValuePair();
   }
 
   @Override
-  public synchronized void updateCachedLast(
+  public void updateCachedLast(
       TimeValuePair timeValuePair, boolean highPriorityUpdate, Long latestFlushedTime) {
     if (timeValuePair == null || timeValuePair.getValue() == null) {
       return;
     }
 
-    if (lastCacheValue == null) {
-      // If no cached last, (1) a last query (2) an unseq insertion or (3) a seq insertion will
-      // update cache.
-      if (!highPriorityUpdate || latestFlushedTime <= timeValuePair.getTimestamp()) {
-        lastCacheValue = new LastCacheValue(timeValuePair.getTimestamp(), timeValuePair.getValue());
+    ILastCacheValue newValue = null;
+    while (true) {
+      ILastCacheValue oldValue = lastCacheValue;
+      if (oldValue == null) {
+        // If no cached last, (1) a last query (2) an unseq insertion or (3) a seq insertion will
+        // update cache.
+        if (highPriorityUpdate && latestFlushedTime > timeValuePair.getTimestamp()) {
+          return;
+        }
+      } else if (timeValuePair.getTimestamp() < oldValue.getTimestamp()
+          || (timeValuePair.getTimestamp() == oldValue.getTimestamp() && !highPriorityUpdate)) {
+        return;
+      }
+      if (newValue == null) {
+        newValue = new LastCacheValue(timeValuePair.getTimestamp(), timeValuePair.getValue());
+      }
+      if (LAST_CACHE_VALUE_UPDATER.compareAndSet(this, oldValue, newValue)) {
+        return;
       }
-    } else if (timeValuePair.getTimestamp() > lastCacheValue.getTimestamp()
-        || (timeValuePair.getTimestamp() == lastCacheValue.getTimestamp() && highPriorityUpdate)) {
-      lastCacheValue.setTimestamp(timeValuePair.getTimestamp());
-      lastCacheValue.setValue(timeValuePair.getValue());
     }
   }
 
   @Override
-  public synchronized void resetLastCache() {
+  public void resetLastCache() {
     lastCacheValue = null;
   }
 
@@ -18,6 +18,8 @@
  */
 package org.apache.iotdb.db.metadata.mtree.store.disk.schemafile;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
 import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
@@ -50,11 +52,12 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -78,6 +81,8 @@ public class SchemaFile implements ISchemaFile {
       IoTDBDescriptor.getInstance()
           .getConfig()
           .getPageCacheSizeInSchemaFile(); // size of page cache
+  // max number of snapshots waiting to be written back, beyond which the writer writes them inline
+  public static int PENDING_PAGES_LIMIT = PAGE_CACHE_SIZE;
   public static int ROOT_INDEX = 0; // index of header page
   // 32 bit for page pointer, maximum .pmt file as 2^(32+14) bytes, 64 TiB
   public static int INDEX_LENGTH = 4;
@@ -96,6 +101,14 @@ public class SchemaFile implements ISchemaFile {
   // folder to store .pmt files
   public static String SCHEMA_FOLDER = IoTDBDescriptor.getInstance().getConfig().getSchemaDir();
 
+  // max number of contiguous pages gathered into one write
+  private static final int MAX_PAGES_PER_WRITE = 64;
+
+  // shared by all schema files, writes snapshots of dirty pages back to the files
+  private static final ExecutorService WRITE_BACK_EXECUTOR =
+      IoTDBThreadPoolFactory.newSingleThreadExecutorWithDaemon(
+          ThreadName.SCHEMA_FILE_WRITE_BACK.getName());
+
   // attributes for this schema file
   private String filePath;
   private String storageGroupName;
@@ -107,14 +120,20 @@ public class SchemaFile implements ISchemaFile {
   private int lastPageIndex; // last page index of the file, boundary to grow
   private long lastSGAddr; // last segment of storage group node
 
-  // work as a naive (read-only) cache for page instance
-  private final Map<Integer, ISchemaPage> pageInstCache;
+  // work as a (read-only) cache for page instance, see SchemaPageCache for the replacement policy
+  private final SchemaPageCache pageInstCache;
   private final ReentrantLock evictLock;
   private final PageLocks pageLocks;
   private ISchemaPage rootPage;
 
   private final Map<Integer, ISchemaPage> dirtyPages;
 
+  // snapshots of the pages waiting to be written back, which serve the loads before written
+  private final Map<Integer, ByteBuffer> pendingWrites;
+  private final AtomicBoolean writeBackScheduled;
+  // guards the channel against writing back, closing and clearing concurrently
+  private final ReentrantLock writeBackLock;
+
   // attributes for file
   private File pmtFile;
   private FileChannel channel;
@@ -154,8 +173,11 @@ public class SchemaFile implements ISchemaFile {
 
     channel = new RandomAccessFile(pmtFile, "rw").getChannel();
     headerContent = ByteBuffer.allocate(SchemaFile.FILE_HEADER_SIZE);
-    pageInstCache = Collections.synchronizedMap(new LinkedHashMap<>(PAGE_CACHE_SIZE, 1, true));
+    pageInstCache = new SchemaPageCache();
     dirtyPages = new ConcurrentHashMap<>();
+    pendingWrites = new ConcurrentHashMap<>();
+    writeBackScheduled = new AtomicBoolean(false);
+    writeBackLock = new ReentrantLock();
     evictLock = new ReentrantLock();
     pageLocks = new PageLocks();
     // will be overwritten if to init
@@ -169,8 +191,11 @@ public class SchemaFile implements ISchemaFile {
     // only be called to sketch a schema file so an arbitrary file object is necessary
     channel = new RandomAccessFile(file, "rw").getChannel();
     headerContent = ByteBuffer.allocate(SchemaFile.FILE_HEADER_SIZE);
-    pageInstCache = Collections.synchronizedMap(new LinkedHashMap<>(PAGE_CACHE_SIZE, 1, true));
+    pageInstCache = new SchemaPageCache();
     dirtyPages = new ConcurrentHashMap<>();
+    pendingWrites = new ConcurrentHashMap<>();
+    writeBackScheduled = new AtomicBoolean(false);
+    writeBackLock = new ReentrantLock();
     evictLock = new ReentrantLock();
     pageLocks = new PageLocks();
 
@@ -412,7 +437,7 @@ public class SchemaFile implements ISchemaFile {
       }
     }
 
-    flushAllDirtyPages();
+    writeBackDirtyPages();
   }
 
   @Override
@@ -430,7 +455,7 @@ public class SchemaFile implements ISchemaFile {
       tarPage.deleteSegment(getSegIndex(delSegAddr));
     }
 
-    flushAllDirtyPages();
+    writeBackDirtyPages();
   }
 
   @Override
@@ -514,28 +539,43 @@ public class SchemaFile implements ISchemaFile {
 
   @Override
   public void close() throws IOException {
-    updateHeader();
-    flushPageToFile(rootPage);
-    for (Map.Entry<Integer, ISchemaPage> entry : dirtyPages.entrySet()) {
-      flushPageToFile(entry.getValue());
+    writeBackLock.lock();
+    try {
+      sync();
+      channel.close();
+    } finally {
+      writeBackLock.unlock();
     }
-    channel.close();
   }
 
   @Override
   public void sync() throws IOException {
-    updateHeader();
-    flushPageToFile(rootPage);
-    for (Map.Entry<Integer, ISchemaPage> entry : dirtyPages.entrySet()) {
-      flushPageToFile(entry.getValue());
+    writeBackLock.lock();
+    try {
+      if (rootPage != null) {
+        pendingWrites.put(rootPage.getPageIndex(), snapshotPage(rootPage));
+      }
+      for (ISchemaPage page : dirtyPages.values()) {
+        pendingWrites.put(page.getPageIndex(), snapshotPage(page));
+      }
+      writePendingPages();
+      updateHeader();
+    } finally {
+      writeBackLock.unlock();
     }
   }
 
   @Override
   public void clear() throws IOException, MetadataException {
-    pageInstCache.clear();
-    dirtyPages.clear();
-    channel.close();
+    writeBackLock.lock();
+    try {
+      pendingWrites.clear();
+      pageInstCache.clear();
+      dirtyPages.clear();
+      channel.close();
+    } finally {
+      writeBackLock.unlock();
+    }
     rootPage = null;
     if (pmtFile.exists()) {
       Files.delete(Paths.get(pmtFile.toURI()));
@@ -755,11 +795,10 @@ public class SchemaFile implements ISchemaFile {
       }
     }
 
-    for (Map.Entry<Integer, ISchemaPage> entry : pageInstCache.entrySet()) {
-      if (entry.getValue().isCapableForSize(size)) {
-        dirtyPages.putIfAbsent(entry.getKey(), entry.getValue());
-        return pageInstCache.get(entry.getKey());
-      }
+    ISchemaPage cachedPage = pageInstCache.findPage(page -> page.isCapableForSize(size));
+    if (cachedPage != null) {
+      dirtyPages.putIfAbsent(cachedPage.getPageIndex(), cachedPage);
+      return dirtyPages.get(cachedPage.getPageIndex());
     }
     return allocateNewPage();
   }
@@ -781,14 +820,12 @@ public class SchemaFile implements ISchemaFile {
       return rootPage;
     }
 
+    ISchemaPage page;
     pageLocks.readLock(pageIdx);
     try {
-      if (dirtyPages.containsKey(pageIdx)) {
-        return dirtyPages.get(pageIdx);
-      }
-
-      if (pageInstCache.containsKey(pageIdx)) {
-        return pageInstCache.get(pageIdx);
+      page = getPageInMem(pageIdx);
+      if (page != null) {
+        return page;
       }
     } finally {
       pageLocks.readUnlock(pageIdx);
@@ -796,6 +833,11 @@ public class SchemaFile implements ISchemaFile {
 
     try {
       pageLocks.writeLock(pageIdx);
+      // loaded by another thread while waiting for the lock
+      page = getPageInMem(pageIdx);
+      if (page != null) {
+        return page;
+      }
 
       ByteBuffer newBuf = ByteBuffer.allocate(PAGE_LENGTH);
 
@@ -806,8 +848,19 @@ public class SchemaFile implements ISchemaFile {
     }
   }
 
+  private ISchemaPage getPageInMem(int pageIdx) {
+    ISchemaPage page = dirtyPages.get(pageIdx);
+    return page != null ? page : pageInstCache.get(pageIdx);
+  }
+
   private int loadFromFile(ByteBuffer dst, int pageIndex) throws IOException {
     dst.clear();
+    // the snapshot is newer than the file until written back
+    ByteBuffer pending = pendingWrites.get(pageIndex);
+    if (pending != null) {
+      dst.put(pending.duplicate());
+      return PAGE_LENGTH;
+    }
     return channel.read(dst, getPageAddress(pageIndex));
   }
 
@@ -826,18 +879,8 @@ public class SchemaFile implements ISchemaFile {
         if (pageInstCache.size() > PAGE_CACHE_SIZE) {
           int removeCnt =
               (int) (0.2 * pageInstCache.size()) > 0 ? (int) (0.2 * pageInstCache.size()) : 1;
-          List<Integer> rmvIds = new ArrayList<>(pageInstCache.keySet()).subList(0, removeCnt);
-
-          for (Integer id : rmvIds) {
-            // dirty pages only flushed from dirtyPages
-            if (pageLocks.findLock(id).writeLock().tryLock()) {
-              try {
-                pageInstCache.remove(id);
-              } finally {
-                pageLocks.findLock(id).writeLock().unlock();
-              }
-            }
-          }
+          // dirty pages only flushed from dirtyPages
+          pageInstCache.evict(removeCnt, id -> !dirtyPages.containsKey(id));
         }
       } finally {
         evictLock.unlock();
@@ -947,23 +990,99 @@ public class SchemaFile implements ISchemaFile {
     return node;
   }
 
-  private void flushPageToFile(ISchemaPage src) throws IOException {
-    if (src == null) {
-      return;
-    }
+  private ByteBuffer snapshotPage(ISchemaPage src) {
     src.syncPageBuffer();
     ByteBuffer srcBuf = ByteBuffer.allocate(SchemaFile.PAGE_LENGTH);
     src.getPageBuffer(srcBuf);
     srcBuf.clear();
-    channel.write(srcBuf, getPageAddress(src.getPageIndex()));
+    return srcBuf;
   }
 
-  private synchronized void flushAllDirtyPages() throws IOException {
+  /**
+   * Take snapshots of dirty pages and hand them over to the write back thread, so that the writer
+   * does not wait for the disk. The header is only persisted by {@link #sync()}, since the schema
+   * file is rebuilt from the mlog after restart.
+   *
+   * <p>If the write back thread falls behind and more than {@link #PENDING_PAGES_LIMIT} snapshots
+   * are pending, the writer waits for it and writes them inline, so that the memory of snapshots
+   * is bounded.
+   */
+  private synchronized void writeBackDirtyPages() throws IOException {
     for (ISchemaPage page : dirtyPages.values()) {
-      flushPageToFile(page);
+      pendingWrites.put(page.getPageIndex(), snapshotPage(page));
     }
-    updateHeader();
     dirtyPages.clear();
+    if (pendingWrites.size() > PENDING_PAGES_LIMIT) {
+      writePendingPages();
+    } else if (writeBackScheduled.compareAndSet(false, true)) {
+      WRITE_BACK_EXECUTOR.submit(this::writePendingPagesInBackground);
+    }
+  }
+
+  private void writePendingPagesInBackground() {
+    writeBackScheduled.set(false);
+    try {
+      writePendingPages();
+    } catch (IOException e) {
+      logger.error("Failed to write back pages of schema file [{}]", filePath, e);
+    }
+  }
+
+  /** Write pending snapshots in ascending page order, gathering contiguous pages into one write. */
+  private void writePendingPages() throws IOException {
+    writeBackLock.lock();
+    try {
+      if (pendingWrites.isEmpty() || !channel.isOpen()) {
+        return;
+      }
+      List<Integer> pageIndexes = new ArrayList<>(pendingWrites.keySet());
+      Collections.sort(pageIndexes);
+
+      int start = 0;
+      while (start < pageIndexes.size()) {
+        int end = start + 1;
+        while (end < pageIndexes.size()
+            && end - start < MAX_PAGES_PER_WRITE
+            && pageIndexes.get(end) == pageIndexes.get(end - 1) + 1) {
+          end++;
+        }
+        writeContiguousPages(pageIndexes.subList(start, end));
+        start = end;
+      }
+    } finally {
+      writeBackLock.unlock();
+    }
+  }
+
+  private void writeContiguousPages(List<Integer> pageIndexes) throws IOException {
+    List<Integer> writtenIndexes = new ArrayList<>(pageIndexes.size());
+    List<ByteBuffer> snapshots = new ArrayList<>(pageIndexes.size());
+    List<ByteBuffer> srcBufs = new ArrayList<>(pageIndexes.size());
+    for (int pageIndex : pageIndexes) {
+      ByteBuffer snapshot = pendingWrites.get(pageIndex);
+      if (snapshot == null) {
+        // written by a previous round
+        break;
+      }
+      writtenIndexes.add(pageIndex);
+      snapshots.add(snapshot);
+      srcBufs.add(snapshot.duplicate());
+    }
+    if (srcBufs.isEmpty()) {
+      return;
+    }
+
+    ByteBuffer[] srcs = srcBufs.toArray(new ByteBuffer[0]);
+    long remaining = (long) srcs.length * PAGE_LENGTH;
+    channel.position(getPageAddress(writtenIndexes.get(0)));
+    while (remaining > 0) {
+      remaining -= channel.write(srcs);
+    }
+
+    // a snapshot replaced during writing is newer, and is left for the next round
+    for (int i = 0; i < writtenIndexes.size(); i++) {
+      pendingWrites.remove(writtenIndexes.get(i), snapshots.get(i));
+    }
   }
 
   @TestOnly
@@ -977,6 +1096,27 @@ public class SchemaFile implements ISchemaFile {
     return getTargetSegmentAddress(srcSegAddr, key);
   }
 
+  /** Hold back the write back thread, the pages are only written by sync, close or inline. */
+  @TestOnly
+  public void lockWriteBackOnTest() {
+    writeBackLock.lock();
+  }
+
+  @TestOnly
+  public void unlockWriteBackOnTest() {
+    writeBackLock.unlock();
+  }
+
+  @TestOnly
+  public int getPendingPageNumOnTest() {
+    return pendingWrites.size();
+  }
+
+  @TestOnly
+  public boolean isPageCachedOnTest(int pageIndex) {
+    return getPageInMem(pageIndex) != null;
+  }
+
   // endregion
 
   private class PageLocks {
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mtree.store.disk.schemafile;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Page cache of a {@link SchemaFile}, replaced by the CLOCK algorithm.
+ *
+ * <p>Lookups go to a ConcurrentHashMap without any global monitor, and only set the reference bit
+ * of the frame. A page is admitted with the reference bit cleared, so the pages touched only once,
+ * e.g. by a sweep over a large device, are the first victims of the next eviction, while the pages
+ * hit again survive a round of the clock.
+ */
+public class SchemaPageCache {
+
+  private final Map<Integer, Frame> frames = new ConcurrentHashMap<>();
+
+  // the clock hand always points to the head
+  private final Queue<Frame> clock = new ConcurrentLinkedQueue<>();
+
+  public ISchemaPage get(int pageIndex) {
+    Frame frame = frames.get(pageIndex);
+    if (frame == null) {
+      return null;
+    }
+    frame.referenced = true;
+    return frame.page;
+  }
+
+  public void put(int pageIndex, ISchemaPage page) {
+    Frame frame = new Frame(pageIndex, page);
+    frames.put(pageIndex, frame);
+    clock.offer(frame);
+  }
+
+  public int size() {
+    return frames.size();
+  }
+
+  /** @return any cached page satisfying the condition, without touching its reference bit */
+  public ISchemaPage findPage(Predicate<ISchemaPage> condition) {
+    for (Frame frame : frames.values()) {
+      if (condition.test(frame.page)) {
+        return frame.page;
+      }
+    }
+    return null;
+  }
+
+  public void clear() {
+    frames.clear();
+    clock.clear();
+  }
+
+  /**
+   * Sweep the clock and evict at most evictNum pages whose reference bits are cleared.
+   *
+   * @param evictable decides whether the page can be evicted, and is invoked before removing it
+   * @return number of evicted pages
+   */
+  public int evict(int evictNum, IntPredicate evictable) {
+    int evicted = 0;
+    // each frame is visited at most twice: once to clear the reference bit and once to evict
+    int maxSteps = 2 * clock.size();
+    for (int step = 0; step < maxSteps && evicted < evictNum; step++) {
+      Frame frame = clock.poll();
+      if (frame == null) {
+        break;
+      }
+      if (frames.get(frame.pageIndex) != frame) {
+        // replaced or removed since it was put
+        continue;
+      }
+      if (frame.referenced) {
+        frame.referenced = false;
+        clock.offer(frame);
+      } else if (evictable.test(frame.pageIndex) && frames.remove(frame.pageIndex, frame)) {
+        evicted++;
+      } else {
+        clock.offer(frame);
+      }
+    }
+    return evicted;
+  }
+
+  private static class Frame {
+
+    private final int pageIndex;
+    private final ISchemaPage page;
+    private volatile boolean referenced;
+
+    private Frame(int pageIndex, ISchemaPage page) {
+      this.pageIndex = pageIndex;
+      this.page = page;
+    }
+  }
+}
@@ -42,15 +42,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import static java.util.stream.Collectors.toList;
 
@@ -68,8 +70,22 @@ public class TagManager {
 
   private String sgSchemaDirPath;
   private TagLogFile tagLogFile;
-  // tag key -> tag value -> LeafMNode
-  private Map<String, Map<String, Set<IMeasurementMNode>>> tagIndex = new ConcurrentHashMap<>();
+  // tag key -> tag value -> ids of LeafMNode
+  private Map<String, ConcurrentSkipListMap<String, TagPostingList>> tagIndex =
+      new ConcurrentHashMap<>();
+
+  // tag key -> gram index of its tag values, which is also the lock of the changes of the key in
+  // tagIndex, so that a posting list isn't removed while an id is being added to it
+  private final Map<String, TagValueGramIndex> tagValueGramIndex = new ConcurrentHashMap<>();
+
+  // the ids in the posting lists are dense ints assigned to the indexed LeafMNodes, so that the
+  // posting lists stay compact and can be intersected cheaply. They are guarded by idLock. An id
+  // is released after it is removed from all the posting lists, so the ids read from the posting
+  // lists are resolved to nodes while holding idLock, otherwise they may be reused by other nodes.
+  private final Object idLock = new Object();
+  private final Map<IMeasurementMNode, Integer> nodeToId = new HashMap<>();
+  private final List<IMeasurementMNode> idToNode = new ArrayList<>();
+  private final Deque<Integer> freeIds = new ArrayDeque<>();
 
   public TagManager(String sgSchemaDirPath) throws IOException {
     this.sgSchemaDirPath = sgSchemaDirPath;
@@ -140,10 +156,20 @@ public class TagManager {
     if (tagKey == null || tagValue == null || measurementMNode == null) {
       return;
     }
-    tagIndex
-        .computeIfAbsent(tagKey, k -> new ConcurrentHashMap<>())
-        .computeIfAbsent(tagValue, v -> Collections.synchronizedSet(new HashSet<>()))
-        .add(measurementMNode);
+    int id = getOrAssignId(measurementMNode);
+    TagValueGramIndex gramIndex =
+        tagValueGramIndex.computeIfAbsent(tagKey, k -> new TagValueGramIndex());
+    synchronized (gramIndex) {
+      tagIndex
+          .computeIfAbsent(tagKey, k -> new ConcurrentSkipListMap<>())
+          .computeIfAbsent(
+              tagValue,
+              v -> {
+                gramIndex.add(v);
+                return new TagPostingList();
+              })
+          .add(id);
+    }
   }
 
   public void addIndex(Map<String, String> tagsMap, IMeasurementMNode measurementMNode) {
@@ -155,83 +181,46 @@ public class TagManager {
   }
 
   public void removeIndex(String tagKey, String tagValue, IMeasurementMNode measurementMNode) {
-    tagIndex.get(tagKey).get(tagValue).remove(measurementMNode);
-    if (tagIndex.get(tagKey).get(tagValue).isEmpty()) {
-      tagIndex.get(tagKey).remove(tagValue);
-    }
-  }
-
-  public List<String> getMatchedTimeseriesInIndex(String key, String value, boolean isContains) {
-    if (!tagIndex.containsKey(key)) {
-      return Collections.emptyList();
-    }
-    Map<String, Set<IMeasurementMNode>> value2Node = tagIndex.get(key);
-    if (value2Node.isEmpty()) {
-      return Collections.emptyList();
+    TagValueGramIndex gramIndex = tagValueGramIndex.get(tagKey);
+    // get the id before locking the key, readers hold idLock while reading the gram index
+    Integer id = getId(measurementMNode);
+    if (gramIndex == null || id == null) {
+      return;
     }
-    List<String> timeseries = new ArrayList<>();
-    List<IMeasurementMNode> allMatchedNodes = new ArrayList<>();
-    if (isContains) {
-      for (Map.Entry<String, Set<IMeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (tagValue.contains(value)) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
+    synchronized (gramIndex) {
+      Map<String, TagPostingList> value2Ids = tagIndex.get(tagKey);
+      if (value2Ids == null) {
+        return;
       }
-    } else {
-      for (Map.Entry<String, Set<IMeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (value.equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
+      TagPostingList ids = value2Ids.get(tagValue);
+      if (ids == null) {
+        return;
+      }
+      ids.remove(id);
+      if (ids.isEmpty()) {
+        value2Ids.remove(tagValue);
+        gramIndex.remove(tagValue);
+        if (value2Ids.isEmpty()) {
+          tagIndex.remove(tagKey);
         }
       }
     }
-    allMatchedNodes =
-        allMatchedNodes.stream()
-            .sorted(Comparator.comparing(IMNode::getFullPath))
-            .collect(toList());
-    allMatchedNodes.forEach(measurementMNode -> timeseries.add(measurementMNode.getFullPath()));
-    return timeseries;
+  }
+
+  public List<String> getMatchedTimeseriesInIndex(String key, String value, boolean isContains) {
+    return getMatchedNodes(key, value, isContains).stream()
+        .map(IMNode::getFullPath)
+        .sorted()
+        .collect(toList());
   }
 
   public List<IMeasurementMNode> getMatchedTimeseriesInIndex(
       ShowTimeSeriesPlan plan, QueryContext context) throws MetadataException {
-    if (!tagIndex.containsKey(plan.getKey())) {
+    List<IMeasurementMNode> allMatchedNodes =
+        getMatchedNodes(plan.getKey(), plan.getValue(), plan.isContains());
+    if (allMatchedNodes.isEmpty()) {
       return Collections.emptyList();
     }
-    Map<String, Set<IMeasurementMNode>> value2Node = tagIndex.get(plan.getKey());
-    if (value2Node.isEmpty()) {
-      return Collections.emptyList();
-    }
-
-    List<IMeasurementMNode> allMatchedNodes = new ArrayList<>();
-    if (plan.isContains()) {
-      for (Map.Entry<String, Set<IMeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (tagValue.contains(plan.getValue())) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
-      }
-    } else {
-      for (Map.Entry<String, Set<IMeasurementMNode>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
-        }
-        String tagValue = entry.getKey();
-        if (plan.getValue().equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
-        }
-      }
-    }
 
     // if ordered by heat, we sort all the timeseries by the descending order of the last insert
     // timestamp
@@ -302,13 +291,7 @@ public class TagManager {
                     entry.getValue(),
                     node.getOffset()));
           }
-          tagIndex.get(entry.getKey()).get(entry.getValue()).remove(node);
-          if (tagIndex.get(entry.getKey()).get(entry.getValue()).isEmpty()) {
-            tagIndex.get(entry.getKey()).remove(entry.getValue());
-            if (tagIndex.get(entry.getKey()).isEmpty()) {
-              tagIndex.remove(entry.getKey());
-            }
-          }
+          removeIndex(entry.getKey(), entry.getValue(), node);
         } else {
           if (logger.isDebugEnabled()) {
             logger.debug(
@@ -322,6 +305,7 @@ public class TagManager {
         }
       }
     }
+    releaseId(node);
   }
 
   /**
@@ -471,16 +455,13 @@ public class TagManager {
     // persist the change to disk
     tagLogFile.write(pair.left, pair.right, leafMNode.getOffset());
 
-    Map<String, Set<IMeasurementMNode>> tagVal2LeafMNodeSet;
-    Set<IMeasurementMNode> MMNodes;
     for (Map.Entry<String, String> entry : deleteTag.entrySet()) {
       String key = entry.getKey();
       String value = entry.getValue();
       // change the tag inverted index map
-      tagVal2LeafMNodeSet = tagIndex.get(key);
-      if (tagVal2LeafMNodeSet != null) {
-        MMNodes = tagVal2LeafMNodeSet.get(value);
-        if (MMNodes != null) {
+      Map<String, TagPostingList> tagVal2Ids = tagIndex.get(key);
+      if (tagVal2Ids != null) {
+        if (tagVal2Ids.containsKey(value)) {
           if (logger.isDebugEnabled()) {
             logger.debug(
                 String.format(
@@ -490,13 +471,7 @@ public class TagManager {
                     leafMNode.getOffset()));
           }
 
-          MMNodes.remove(leafMNode);
-          if (MMNodes.isEmpty()) {
-            tagVal2LeafMNodeSet.remove(value);
-            if (tagVal2LeafMNodeSet.isEmpty()) {
-              tagIndex.remove(key);
-            }
-          }
+          removeIndex(key, value, leafMNode);
         }
       } else {
         if (logger.isDebugEnabled()) {
@@ -563,7 +538,7 @@ public class TagManager {
                   leafMNode.getOffset()));
         }
 
-        tagIndex.get(key).get(beforeValue).remove(leafMNode);
+        removeIndex(key, beforeValue, leafMNode);
       } else {
         if (logger.isDebugEnabled()) {
           logger.debug(
@@ -618,7 +593,7 @@ public class TagManager {
                   leafMNode.getOffset()));
         }
 
-        tagIndex.get(oldKey).get(value).remove(leafMNode);
+        removeIndex(oldKey, value, leafMNode);
 
       } else {
         if (logger.isDebugEnabled()) {
@@ -655,8 +630,87 @@ public class TagManager {
     return tagLogFile.read(config.getTagAttributeTotalSize(), tagFileOffset);
   }
 
+  private List<IMeasurementMNode> getMatchedNodes(String key, String value, boolean isContains) {
+    List<IMeasurementMNode> nodes = new ArrayList<>();
+    synchronized (idLock) {
+      getMatchedIds(key, value, isContains)
+          .forEach(
+              id -> {
+                if (id < idToNode.size() && idToNode.get(id) != null) {
+                  nodes.add(idToNode.get(id));
+                }
+              });
+    }
+    return nodes;
+  }
+
+  private TagPostingList getMatchedIds(String key, String value, boolean isContains) {
+    ConcurrentSkipListMap<String, TagPostingList> value2Ids = tagIndex.get(key);
+    if (value2Ids == null) {
+      return new TagPostingList();
+    }
+    if (!isContains) {
+      TagPostingList ids = value2Ids.get(value);
+      return ids == null ? new TagPostingList() : ids;
+    }
+    TagValueGramIndex gramIndex = tagValueGramIndex.get(key);
+    Set<String> candidates = gramIndex == null ? null : gramIndex.getCandidates(value);
+    TagPostingList result = new TagPostingList();
+    // a string shorter than a gram is matched by scanning all the values
+    for (String tagValue : candidates == null ? value2Ids.keySet() : candidates) {
+      if (!tagValue.contains(value)) {
+        continue;
+      }
+      TagPostingList ids = value2Ids.get(tagValue);
+      if (ids != null) {
+        result = result.or(ids);
+      }
+    }
+    return result;
+  }
+
+  private int getOrAssignId(IMeasurementMNode node) {
+    synchronized (idLock) {
+      Integer id = nodeToId.get(node);
+      if (id == null) {
+        if (freeIds.isEmpty()) {
+          id = idToNode.size();
+          idToNode.add(node);
+        } else {
+          id = freeIds.poll();
+          idToNode.set(id, node);
+        }
+        nodeToId.put(node, id);
+      }
+      return id;
+    }
+  }
+
+  private Integer getId(IMeasurementMNode node) {
+    synchronized (idLock) {
+      return nodeToId.get(node);
+    }
+  }
+
+  /** the node is no longer in any posting list, so that its id could be reused */
+  private void releaseId(IMeasurementMNode node) {
+    synchronized (idLock) {
+      Integer id = nodeToId.remove(node);
+      if (id != null) {
+        idToNode.set(id, null);
+        freeIds.add(id);
+      }
+    }
+  }
+
   public void clear() throws IOException {
     this.tagIndex.clear();
+    this.tagValueGramIndex.clear();
+    synchronized (idLock) {
+      nodeToId.clear();
+      idToNode.clear();
+      freeIds.clear();
+    }
     if (tagLogFile != null) {
       tagLogFile.close();
       tagLogFile = null;
@@ -0,0 +1,445 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of non-negative int ids, used as the posting list of a tag value in the tag
+ * inverted index. Like a roaring bitmap, the ids are split by their high 16 bits into containers.
+ * A container stores the low 16 bits of at most {@link #ARRAY_CONTAINER_MAX_SIZE} ids in a sorted
+ * char array, and those of more ids in a bitmap of 8KB. A bitmap is converted back to an array only
+ * when it shrinks to {@link #BITMAP_CONTAINER_MIN_SIZE} ids, so that adding and removing ids around
+ * the threshold does not convert the container back and forth.
+ *
+ * <p>All the methods are synchronized. {@link #and} and {@link #or} return new lists.
+ */
+public class TagPostingList {
+
+  /** a container with more ids than this is a bitmap, whose size is equal to 4096 chars */
+  static final int ARRAY_CONTAINER_MAX_SIZE = 4096;
+
+  /** a bitmap container with this many ids or fewer after a removal becomes an array again */
+  static final int BITMAP_CONTAINER_MIN_SIZE = ARRAY_CONTAINER_MAX_SIZE / 2;
+
+  private static final int BITMAP_LONG_NUM = (1 << 16) / Long.SIZE;
+
+  /** sorted high 16 bits of the containers */
+  private char[] keys = new char[0];
+
+  private Container[] containers = new Container[0];
+
+  private int containerNum;
+
+  public synchronized void add(int id) {
+    char key = highBits(id);
+    int index = Arrays.binarySearch(keys, 0, containerNum, key);
+    if (index >= 0) {
+      containers[index] = containers[index].add(lowBits(id));
+    } else {
+      insertContainer(-index - 1, key, new ArrayContainer().add(lowBits(id)));
+    }
+  }
+
+  public synchronized void remove(int id) {
+    int index = Arrays.binarySearch(keys, 0, containerNum, highBits(id));
+    if (index < 0) {
+      return;
+    }
+    Container container = containers[index].remove(lowBits(id));
+    if (container.getCardinality() == 0) {
+      System.arraycopy(keys, index + 1, keys, index, containerNum - index - 1);
+      System.arraycopy(containers, index + 1, containers, index, containerNum - index - 1);
+      containers[--containerNum] = null;
+    } else {
+      containers[index] = container;
+    }
+  }
+
+  public synchronized boolean contains(int id) {
+    int index = Arrays.binarySearch(keys, 0, containerNum, highBits(id));
+    return index >= 0 && containers[index].contains(lowBits(id));
+  }
+
+  public synchronized boolean isEmpty() {
+    return containerNum == 0;
+  }
+
+  public synchronized int getCardinality() {
+    int cardinality = 0;
+    for (int i = 0; i < containerNum; i++) {
+      cardinality += containers[i].getCardinality();
+    }
+    return cardinality;
+  }
+
+  /** apply the consumer to all the ids in ascending order */
+  public synchronized void forEach(IntConsumer consumer) {
+    for (int i = 0; i < containerNum; i++) {
+      containers[i].forEach(keys[i] << 16, consumer);
+    }
+  }
+
+  public synchronized TagPostingList copy() {
+    TagPostingList copy = new TagPostingList();
+    copy.keys = Arrays.copyOf(keys, containerNum);
+    copy.containers = new Container[containerNum];
+    for (int i = 0; i < containerNum; i++) {
+      copy.containers[i] = containers[i].copy();
+    }
+    copy.containerNum = containerNum;
+    return copy;
+  }
+
+  /** @return a new list of the ids that are in both this list and the other */
+  public TagPostingList and(TagPostingList other) {
+    TagPostingList left = copy();
+    TagPostingList right = other.copy();
+    TagPostingList result = new TagPostingList();
+    int i = 0;
+    int j = 0;
+    while (i < left.containerNum && j < right.containerNum) {
+      if (left.keys[i] < right.keys[j]) {
+        i++;
+      } else if (left.keys[i] > right.keys[j]) {
+        j++;
+      } else {
+        Container container = left.containers[i].and(right.containers[j]);
+        if (container.getCardinality() > 0) {
+          result.insertContainer(result.containerNum, left.keys[i], container);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** @return a new list of the ids that are in this list or the other */
+  public TagPostingList or(TagPostingList other) {
+    TagPostingList left = copy();
+    TagPostingList right = other.copy();
+    TagPostingList result = new TagPostingList();
+    int i = 0;
+    int j = 0;
+    while (i < left.containerNum || j < right.containerNum) {
+      if (j == right.containerNum || (i < left.containerNum && left.keys[i] < right.keys[j])) {
+        result.insertContainer(result.containerNum, left.keys[i], left.containers[i]);
+        i++;
+      } else if (i == left.containerNum || left.keys[i] > right.keys[j]) {
+        result.insertContainer(result.containerNum, right.keys[j], right.containers[j]);
+        j++;
+      } else {
+        result.insertContainer(
+            result.containerNum, left.keys[i], left.containers[i].or(right.containers[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  private void insertContainer(int index, char key, Container container) {
+    if (containerNum == keys.length) {
+      int newLength = Math.max(4, containerNum * 2);
+      keys = Arrays.copyOf(keys, newLength);
+      containers = Arrays.copyOf(containers, newLength);
+    }
+    System.arraycopy(keys, index, keys, index + 1, containerNum - index);
+    System.arraycopy(containers, index, containers, index + 1, containerNum - index);
+    keys[index] = key;
+    containers[index] = container;
+    containerNum++;
+  }
+
+  private static char highBits(int id) {
+    return (char) (id >>> 16);
+  }
+
+  private static char lowBits(int id) {
+    return (char) id;
+  }
+
+  private interface Container {
+
+    /** @return the container after adding, which may be converted to another type */
+    Container add(char value);
+
+    /** @return the container after removing, which may be converted to another type */
+    Container remove(char value);
+
+    boolean contains(char value);
+
+    int getCardinality();
+
+    void forEach(int high, IntConsumer consumer);
+
+    Container and(Container other);
+
+    Container or(Container other);
+
+    Container copy();
+  }
+
+  private static class ArrayContainer implements Container {
+
+    private char[] values;
+    private int cardinality;
+
+    private ArrayContainer() {
+      this(new char[4], 0);
+    }
+
+    private ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Container add(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_CONTAINER_MAX_SIZE) {
+        return toBitmapContainer().add(value);
+      }
+      index = -index - 1;
+      if (cardinality == values.length) {
+        values =
+            Arrays.copyOf(values, Math.min(Math.max(4, cardinality * 2), ARRAY_CONTAINER_MAX_SIZE));
+      }
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      int index = Arrays.binarySearch(values, 0, cardinality, value);
+      if (index >= 0) {
+        System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    public int getCardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public void forEach(int high, IntConsumer consumer) {
+      for (int i = 0; i < cardinality; i++) {
+        consumer.accept(high | values[i]);
+      }
+    }
+
+    @Override
+    public Container and(Container other) {
+      char[] result = new char[cardinality];
+      int resultCardinality = 0;
+      if (other instanceof ArrayContainer) {
+        ArrayContainer array = (ArrayContainer) other;
+        int i = 0;
+        int j = 0;
+        while (i < cardinality && j < array.cardinality) {
+          if (values[i] < array.values[j]) {
+            i++;
+          } else if (values[i] > array.values[j]) {
+            j++;
+          } else {
+            result[resultCardinality++] = values[i];
+            i++;
+            j++;
+          }
+        }
+      } else {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            result[resultCardinality++] = values[i];
+          }
+        }
+      }
+      return new ArrayContainer(result, resultCardinality);
+    }
+
+    @Override
+    public Container or(Container other) {
+      if (other instanceof BitmapContainer) {
+        return other.or(this);
+      }
+      ArrayContainer array = (ArrayContainer) other;
+      char[] result = new char[cardinality + array.cardinality];
+      int resultCardinality = 0;
+      int i = 0;
+      int j = 0;
+      while (i < cardinality || j < array.cardinality) {
+        if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+          result[resultCardinality++] = values[i++];
+        } else if (i == cardinality || values[i] > array.values[j]) {
+          result[resultCardinality++] = array.values[j++];
+        } else {
+          result[resultCardinality++] = values[i];
+          i++;
+          j++;
+        }
+      }
+      ArrayContainer container = new ArrayContainer(result, resultCardinality);
+      return resultCardinality > ARRAY_CONTAINER_MAX_SIZE
+          ? container.toBitmapContainer()
+          : container;
+    }
+
+    @Override
+    public Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    private BitmapContainer toBitmapContainer() {
+      BitmapContainer bitmap = new BitmapContainer();
+      for (int i = 0; i < cardinality; i++) {
+        bitmap.add(values[i]);
+      }
+      return bitmap;
+    }
+  }
+
+  private static class BitmapContainer implements Container {
+
+    private final long[] bitmap;
+    private int cardinality;
+
+    private BitmapContainer() {
+      this(new long[BITMAP_LONG_NUM], 0);
+    }
+
+    private BitmapContainer(long[] bitmap, int cardinality) {
+      this.bitmap = bitmap;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    public Container add(char value) {
+      long mask = 1L << value;
+      if ((bitmap[value >>> 6] & mask) == 0) {
+        bitmap[value >>> 6] |= mask;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    public Container remove(char value) {
+      long mask = 1L << value;
+      if ((bitmap[value >>> 6] & mask) != 0) {
+        bitmap[value >>> 6] &= ~mask;
+        cardinality--;
+        if (cardinality <= BITMAP_CONTAINER_MIN_SIZE) {
+          return toArrayContainer();
+        }
+      }
+      return this;
+    }
+
+    @Override
+    public boolean contains(char value) {
+      return (bitmap[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    public int getCardinality() {
+      return cardinality;
+    }
+
+    @Override
+    public void forEach(int high, IntConsumer consumer) {
+      for (int i = 0; i < BITMAP_LONG_NUM; i++) {
+        long word = bitmap[i];
+        while (word != 0) {
+          consumer.accept(high | (i << 6) | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    @Override
+    public Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      long[] otherBitmap = ((BitmapContainer) other).bitmap;
+      long[] result = new long[BITMAP_LONG_NUM];
+      int resultCardinality = 0;
+      for (int i = 0; i < BITMAP_LONG_NUM; i++) {
+        result[i] = bitmap[i] & otherBitmap[i];
+        resultCardinality += Long.bitCount(result[i]);
+      }
+      BitmapContainer container = new BitmapContainer(result, resultCardinality);
+      return resultCardinality <= ARRAY_CONTAINER_MAX_SIZE
+          ? container.toArrayContainer()
+          : container;
+    }
+
+    @Override
+    public Container or(Container other) {
+      BitmapContainer result = (BitmapContainer) copy();
+      if (other instanceof ArrayContainer) {
+        ArrayContainer array = (ArrayContainer) other;
+        for (int i = 0; i < array.cardinality; i++) {
+          result.add(array.values[i]);
+        }
+      } else {
+        long[] otherBitmap = ((BitmapContainer) other).bitmap;
+        result.cardinality = 0;
+        for (int i = 0; i < BITMAP_LONG_NUM; i++) {
+          result.bitmap[i] |= otherBitmap[i];
+          result.cardinality += Long.bitCount(result.bitmap[i]);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public Container copy() {
+      return new BitmapContainer(Arrays.copyOf(bitmap, BITMAP_LONG_NUM), cardinality);
+    }
+
+    private ArrayContainer toArrayContainer() {
+      char[] values = new char[cardinality];
+      int index = 0;
+      for (int i = 0; i < BITMAP_LONG_NUM; i++) {
+        long word = bitmap[i];
+        while (word != 0) {
+          values[index++] = (char) ((i << 6) | Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Gram index of the values of one tag key, used by the contains match of tag values. A value is
+ * indexed by all of its substrings of {@link #GRAM_LENGTH} chars. The values containing a string
+ * must have all the grams of that string, so the values of its rarest gram are the candidates,
+ * which still need to be checked by {@link String#contains}.
+ *
+ * <p>All the methods are synchronized.
+ */
+public class TagValueGramIndex {
+
+  static final int GRAM_LENGTH = 3;
+
+  private final Map<String, Set<String>> gramToValues = new HashMap<>();
+
+  public synchronized void add(String value) {
+    for (String gram : getGrams(value)) {
+      gramToValues.computeIfAbsent(gram, g -> new HashSet<>()).add(value);
+    }
+  }
+
+  public synchronized void remove(String value) {
+    for (String gram : getGrams(value)) {
+      Set<String> values = gramToValues.get(gram);
+      if (values != null) {
+        values.remove(value);
+        if (values.isEmpty()) {
+          gramToValues.remove(gram);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return a copy of the values that may contain the string, or null if the string is shorter
+   *     than a gram and all the values have to be checked
+   */
+  public synchronized Set<String> getCandidates(String str) {
+    List<String> grams = getGrams(str);
+    if (grams.isEmpty()) {
+      return null;
+    }
+    Set<String> candidates = null;
+    for (String gram : grams) {
+      Set<String> values = gramToValues.get(gram);
+      if (values == null) {
+        return Collections.emptySet();
+      }
+      if (candidates == null || values.size() < candidates.size()) {
+        candidates = values;
+      }
+    }
+    return new HashSet<>(candidates);
+  }
+
+  private static List<String> getGrams(String str) {
+    List<String> grams = new ArrayList<>();
+    for (int i = 0; i + GRAM_LENGTH <= str.length(); i++) {
+      grams.add(str.substring(i, i + GRAM_LENGTH));
+    }
+    return grams;
+  }
+}
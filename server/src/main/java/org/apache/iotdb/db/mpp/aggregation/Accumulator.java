@@ -69,6 +69,15 @@ public interface Accumulator {
    */
   boolean hasFinalResult();
 
+  /**
+   * Whether the result can be calculated by addStatistics() with the statistics of a file, chunk or
+   * page. If not, seriesAggregateScanOperator has to read the raw data of it for this accumulator
+   * even if it is totally in the time range.
+   */
+  default boolean canUseStatistics(Statistics statistics) {
+    return true;
+  }
+
   TSDataType[] getIntermediateType();
 
   TSDataType getFinalType();
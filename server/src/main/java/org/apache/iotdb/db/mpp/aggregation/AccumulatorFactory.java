@@ -23,13 +23,23 @@ import org.apache.iotdb.db.query.aggregation.AggregationType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class AccumulatorFactory {
 
   // TODO: Are we going to create different seriesScanOperator based on order by sequence?
   public static Accumulator createAccumulator(
       AggregationType aggregationType, TSDataType tsDataType, boolean ascending) {
+    return createAccumulator(aggregationType, tsDataType, Collections.emptyMap(), ascending);
+  }
+
+  public static Accumulator createAccumulator(
+      AggregationType aggregationType,
+      TSDataType tsDataType,
+      Map<String, String> inputAttributes,
+      boolean ascending) {
     switch (aggregationType) {
       case COUNT:
         return new CountAccumulator();
@@ -55,6 +65,13 @@ public class AccumulatorFactory {
         return ascending
             ? new FirstValueAccumulator(tsDataType)
             : new FirstValueDescAccumulator(tsDataType);
+      case APPROX_COUNT_DISTINCT:
+        return new ApproxCountDistinctAccumulator(tsDataType);
+      case APPROX_MEDIAN:
+        return new ApproxPercentileAccumulator(tsDataType, ApproxPercentileAccumulator.MEDIAN);
+      case PERCENTILE:
+        return new ApproxPercentileAccumulator(
+            tsDataType, ApproxPercentileAccumulator.parseQuantile(inputAttributes));
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggregationType);
     }
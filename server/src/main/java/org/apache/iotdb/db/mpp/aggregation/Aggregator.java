@@ -136,6 +136,16 @@ public class Aggregator {
     return accumulator.hasFinalResult();
   }
 
+  /** Used for SeriesAggregateScanOperator, whether processStatistics() can be called. */
+  public boolean canUseStatistics(Statistics[] statistics) {
+    for (InputLocation[] inputLocations : inputLocationList) {
+      if (!accumulator.canUseStatistics(statistics[inputLocations[0].getValueColumnIndex()])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   public void updateTimeRange(TimeRange curTimeRange) {
     reset();
     this.curTimeRange = curTimeRange;
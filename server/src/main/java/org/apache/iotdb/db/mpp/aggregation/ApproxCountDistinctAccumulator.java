@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.db.mpp.aggregation.sketch.HyperLogLog;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/** Approximate number of distinct values, whose partial result is a serialized HyperLogLog. */
+public class ApproxCountDistinctAccumulator implements Accumulator {
+
+  private final TSDataType seriesDataType;
+  private final HyperLogLog hyperLogLog = new HyperLogLog();
+  private boolean initResult = false;
+
+  // final result set by setFinal(), which can't be turned back into a sketch
+  private long finalResult = -1;
+
+  public ApproxCountDistinctAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public int addInput(Column[] column, TimeRange timeRange) {
+    TimeColumn timeColumn = (TimeColumn) column[0];
+    Column valueColumn = column[1];
+    int curPositionCount = timeColumn.getPositionCount();
+    long curMinTime = timeRange.getMin();
+    long curMaxTime = timeRange.getMax();
+    for (int i = 0; i < curPositionCount; i++) {
+      long curTime = timeColumn.getLong(i);
+      if (curTime > curMaxTime || curTime < curMinTime) {
+        return i;
+      }
+      if (!valueColumn.isNull(i)) {
+        initResult = true;
+        offer(valueColumn, i);
+      }
+    }
+    return curPositionCount;
+  }
+
+  private void offer(Column valueColumn, int index) {
+    switch (seriesDataType) {
+      case INT32:
+        hyperLogLog.offer(valueColumn.getInt(index));
+        break;
+      case INT64:
+        hyperLogLog.offer(valueColumn.getLong(index));
+        break;
+      case FLOAT:
+        hyperLogLog.offer((double) valueColumn.getFloat(index));
+        break;
+      case DOUBLE:
+        hyperLogLog.offer(valueColumn.getDouble(index));
+        break;
+      case BOOLEAN:
+        hyperLogLog.offer(valueColumn.getBoolean(index) ? 1 : 0);
+        break;
+      case TEXT:
+        hyperLogLog.offer(valueColumn.getBinary(index).getValues());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation APPROX_COUNT_DISTINCT : %s",
+                seriesDataType));
+    }
+  }
+
+  // partialResult should be like: | serializedHyperLogLog |
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of ApproxCountDistinct should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    initResult = true;
+    hyperLogLog.mergeSerialized(partialResult[0].getBinary(0).getValues());
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics == null) {
+      return;
+    }
+    checkArgument(
+        canUseStatistics(statistics),
+        "ApproxCountDistinct can only be calculated from statistics of a single value");
+    initResult = true;
+    switch (seriesDataType) {
+      case INT32:
+        hyperLogLog.offer((int) statistics.getMinValue());
+        break;
+      case INT64:
+        hyperLogLog.offer((long) statistics.getMinValue());
+        break;
+      case FLOAT:
+        hyperLogLog.offer((double) (float) statistics.getMinValue());
+        break;
+      case DOUBLE:
+        hyperLogLog.offer((double) statistics.getMinValue());
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation APPROX_COUNT_DISTINCT : %s",
+                seriesDataType));
+    }
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    reset();
+    if (!finalResult.isNull(0)) {
+      this.finalResult = finalResult.getLong(0);
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of ApproxCountDistinct should be 1");
+    if (!initResult) {
+      columnBuilders[0].appendNull();
+    } else {
+      columnBuilders[0].writeBinary(new Binary(hyperLogLog.serialize()));
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (finalResult >= 0) {
+      columnBuilder.writeLong(finalResult);
+    } else {
+      columnBuilder.writeLong(initResult ? hyperLogLog.cardinality() : 0);
+    }
+  }
+
+  @Override
+  public void reset() {
+    initResult = false;
+    finalResult = -1;
+    hyperLogLog.reset();
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  // the sketch isn't kept in statistics, so they can only be used if all the values are the same
+  @Override
+  public boolean canUseStatistics(Statistics statistics) {
+    return statistics == null
+        || (seriesDataType.isNumeric()
+            && statistics.getMinValue().equals(statistics.getMaxValue()));
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.INT64;
+  }
+}
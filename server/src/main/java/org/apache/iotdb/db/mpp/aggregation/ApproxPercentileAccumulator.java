@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation;
+
+import org.apache.iotdb.db.mpp.aggregation.sketch.KLLSketch;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Approximate quantile of APPROX_MEDIAN and PERCENTILE, whose partial result is a serialized {@link
+ * KLLSketch}.
+ */
+public class ApproxPercentileAccumulator implements Accumulator {
+
+  public static final double MEDIAN = 0.5;
+
+  /** attribute of PERCENTILE, e.g. percentile(s1, 'q'='0.9') */
+  public static final String QUANTILE_ATTRIBUTE = "q";
+
+  private final TSDataType seriesDataType;
+  private final double quantile;
+  private final KLLSketch sketch = new KLLSketch();
+
+  // final result set by setFinal(), which can't be turned back into a sketch
+  private Double finalResult;
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType, double quantile) {
+    this.seriesDataType = seriesDataType;
+    this.quantile = quantile;
+  }
+
+  /**
+   * Get the quantile from the attributes of PERCENTILE.
+   *
+   * @throws IllegalArgumentException if the quantile is missing or not a number in [0, 1]
+   */
+  public static double parseQuantile(Map<String, String> attributes) {
+    String value = attributes.get(QUANTILE_ATTRIBUTE);
+    if (value == null) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Attribute '%s' of aggregation PERCENTILE is required, e.g. percentile(s1, '%s'='0.9')",
+              QUANTILE_ATTRIBUTE, QUANTILE_ATTRIBUTE));
+    }
+    double quantile;
+    try {
+      quantile = Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      quantile = Double.NaN;
+    }
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Attribute '%s' of aggregation PERCENTILE should be in [0, 1], but is %s",
+              QUANTILE_ATTRIBUTE, value));
+    }
+    return quantile;
+  }
+
+  @Override
+  public int addInput(Column[] column, TimeRange timeRange) {
+    TimeColumn timeColumn = (TimeColumn) column[0];
+    Column valueColumn = column[1];
+    int curPositionCount = timeColumn.getPositionCount();
+    long curMinTime = timeRange.getMin();
+    long curMaxTime = timeRange.getMax();
+    for (int i = 0; i < curPositionCount; i++) {
+      long curTime = timeColumn.getLong(i);
+      if (curTime > curMaxTime || curTime < curMinTime) {
+        return i;
+      }
+      if (!valueColumn.isNull(i)) {
+        sketch.offer(getDouble(valueColumn, i));
+      }
+    }
+    return curPositionCount;
+  }
+
+  private double getDouble(Column valueColumn, int index) {
+    switch (seriesDataType) {
+      case INT32:
+        return valueColumn.getInt(index);
+      case INT64:
+        return valueColumn.getLong(index);
+      case FLOAT:
+        return valueColumn.getFloat(index);
+      case DOUBLE:
+        return valueColumn.getDouble(index);
+      case TEXT:
+      case BOOLEAN:
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in aggregation APPROX_MEDIAN and PERCENTILE : %s",
+                seriesDataType));
+    }
+  }
+
+  // partialResult should be like: | serializedKLLSketch |
+  @Override
+  public void addIntermediate(Column[] partialResult) {
+    checkArgument(partialResult.length == 1, "partialResult of ApproxPercentile should be 1");
+    if (partialResult[0].isNull(0)) {
+      return;
+    }
+    sketch.merge(KLLSketch.deserialize(partialResult[0].getBinary(0).getValues()));
+  }
+
+  @Override
+  public void addStatistics(Statistics statistics) {
+    if (statistics == null) {
+      return;
+    }
+    checkArgument(
+        canUseStatistics(statistics),
+        "ApproxPercentile can only be calculated from statistics of a single value");
+    double value = ((Number) statistics.getMinValue()).doubleValue();
+    for (long i = 0, count = statistics.getCount(); i < count; i++) {
+      sketch.offer(value);
+    }
+  }
+
+  @Override
+  public void setFinal(Column finalResult) {
+    reset();
+    if (!finalResult.isNull(0)) {
+      this.finalResult = finalResult.getDouble(0);
+    }
+  }
+
+  @Override
+  public void outputIntermediate(ColumnBuilder[] columnBuilders) {
+    checkArgument(columnBuilders.length == 1, "partialResult of ApproxPercentile should be 1");
+    if (sketch.isEmpty()) {
+      columnBuilders[0].appendNull();
+    } else {
+      columnBuilders[0].writeBinary(new Binary(sketch.serialize()));
+    }
+  }
+
+  @Override
+  public void outputFinal(ColumnBuilder columnBuilder) {
+    if (finalResult != null) {
+      columnBuilder.writeDouble(finalResult);
+    } else if (sketch.isEmpty()) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(sketch.quantile(quantile));
+    }
+  }
+
+  @Override
+  public void reset() {
+    finalResult = null;
+    sketch.reset();
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  // the sketch isn't kept in statistics, so they can only be used if all the values are the same
+  @Override
+  public boolean canUseStatistics(Statistics statistics) {
+    return statistics == null
+        || (seriesDataType.isNumeric()
+            && statistics.getMinValue().equals(statistics.getMaxValue()));
+  }
+
+  @Override
+  public TSDataType[] getIntermediateType() {
+    return new TSDataType[] {TSDataType.TEXT};
+  }
+
+  @Override
+  public TSDataType getFinalType() {
+    return TSDataType.DOUBLE;
+  }
+}
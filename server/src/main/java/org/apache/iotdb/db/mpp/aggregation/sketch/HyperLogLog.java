@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation.sketch;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * HyperLogLog sketch for the approximate number of distinct values. Two sketches are merged by
+ * taking the maximum of each register, so the sketches of different time ranges, series or regions
+ * can be merged into the one of their union.
+ *
+ * <p>With 2^12 registers, the standard error of the estimation is about 1.6%.
+ */
+public class HyperLogLog {
+
+  private static final int PRECISION = 12;
+  private static final int REGISTER_NUM = 1 << PRECISION;
+  private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTER_NUM);
+
+  private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+  private final byte[] registers = new byte[REGISTER_NUM];
+
+  public void offer(long value) {
+    offerHash(HASH_FUNCTION.hashLong(value).asLong());
+  }
+
+  public void offer(double value) {
+    offer(Double.doubleToLongBits(value));
+  }
+
+  public void offer(byte[] value) {
+    offerHash(HASH_FUNCTION.hashBytes(value).asLong());
+  }
+
+  private void offerHash(long hash) {
+    int index = (int) (hash >>> (Long.SIZE - PRECISION));
+    // the position of the first 1 bit in the remaining bits, starting from 1
+    long remaining = (hash << PRECISION) | (1L << (PRECISION - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+    if (registers[index] < rank) {
+      registers[index] = rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    mergeSerialized(other.registers);
+  }
+
+  public long cardinality() {
+    double sum = 0;
+    int zeroNum = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeroNum++;
+      }
+    }
+    double estimate = ALPHA * REGISTER_NUM * REGISTER_NUM / sum;
+    if (estimate <= 2.5 * REGISTER_NUM && zeroNum > 0) {
+      // linear counting is more accurate for small cardinalities
+      estimate = REGISTER_NUM * Math.log((double) REGISTER_NUM / zeroNum);
+    }
+    return Math.round(estimate);
+  }
+
+  public void reset() {
+    Arrays.fill(registers, (byte) 0);
+  }
+
+  public byte[] serialize() {
+    return Arrays.copyOf(registers, REGISTER_NUM);
+  }
+
+  public void mergeSerialized(byte[] bytes) {
+    checkArgument(bytes.length == REGISTER_NUM, "Invalid serialized HyperLogLog");
+    for (int i = 0; i < REGISTER_NUM; i++) {
+      if (registers[i] < bytes[i]) {
+        registers[i] = bytes[i];
+      }
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation.sketch;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KLL sketch for approximate quantiles of doubles. The items are kept in levels of compactors, and
+ * an item in level h stands for 2^h input values. When the sketch is full, the lowest full level
+ * is sorted and every other item of it is promoted to the next level, so the memory is bounded by
+ * about 3k items no matter how many values are offered. Sketches are merged by concatenating their
+ * levels and compacting again.
+ *
+ * <p>With k = 200, the rank error of a quantile is about 1.65% of the number of values.
+ */
+public class KLLSketch {
+
+  private static final int DEFAULT_K = 200;
+  private static final double CAPACITY_DECAY = 2.0 / 3.0;
+  private static final int MIN_LEVEL_CAPACITY = 2;
+
+  private final int k;
+
+  /** number of offered values */
+  private long count;
+
+  private double[][] levels = new double[0][];
+  private int[] levelSizes = new int[0];
+  private int levelNum;
+
+  // the capacities only depend on the number of levels, so they are recomputed when a level is
+  // added instead of on every offer
+  private int[] levelCapacities = new int[0];
+  private int totalCapacity;
+  private int retainedItemNum;
+
+  public KLLSketch() {
+    this(DEFAULT_K);
+  }
+
+  public KLLSketch(int k) {
+    this.k = k;
+    addLevel();
+  }
+
+  public void offer(double value) {
+    append(0, value);
+    count++;
+    compactIfFull();
+  }
+
+  public void merge(KLLSketch other) {
+    while (levelNum < other.levelNum) {
+      addLevel();
+    }
+    for (int h = 0; h < other.levelNum; h++) {
+      double[] items = other.levels[h];
+      for (int i = 0; i < other.levelSizes[h]; i++) {
+        append(h, items[i]);
+      }
+    }
+    count += other.count;
+    compactIfFull();
+  }
+
+  public boolean isEmpty() {
+    return count == 0;
+  }
+
+  /** @param fraction in [0, 1], e.g. 0.5 for median */
+  public double quantile(double fraction) {
+    if (count == 0) {
+      throw new IllegalStateException("Quantile of an empty sketch");
+    }
+    int itemNum = retainedItemNum;
+    double[] values = new double[itemNum];
+    long[] weights = new long[itemNum];
+    Integer[] order = new Integer[itemNum];
+    int index = 0;
+    long totalWeight = 0;
+    for (int h = 0; h < levelNum; h++) {
+      double[] items = levels[h];
+      for (int i = 0; i < levelSizes[h]; i++) {
+        values[index] = items[i];
+        weights[index] = 1L << h;
+        order[index] = index;
+        totalWeight += weights[index];
+        index++;
+      }
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+    double targetWeight = fraction * totalWeight;
+    long cumulativeWeight = 0;
+    for (int i : order) {
+      cumulativeWeight += weights[i];
+      if (cumulativeWeight >= targetWeight) {
+        return values[i];
+      }
+    }
+    return values[order[itemNum - 1]];
+  }
+
+  public void reset() {
+    count = 0;
+    levels = new double[0][];
+    levelSizes = new int[0];
+    levelNum = 0;
+    retainedItemNum = 0;
+    addLevel();
+  }
+
+  public byte[] serialize() {
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            Integer.BYTES
+                + Long.BYTES
+                + Integer.BYTES
+                + levelNum * Integer.BYTES
+                + retainedItemNum * Double.BYTES);
+    buffer.putInt(k);
+    buffer.putLong(count);
+    buffer.putInt(levelNum);
+    for (int h = 0; h < levelNum; h++) {
+      double[] items = levels[h];
+      buffer.putInt(levelSizes[h]);
+      for (int i = 0; i < levelSizes[h]; i++) {
+        buffer.putDouble(items[i]);
+      }
+    }
+    return buffer.array();
+  }
+
+  public static KLLSketch deserialize(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    KLLSketch sketch = new KLLSketch(buffer.getInt());
+    sketch.count = buffer.getLong();
+    int levelNum = buffer.getInt();
+    for (int h = 0; h < levelNum; h++) {
+      if (h > 0) {
+        sketch.addLevel();
+      }
+      int size = buffer.getInt();
+      for (int i = 0; i < size; i++) {
+        sketch.append(h, buffer.getDouble());
+      }
+    }
+    return sketch;
+  }
+
+  private void addLevel() {
+    if (levelNum == levels.length) {
+      levels = Arrays.copyOf(levels, levelNum + 4);
+      levelSizes = Arrays.copyOf(levelSizes, levelNum + 4);
+    }
+    levels[levelNum] = new double[MIN_LEVEL_CAPACITY];
+    levelSizes[levelNum] = 0;
+    levelNum++;
+    updateCapacities();
+  }
+
+  /** the top level has capacity k, and the capacities decay geometrically towards level 0 */
+  private void updateCapacities() {
+    levelCapacities = new int[levelNum];
+    totalCapacity = 0;
+    double capacity = k;
+    for (int h = levelNum - 1; h >= 0; h--) {
+      levelCapacities[h] = Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(capacity));
+      totalCapacity += levelCapacities[h];
+      capacity *= CAPACITY_DECAY;
+    }
+  }
+
+  private void append(int level, double value) {
+    double[] items = levels[level];
+    int size = levelSizes[level];
+    if (size == items.length) {
+      items = Arrays.copyOf(items, size * 2);
+      levels[level] = items;
+    }
+    items[size] = value;
+    levelSizes[level] = size + 1;
+    retainedItemNum++;
+  }
+
+  private void compactIfFull() {
+    while (retainedItemNum > totalCapacity) {
+      for (int h = 0; h < levelNum; h++) {
+        if (levelSizes[h] >= levelCapacities[h]) {
+          compact(h);
+          break;
+        }
+      }
+    }
+  }
+
+  /** sort the level and promote the items at odd or even positions to the next level */
+  private void compact(int level) {
+    if (level == levelNum - 1) {
+      addLevel();
+    }
+    double[] items = levels[level];
+    int size = levelSizes[level];
+    Arrays.sort(items, 0, size);
+    // an odd item is left in this level, so that the total weight is kept
+    int pairedSize = size & ~1;
+    int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+    for (int i = offset; i < pairedSize; i += 2) {
+      append(level + 1, items[i]);
+    }
+    int remaining = pairedSize < size ? 1 : 0;
+    if (remaining == 1) {
+      items[0] = items[size - 1];
+    }
+    levelSizes[level] = remaining;
+    retainedItemNum -= size - remaining;
+  }
+}
@@ -113,11 +113,13 @@ public class SlidingWindowAggregatorFactory {
   public static SlidingWindowAggregator createSlidingWindowAggregator(
       AggregationType aggregationType,
       TSDataType dataType,
+      Map<String, String> inputAttributes,
       boolean ascending,
       List<InputLocation[]> inputLocationList,
       AggregationStep step) {
     Accumulator accumulator =
-        AccumulatorFactory.createAccumulator(aggregationType, dataType, ascending);
+        AccumulatorFactory.createAccumulator(
+            aggregationType, dataType, inputAttributes, ascending);
     switch (aggregationType) {
       case SUM:
       case AVG:
@@ -142,6 +144,10 @@ public class SlidingWindowAggregatorFactory {
         return !ascending
             ? new NormalQueueSlidingWindowAggregator(accumulator, inputLocationList, step)
             : new EmptyQueueSlidingWindowAggregator(accumulator, inputLocationList, step);
+      case APPROX_COUNT_DISTINCT:
+      case APPROX_MEDIAN:
+      case PERCENTILE:
+        return new MergeQueueSlidingWindowAggregator(accumulator, inputLocationList, step);
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + aggregationType);
     }
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.mpp.execution.exchange;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeMPPDataExchangeServiceClient;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.utils.SetThreadName;
@@ -32,6 +33,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
 import org.apache.iotdb.mpp.rpc.thrift.TNewDataBlockEvent;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 
 import org.apache.commons.lang3.Validate;
@@ -94,10 +96,17 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
                   + ".");
         }
         TGetDataBlockResponse resp = new TGetDataBlockResponse();
+        // compress the tsblocks only if both sides enable it
+        CompressionType compressionType = CompressionType.UNCOMPRESSED;
+        if (req.isSetCompressionType()
+            && IoTDBDescriptor.getInstance().getConfig().isMppDataExchangeCompressionEnable()) {
+          compressionType = CompressionType.deserialize(req.getCompressionType());
+          resp.setCompressionType(compressionType.serialize());
+        }
         SinkHandle sinkHandle = (SinkHandle) sinkHandles.get(req.getSourceFragmentInstanceId());
         for (int i = req.getStartSequenceId(); i < req.getEndSequenceId(); i++) {
           try {
-            ByteBuffer serializedTsBlock = sinkHandle.getSerializedTsBlock(i);
+            ByteBuffer serializedTsBlock = sinkHandle.getSerializedTsBlock(i, compressionType);
             resp.addToTsBlocks(serializedTsBlock);
           } catch (IOException e) {
             throw new TException(e);
@@ -327,6 +336,10 @@ public class MPPDataExchangeManager implements IMPPDataExchangeManager {
     sinkHandles = new ConcurrentHashMap<>();
   }
 
+  public LocalMemoryManager getLocalMemoryManager() {
+    return localMemoryManager;
+  }
+
   public MPPDataExchangeServiceImpl getOrCreateMPPDataExchangeServiceImpl() {
     if (mppDataExchangeService == null) {
       mppDataExchangeService = new MPPDataExchangeServiceImpl();
@@ -101,7 +101,9 @@ public class MPPDataExchangeService extends ThriftService implements MPPDataExch
               config.getThriftServerAwaitTimeForStopService(),
               new MPPDataExchangeServiceThriftHandler(),
               // TODO: hard coded compress strategy
-              false);
+              false,
+              config.isRpcVirtualThreadEnable(),
+              config.getRpcVirtualThreadCarrierNum());
     } catch (RPCServiceException e) {
       throw new IllegalAccessException(e.getMessage());
     }
@@ -44,6 +44,13 @@ public class MPPDataExchangeServiceMetrics implements IMetricSet {
         AbstractThriftServiceThread::getActiveThreadCount,
         Tag.NAME.toString(),
         ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
+    metricService.getOrCreateAutoGauge(
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        MetricLevel.CORE,
+        thriftServiceThread,
+        AbstractThriftServiceThread::getBlockedThreadCount,
+        Tag.NAME.toString(),
+        ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
   }
 
   @Override
@@ -53,6 +60,11 @@ public class MPPDataExchangeServiceMetrics implements IMetricSet {
         Metric.THRIFT_ACTIVE_THREADS.toString(),
         Tag.NAME.toString(),
         ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
+    metricService.remove(
+        MetricType.GAUGE,
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        Tag.NAME.toString(),
+        ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
   }
 
   public AbstractThriftServiceThread getThriftServiceThread() {
@@ -29,6 +29,7 @@ import org.apache.iotdb.db.utils.SetThreadName;
 import org.apache.iotdb.mpp.rpc.thrift.TEndOfDataBlockEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TNewDataBlockEvent;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -269,7 +270,12 @@ public class SinkHandle implements ISinkHandle {
     throw new UnsupportedOperationException();
   }
 
-  synchronized ByteBuffer getSerializedTsBlock(int sequenceId) throws IOException {
+  ByteBuffer getSerializedTsBlock(int sequenceId) throws IOException {
+    return getSerializedTsBlock(sequenceId, CompressionType.UNCOMPRESSED);
+  }
+
+  synchronized ByteBuffer getSerializedTsBlock(int sequenceId, CompressionType compressionType)
+      throws IOException {
     if (aborted || closed) {
       logger.warn(
           "SinkHandle still receive getting TsBlock request after being aborted={} or closed={}",
@@ -285,7 +291,7 @@ public class SinkHandle implements ISinkHandle {
           sequenceIdToTsBlock.entrySet());
       throw new IllegalStateException("The data block doesn't exist. Sequence ID: " + sequenceId);
     }
-    return serde.serialize(pair.left);
+    return serde.serialize(pair.left, compressionType);
   }
 
   void acknowledgeTsBlock(int startSequenceId, int endSequenceId) {
@@ -23,6 +23,7 @@ import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.client.IClientManager;
 import org.apache.iotdb.commons.client.sync.SyncDataNodeMPPDataExchangeServiceClient;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.execution.exchange.MPPDataExchangeManager.SourceHandleListener;
 import org.apache.iotdb.db.mpp.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.utils.SetThreadName;
@@ -30,6 +31,7 @@ import org.apache.iotdb.mpp.rpc.thrift.TAcknowledgeDataBlockEvent;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockRequest;
 import org.apache.iotdb.mpp.rpc.thrift.TGetDataBlockResponse;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -40,8 +42,8 @@ import org.apache.commons.lang3.Validate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -57,6 +59,9 @@ public class SourceHandle implements ISourceHandle {
   public static final int MAX_ATTEMPT_TIMES = 3;
   private static final long DEFAULT_RETRY_INTERVAL_IN_MS = 1000;
 
+  private static final boolean COMPRESSION_ENABLE =
+      IoTDBDescriptor.getInstance().getConfig().isMppDataExchangeCompressionEnable();
+
   private final TEndPoint remoteEndpoint;
   private final TFragmentInstanceId remoteFragmentInstanceId;
   private final TFragmentInstanceId localFragmentInstanceId;
@@ -66,7 +71,13 @@ public class SourceHandle implements ISourceHandle {
   private final TsBlockSerde serde;
   private final SourceHandleListener sourceHandleListener;
 
-  private final Map<Integer, TsBlock> sequenceIdToTsBlock = new HashMap<>();
+  /**
+   * Serialized tsblocks and their compression types. They are deserialized lazily when they are
+   * received by the consumer, so that the buffered data stays compact.
+   */
+  private final Map<Integer, Pair<ByteBuffer, CompressionType>> sequenceIdToTsBlock =
+      new HashMap<>();
+
   private final Map<Integer, Long> sequenceIdToDataBlockSize = new HashMap<>();
 
   private final String threadName;
@@ -124,10 +135,17 @@ public class SourceHandle implements ISourceHandle {
         throw new IllegalStateException("Source handle is blocked.");
       }
 
-      TsBlock tsBlock = sequenceIdToTsBlock.remove(currSequenceId);
-      if (tsBlock == null) {
+      Pair<ByteBuffer, CompressionType> serializedTsBlock =
+          sequenceIdToTsBlock.remove(currSequenceId);
+      if (serializedTsBlock == null) {
         return null;
       }
+      TsBlock tsBlock;
+      try {
+        tsBlock = serde.deserialize(serializedTsBlock.left, serializedTsBlock.right);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to deserialize the data block.", e);
+      }
       long retainedSize = sequenceIdToDataBlockSize.remove(currSequenceId);
       logger.info("[GetTsBlockFromBuffer] sequenceId:{}, size:{}", currSequenceId, retainedSize);
       currSequenceId += 1;
@@ -379,17 +397,20 @@ public class SourceHandle implements ISourceHandle {
         logger.info("[StartPullTsBlocksFromRemote] [{}, {}) ", startSequenceId, endSequenceId);
         TGetDataBlockRequest req =
             new TGetDataBlockRequest(remoteFragmentInstanceId, startSequenceId, endSequenceId);
+        if (COMPRESSION_ENABLE) {
+          req.setCompressionType(CompressionType.LZ4.serialize());
+        }
         int attempt = 0;
         while (attempt < MAX_ATTEMPT_TIMES) {
           attempt += 1;
           try (SyncDataNodeMPPDataExchangeServiceClient client =
               mppDataExchangeServiceClientManager.borrowClient(remoteEndpoint)) {
             TGetDataBlockResponse resp = client.getDataBlock(req);
-            List<TsBlock> tsBlocks = new ArrayList<>(resp.getTsBlocks().size());
-            for (ByteBuffer byteBuffer : resp.getTsBlocks()) {
-              TsBlock tsBlock = serde.deserialize(byteBuffer);
-              tsBlocks.add(tsBlock);
-            }
+            List<ByteBuffer> tsBlocks = resp.getTsBlocks();
+            CompressionType compressionType =
+                resp.isSetCompressionType()
+                    ? CompressionType.deserialize(resp.getCompressionType())
+                    : CompressionType.UNCOMPRESSED;
             logger.info("[EndPullTsBlocksFromRemote] Count:{}", tsBlocks.size());
             executorService.submit(
                 new SendAcknowledgeDataBlockEventTask(startSequenceId, endSequenceId));
@@ -398,7 +419,8 @@ public class SourceHandle implements ISourceHandle {
                 return;
               }
               for (int i = startSequenceId; i < endSequenceId; i++) {
-                sequenceIdToTsBlock.put(i, tsBlocks.get(i - startSequenceId));
+                sequenceIdToTsBlock.put(
+                    i, new Pair<>(tsBlocks.get(i - startSequenceId), compressionType));
               }
               logger.info("[PutTsBlocksIntoBuffer]");
               if (!blocked.isDone()) {
@@ -18,55 +18,252 @@
  */
 package org.apache.iotdb.db.mpp.execution.operator.process;
 
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.MemorySortedRunReader;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.MergeSortKey;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortSpiller;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortUtil;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortedRunReader;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.tsfile.read.common.block.TsBlockBuilderStatus.DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
+
+/**
+ * Sorts all the rows of its child by the given comparator.
+ *
+ * <p>TsBlocks from the child are buffered in memory until the sort buffer is used up. The memory of
+ * the buffer is reserved from the query {@link MemoryPool}, so that a sort can not take more than
+ * the memory left for its query. When the buffer is full or the pool can not offer more memory, the
+ * buffered rows are sorted and spilled to local disk as a sorted run. After all the input is
+ * consumed, the spilled runs and the rows left in memory are k-way merged into the output.
+ */
 public class SortOperator implements ProcessOperator {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(SortOperator.class);
+
+  /** estimated memory cost of one MergeSortKey including the reference in the list */
+  private static final long MERGE_SORT_KEY_SIZE_IN_BYTES = 32L;
+
+  private final OperatorContext operatorContext;
+  private final Operator inputOperator;
+  private final Comparator<MergeSortKey> comparator;
+  private final TsBlockBuilder tsBlockBuilder;
+
+  private final MemoryPool memoryPool;
+  private final String queryId;
+  private final long sortBufferSize;
+  // bytes reserved from memoryPool for cachedKeys
+  private long reservedBytes = 0L;
+
+  private final SortSpiller spiller;
+
+  // rows of the input that have not been spilled yet
+  private List<MergeSortKey> cachedKeys = new ArrayList<>();
+
+  private boolean inputFinished = false;
+
+  private List<SortedRunReader> runReaders;
+  // the current row of each sorted run that has not been output
+  private PriorityQueue<MergeSortKey> mergeQueue;
+
+  public SortOperator(
+      OperatorContext operatorContext,
+      Operator inputOperator,
+      List<TSDataType> dataTypes,
+      Comparator<MergeSortKey> comparator,
+      MemoryPool memoryPool,
+      long sortBufferSize,
+      String spillDirectory) {
+    this.operatorContext = operatorContext;
+    this.inputOperator = inputOperator;
+    this.comparator = comparator;
+    this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
+    this.memoryPool = memoryPool;
+    this.queryId = operatorContext.getInstanceContext().getId().getQueryId().getId();
+    this.sortBufferSize = sortBufferSize;
+    this.spiller = new SortSpiller(spillDirectory, dataTypes);
+  }
+
   @Override
   public OperatorContext getOperatorContext() {
-    return null;
+    return operatorContext;
   }
 
   @Override
   public ListenableFuture<?> isBlocked() {
-    return ProcessOperator.super.isBlocked();
+    return inputFinished ? NOT_BLOCKED : inputOperator.isBlocked();
   }
 
   @Override
   public TsBlock next() {
-    return null;
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+    try {
+      if (!inputFinished) {
+        while (System.nanoTime() - start < maxRuntime
+            && inputOperator.isBlocked().isDone()
+            && inputOperator.hasNext()) {
+          TsBlock tsBlock = inputOperator.next();
+          if (tsBlock == null) {
+            return null;
+          }
+          if (!tsBlock.isEmpty()) {
+            cacheTsBlock(tsBlock);
+          }
+        }
+        if (inputOperator.hasNext()) {
+          return null;
+        }
+        prepareMerge();
+      }
+
+      while (System.nanoTime() - start < maxRuntime
+          && !mergeQueue.isEmpty()
+          && !tsBlockBuilder.isFull()) {
+        MergeSortKey key = mergeQueue.poll();
+        SortUtil.appendRow(tsBlockBuilder, key);
+        SortedRunReader reader = runReaders.get(key.runIndex);
+        if (reader.advance()) {
+          mergeQueue.add(reader.current());
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Error happened while sorting the input", e);
+    }
+
+    TsBlock res = tsBlockBuilder.build();
+    tsBlockBuilder.reset();
+    return res;
+  }
+
+  private void cacheTsBlock(TsBlock tsBlock) throws IOException {
+    long bytes =
+        tsBlock.getRetainedSizeInBytes()
+            + tsBlock.getPositionCount() * MERGE_SORT_KEY_SIZE_IN_BYTES;
+    if (!tryReserve(bytes)) {
+      spillCachedKeys();
+      if (!tryReserve(bytes)) {
+        // the TsBlock can not be held in memory even if the buffer is empty, spill it directly
+        List<MergeSortKey> keys = new ArrayList<>(tsBlock.getPositionCount());
+        addKeys(keys, tsBlock);
+        keys.sort(comparator);
+        spiller.spill(keys);
+        return;
+      }
+    }
+    addKeys(cachedKeys, tsBlock);
+  }
+
+  private boolean tryReserve(long bytes) {
+    if (reservedBytes + bytes > sortBufferSize || !memoryPool.tryReserve(queryId, bytes)) {
+      return false;
+    }
+    reservedBytes += bytes;
+    return true;
+  }
+
+  private void addKeys(List<MergeSortKey> keys, TsBlock tsBlock) {
+    for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++) {
+      keys.add(new MergeSortKey(tsBlock, i));
+    }
+  }
+
+  private void spillCachedKeys() throws IOException {
+    if (cachedKeys.isEmpty()) {
+      return;
+    }
+    cachedKeys.sort(comparator);
+    spiller.spill(cachedKeys);
+    cachedKeys = new ArrayList<>();
+    freeReservedMemory();
+  }
+
+  private void freeReservedMemory() {
+    if (reservedBytes > 0) {
+      memoryPool.free(queryId, reservedBytes);
+      reservedBytes = 0;
+    }
+  }
+
+  private void prepareMerge() throws IOException {
+    inputFinished = true;
+    cachedKeys.sort(comparator);
+    runReaders = spiller.getReaders();
+    if (!cachedKeys.isEmpty()) {
+      // the rows left in memory form the last run, there is no need to spill them
+      runReaders.add(new MemorySortedRunReader(cachedKeys, runReaders.size()));
+    }
+    if (spiller.getSpilledRunCount() > 0) {
+      LOGGER.debug(
+          "{} spilled {} runs ({} bytes) to disk, start merging",
+          operatorContext.getInstanceContext().getId(),
+          spiller.getSpilledRunCount(),
+          spiller.getSpilledBytes());
+    }
+    mergeQueue = new PriorityQueue<>(Math.max(1, runReaders.size()), comparator);
+    for (SortedRunReader reader : runReaders) {
+      if (reader.advance()) {
+        mergeQueue.add(reader.current());
+      }
+    }
   }
 
   @Override
   public boolean hasNext() {
-    return false;
+    return !inputFinished || !mergeQueue.isEmpty();
   }
 
   @Override
   public void close() throws Exception {
-    ProcessOperator.super.close();
+    if (runReaders != null) {
+      for (SortedRunReader reader : runReaders) {
+        reader.close();
+      }
+      runReaders = null;
+    }
+    mergeQueue = null;
+    cachedKeys = null;
+    freeReservedMemory();
+    spiller.clear();
+    inputOperator.close();
   }
 
   @Override
   public boolean isFinished() {
-    return false;
+    return !hasNext();
   }
 
+  // The sort buffer is not counted here, it is reserved from memoryPool when rows are cached and
+  // the rows are spilled if the reservation fails
   @Override
   public long calculateMaxPeekMemory() {
-    return 0;
+    return inputOperator.calculateMaxPeekMemory()
+        + inputOperator.calculateRetainedSizeAfterCallingNext()
+        + DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
   }
 
   @Override
   public long calculateMaxReturnSize() {
-    return 0;
+    return DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES;
   }
 
   @Override
   public long calculateRetainedSizeAfterCallingNext() {
-    return 0;
+    return inputOperator.calculateRetainedSizeAfterCallingNext();
   }
 }
@@ -22,6 +22,7 @@ import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnRegionMerger;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeComparator;
 import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.db.utils.datastructure.TimeSelector;
@@ -75,6 +76,9 @@ public class RowBasedTimeJoinOperator implements ProcessOperator {
 
   private final List<ColumnMerger> mergers;
 
+  /** merges the inputs without going through the rows when their timestamps are identical */
+  private final ColumnRegionMerger columnRegionMerger;
+
   private final TsBlockBuilder tsBlockBuilder;
 
   private boolean finished;
@@ -104,6 +108,8 @@ public class RowBasedTimeJoinOperator implements ProcessOperator {
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
     this.mergers = mergers;
     this.comparator = comparator;
+    this.columnRegionMerger =
+        new ColumnRegionMerger(this.inputOperatorsCount, mergers, dataTypes, comparator);
   }
 
   @Override
@@ -173,6 +179,18 @@ public class RowBasedTimeJoinOperator implements ProcessOperator {
       return tsBlockBuilder.build();
     }
 
+    TsBlock mergedTsBlock = columnRegionMerger.tryMerge(inputTsBlocks, inputIndex, currentEndTime);
+    if (mergedTsBlock != null) {
+      // the merged inputs have moved, put the new current time of each input into TimeSelector
+      timeSelector.clear();
+      for (int i = 0; i < inputOperatorsCount; i++) {
+        if (!empty(i)) {
+          updateTimeSelector(i);
+        }
+      }
+      return mergedTsBlock;
+    }
+
     TimeColumnBuilder timeBuilder = tsBlockBuilder.getTimeColumnBuilder();
     long currentTime;
     do {
@@ -22,6 +22,7 @@ import org.apache.iotdb.db.mpp.execution.operator.Operator;
 import org.apache.iotdb.db.mpp.execution.operator.OperatorContext;
 import org.apache.iotdb.db.mpp.execution.operator.process.ProcessOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnRegionMerger;
 import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeComparator;
 import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
 import org.apache.iotdb.db.utils.datastructure.TimeSelector;
@@ -75,6 +76,9 @@ public class TimeJoinOperator implements ProcessOperator {
 
   private final List<ColumnMerger> mergers;
 
+  /** merges the inputs without going through the rows when their timestamps are identical */
+  private final ColumnRegionMerger columnRegionMerger;
+
   private final TsBlockBuilder tsBlockBuilder;
 
   private boolean finished;
@@ -104,6 +108,8 @@ public class TimeJoinOperator implements ProcessOperator {
     this.tsBlockBuilder = new TsBlockBuilder(dataTypes);
     this.mergers = mergers;
     this.comparator = comparator;
+    this.columnRegionMerger =
+        new ColumnRegionMerger(this.inputOperatorsCount, mergers, dataTypes, comparator);
   }
 
   @Override
@@ -133,19 +139,14 @@ public class TimeJoinOperator implements ProcessOperator {
     long currentEndTime = 0;
     boolean init = false;
 
-    // get TsBlock for each input, put their time stamp into TimeSelector and then use the min Time
-    // among all the input TsBlock as the current output TsBlock's endTime.
+    // get TsBlock for each input and then use the min Time among all the input TsBlock as the
+    // current output TsBlock's endTime.
     for (int i = 0; i < inputOperatorsCount; i++) {
       if (!noMoreTsBlocks[i] && empty(i)) {
         if (children.get(i).hasNext()) {
           inputIndex[i] = 0;
           inputTsBlocks[i] = children.get(i).next();
-          if (!empty(i)) {
-            int rowSize = inputTsBlocks[i].getPositionCount();
-            for (int row = 0; row < rowSize; row++) {
-              timeSelector.add(inputTsBlocks[i].getTimeByIndex(row));
-            }
-          } else {
+          if (empty(i)) {
             // child operator has next but return an empty TsBlock which means that it may not
             // finish calculation in given time slice.
             // In such case, TimeJoinOperator can't go on calculating, so we just return null.
@@ -170,12 +171,31 @@ public class TimeJoinOperator implements ProcessOperator {
       }
     }
 
-    if (timeSelector.isEmpty()) {
+    if (!init) {
       // return empty TsBlock
       TsBlockBuilder tsBlockBuilder = new TsBlockBuilder(0, dataTypes);
       return tsBlockBuilder.build();
     }
 
+    TsBlock mergedTsBlock = columnRegionMerger.tryMerge(inputTsBlocks, inputIndex, currentEndTime);
+    if (mergedTsBlock != null) {
+      return mergedTsBlock;
+    }
+
+    // put the time stamps not after currentEndTime into TimeSelector, the later ones are put in
+    // when they are not after the currentEndTime of a later call
+    for (int i = 0; i < inputOperatorsCount; i++) {
+      if (!empty(i)) {
+        int endIndex =
+            inputIndex[i]
+                + ColumnRegionMerger.getRunLength(
+                    inputTsBlocks[i], inputIndex[i], currentEndTime, comparator);
+        for (int row = inputIndex[i]; row < endIndex; row++) {
+          timeSelector.add(inputTsBlocks[i].getTimeByIndex(row));
+        }
+      }
+    }
+
     TimeColumnBuilder timeBuilder = tsBlockBuilder.getTimeColumnBuilder();
     while (!timeSelector.isEmpty()
         && comparator.satisfyCurEndTime(timeSelector.first(), currentEndTime)) {
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.join.merge;
+
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.NullColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+import java.util.List;
+
+/**
+ * Merges the input TsBlocks of a time join without going through the rows, if all the inputs that
+ * have rows not after currentEndTime have exactly the same timestamps for these rows. This is the
+ * case when the series of a device are aligned by time, and when the inputs do not overlap. The
+ * value columns of the result are regions of the input columns, or null columns for the inputs
+ * without such rows.
+ *
+ * <p>It is only used when each output column comes from one input column, i.e. all mergers are
+ * {@link SingleColumnMerger}.
+ */
+public class ColumnRegionMerger {
+
+  /** output column index -> input location, null if some output column has several inputs */
+  private final InputLocation[] locations;
+
+  private final List<TSDataType> dataTypes;
+
+  private final TimeComparator comparator;
+
+  /** input index -> number of rows of the input that are not after currentEndTime */
+  private final int[] runLengths;
+
+  public ColumnRegionMerger(
+      int inputCount,
+      List<ColumnMerger> mergers,
+      List<TSDataType> dataTypes,
+      TimeComparator comparator) {
+    InputLocation[] singleLocations = new InputLocation[mergers.size()];
+    for (int i = 0; i < mergers.size(); i++) {
+      if (!(mergers.get(i) instanceof SingleColumnMerger)) {
+        singleLocations = null;
+        break;
+      }
+      singleLocations[i] = ((SingleColumnMerger) mergers.get(i)).getLocation();
+    }
+    this.locations = singleLocations;
+    this.dataTypes = dataTypes;
+    this.comparator = comparator;
+    this.runLengths = new int[inputCount];
+  }
+
+  /**
+   * Try to merge all the rows that are not after currentEndTime. inputIndex is moved after the
+   * merged rows if it succeeds.
+   *
+   * @return the merged TsBlock, or null if the timestamps of the inputs differ and the inputs have
+   *     to be merged row by row
+   */
+  public TsBlock tryMerge(TsBlock[] inputTsBlocks, int[] inputIndex, long currentEndTime) {
+    if (locations == null) {
+      return null;
+    }
+    int reference = -1;
+    int length = 0;
+    for (int i = 0; i < inputTsBlocks.length; i++) {
+      if (ColumnMerger.empty(i, inputTsBlocks, inputIndex)) {
+        runLengths[i] = 0;
+        continue;
+      }
+      runLengths[i] = getRunLength(inputTsBlocks[i], inputIndex[i], currentEndTime, comparator);
+      if (runLengths[i] == 0) {
+        continue;
+      }
+      if (reference == -1) {
+        reference = i;
+        length = runLengths[i];
+      } else if (runLengths[i] != length
+          || !isSameTimes(
+              inputTsBlocks[reference].getTimeColumn(),
+              inputIndex[reference],
+              inputTsBlocks[i].getTimeColumn(),
+              inputIndex[i],
+              length)) {
+        return null;
+      }
+    }
+    if (reference == -1) {
+      return null;
+    }
+
+    TimeColumn timeColumn =
+        (TimeColumn)
+            inputTsBlocks[reference].getTimeColumn().getRegion(inputIndex[reference], length);
+    Column[] valueColumns = new Column[locations.length];
+    for (int i = 0; i < locations.length; i++) {
+      int tsBlockIndex = locations[i].getTsBlockIndex();
+      valueColumns[i] =
+          runLengths[tsBlockIndex] == 0
+              ? NullColumn.create(dataTypes.get(i), length)
+              : inputTsBlocks[tsBlockIndex]
+                  .getColumn(locations[i].getValueColumnIndex())
+                  .getRegion(inputIndex[tsBlockIndex], length);
+    }
+    for (int i = 0; i < inputTsBlocks.length; i++) {
+      inputIndex[i] += runLengths[i];
+    }
+    return new TsBlock(length, timeColumn, valueColumns);
+  }
+
+  /** @return number of rows from startIndex whose time is not after endTime */
+  public static int getRunLength(
+      TsBlock tsBlock, int startIndex, long endTime, TimeComparator comparator) {
+    // the times of a TsBlock are ordered, so the satisfied rows are a prefix
+    int low = startIndex;
+    int high = tsBlock.getPositionCount();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (comparator.satisfyCurEndTime(tsBlock.getTimeByIndex(mid), endTime)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low - startIndex;
+  }
+
+  private static boolean isSameTimes(
+      TimeColumn left, int leftIndex, TimeColumn right, int rightIndex, int length) {
+    if (left.getLong(leftIndex) != right.getLong(rightIndex)
+        || left.getLong(leftIndex + length - 1) != right.getLong(rightIndex + length - 1)) {
+      return false;
+    }
+    for (int i = 1; i < length - 1; i++) {
+      if (left.getLong(leftIndex + i) != right.getLong(rightIndex + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -37,6 +37,10 @@ public class SingleColumnMerger implements ColumnMerger {
     this.comparator = comparator;
   }
 
+  public InputLocation getLocation() {
+    return location;
+  }
+
   @Override
   public void mergeColumn(
       TsBlock[] inputTsBlocks,
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a run spilled by {@link SortSpiller}. Only one TsBlock of the run is held in memory at a
+ * time.
+ */
+public class FileSortedRunReader implements SortedRunReader {
+
+  private final DataInputStream inputStream;
+  private final TsBlockSerde serde;
+  private final MergeSortKey key;
+
+  public FileSortedRunReader(File file, TsBlockSerde serde, int runIndex) throws IOException {
+    this.inputStream =
+        new DataInputStream(
+            new BufferedInputStream(new FileInputStream(file), SortSpiller.IO_BUFFER_SIZE));
+    this.serde = serde;
+    this.key = new MergeSortKey(null, -1, runIndex);
+  }
+
+  @Override
+  public boolean advance() throws IOException {
+    if (key.tsBlock != null && key.rowIndex + 1 < key.tsBlock.getPositionCount()) {
+      key.rowIndex++;
+      return true;
+    }
+    TsBlock tsBlock = readTsBlock();
+    while (tsBlock != null && tsBlock.isEmpty()) {
+      tsBlock = readTsBlock();
+    }
+    key.tsBlock = tsBlock;
+    key.rowIndex = 0;
+    return tsBlock != null;
+  }
+
+  private TsBlock readTsBlock() throws IOException {
+    int length;
+    try {
+      length = inputStream.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    inputStream.readFully(bytes);
+    return serde.deserialize(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public MergeSortKey current() {
+    return key;
+  }
+
+  @Override
+  public void close() throws IOException {
+    key.tsBlock = null;
+    inputStream.close();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import java.util.List;
+
+/** Reads a run that has been sorted in memory and never spilled. */
+public class MemorySortedRunReader implements SortedRunReader {
+
+  private final List<MergeSortKey> sortedKeys;
+  private final int runIndex;
+  private int index = -1;
+
+  public MemorySortedRunReader(List<MergeSortKey> sortedKeys, int runIndex) {
+    this.sortedKeys = sortedKeys;
+    this.runIndex = runIndex;
+  }
+
+  @Override
+  public boolean advance() {
+    index++;
+    if (index < sortedKeys.size()) {
+      sortedKeys.get(index).runIndex = runIndex;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public MergeSortKey current() {
+    return sortedKeys.get(index);
+  }
+
+  @Override
+  public void close() {
+    sortedKeys.clear();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes sorted runs of a {@link org.apache.iotdb.db.mpp.execution.operator.process.SortOperator}
+ * to local disk. Each run is stored in its own file as a sequence of serialized TsBlocks:
+ *
+ * <pre>
+ * +--------+-----------------+--------+-----------------+-----+
+ * | length | TsBlock (bytes) | length | TsBlock (bytes) | ... |
+ * +--------+-----------------+--------+-----------------+-----+
+ * | int32  | byte[length]    | int32  | byte[length]    | ... |
+ * +--------+-----------------+--------+-----------------+-----+
+ * </pre>
+ */
+public class SortSpiller {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SortSpiller.class);
+
+  static final int IO_BUFFER_SIZE = 64 * 1024;
+
+  private final File spillDirectory;
+  private final List<TSDataType> dataTypes;
+  private final TsBlockSerde serde = new TsBlockSerde();
+  private final List<File> spilledFiles = new ArrayList<>();
+
+  private long spilledBytes = 0;
+
+  public SortSpiller(String spillDirectory, List<TSDataType> dataTypes) {
+    this.spillDirectory = new File(spillDirectory);
+    this.dataTypes = dataTypes;
+  }
+
+  /** Write the given sorted keys as a new run. */
+  public void spill(List<MergeSortKey> sortedKeys) throws IOException {
+    if (!spillDirectory.exists() && !spillDirectory.mkdirs()) {
+      throw new IOException("Failed to create sort spill directory " + spillDirectory);
+    }
+    File file = new File(spillDirectory, spilledFiles.size() + ".sort");
+    spilledFiles.add(file);
+    try (DataOutputStream outputStream =
+        new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE))) {
+      TsBlockBuilder builder = new TsBlockBuilder(dataTypes);
+      for (MergeSortKey key : sortedKeys) {
+        SortUtil.appendRow(builder, key);
+        if (builder.isFull()) {
+          writeTsBlock(outputStream, builder.build());
+          builder.reset();
+        }
+      }
+      if (!builder.isEmpty()) {
+        writeTsBlock(outputStream, builder.build());
+      }
+    }
+  }
+
+  private void writeTsBlock(DataOutputStream outputStream, TsBlock tsBlock) throws IOException {
+    ByteBuffer buffer = serde.serialize(tsBlock);
+    int length = buffer.remaining();
+    outputStream.writeInt(length);
+    outputStream.write(buffer.array(), buffer.arrayOffset() + buffer.position(), length);
+    spilledBytes += Integer.BYTES + length;
+  }
+
+  /** Open a reader for each spilled run, the run index of a reader is its index in the list. */
+  public List<SortedRunReader> getReaders() throws IOException {
+    List<SortedRunReader> readers = new ArrayList<>(spilledFiles.size());
+    try {
+      for (File file : spilledFiles) {
+        readers.add(new FileSortedRunReader(file, serde, readers.size()));
+      }
+    } catch (IOException e) {
+      for (SortedRunReader reader : readers) {
+        reader.close();
+      }
+      throw e;
+    }
+    return readers;
+  }
+
+  public int getSpilledRunCount() {
+    return spilledFiles.size();
+  }
+
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  /** Remove all the spilled files. */
+  public void clear() {
+    spilledFiles.clear();
+    if (spillDirectory.exists()) {
+      try {
+        FileUtils.deleteDirectory(spillDirectory);
+      } catch (IOException e) {
+        LOGGER.warn("Failed to delete sort spill directory {}", spillDirectory, e);
+      }
+    }
+  }
+}
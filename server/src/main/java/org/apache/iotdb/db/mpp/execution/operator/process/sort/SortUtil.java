@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class SortUtil {
+
+  /** sort column index that refers to the time column of a TsBlock */
+  public static final int TIME_COLUMN_INDEX = -1;
+
+  private SortUtil() {}
+
+  public static Comparator<MergeSortKey> getTimeComparator(Ordering ordering) {
+    Comparator<MergeSortKey> comparator =
+        (o1, o2) ->
+            Long.compare(
+                o1.tsBlock.getTimeByIndex(o1.rowIndex), o2.tsBlock.getTimeByIndex(o2.rowIndex));
+    return ordering == Ordering.ASC ? comparator : comparator.reversed();
+  }
+
+  /**
+   * Build a comparator that compares rows by the given columns one after another. Null values are
+   * always placed after non-null values, no matter which ordering is used.
+   *
+   * @param sortColumnIndexes value column indexes to compare, {@link #TIME_COLUMN_INDEX} stands for
+   *     the time column
+   * @param orderings ordering of each sort column
+   * @param dataTypes data types of all the value columns of the input TsBlock
+   */
+  public static Comparator<MergeSortKey> getComparator(
+      List<Integer> sortColumnIndexes, List<Ordering> orderings, List<TSDataType> dataTypes) {
+    if (sortColumnIndexes.size() != orderings.size() || sortColumnIndexes.isEmpty()) {
+      throw new IllegalArgumentException(
+          "each sort column should have one ordering and at least one sort column is needed");
+    }
+    Comparator<MergeSortKey> comparator = null;
+    for (int i = 0; i < sortColumnIndexes.size(); i++) {
+      int columnIndex = sortColumnIndexes.get(i);
+      Comparator<MergeSortKey> columnComparator =
+          columnIndex == TIME_COLUMN_INDEX
+              ? getTimeComparator(orderings.get(i))
+              : getValueComparator(columnIndex, orderings.get(i), dataTypes.get(columnIndex));
+      comparator =
+          comparator == null ? columnComparator : comparator.thenComparing(columnComparator);
+    }
+    return comparator;
+  }
+
+  private static Comparator<MergeSortKey> getValueComparator(
+      int columnIndex, Ordering ordering, TSDataType dataType) {
+    ValueComparator valueComparator;
+    switch (dataType) {
+      case BOOLEAN:
+        valueComparator = (c1, i1, c2, i2) -> Boolean.compare(c1.getBoolean(i1), c2.getBoolean(i2));
+        break;
+      case INT32:
+        valueComparator = (c1, i1, c2, i2) -> Integer.compare(c1.getInt(i1), c2.getInt(i2));
+        break;
+      case INT64:
+        valueComparator = (c1, i1, c2, i2) -> Long.compare(c1.getLong(i1), c2.getLong(i2));
+        break;
+      case FLOAT:
+        valueComparator = (c1, i1, c2, i2) -> Float.compare(c1.getFloat(i1), c2.getFloat(i2));
+        break;
+      case DOUBLE:
+        valueComparator = (c1, i1, c2, i2) -> Double.compare(c1.getDouble(i1), c2.getDouble(i2));
+        break;
+      case TEXT:
+        valueComparator = (c1, i1, c2, i2) -> c1.getBinary(i1).compareTo(c2.getBinary(i2));
+        break;
+      default:
+        throw new UnSupportedDataTypeException("Unsupported data type in sort: " + dataType);
+    }
+    int sign = ordering == Ordering.ASC ? 1 : -1;
+    return (o1, o2) -> {
+      Column c1 = o1.tsBlock.getColumn(columnIndex);
+      Column c2 = o2.tsBlock.getColumn(columnIndex);
+      boolean isNull1 = c1.isNull(o1.rowIndex);
+      boolean isNull2 = c2.isNull(o2.rowIndex);
+      if (isNull1 || isNull2) {
+        return isNull1 == isNull2 ? 0 : (isNull1 ? 1 : -1);
+      }
+      return sign * valueComparator.compare(c1, o1.rowIndex, c2, o2.rowIndex);
+    };
+  }
+
+  /** Append the row that the key points to into the builder. */
+  public static void appendRow(TsBlockBuilder builder, MergeSortKey key) {
+    builder.getTimeColumnBuilder().writeLong(key.tsBlock.getTimeByIndex(key.rowIndex));
+    ColumnBuilder[] columnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < columnBuilders.length; i++) {
+      Column column = key.tsBlock.getColumn(i);
+      if (column.isNull(key.rowIndex)) {
+        columnBuilders[i].appendNull();
+      } else {
+        columnBuilders[i].write(column, key.rowIndex);
+      }
+    }
+    builder.declarePosition();
+  }
+
+  @FunctionalInterface
+  private interface ValueComparator {
+    int compare(Column column1, int index1, Column column2, int index2);
+  }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator.process.sort;
+
+import java.io.IOException;
+
+/** Iterates over the rows of one sorted run in order. */
+public interface SortedRunReader extends AutoCloseable {
+
+  /**
+   * Move to the next row of this run.
+   *
+   * @return false if there are no more rows in this run
+   */
+  boolean advance() throws IOException;
+
+  /** @return the row that this reader currently points to, valid after advance() returns true */
+  MergeSortKey current();
+
+  @Override
+  void close() throws IOException;
+}
@@ -61,6 +61,8 @@ public abstract class AbstractSeriesAggregationScanOperator implements DataSourc
 
   // We still think aggregator in SeriesAggregateScanOperator is a inputRaw step.
   // But in facing of statistics, it will invoke another method processStatistics()
+  // Some aggregators, e.g. APPROX_MEDIAN, can only use the statistics in special cases, which is
+  // checked for each of them by Aggregator#canUseStatistics(Statistics[])
   protected final List<Aggregator> aggregators;
 
   // using for building result tsBlock
@@ -217,6 +219,42 @@ public abstract class AbstractSeriesAggregationScanOperator implements DataSourc
     return calcResult.getLeft();
   }
 
+  private boolean canAllAggregatorsUseStatistics(Statistics[] statistics) {
+    for (Aggregator aggregator : aggregators) {
+      if (!aggregator.hasFinalResult() && !aggregator.canUseStatistics(statistics)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Calculate a page inside current time range, the aggregators that can use its statistics don't
+   * need the page data, which is read only for the others.
+   */
+  private void calcFromPageStatisticsOrRawData(Statistics[] statistics) throws IOException {
+    List<Aggregator> rawDataAggregators = new ArrayList<>();
+    for (Aggregator aggregator : aggregators) {
+      if (aggregator.hasFinalResult()) {
+        continue;
+      }
+      if (aggregator.canUseStatistics(statistics)) {
+        aggregator.processStatistics(statistics);
+      } else {
+        rawDataAggregators.add(aggregator);
+      }
+    }
+
+    if (rawDataAggregators.isEmpty()) {
+      seriesScanUtil.skipCurrentPage();
+      return;
+    }
+    TsBlock tsBlock = seriesScanUtil.nextPage();
+    // all the points of the page are in current time range, so none of them is left for the next
+    calculateAggregationFromRawData(tsBlock, rawDataAggregators, curTimeRange, ascending);
+    inputTsBlock = null;
+  }
+
   protected void calcFromStatistics(Statistics[] statistics) {
     for (Aggregator aggregator : aggregators) {
       if (aggregator.hasFinalResult()) {
@@ -245,12 +283,14 @@ public abstract class AbstractSeriesAggregationScanOperator implements DataSourc
           for (int i = 0; i < subSensorSize; i++) {
             statisticsList[i] = seriesScanUtil.currentFileStatistics(i);
           }
-          calcFromStatistics(statisticsList);
-          seriesScanUtil.skipCurrentFile();
-          if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
-            return true;
-          } else {
-            continue;
+          if (canAllAggregatorsUseStatistics(statisticsList)) {
+            calcFromStatistics(statisticsList);
+            seriesScanUtil.skipCurrentFile();
+            if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
+              return true;
+            } else {
+              continue;
+            }
           }
         }
       }
@@ -284,12 +324,14 @@ public abstract class AbstractSeriesAggregationScanOperator implements DataSourc
           for (int i = 0; i < subSensorSize; i++) {
             statisticsList[i] = seriesScanUtil.currentChunkStatistics(i);
           }
-          calcFromStatistics(statisticsList);
-          seriesScanUtil.skipCurrentChunk();
-          if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
-            return true;
-          } else {
-            continue;
+          if (canAllAggregatorsUseStatistics(statisticsList)) {
+            calcFromStatistics(statisticsList);
+            seriesScanUtil.skipCurrentChunk();
+            if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
+              return true;
+            } else {
+              continue;
+            }
           }
         }
       }
@@ -322,8 +364,7 @@ public abstract class AbstractSeriesAggregationScanOperator implements DataSourc
           for (int i = 0; i < subSensorSize; i++) {
             statisticsList[i] = seriesScanUtil.currentPageStatistics(i);
           }
-          calcFromStatistics(statisticsList);
-          seriesScanUtil.skipCurrentPage();
+          calcFromPageStatisticsOrRawData(statisticsList);
           if (isAllAggregatorsHasFinalResult(aggregators) && !isGroupByQuery) {
             return true;
           } else {
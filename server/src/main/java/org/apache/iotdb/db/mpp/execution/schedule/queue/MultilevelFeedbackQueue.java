@@ -0,0 +1,383 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * A lock-free subclass of {@link IndexedBlockingQueue} organized as a multi-level feedback queue.
+ *
+ * <p>Elements are put into levels according to the CPU time they have accumulated. An element
+ * starts from level 0 and is demoted to the next level when it has used up the CPU time budget of
+ * its current level. It is promoted to the previous level when it yields in less than half a time
+ * slice, which usually means it is waiting for data instead of computing. The level to poll from is
+ * the non-empty one that has used the least CPU time relative to its share, and level i is expected
+ * to get twice the share of level i + 1, so that short queries are served first while long ones are
+ * not starved.
+ *
+ * <p>Each level has a global queue and a local queue for each worker. Elements pushed by a worker
+ * go to its local queue, and a worker polls its local queue first, then the global queue, and then
+ * steals from the local queues of other workers.
+ *
+ * <p>Removed elements are deleted from the index only and skipped when polled later.
+ */
+public class MultilevelFeedbackQueue<E extends IDIndexedAccessible>
+    extends IndexedBlockingQueue<E> {
+
+  /** CPU time an element can use in each level before it is demoted, the last level has no limit */
+  private static final long[] LEVEL_BUDGETS_IN_NS = {
+    TimeUnit.SECONDS.toNanos(1),
+    TimeUnit.SECONDS.toNanos(9),
+    TimeUnit.SECONDS.toNanos(50),
+    TimeUnit.SECONDS.toNanos(240),
+    Long.MAX_VALUE
+  };
+
+  static final int LEVEL_NUM = LEVEL_BUDGETS_IN_NS.length;
+
+  /** level i is expected to get LEVEL_TIME_MULTIPLIER times the CPU time of level i + 1 */
+  private static final int LEVEL_TIME_MULTIPLIER = 2;
+
+  private final int maxCapacity;
+  private final int workerNum;
+  private final long promotionThresholdInNs;
+  private final ToLongFunction<E> cpuTimeGetter;
+
+  private final Map<ID, Node<E>> queuedNodes = new ConcurrentHashMap<>();
+  private final Map<ID, LevelState> levelStates = new ConcurrentHashMap<>();
+  private final Queue<Node<E>>[] globalQueues;
+  // [worker][level]
+  private final Queue<Node<E>>[][] localQueues;
+  private final AtomicInteger[] levelSizes = new AtomicInteger[LEVEL_NUM];
+  private final AtomicLong[] levelCpuTimes = new AtomicLong[LEVEL_NUM];
+  private final AtomicInteger size = new AtomicInteger(0);
+  /** permits are no less than queued elements, so a poller can be blocked on it */
+  private final Semaphore available = new Semaphore(0);
+
+  private final AtomicInteger registeredWorkerNum = new AtomicInteger(0);
+  /** index of local queues of current thread, -1 if current thread has no local queue */
+  private final ThreadLocal<Integer> workerIndex = new ThreadLocal<>();
+
+  /**
+   * Init the queue.
+   *
+   * @see IndexedBlockingQueue
+   * @param maxCapacity the max capacity of the queue.
+   * @param workerNum the max number of threads which have local queues.
+   * @param timeSliceInNs the time slice of each schedule.
+   * @param cpuTimeGetter get the accumulated CPU time of an element.
+   * @param queryHolder the query holder instance.
+   */
+  @SuppressWarnings("unchecked")
+  public MultilevelFeedbackQueue(
+      int maxCapacity,
+      int workerNum,
+      long timeSliceInNs,
+      ToLongFunction<E> cpuTimeGetter,
+      E queryHolder) {
+    super(maxCapacity, queryHolder);
+    this.maxCapacity = maxCapacity;
+    this.workerNum = workerNum;
+    this.promotionThresholdInNs = timeSliceInNs / 2;
+    this.cpuTimeGetter = cpuTimeGetter;
+    this.globalQueues = new Queue[LEVEL_NUM];
+    this.localQueues = new Queue[workerNum][LEVEL_NUM];
+    for (int level = 0; level < LEVEL_NUM; level++) {
+      globalQueues[level] = new ConcurrentLinkedQueue<>();
+      for (int worker = 0; worker < workerNum; worker++) {
+        localQueues[worker][level] = new ConcurrentLinkedQueue<>();
+      }
+      levelSizes[level] = new AtomicInteger(0);
+      levelCpuTimes[level] = new AtomicLong(0);
+    }
+  }
+
+  @Override
+  public E poll() throws InterruptedException {
+    while (true) {
+      available.acquire();
+      E element = pollFirst();
+      if (element != null) {
+        return element;
+      }
+    }
+  }
+
+  @Override
+  public void push(E element) {
+    if (element == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    pushToQueue(element);
+  }
+
+  @Override
+  public E remove(ID id) {
+    levelStates.remove(id);
+    Node<E> node = queuedNodes.remove(id);
+    if (node == null) {
+      return null;
+    }
+    levelSizes[node.level].decrementAndGet();
+    size.decrementAndGet();
+    available.tryAcquire();
+    return node.element;
+  }
+
+  @Override
+  public E get(ID id) {
+    Node<E> node = queuedNodes.get(id);
+    return node == null ? null : node.element;
+  }
+
+  @Override
+  public void clear() {
+    clearAllElements();
+  }
+
+  @Override
+  public int size() {
+    return size.get();
+  }
+
+  /** Get the level of an element in the queue, or -1 if it is not in the queue. */
+  public int getLevel(ID id) {
+    Node<E> node = queuedNodes.get(id);
+    return node == null ? -1 : node.level;
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return size.get() == 0;
+  }
+
+  @Override
+  protected E pollFirst() {
+    int worker = getOrRegisterWorkerIndex();
+    int selectedLevel = selectLevel();
+    if (selectedLevel >= 0) {
+      E element = pollLevel(selectedLevel, worker);
+      if (element != null) {
+        return element;
+      }
+    }
+    // the selected level has been drained by other workers, try all the levels
+    for (int level = 0; level < LEVEL_NUM; level++) {
+      E element = pollLevel(level, worker);
+      if (element != null) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  protected void pushToQueue(E element) {
+    ID id = element.getId();
+    Preconditions.checkState(
+        !queuedNodes.containsKey(id), "The queue has already contained the element: " + id);
+    int level =
+        levelStates
+            .computeIfAbsent(id, k -> new LevelState())
+            .update(cpuTimeGetter.applyAsLong(element));
+    Node<E> node = new Node<>(element, level);
+    Preconditions.checkState(
+        queuedNodes.putIfAbsent(id, node) == null,
+        "The queue has already contained the element: " + id);
+    if (size.incrementAndGet() > maxCapacity) {
+      size.decrementAndGet();
+      queuedNodes.remove(id, node);
+      throw new IllegalStateException("The queue is full");
+    }
+    if (levelSizes[level].getAndIncrement() == 0) {
+      catchUpLevelCpuTime(level);
+    }
+    Integer worker = workerIndex.get();
+    if (worker != null && worker >= 0) {
+      localQueues[worker][level].offer(node);
+    } else {
+      globalQueues[level].offer(node);
+    }
+    available.release();
+  }
+
+  @Override
+  protected E remove(E element) {
+    return remove(element.getId());
+  }
+
+  @Override
+  protected boolean contains(E element) {
+    return queuedNodes.containsKey(element.getId());
+  }
+
+  @Override
+  protected E get(E element) {
+    return get(element.getId());
+  }
+
+  @Override
+  protected void clearAllElements() {
+    queuedNodes.clear();
+    levelStates.clear();
+    for (int level = 0; level < LEVEL_NUM; level++) {
+      globalQueues[level].clear();
+      for (int worker = 0; worker < workerNum; worker++) {
+        localQueues[worker][level].clear();
+      }
+      levelSizes[level].set(0);
+    }
+    size.set(0);
+    available.drainPermits();
+  }
+
+  private int getOrRegisterWorkerIndex() {
+    Integer worker = workerIndex.get();
+    if (worker == null) {
+      worker = registeredWorkerNum.getAndIncrement();
+      if (worker >= workerNum) {
+        worker = -1;
+      }
+      workerIndex.set(worker);
+    }
+    return worker;
+  }
+
+  /** @return the non-empty level that has used the least CPU time relative to its share */
+  private int selectLevel() {
+    int selectedLevel = -1;
+    double minNormalizedTime = Double.MAX_VALUE;
+    for (int level = 0; level < LEVEL_NUM; level++) {
+      if (levelSizes[level].get() <= 0) {
+        continue;
+      }
+      double normalizedTime = getNormalizedCpuTime(level);
+      if (normalizedTime < minNormalizedTime) {
+        minNormalizedTime = normalizedTime;
+        selectedLevel = level;
+      }
+    }
+    return selectedLevel;
+  }
+
+  private double getNormalizedCpuTime(int level) {
+    return levelCpuTimes[level].get() * Math.pow(LEVEL_TIME_MULTIPLIER, level);
+  }
+
+  /**
+   * A level which has been empty for a long time has used little CPU time, it should not monopolize
+   * the workers when elements come again, so its CPU time catches up with the others.
+   */
+  private void catchUpLevelCpuTime(int level) {
+    double minNormalizedTime = Double.MAX_VALUE;
+    for (int i = 0; i < LEVEL_NUM; i++) {
+      if (i != level && levelSizes[i].get() > 0) {
+        minNormalizedTime = Math.min(minNormalizedTime, getNormalizedCpuTime(i));
+      }
+    }
+    if (minNormalizedTime != Double.MAX_VALUE) {
+      long expected = (long) (minNormalizedTime / Math.pow(LEVEL_TIME_MULTIPLIER, level));
+      levelCpuTimes[level].accumulateAndGet(expected, Math::max);
+    }
+  }
+
+  private E pollLevel(int level, int worker) {
+    E element;
+    if (worker >= 0) {
+      element = pollQueue(localQueues[worker][level]);
+      if (element != null) {
+        return element;
+      }
+    }
+    element = pollQueue(globalQueues[level]);
+    if (element != null) {
+      return element;
+    }
+    // steal from other workers
+    for (int i = 1; i < workerNum; i++) {
+      int victim = (Math.max(worker, 0) + i) % workerNum;
+      element = pollQueue(localQueues[victim][level]);
+      if (element != null) {
+        return element;
+      }
+    }
+    return null;
+  }
+
+  private E pollQueue(Queue<Node<E>> queue) {
+    Node<E> node;
+    while ((node = queue.poll()) != null) {
+      // skip the nodes that have been removed
+      if (queuedNodes.remove(node.element.getId(), node)) {
+        levelSizes[node.level].decrementAndGet();
+        size.decrementAndGet();
+        return node.element;
+      }
+    }
+    return null;
+  }
+
+  private static class Node<E> {
+    private final E element;
+    private final int level;
+
+    private Node(E element, int level) {
+      this.element = element;
+      this.level = level;
+    }
+  }
+
+  /** Level of an element, updated each time the element is pushed. */
+  private class LevelState {
+    private int level = 0;
+    /** accumulated CPU time that has been counted */
+    private long countedCpuTime = 0;
+    /** CPU time used in current level */
+    private long levelCpuTime = 0;
+
+    private synchronized int update(long cpuTime) {
+      long delta = cpuTime - countedCpuTime;
+      if (delta <= 0) {
+        return level;
+      }
+      countedCpuTime = cpuTime;
+      levelCpuTimes[level].addAndGet(delta);
+      levelCpuTime += delta;
+      if (levelCpuTime >= LEVEL_BUDGETS_IN_NS[level] && level < LEVEL_NUM - 1) {
+        level++;
+        levelCpuTime = 0;
+      } else if (delta < promotionThresholdInNs && level > 0) {
+        level--;
+        levelCpuTime = 0;
+      }
+      return level;
+    }
+  }
+}
@@ -48,8 +48,8 @@ public class DriverTask implements IDIndexedAccessible {
   private final long ddl;
   private final Lock lock;
 
-  // Running stats
-  private long cpuWallNano;
+  // Running stats, only updated when the task is locked
+  private volatile long cpuWallNano;
 
   private String abortCause;
 
@@ -99,6 +99,7 @@ public class DriverTask implements IDIndexedAccessible {
    */
   public void updateSchedulePriority(ExecutionContext context) {
     // TODO: need to implement more complex here
+    this.cpuWallNano += context.getCpuDuration().getWall().roundTo(TimeUnit.NANOSECONDS);
 
     // 1. The penalty factor means that if a task executes less time in one schedule, it will have a
     // high schedule priority
@@ -124,6 +125,11 @@ public class DriverTask implements IDIndexedAccessible {
     return schedulePriority;
   }
 
+  /** @return the accumulated wall time of all the schedules of this task */
+  public long getCpuWallNano() {
+    return cpuWallNano;
+  }
+
   public long getDDL() {
     return ddl;
   }
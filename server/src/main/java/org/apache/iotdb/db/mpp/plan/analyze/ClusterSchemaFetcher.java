@@ -176,7 +176,7 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
       String[] measurements,
       Function<Integer, TSDataType> getDataType,
       boolean isAligned) {
-    schemaCache.takeReadLock();
+    schemaCache.takeReadLock(devicePath);
     try {
       ClusterSchemaTree schemaTree = schemaCache.get(devicePath, measurements);
       List<Integer> indexOfMissingMeasurements =
@@ -215,7 +215,7 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
 
       return schemaTree;
     } finally {
-      schemaCache.releaseReadLock();
+      schemaCache.releaseReadLock(devicePath);
     }
   }
 
@@ -225,13 +225,12 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
       List<String[]> measurementsList,
       List<TSDataType[]> tsDataTypesList,
       List<Boolean> isAlignedList) {
-    schemaCache.takeReadLock();
+    int[] lockedStripes = schemaCache.takeReadLock(devicePathList);
     try {
-      ClusterSchemaTree schemaTree = new ClusterSchemaTree();
+      ClusterSchemaTree schemaTree = schemaCache.get(devicePathList, measurementsList);
       PathPatternTree patternTree = new PathPatternTree();
       List<List<Integer>> indexOfMissingMeasurementsList = new ArrayList<>(devicePathList.size());
       for (int i = 0; i < devicePathList.size(); i++) {
-        schemaTree.mergeSchemaTree(schemaCache.get(devicePathList.get(i), measurementsList.get(i)));
         List<Integer> indexOfMissingMeasurements =
             checkMissingMeasurements(schemaTree, devicePathList.get(i), measurementsList.get(i));
         indexOfMissingMeasurementsList.add(indexOfMissingMeasurements);
@@ -270,7 +269,7 @@ public class ClusterSchemaFetcher implements ISchemaFetcher {
       }
       return schemaTree;
     } finally {
-      schemaCache.releaseReadLock();
+      schemaCache.releaseReadLock(lockedStripes);
     }
   }
 
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.mpp.plan.analyze;
 
 import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.mpp.aggregation.ApproxPercentileAccumulator;
 import org.apache.iotdb.db.mpp.common.NodeRef;
 import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import org.apache.iotdb.db.mpp.plan.expression.binary.ArithmeticBinaryExpression;
@@ -38,6 +39,7 @@ import org.apache.iotdb.db.mpp.plan.expression.unary.NegationExpression;
 import org.apache.iotdb.db.mpp.plan.expression.unary.RegularExpression;
 import org.apache.iotdb.db.mpp.plan.expression.visitor.ExpressionVisitor;
 import org.apache.iotdb.db.mpp.transformation.dag.udf.UDTFInformationInferrer;
+import org.apache.iotdb.db.qp.constant.SQLConstant;
 import org.apache.iotdb.db.utils.TypeInferenceUtils;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 
@@ -254,6 +256,13 @@ public class ExpressionTypeAnalyzer {
             String.format(
                 "Builtin aggregation function only accepts 1 input expression. Actual %d input expressions.",
                 inputExpressions.size()));
+        if (SQLConstant.PERCENTILE.equalsIgnoreCase(functionExpression.getFunctionName())) {
+          try {
+            ApproxPercentileAccumulator.parseQuantile(functionExpression.getFunctionAttributes());
+          } catch (IllegalArgumentException e) {
+            throw new SemanticException(e.getMessage());
+          }
+        }
         return setExpressionType(
             functionExpression,
             TypeInferenceUtils.getAggrDataType(
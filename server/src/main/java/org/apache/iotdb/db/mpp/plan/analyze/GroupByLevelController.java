@@ -125,6 +125,9 @@ public class GroupByLevelController {
       case SQLConstant.COUNT:
       case SQLConstant.AVG:
       case SQLConstant.SUM:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
+      case SQLConstant.APPROX_MEDIAN:
+      case SQLConstant.PERCENTILE:
         if (!typeProvider.containsTypeInfoOf(groupedPath)) {
           typeProvider.setType(groupedPath, rawPath.getSeriesType());
         }
@@ -57,6 +57,7 @@ import org.apache.iotdb.db.qp.sql.IoTDBSqlParser;
 import org.apache.iotdb.db.qp.sql.SqlLexer;
 import org.apache.iotdb.db.qp.strategy.SQLParseError;
 import org.apache.iotdb.db.utils.QueryDataSetUtils;
+import org.apache.iotdb.rpc.TabletEncodingUtils;
 import org.apache.iotdb.service.rpc.thrift.TSCreateAlignedTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateMultiTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateSchemaTemplateReq;
@@ -86,6 +87,7 @@ import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.tree.ParseTree;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -196,27 +198,36 @@ public class StatementGenerator {
   }
 
   public static Statement createStatement(TSInsertTabletReq insertTabletReq)
-      throws IllegalPathException {
+      throws IllegalPathException, IOException {
     // construct insert statement
     InsertTabletStatement insertStatement = new InsertTabletStatement();
     insertStatement.setDevicePath(new PartialPath(insertTabletReq.getPrefixPath()));
     insertStatement.setMeasurements(insertTabletReq.getMeasurements().toArray(new String[0]));
-    insertStatement.setTimes(
-        QueryDataSetUtils.readTimesFromBuffer(insertTabletReq.timestamps, insertTabletReq.size));
-    insertStatement.setColumns(
-        QueryDataSetUtils.readTabletValuesFromBuffer(
-            insertTabletReq.values,
-            insertTabletReq.types,
-            insertTabletReq.types.size(),
-            insertTabletReq.size));
-    insertStatement.setBitMaps(
-        QueryDataSetUtils.readBitMapsFromBuffer(
-            insertTabletReq.values, insertTabletReq.types.size(), insertTabletReq.size));
-    insertStatement.setRowCount(insertTabletReq.size);
     TSDataType[] dataTypes = new TSDataType[insertTabletReq.types.size()];
     for (int i = 0; i < insertTabletReq.types.size(); i++) {
       dataTypes[i] = TSDataType.values()[insertTabletReq.types.get(i)];
     }
+    if (insertTabletReq.isIsEncoded()) {
+      insertStatement.setTimes(
+          TabletEncodingUtils.decodeTimes(insertTabletReq.timestamps, insertTabletReq.size));
+      ByteBuffer valueBuffer = TabletEncodingUtils.uncompress(insertTabletReq.values);
+      insertStatement.setColumns(
+          TabletEncodingUtils.decodeValues(
+              valueBuffer, dataTypes, dataTypes.length, insertTabletReq.size));
+      insertStatement.setBitMaps(
+          QueryDataSetUtils.readBitMapsFromBuffer(
+              valueBuffer, dataTypes.length, insertTabletReq.size));
+    } else {
+      insertStatement.setTimes(
+          QueryDataSetUtils.readTimesFromBuffer(insertTabletReq.timestamps, insertTabletReq.size));
+      insertStatement.setColumns(
+          QueryDataSetUtils.readTabletValuesFromBuffer(
+              insertTabletReq.values, dataTypes, dataTypes.length, insertTabletReq.size));
+      insertStatement.setBitMaps(
+          QueryDataSetUtils.readBitMapsFromBuffer(
+              insertTabletReq.values, dataTypes.length, insertTabletReq.size));
+    }
+    insertStatement.setRowCount(insertTabletReq.size);
     insertStatement.setDataTypes(dataTypes);
     insertStatement.setAligned(insertTabletReq.isAligned);
     return insertStatement;
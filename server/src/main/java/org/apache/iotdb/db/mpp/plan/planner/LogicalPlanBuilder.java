@@ -312,7 +312,10 @@ public class LogicalPlanBuilder {
       Map<PartialPath, List<AggregationDescriptor>> descendingAggregations) {
     AggregationDescriptor aggregationDescriptor =
         new AggregationDescriptor(
-            sourceExpression.getFunctionName(), curStep, sourceExpression.getExpressions());
+            sourceExpression.getFunctionName(),
+            curStep,
+            sourceExpression.getExpressions(),
+            sourceExpression.getFunctionAttributes());
     if (curStep.isOutputPartial()) {
       updateTypeProviderByPartialAggregation(aggregationDescriptor, context.getTypeProvider());
     }
@@ -426,7 +429,9 @@ public class LogicalPlanBuilder {
     for (AggregationType aggregationType : splitAggregations) {
       String functionName = aggregationType.toString().toLowerCase();
       typeProvider.setType(
-          String.format("%s(%s)", functionName, path.getFullPath()),
+          String.format(
+              "%s(%s%s)",
+              functionName, path.getFullPath(), aggregationDescriptor.getAttributesString()),
           SchemaUtils.getSeriesTypeByPath(path, functionName));
     }
   }
@@ -439,7 +444,9 @@ public class LogicalPlanBuilder {
     for (AggregationType aggregationType : splitAggregations) {
       String functionName = aggregationType.toString().toLowerCase();
       typeProvider.setType(
-          String.format("%s(%s)", functionName, path.getFullPath()),
+          String.format(
+              "%s(%s%s)",
+              functionName, path.getFullPath(), aggregationDescriptor.getAttributesString()),
           SchemaUtils.getSeriesTypeByPath(path, functionName));
     }
   }
@@ -581,6 +588,7 @@ public class LogicalPlanBuilder {
                   .map(Expression::getExpressions)
                   .flatMap(List::stream)
                   .collect(Collectors.toList()),
+              ((FunctionExpression) groupedExpression).getFunctionAttributes(),
               groupedExpression.getExpressions().get(0)));
     }
     updateTypeProvider(groupByLevelExpressions.keySet());
@@ -636,7 +644,8 @@ public class LogicalPlanBuilder {
               return new AggregationDescriptor(
                   ((FunctionExpression) expression).getFunctionName(),
                   curStep,
-                  expression.getExpressions());
+                  expression.getExpressions(),
+                  ((FunctionExpression) expression).getFunctionAttributes());
             })
         .collect(Collectors.toList());
   }
@@ -29,12 +29,15 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.PlanFragment;
 import org.apache.iotdb.db.mpp.plan.planner.plan.SubPlan;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.WritePlanNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.process.ExchangeNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.sink.FragmentSinkNode;
 import org.apache.iotdb.db.mpp.plan.statement.crud.QueryStatement;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 public class DistributionPlanner {
   private Analysis analysis;
@@ -43,6 +46,10 @@ public class DistributionPlanner {
 
   private int planFragmentIndex = 0;
 
+  // ids of the SeriesSourceNodes split by time range, each of which should be put into a separate
+  // PlanFragment
+  private Set<PlanNodeId> timeSplitNodeIds = Collections.emptySet();
+
   public DistributionPlanner(Analysis analysis, LogicalQueryPlan logicalPlan) {
     this.analysis = analysis;
     this.logicalPlan = logicalPlan;
@@ -51,12 +58,14 @@ public class DistributionPlanner {
 
   public PlanNode rewriteSource() {
     SourceRewriter rewriter = new SourceRewriter(this.analysis);
-    return rewriter.visit(logicalPlan.getRootNode(), new DistributionPlanContext(context));
+    PlanNode root = rewriter.visit(logicalPlan.getRootNode(), new DistributionPlanContext(context));
+    timeSplitNodeIds = rewriter.getTimeSplitNodeIds();
+    return root;
   }
 
   public PlanNode addExchangeNode(PlanNode root) {
     ExchangeNodeAdder adder = new ExchangeNodeAdder();
-    return adder.visit(root, new NodeGroupContext(context));
+    return adder.visit(root, new NodeGroupContext(context, timeSplitNodeIds));
   }
 
   public SubPlan splitFragment(PlanNode root) {
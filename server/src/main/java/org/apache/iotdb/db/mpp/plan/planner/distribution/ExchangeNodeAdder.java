@@ -253,30 +253,38 @@ public class ExchangeNodeAdder extends PlanVisitor<PlanNode, NodeGroupContext> {
     context.putNodeDistribution(
         newNode.getPlanNodeId(), new NodeDistribution(distributionType, dataRegion));
 
+    boolean hasTimeSplitChild =
+        visitedChildren.stream().anyMatch(child -> context.isTimeSplitNode(child.getPlanNodeId()));
     // If the distributionType of all the children are same, no ExchangeNode need to be added.
-    if (distributionType == NodeDistributionType.SAME_WITH_ALL_CHILDREN) {
+    if (distributionType == NodeDistributionType.SAME_WITH_ALL_CHILDREN && !hasTimeSplitChild) {
       newNode.setChildren(visitedChildren);
       return newNode;
     }
 
     // Otherwise, we need to add ExchangeNode for the child whose DataRegion is different from the
-    // parent.
-    visitedChildren.forEach(
-        child -> {
-          // If the child's region is NOT_ASSIGNED, it means the child do not belong to any
-          // existing DataRegion. We make it belong to its parent and no ExchangeNode will be added.
-          if (context.getNodeDistribution(child.getPlanNodeId()).region
-                  != DataPartition.NOT_ASSIGNED
-              && !dataRegion.equals(context.getNodeDistribution(child.getPlanNodeId()).region)) {
-            ExchangeNode exchangeNode =
-                new ExchangeNode(context.queryContext.getQueryId().genPlanNodeId());
-            exchangeNode.setChild(child);
-            exchangeNode.setOutputColumnNames(child.getOutputColumnNames());
-            newNode.addChild(exchangeNode);
-          } else {
-            newNode.addChild(child);
-          }
-        });
+    // parent. The time range splits of one series in the parent's DataRegion are also separated by
+    // ExchangeNode, except the first one, so that they can be executed by parallel drivers.
+    boolean timeSplitChildKept = false;
+    for (PlanNode child : visitedChildren) {
+      TRegionReplicaSet childRegion = context.getNodeDistribution(child.getPlanNodeId()).region;
+      // If the child's region is NOT_ASSIGNED, it means the child do not belong to any
+      // existing DataRegion. We make it belong to its parent and no ExchangeNode will be added.
+      boolean needExchange =
+          childRegion != DataPartition.NOT_ASSIGNED && !dataRegion.equals(childRegion);
+      if (!needExchange && context.isTimeSplitNode(child.getPlanNodeId())) {
+        needExchange = timeSplitChildKept;
+        timeSplitChildKept = true;
+      }
+      if (needExchange) {
+        ExchangeNode exchangeNode =
+            new ExchangeNode(context.queryContext.getQueryId().genPlanNodeId());
+        exchangeNode.setChild(child);
+        exchangeNode.setOutputColumnNames(child.getOutputColumnNames());
+        newNode.addChild(exchangeNode);
+      } else {
+        newNode.addChild(child);
+      }
+    }
     return newNode;
   }
 
@@ -22,16 +22,25 @@ package org.apache.iotdb.db.mpp.plan.planner.distribution;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class NodeGroupContext {
   protected MPPQueryContext queryContext;
   protected Map<PlanNodeId, NodeDistribution> nodeDistributionMap;
+  // ids of the SeriesSourceNodes split by time range in the same DataRegion
+  protected Set<PlanNodeId> timeSplitNodeIds;
 
   public NodeGroupContext(MPPQueryContext queryContext) {
+    this(queryContext, Collections.emptySet());
+  }
+
+  public NodeGroupContext(MPPQueryContext queryContext, Set<PlanNodeId> timeSplitNodeIds) {
     this.queryContext = queryContext;
     this.nodeDistributionMap = new HashMap<>();
+    this.timeSplitNodeIds = timeSplitNodeIds;
   }
 
   public void putNodeDistribution(PlanNodeId nodeId, NodeDistribution distribution) {
@@ -41,4 +50,8 @@ public class NodeGroupContext {
   public NodeDistribution getNodeDistribution(PlanNodeId nodeId) {
     return this.nodeDistributionMap.get(nodeId);
   }
+
+  public boolean isTimeSplitNode(PlanNodeId nodeId) {
+    return this.timeSplitNodeIds.contains(nodeId);
+  }
 }
@@ -20,7 +20,11 @@
 package org.apache.iotdb.db.mpp.plan.planner.distribution;
 
 import org.apache.iotdb.common.rpc.thrift.TRegionReplicaSet;
+import org.apache.iotdb.common.rpc.thrift.TTimePartitionSlot;
+import org.apache.iotdb.commons.partition.DataPartition;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngineV2;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
 import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
 import org.apache.iotdb.db.mpp.plan.expression.Expression;
@@ -56,6 +60,9 @@ import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationDescriptor
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.AggregationStep;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.GroupByLevelDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.OrderByParameter;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.basic.Filter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -74,6 +81,9 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
 
   private Analysis analysis;
 
+  // ids of the SeriesSourceNodes split from one series by time range in the same DataRegion
+  private final Set<PlanNodeId> timeSplitNodeIds = new HashSet<>();
+
   public SourceRewriter(Analysis analysis) {
     this.analysis = analysis;
   }
@@ -255,6 +265,10 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
   private PlanNode processRawSeriesScan(
       SeriesSourceNode node, DistributionPlanContext context, MultiChildNode parent) {
     List<SeriesSourceNode> sourceNodes = splitSeriesSourceNodeByPartition(node, context);
+    // The time range splits of one series can only be merged by TimeJoinNode
+    if (parent instanceof TimeJoinNode) {
+      sourceNodes = splitSeriesSourceNodeByTimeRange(sourceNodes, context);
+    }
     if (sourceNodes.size() == 1) {
       return sourceNodes.get(0);
     }
@@ -296,11 +310,10 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
 
   private PlanNode processSeriesAggregationSource(
       SeriesAggregationSourceNode node, DistributionPlanContext context) {
-    List<TRegionReplicaSet> dataDistribution =
-        analysis.getPartitionInfo(node.getPartitionPath(), node.getPartitionTimeFilter());
-    if (dataDistribution.size() == 1) {
-      node.setRegionReplicaSet(dataDistribution.get(0));
-      return node;
+    List<SeriesSourceNode> sourceNodes = splitSeriesSourceNodeByPartition(node, context);
+    sourceNodes = splitSeriesSourceNodeByTimeRange(sourceNodes, context);
+    if (sourceNodes.size() == 1) {
+      return sourceNodes.get(0);
     }
     List<AggregationDescriptor> leafAggDescriptorList = new ArrayList<>();
     node.getAggregationDescriptorList()
@@ -310,12 +323,15 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
                   new AggregationDescriptor(
                       descriptor.getAggregationFuncName(),
                       AggregationStep.PARTIAL,
-                      descriptor.getInputExpressions()));
+                      descriptor.getInputExpressions(),
+                      descriptor.getInputAttributes()));
             });
     leafAggDescriptorList.forEach(
         d ->
             LogicalPlanBuilder.updateTypeProviderByPartialAggregation(
                 d, context.queryContext.getTypeProvider()));
+    // If the original node already outputs partial results (e.g. it is under a
+    // SlidingWindowAggregationNode), the merging node must keep outputting partial results.
     List<AggregationDescriptor> rootAggDescriptorList = new ArrayList<>();
     node.getAggregationDescriptorList()
         .forEach(
@@ -323,8 +339,11 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
               rootAggDescriptorList.add(
                   new AggregationDescriptor(
                       descriptor.getAggregationFuncName(),
-                      AggregationStep.FINAL,
-                      descriptor.getInputExpressions()));
+                      descriptor.getStep().isOutputPartial()
+                          ? AggregationStep.INTERMEDIATE
+                          : AggregationStep.FINAL,
+                      descriptor.getInputExpressions(),
+                      descriptor.getInputAttributes()));
             });
 
     AggregationNode aggregationNode =
@@ -333,16 +352,124 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
             rootAggDescriptorList,
             node.getGroupByTimeParameter(),
             node.getScanOrder());
-    for (TRegionReplicaSet dataRegion : dataDistribution) {
-      SeriesAggregationScanNode split = (SeriesAggregationScanNode) node.clone();
+    for (SeriesSourceNode sourceNode : sourceNodes) {
+      SeriesAggregationSourceNode split = (SeriesAggregationSourceNode) sourceNode;
       split.setAggregationDescriptorList(leafAggDescriptorList);
-      split.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
-      split.setRegionReplicaSet(dataRegion);
       aggregationNode.addChild(split);
     }
     return aggregationNode;
   }
 
+  // Split each SeriesSourceNode, whose DataRegion has been assigned, into several nodes scanning
+  // disjoint time ranges which are aligned with the time partitions of the DataRegion. Each split
+  // will be put into a separate PlanFragment so that they can be executed by parallel drivers.
+  private List<SeriesSourceNode> splitSeriesSourceNodeByTimeRange(
+      List<SeriesSourceNode> sourceNodes, DistributionPlanContext context) {
+    List<SeriesSourceNode> ret = new ArrayList<>();
+    for (SeriesSourceNode node : sourceNodes) {
+      List<Filter> timeRangeFilters = calculateTimeRangeFilters(node);
+      if (timeRangeFilters.size() <= 1) {
+        ret.add(node);
+        continue;
+      }
+      for (Filter timeRangeFilter : timeRangeFilters) {
+        SeriesSourceNode split = (SeriesSourceNode) node.clone();
+        split.setPlanNodeId(context.queryContext.getQueryId().genPlanNodeId());
+        setTimeRangeFilter(split, timeRangeFilter);
+        timeSplitNodeIds.add(split.getPlanNodeId());
+        ret.add(split);
+      }
+    }
+    return ret;
+  }
+
+  private List<Filter> calculateTimeRangeFilters(SeriesSourceNode node) {
+    int maxSplitNum = IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanSplitNum();
+    if (maxSplitNum <= 1
+        || !canSplitByTimeRange(node)
+        || analysis.getDataPartitionInfo() == null
+        || node.getRegionReplicaSet() == null
+        || node.getRegionReplicaSet() == DataPartition.NOT_ASSIGNED) {
+      return Collections.emptyList();
+    }
+
+    // Step 1: find the time partitions of the DataRegion which may satisfy the time filter
+    long timePartitionInterval = StorageEngineV2.getTimePartitionInterval();
+    Filter timeFilter = node.getPartitionTimeFilter();
+    List<Long> startTimeList = new ArrayList<>();
+    for (TTimePartitionSlot timePartitionSlot :
+        analysis
+            .getDataPartitionInfo()
+            .getTimePartitionSlotList(
+                node.getPartitionPath().getDevice(), node.getRegionReplicaSet())) {
+      long startTime = timePartitionSlot.getStartTime();
+      long endTime =
+          startTime > Long.MAX_VALUE - timePartitionInterval
+              ? Long.MAX_VALUE
+              : startTime + timePartitionInterval - 1;
+      if (timeFilter == null || timeFilter.satisfyStartEndTime(startTime, endTime)) {
+        startTimeList.add(startTime);
+      }
+    }
+    int splitNum = Math.min(maxSplitNum, startTimeList.size());
+    if (splitNum <= 1) {
+      return Collections.emptyList();
+    }
+
+    // Step 2: group the adjacent time partitions into splitNum time ranges. The first range has no
+    // lower bound and the last range has no upper bound so that the ranges together always cover
+    // the time range of the original node.
+    List<Filter> ret = new ArrayList<>();
+    for (int i = 0; i < splitNum; i++) {
+      Filter lowerBound =
+          i == 0 ? null : TimeFilter.gtEq(startTimeList.get(i * startTimeList.size() / splitNum));
+      Filter upperBound =
+          i == splitNum - 1
+              ? null
+              : TimeFilter.lt(startTimeList.get((i + 1) * startTimeList.size() / splitNum));
+      if (lowerBound == null) {
+        ret.add(upperBound);
+      } else {
+        ret.add(upperBound == null ? lowerBound : FilterFactory.and(lowerBound, upperBound));
+      }
+    }
+    return ret;
+  }
+
+  // Splitting by time range is not applicable to the scan with limit or offset pushed down, whose
+  // result depends on all the points of the series
+  private boolean canSplitByTimeRange(SeriesSourceNode node) {
+    if (node instanceof SeriesScanNode) {
+      return ((SeriesScanNode) node).getLimit() == 0 && ((SeriesScanNode) node).getOffset() == 0;
+    }
+    if (node instanceof AlignedSeriesScanNode) {
+      return ((AlignedSeriesScanNode) node).getLimit() == 0
+          && ((AlignedSeriesScanNode) node).getOffset() == 0;
+    }
+    return node instanceof SeriesAggregationSourceNode;
+  }
+
+  private void setTimeRangeFilter(SeriesSourceNode node, Filter timeRangeFilter) {
+    if (node instanceof SeriesScanNode) {
+      SeriesScanNode scanNode = (SeriesScanNode) node;
+      scanNode.setTimeFilter(mergeTimeFilter(scanNode.getTimeFilter(), timeRangeFilter));
+    } else if (node instanceof AlignedSeriesScanNode) {
+      AlignedSeriesScanNode scanNode = (AlignedSeriesScanNode) node;
+      scanNode.setTimeFilter(mergeTimeFilter(scanNode.getTimeFilter(), timeRangeFilter));
+    } else if (node instanceof SeriesAggregationSourceNode) {
+      SeriesAggregationSourceNode scanNode = (SeriesAggregationSourceNode) node;
+      scanNode.setTimeFilter(mergeTimeFilter(scanNode.getTimeFilter(), timeRangeFilter));
+    }
+  }
+
+  private Filter mergeTimeFilter(Filter timeFilter, Filter timeRangeFilter) {
+    return timeFilter == null ? timeRangeFilter : FilterFactory.and(timeFilter, timeRangeFilter);
+  }
+
+  public Set<PlanNodeId> getTimeSplitNodeIds() {
+    return timeSplitNodeIds;
+  }
+
   @Override
   public PlanNode visitSchemaFetchMerge(
       SchemaFetchMergeNode node, DistributionPlanContext context) {
@@ -526,7 +653,8 @@ public class SourceRewriter extends SimplePlanNodeRewriter<DistributionPlanConte
                     new AggregationDescriptor(
                         descriptor.getAggregationFuncName(),
                         context.isRoot ? AggregationStep.FINAL : AggregationStep.INTERMEDIATE,
-                        descriptor.getInputExpressions()));
+                        descriptor.getInputExpressions(),
+                        descriptor.getInputAttributes()));
               });
     }
     rootAggDescriptorList.forEach(
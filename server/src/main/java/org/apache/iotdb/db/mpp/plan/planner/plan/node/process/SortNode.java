@@ -53,6 +53,10 @@ public class SortNode extends ProcessNode {
     this.child = child;
   }
 
+  public PlanNode getChild() {
+    return child;
+  }
+
   public Ordering getSortOrder() {
     return sortOrder;
   }
@@ -29,6 +29,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -55,14 +56,32 @@ public class AggregationDescriptor {
    */
   protected List<Expression> inputExpressions;
 
+  /**
+   * Attributes of aggregation function, which are kept in the order of the function expression.
+   *
+   * <p>example: select percentile(s1, 'q'='0.9') from root.sg.d1; {q=0.9} will be in this field.
+   */
+  protected final LinkedHashMap<String, String> inputAttributes;
+
   private String parametersString;
 
+  private String attributesString;
+
   public AggregationDescriptor(
       String aggregationFuncName, AggregationStep step, List<Expression> inputExpressions) {
+    this(aggregationFuncName, step, inputExpressions, new LinkedHashMap<>());
+  }
+
+  public AggregationDescriptor(
+      String aggregationFuncName,
+      AggregationStep step,
+      List<Expression> inputExpressions,
+      LinkedHashMap<String, String> inputAttributes) {
     this.aggregationFuncName = aggregationFuncName;
     this.aggregationType = AggregationType.valueOf(aggregationFuncName.toUpperCase());
     this.step = step;
     this.inputExpressions = inputExpressions;
+    this.inputAttributes = inputAttributes;
   }
 
   public AggregationDescriptor(AggregationDescriptor other) {
@@ -70,6 +89,7 @@ public class AggregationDescriptor {
     this.aggregationType = other.getAggregationType();
     this.step = other.getStep();
     this.inputExpressions = other.getInputExpressions();
+    this.inputAttributes = other.getInputAttributes();
   }
 
   public String getAggregationFuncName() {
@@ -103,7 +123,8 @@ public class AggregationDescriptor {
     List<String> inputAggregationNames = getActualAggregationNames(step.isInputPartial());
     List<String> inputColumnNames = new ArrayList<>();
     for (String funcName : inputAggregationNames) {
-      inputColumnNames.add(funcName + "(" + inputExpression.getExpressionString() + ")");
+      inputColumnNames.add(
+          funcName + "(" + inputExpression.getExpressionString() + getAttributesString() + ")");
     }
     return inputColumnNames;
   }
@@ -150,9 +171,9 @@ public class AggregationDescriptor {
    *
    * <p>Example:
    *
-   * <p>Full column name -> udf(root.sg.d.s1, sin(root.sg.d.s1))
+   * <p>Full column name -> percentile(root.sg.d.s1, "q"="0.9")
    *
-   * <p>The parameter part -> root.sg.d.s1, sin(root.sg.d.s1)
+   * <p>The parameter part -> root.sg.d.s1, "q"="0.9"
    */
   public String getParametersString() {
     if (parametersString == null) {
@@ -163,15 +184,47 @@ public class AggregationDescriptor {
           builder.append(", ").append(inputExpressions.get(i).toString());
         }
       }
+      builder.append(getAttributesString());
       parametersString = builder.toString();
     }
     return parametersString;
   }
 
+  /**
+   * Generates the attribute part of the function column name, which follows the input expressions
+   * in the same format as FunctionExpression.
+   *
+   * <p>Example:
+   *
+   * <p>Full column name -> percentile(root.sg.d.s1, "q"="0.9")
+   *
+   * <p>The attribute part -> , "q"="0.9"
+   */
+  public String getAttributesString() {
+    if (attributesString == null) {
+      StringBuilder builder = new StringBuilder();
+      for (Map.Entry<String, String> entry : inputAttributes.entrySet()) {
+        builder
+            .append(", ")
+            .append("\"")
+            .append(entry.getKey())
+            .append("\"=\"")
+            .append(entry.getValue())
+            .append("\"");
+      }
+      attributesString = builder.toString();
+    }
+    return attributesString;
+  }
+
   public List<Expression> getInputExpressions() {
     return inputExpressions;
   }
 
+  public LinkedHashMap<String, String> getInputAttributes() {
+    return inputAttributes;
+  }
+
   public AggregationType getAggregationType() {
     return aggregationType;
   }
@@ -199,6 +252,7 @@ public class AggregationDescriptor {
     for (Expression expression : inputExpressions) {
       Expression.serialize(expression, byteBuffer);
     }
+    ReadWriteIOUtils.write(inputAttributes, byteBuffer);
   }
 
   public void serialize(DataOutputStream stream) throws IOException {
@@ -208,6 +262,7 @@ public class AggregationDescriptor {
     for (Expression expression : inputExpressions) {
       Expression.serialize(expression, stream);
     }
+    ReadWriteIOUtils.write(inputAttributes, stream);
   }
 
   public static AggregationDescriptor deserialize(ByteBuffer byteBuffer) {
@@ -219,7 +274,8 @@ public class AggregationDescriptor {
       inputExpressions.add(Expression.deserialize(byteBuffer));
       inputExpressionsSize--;
     }
-    return new AggregationDescriptor(aggregationFuncName, step, inputExpressions);
+    LinkedHashMap<String, String> inputAttributes = ReadWriteIOUtils.readLinkedHashMap(byteBuffer);
+    return new AggregationDescriptor(aggregationFuncName, step, inputExpressions, inputAttributes);
   }
 
   @Override
@@ -233,12 +289,13 @@ public class AggregationDescriptor {
     AggregationDescriptor that = (AggregationDescriptor) o;
     return aggregationType == that.aggregationType
         && step == that.step
-        && Objects.equals(inputExpressions, that.inputExpressions);
+        && Objects.equals(inputExpressions, that.inputExpressions)
+        && Objects.equals(inputAttributes, that.inputAttributes);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(aggregationType, step, inputExpressions);
+    return Objects.hash(aggregationType, step, inputExpressions, inputAttributes);
   }
 
   public String toString() {
@@ -24,6 +24,7 @@ import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,6 +42,16 @@ public class GroupByLevelDescriptor extends AggregationDescriptor {
     this.outputExpression = outputExpression;
   }
 
+  public GroupByLevelDescriptor(
+      String aggregationFuncName,
+      AggregationStep step,
+      List<Expression> inputExpressions,
+      LinkedHashMap<String, String> inputAttributes,
+      Expression outputExpression) {
+    super(aggregationFuncName, step, inputExpressions, inputAttributes);
+    this.outputExpression = outputExpression;
+  }
+
   public GroupByLevelDescriptor(
       AggregationDescriptor aggregationDescriptor, Expression outputExpression) {
     super(aggregationDescriptor);
@@ -53,7 +64,7 @@ public class GroupByLevelDescriptor extends AggregationDescriptor {
 
   @Override
   public String getParametersString() {
-    return outputExpression.getExpressionString();
+    return outputExpression.getExpressionString() + getAttributesString();
   }
 
   @Override
@@ -71,6 +82,7 @@ public class GroupByLevelDescriptor extends AggregationDescriptor {
         this.getAggregationFuncName(),
         this.getStep(),
         this.getInputExpressions(),
+        this.getInputAttributes(),
         this.getOutputExpression());
   }
 
@@ -20,9 +20,14 @@
 package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.util.ColumnKernelUtils;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
 import org.apache.iotdb.tsfile.read.common.type.Type;
+import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
+
+import java.util.Optional;
 
 public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTransformer {
   public ArithmeticBinaryColumnTransformer(
@@ -30,6 +35,26 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column doTransform(Column leftColumn, Column rightColumn, int positionCount) {
+    if (!returnType.getTypeEnum().equals(TypeEnum.DOUBLE)
+        || !ColumnKernelUtils.isNumeric(leftColumn)
+        || !ColumnKernelUtils.isNumeric(rightColumn)) {
+      return super.doTransform(leftColumn, rightColumn, positionCount);
+    }
+    double[] values = new double[positionCount];
+    transform(
+        ColumnKernelUtils.getDoubles(leftColumn, positionCount),
+        ColumnKernelUtils.getDoubles(rightColumn, positionCount),
+        values,
+        positionCount);
+    return new DoubleColumn(
+        positionCount,
+        Optional.ofNullable(
+            ColumnKernelUtils.getNullsOfEither(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -54,4 +79,10 @@ public abstract class ArithmeticBinaryColumnTransformer extends BinaryColumnTran
   }
 
   protected abstract double transform(double d1, double d2);
+
+  /**
+   * Calculate all the positions at once. Values at null positions are calculated too and ignored
+   * later, so the loop has no branch.
+   */
+  protected abstract void transform(double[] left, double[] right, double[] output, int count);
 }
@@ -47,9 +47,18 @@ public abstract class BinaryColumnTransformer extends ColumnTransformer {
     Column leftColumn = leftTransformer.getColumn();
     Column rightColumn = rightTransformer.getColumn();
 
+    initializeColumnCache(doTransform(leftColumn, rightColumn, positionCount));
+  }
+
+  /**
+   * Calculate the result column. By default it is built value by value with {@link
+   * #doTransform(Column, Column, ColumnBuilder, int)}, subclasses may override it to calculate the
+   * whole column at once.
+   */
+  protected Column doTransform(Column leftColumn, Column rightColumn, int positionCount) {
     ColumnBuilder builder = returnType.createColumnBuilder(positionCount);
     doTransform(leftColumn, rightColumn, builder, positionCount);
-    initializeColumnCache(builder.build());
+    return builder.build();
   }
 
   protected abstract void doTransform(
@@ -20,12 +20,16 @@
 package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.util.ColumnKernelUtils;
 import org.apache.iotdb.db.mpp.transformation.dag.util.TransformUtils;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
 import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
+import java.util.Optional;
+
 public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransformer {
 
   public CompareBinaryColumnTransformer(
@@ -33,6 +37,26 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column doTransform(Column leftColumn, Column rightColumn, int positionCount) {
+    if (!returnType.getTypeEnum().equals(TypeEnum.BOOLEAN)
+        || !ColumnKernelUtils.isNumeric(leftColumn)
+        || !ColumnKernelUtils.isNumeric(rightColumn)) {
+      return super.doTransform(leftColumn, rightColumn, positionCount);
+    }
+    boolean[] values = new boolean[positionCount];
+    transform(
+        ColumnKernelUtils.getDoubles(leftColumn, positionCount),
+        ColumnKernelUtils.getDoubles(rightColumn, positionCount),
+        values,
+        positionCount);
+    return new BooleanColumn(
+        positionCount,
+        Optional.ofNullable(
+            ColumnKernelUtils.getNullsOfEither(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -88,4 +112,10 @@ public abstract class CompareBinaryColumnTransformer extends BinaryColumnTransfo
    * @return
    */
   protected abstract boolean transform(int flag);
+
+  /**
+   * Compare all the numeric values at once, the result is false if either value is NaN. Values at
+   * null positions are compared too and ignored later.
+   */
+  protected abstract void transform(double[] left, double[] right, boolean[] output, int count);
 }
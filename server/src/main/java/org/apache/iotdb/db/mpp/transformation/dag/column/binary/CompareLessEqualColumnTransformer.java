@@ -32,4 +32,14 @@ public class CompareLessEqualColumnTransformer extends CompareBinaryColumnTransf
   protected boolean transform(int flag) {
     return flag <= 0;
   }
+
+  @Override
+  protected void transform(double[] left, double[] right, boolean[] output, int count) {
+    for (int i = 0; i < count; i++) {
+      output[i] =
+          !Double.isNaN(left[i])
+              && !Double.isNaN(right[i])
+              && Double.compare(left[i], right[i]) <= 0;
+    }
+  }
 }
@@ -20,17 +20,40 @@
 package org.apache.iotdb.db.mpp.transformation.dag.column.binary;
 
 import org.apache.iotdb.db.mpp.transformation.dag.column.ColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.util.ColumnKernelUtils;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.type.Type;
 import org.apache.iotdb.tsfile.read.common.type.TypeEnum;
 
+import java.util.Optional;
+
 public abstract class LogicBinaryColumnTransformer extends BinaryColumnTransformer {
   public LogicBinaryColumnTransformer(
       Type returnType, ColumnTransformer leftTransformer, ColumnTransformer rightTransformer) {
     super(returnType, leftTransformer, rightTransformer);
   }
 
+  @Override
+  protected Column doTransform(Column leftColumn, Column rightColumn, int positionCount) {
+    if (!returnType.getTypeEnum().equals(TypeEnum.BOOLEAN)) {
+      return super.doTransform(leftColumn, rightColumn, positionCount);
+    }
+    // a null operand is calculated as false, and the result is null only if both are null
+    boolean[] values = new boolean[positionCount];
+    transform(
+        ColumnKernelUtils.getBooleans(leftColumn, positionCount),
+        ColumnKernelUtils.getBooleans(rightColumn, positionCount),
+        values,
+        positionCount);
+    return new BooleanColumn(
+        positionCount,
+        Optional.ofNullable(
+            ColumnKernelUtils.getNullsOfBoth(leftColumn, rightColumn, positionCount)),
+        values);
+  }
+
   @Override
   protected void doTransform(
       Column leftColumn, Column rightColumn, ColumnBuilder builder, int positionCount) {
@@ -62,4 +85,6 @@ public abstract class LogicBinaryColumnTransformer extends BinaryColumnTransform
   }
 
   protected abstract boolean transform(boolean left, boolean right);
+
+  protected abstract void transform(boolean[] left, boolean[] right, boolean[] output, int count);
 }
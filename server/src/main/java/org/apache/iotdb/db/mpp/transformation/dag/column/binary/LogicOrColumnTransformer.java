@@ -32,4 +32,11 @@ public class LogicOrColumnTransformer extends LogicBinaryColumnTransformer {
   protected boolean transform(boolean left, boolean right) {
     return left || right;
   }
+
+  @Override
+  protected void transform(boolean[] left, boolean[] right, boolean[] output, int count) {
+    for (int i = 0; i < count; i++) {
+      output[i] = left[i] | right[i];
+    }
+  }
 }
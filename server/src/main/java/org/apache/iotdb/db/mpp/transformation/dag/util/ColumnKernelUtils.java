@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.transformation.dag.util;
+
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.TimeColumn;
+
+import java.util.Arrays;
+
+/**
+ * Helpers for the column transformers that calculate a whole column in a tight loop over primitive
+ * arrays instead of reading and writing the values one by one through {@link
+ * org.apache.iotdb.tsfile.read.common.type.Type}.
+ *
+ * <p>All the arrays returned here start at position 0 of the column, and the values at null
+ * positions are undefined.
+ */
+public class ColumnKernelUtils {
+
+  private ColumnKernelUtils() {}
+
+  /** @return whether the values of the column can be read by {@link #getDoubles} */
+  public static boolean isNumeric(Column column) {
+    switch (column.getDataType()) {
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Get the values of a numeric column as doubles. The array of a {@code DoubleColumn} is returned
+   * without copying if it is not a region of a larger column.
+   */
+  public static double[] getDoubles(Column column, int positionCount) {
+    if (column instanceof RunLengthEncodedColumn) {
+      Column value = ((RunLengthEncodedColumn) column).getValue();
+      double[] result = new double[positionCount];
+      if (!value.isNull(0)) {
+        Arrays.fill(result, getDoubles(value, 1)[0]);
+      }
+      return result;
+    }
+
+    int offset = column.getArrayOffset();
+    double[] result;
+    switch (column.getDataType()) {
+      case INT32:
+        int[] ints = column.getInts();
+        result = new double[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = ints[i + offset];
+        }
+        return result;
+      case INT64:
+        long[] longs =
+            column instanceof TimeColumn ? ((TimeColumn) column).getTimes() : column.getLongs();
+        result = new double[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = longs[i + offset];
+        }
+        return result;
+      case FLOAT:
+        float[] floats = column.getFloats();
+        result = new double[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+          result[i] = floats[i + offset];
+        }
+        return result;
+      case DOUBLE:
+        double[] doubles = column.getDoubles();
+        return offset == 0 ? doubles : Arrays.copyOfRange(doubles, offset, offset + positionCount);
+      default:
+        throw new UnsupportedOperationException("Unsupported Type: " + column.getDataType());
+    }
+  }
+
+  /** Get the values of a boolean column, null positions are read as false. */
+  public static boolean[] getBooleans(Column column, int positionCount) {
+    boolean[] result = new boolean[positionCount];
+    if (column instanceof RunLengthEncodedColumn) {
+      Column value = ((RunLengthEncodedColumn) column).getValue();
+      if (!value.isNull(0)) {
+        Arrays.fill(result, value.getBoolean(0));
+      }
+      return result;
+    }
+
+    int offset = column.getArrayOffset();
+    System.arraycopy(column.getBooleans(), offset, result, 0, positionCount);
+    if (column.mayHaveNull()) {
+      boolean[] isNull = column.isNull();
+      for (int i = 0; i < positionCount; i++) {
+        result[i] &= !isNull[i + offset];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Get the null flags of a column.
+   *
+   * @return null if the column has no null values
+   */
+  public static boolean[] getNulls(Column column, int positionCount) {
+    if (column instanceof RunLengthEncodedColumn) {
+      if (!((RunLengthEncodedColumn) column).getValue().isNull(0)) {
+        return null;
+      }
+      boolean[] result = new boolean[positionCount];
+      Arrays.fill(result, true);
+      return result;
+    }
+    if (!column.mayHaveNull()) {
+      return null;
+    }
+    int offset = column.getArrayOffset();
+    return Arrays.copyOfRange(column.isNull(), offset, offset + positionCount);
+  }
+
+  /**
+   * Get the positions where either of the two columns is null.
+   *
+   * @return null if neither column has null values
+   */
+  public static boolean[] getNullsOfEither(Column left, Column right, int positionCount) {
+    boolean[] leftNulls = getNulls(left, positionCount);
+    boolean[] rightNulls = getNulls(right, positionCount);
+    if (leftNulls == null) {
+      return rightNulls;
+    }
+    if (rightNulls != null) {
+      for (int i = 0; i < positionCount; i++) {
+        leftNulls[i] |= rightNulls[i];
+      }
+    }
+    return leftNulls;
+  }
+
+  /**
+   * Get the positions where both of the two columns are null.
+   *
+   * @return null if at least one of the columns has no null values
+   */
+  public static boolean[] getNullsOfBoth(Column left, Column right, int positionCount) {
+    boolean[] leftNulls = getNulls(left, positionCount);
+    if (leftNulls == null) {
+      return null;
+    }
+    boolean[] rightNulls = getNulls(right, positionCount);
+    if (rightNulls == null) {
+      return null;
+    }
+    for (int i = 0; i < positionCount; i++) {
+      leftNulls[i] &= rightNulls[i];
+    }
+    return leftNulls;
+  }
+}
@@ -62,6 +62,9 @@ public class SQLConstant {
   public static final String COUNT = "count";
   public static final String AVG = "avg";
   public static final String SUM = "sum";
+  public static final String APPROX_COUNT_DISTINCT = "approx_count_distinct";
+  public static final String APPROX_MEDIAN = "approx_median";
+  public static final String PERCENTILE = "percentile";
 
   public static final String LAST = "last";
 
@@ -35,7 +35,10 @@ public enum AggregationType {
   MIN_TIME,
   MAX_VALUE,
   MIN_VALUE,
-  EXTREME;
+  EXTREME,
+  APPROX_COUNT_DISTINCT,
+  APPROX_MEDIAN,
+  PERCENTILE;
 
   /**
    * give an integer to return a data type.
@@ -65,6 +68,12 @@ public enum AggregationType {
         return MIN_VALUE;
       case 9:
         return EXTREME;
+      case 10:
+        return APPROX_COUNT_DISTINCT;
+      case 11:
+        return APPROX_MEDIAN;
+      case 12:
+        return PERCENTILE;
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + i);
     }
@@ -103,6 +112,15 @@ public enum AggregationType {
       case EXTREME:
         i = 9;
         break;
+      case APPROX_COUNT_DISTINCT:
+        i = 10;
+        break;
+      case APPROX_MEDIAN:
+        i = 11;
+        break;
+      case PERCENTILE:
+        i = 12;
+        break;
       default:
         throw new IllegalArgumentException("Invalid Aggregation Type: " + this.name());
     }
@@ -28,7 +28,6 @@ import org.apache.iotdb.tsfile.file.metadata.IChunkMetadata;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -42,12 +41,6 @@ public class QueryContext {
    */
   private final Map<String, Map<String, List<Modification>>> filePathModCache =
       new ConcurrentHashMap<>();
-  /**
-   * The key is the path of a ModificationFile and the value is all Modifications in this file. We
-   * use this field because each call of Modification.getModifications() return a copy of the
-   * Modifications, and we do not want it to create multiple copies within a query.
-   */
-  private final Map<String, List<Modification>> fileModCache = new HashMap<>();
 
   protected long queryId;
 
@@ -98,24 +91,7 @@ public class QueryContext {
     Map<String, List<Modification>> fileModifications =
         filePathModCache.computeIfAbsent(modFile.getFilePath(), k -> new ConcurrentHashMap<>());
     return fileModifications.computeIfAbsent(
-        path.getFullPath(),
-        k -> {
-          List<Modification> allModifications = fileModCache.get(modFile.getFilePath());
-          if (allModifications == null) {
-            allModifications = (List<Modification>) modFile.getModifications();
-            fileModCache.put(modFile.getFilePath(), allModifications);
-          }
-          List<Modification> finalPathModifications = new ArrayList<>();
-          if (!allModifications.isEmpty()) {
-            allModifications.forEach(
-                modification -> {
-                  if (modification.getPath().matchFullPath(path)) {
-                    finalPathModifications.add(modification);
-                  }
-                });
-          }
-          return finalPathModifications;
-        });
+        path.getFullPath(), k -> modFile.getModifications(path));
   }
 
   /**
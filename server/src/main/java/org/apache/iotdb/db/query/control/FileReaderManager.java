@@ -18,8 +18,12 @@
  */
 package org.apache.iotdb.db.query.control;
 
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
 import org.apache.iotdb.tsfile.common.conf.TSFileConfig;
+import org.apache.iotdb.tsfile.common.conf.TSFileDescriptor;
+import org.apache.iotdb.tsfile.fileSystem.FSType;
 import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 import org.apache.iotdb.tsfile.read.UnClosedTsFileReader;
 import org.apache.iotdb.tsfile.v2.read.TsFileSequenceReaderForV2;
@@ -28,7 +32,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -52,6 +61,8 @@ public class FileReaderManager {
    */
   private static final int PRINT_INTERVAL = 10000;
 
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
   /**
    * the key of closedFileReaderMap is the file path and the value of closedFileReaderMap is the
    * corresponding reader.
@@ -74,6 +85,14 @@ public class FileReaderManager {
    */
   private Map<String, AtomicInteger> unclosedReferenceMap;
 
+  /**
+   * the key of mappedSizeMap is a mapped input of a closed file and the value is its mapped size.
+   * It is guarded by itself, and so is totalMappedSize.
+   */
+  private final Map<MappedTsFileInput, Long> mappedSizeMap = new IdentityHashMap<>();
+
+  private long totalMappedSize = 0;
+
   private FileReaderManager() {
     closedFileReaderMap = new ConcurrentHashMap<>();
     unclosedFileReaderMap = new ConcurrentHashMap<>();
@@ -126,7 +145,7 @@ public class FileReaderManager {
       if (!isClosed) {
         tsFileReader = new UnClosedTsFileReader(filePath);
       } else {
-        tsFileReader = new TsFileSequenceReader(filePath);
+        tsFileReader = createClosedFileReader(filePath);
         if (tsFileReader.readVersionNumber() != TSFileConfig.VERSION_NUMBER) {
           tsFileReader.close();
           tsFileReader = new TsFileSequenceReaderForV2(filePath);
@@ -144,6 +163,72 @@ public class FileReaderManager {
     return readerMap.get(filePath);
   }
 
+  private TsFileSequenceReader createClosedFileReader(String filePath) throws IOException {
+    if (CONFIG.isMmapTsFileReadEnable()
+        && TSFileDescriptor.getInstance().getConfig().getTSFileStorageFs() == FSType.LOCAL) {
+      return new TsFileSequenceReader(new MappedTsFileInput(Paths.get(filePath), this));
+    }
+    return new TsFileSequenceReader(filePath);
+  }
+
+  /**
+   * Reserve the mapped size for a closed file before mapping it. If the total mapped size would
+   * exceed the limit, the least recently read mapped files which are not being read are unmapped.
+   *
+   * @return false if there is not enough room for the file, and it should not be mapped now
+   */
+  boolean reserveMappedSize(MappedTsFileInput input, long size) {
+    long maxMappedSize = CONFIG.getMmapTsFileMaxSizeInBytes();
+    if (size > maxMappedSize) {
+      return false;
+    }
+    synchronized (mappedSizeMap) {
+      if (totalMappedSize + size > maxMappedSize) {
+        // snapshot the access times, which are updated by readers concurrently, so that the sort
+        // sees a consistent order
+        Map<MappedTsFileInput, Long> lastAccessTimes = new IdentityHashMap<>();
+        for (MappedTsFileInput candidate : mappedSizeMap.keySet()) {
+          lastAccessTimes.put(candidate, candidate.getLastAccessTime());
+        }
+        List<MappedTsFileInput> candidates = new ArrayList<>(lastAccessTimes.keySet());
+        candidates.sort(Comparator.comparingLong(lastAccessTimes::get));
+        for (MappedTsFileInput candidate : candidates) {
+          if (candidate != input && candidate.tryUnmap()) {
+            if (resourceLogger.isDebugEnabled()) {
+              resourceLogger.debug("{} is unmapped to map other files.", candidate.getFilePath());
+            }
+            if (totalMappedSize + size <= maxMappedSize) {
+              break;
+            }
+          }
+        }
+        if (totalMappedSize + size > maxMappedSize) {
+          return false;
+        }
+      }
+      mappedSizeMap.put(input, size);
+      totalMappedSize += size;
+      return true;
+    }
+  }
+
+  /** Release the mapped size of a closed file after it is unmapped. */
+  void releaseMappedSize(MappedTsFileInput input) {
+    synchronized (mappedSizeMap) {
+      Long size = mappedSizeMap.remove(input);
+      if (size != null) {
+        totalMappedSize -= size;
+      }
+    }
+  }
+
+  /** This method is only for unit tests. */
+  long getTotalMappedSize() {
+    synchronized (mappedSizeMap) {
+      return totalMappedSize;
+    }
+  }
+
   /**
    * Increase the reference count of the reader specified by filePath. Only when the reference count
    * of a reader equals zero, the reader can be closed and removed.
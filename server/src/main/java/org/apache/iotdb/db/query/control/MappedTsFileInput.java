@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.query.control;
+
+import org.apache.iotdb.db.utils.MmapUtil;
+import org.apache.iotdb.tsfile.read.reader.TsFileInput;
+import org.apache.iotdb.tsfile.utils.ReadWriteForEncodingUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A TsFileInput of a closed TsFile, which copies the data from a memory mapped buffer of the whole
+ * file instead of issuing a positional read of the file channel for each read. The file is mapped
+ * on the first read, and it may be unmapped by {@link FileReaderManager} at any time when no read
+ * is in progress to bound the total size of the mapped files. The file is mapped again on the next
+ * read then.
+ *
+ * <p>The data is copied out of the mapped buffer rather than sliced from it, because the read
+ * buffers are kept by caches (e.g. ChunkCache) after the file is unmapped.
+ *
+ * <p>The reads fall back to the file channel if the file can not be mapped.
+ */
+public class MappedTsFileInput implements TsFileInput {
+
+  private static final Logger logger = LoggerFactory.getLogger(MappedTsFileInput.class);
+
+  private final FileChannel channel;
+  private final String filePath;
+  private final FileReaderManager manager;
+
+  /** read lock is held by the reads of the mapped buffer, write lock is held for unmapping it */
+  private final ReentrantReadWriteLock mappingLock = new ReentrantReadWriteLock();
+
+  private volatile MappedByteBuffer mappedBuffer;
+  /** false if the file can not be mapped, e.g. it is larger than the max mapped size */
+  private volatile boolean mappable = true;
+
+  private volatile boolean closed = false;
+  private volatile long lastAccessTime;
+
+  public MappedTsFileInput(Path file, FileReaderManager manager) throws IOException {
+    this.channel = FileChannel.open(file, StandardOpenOption.READ);
+    this.filePath = file.toString();
+    this.manager = manager;
+  }
+
+  @Override
+  public long size() throws IOException {
+    try {
+      return channel.size();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} size", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public long position() throws IOException {
+    try {
+      return channel.position();
+    } catch (IOException e) {
+      logger.error("Error happened while getting {} current position", filePath);
+      throw e;
+    }
+  }
+
+  @Override
+  public TsFileInput position(long newPosition) throws IOException {
+    try {
+      channel.position(newPosition);
+      return this;
+    } catch (IOException e) {
+      logger.error("Error happened while changing {} position to {}", filePath, newPosition);
+      throw e;
+    }
+  }
+
+  @Override
+  public int read(ByteBuffer dst) throws IOException {
+    long position = position();
+    int readSize = read(dst, position);
+    if (readSize > 0) {
+      position(position + readSize);
+    }
+    return readSize;
+  }
+
+  @Override
+  public int read(ByteBuffer dst, long position) throws IOException {
+    mappingLock.readLock().lock();
+    try {
+      MappedByteBuffer buffer = getMappedBuffer();
+      if (buffer == null || position >= buffer.capacity()) {
+        return readFromChannel(dst, position);
+      }
+      lastAccessTime = System.nanoTime();
+      int readSize = (int) Math.min(dst.remaining(), buffer.capacity() - position);
+      ByteBuffer src = buffer.duplicate();
+      src.position((int) position);
+      src.limit((int) position + readSize);
+      dst.put(src);
+      return readSize;
+    } finally {
+      mappingLock.readLock().unlock();
+    }
+  }
+
+  private int readFromChannel(ByteBuffer dst, long position) throws IOException {
+    try {
+      return channel.read(dst, position);
+    } catch (ClosedByInterruptException e) {
+      logger.warn(
+          "Current thread is interrupted by another thread when it is blocked in an I/O operation upon a channel.");
+      return -1;
+    } catch (IOException e) {
+      logger.error("Error happened while reading {} from position {}", filePath, position);
+      throw e;
+    }
+  }
+
+  /**
+   * Get the mapped buffer of the file, and map the file if it is not mapped yet. The read lock of
+   * mappingLock must be held by the caller.
+   *
+   * @return null if the file can not be mapped
+   */
+  private MappedByteBuffer getMappedBuffer() {
+    MappedByteBuffer buffer = mappedBuffer;
+    if (buffer != null || !mappable || closed) {
+      return buffer;
+    }
+    synchronized (this) {
+      buffer = mappedBuffer;
+      if (buffer != null || !mappable) {
+        return buffer;
+      }
+      long size;
+      try {
+        size = channel.size();
+      } catch (IOException e) {
+        logger.warn("Can not get the size of {}, it will not be mapped", filePath, e);
+        mappable = false;
+        return null;
+      }
+      if (size > Integer.MAX_VALUE) {
+        mappable = false;
+        return null;
+      }
+      if (!manager.reserveMappedSize(this, size)) {
+        // there is no room for the file now, try to map it again on the next read
+        return null;
+      }
+      try {
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      } catch (IOException e) {
+        logger.warn("Can not map {}, it will be read from the file channel", filePath, e);
+        mappable = false;
+        manager.releaseMappedSize(this);
+        return null;
+      }
+      mappedBuffer = buffer;
+      return buffer;
+    }
+  }
+
+  /**
+   * Unmap the file if no read is in progress.
+   *
+   * @return true if the file is unmapped by this call
+   */
+  boolean tryUnmap() {
+    if (!mappingLock.writeLock().tryLock()) {
+      return false;
+    }
+    try {
+      return unmap();
+    } finally {
+      mappingLock.writeLock().unlock();
+    }
+  }
+
+  /** The write lock of mappingLock must be held by the caller. */
+  private boolean unmap() {
+    MappedByteBuffer buffer = mappedBuffer;
+    if (buffer == null) {
+      return false;
+    }
+    mappedBuffer = null;
+    MmapUtil.clean(buffer);
+    manager.releaseMappedSize(this);
+    return true;
+  }
+
+  long getLastAccessTime() {
+    return lastAccessTime;
+  }
+
+  boolean isMapped() {
+    return mappedBuffer != null;
+  }
+
+  @Override
+  public int read() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FileChannel wrapAsFileChannel() {
+    return channel;
+  }
+
+  @Override
+  public InputStream wrapAsInputStream() {
+    return Channels.newInputStream(channel);
+  }
+
+  @Override
+  public void close() throws IOException {
+    mappingLock.writeLock().lock();
+    try {
+      closed = true;
+      unmap();
+      channel.close();
+    } catch (IOException e) {
+      logger.error("Error happened while closing {}", filePath);
+      throw e;
+    } finally {
+      mappingLock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public int readInt() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public String readVarIntString(long offset) throws IOException {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(5);
+    if (read(byteBuffer, offset) < 0) {
+      return null;
+    }
+    byteBuffer.flip();
+    int strLength = ReadWriteForEncodingUtils.readVarInt(byteBuffer);
+    if (strLength < 0) {
+      return null;
+    } else if (strLength == 0) {
+      return "";
+    }
+    ByteBuffer strBuffer = ByteBuffer.allocate(strLength);
+    int varIntLength = ReadWriteForEncodingUtils.varIntSize(strLength);
+    if (read(strBuffer, offset + varIntLength) < 0) {
+      return null;
+    }
+    return new String(strBuffer.array(), 0, strLength);
+  }
+
+  @Override
+  public String getFilePath() {
+    return filePath;
+  }
+}
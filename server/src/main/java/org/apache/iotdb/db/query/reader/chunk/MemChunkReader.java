@@ -19,14 +19,18 @@
 package org.apache.iotdb.db.query.reader.chunk;
 
 import org.apache.iotdb.db.engine.querycontext.ReadOnlyMemChunk;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
 import org.apache.iotdb.tsfile.read.common.BatchData;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.filter.basic.Filter;
 import org.apache.iotdb.tsfile.read.reader.IChunkReader;
 import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,11 +46,29 @@ public class MemChunkReader implements IChunkReader, IPointReader {
   public MemChunkReader(ReadOnlyMemChunk readableChunk, Filter filter) {
     timeValuePairIterator = readableChunk.getPointReader();
     this.filter = filter;
-    // we treat one ReadOnlyMemChunk as one Page
-    this.pageReaderList =
-        Collections.singletonList(
+    List<Statistics<? extends Serializable>> pageStatisticsList =
+        readableChunk.getPageStatisticsList();
+    if (pageStatisticsList == null) {
+      // we treat one ReadOnlyMemChunk as one Page
+      this.pageReaderList =
+          Collections.singletonList(
+              new MemPageReader(
+                  readableChunk.getTsBlock(), readableChunk.getChunkMetaData(), filter));
+    } else {
+      this.pageReaderList = new ArrayList<>(pageStatisticsList.size());
+      TsBlock tsBlock = readableChunk.getTsBlock();
+      int offset = 0;
+      for (Statistics<? extends Serializable> pageStatistics : pageStatisticsList) {
+        int pointNum = (int) pageStatistics.getCount();
+        pageReaderList.add(
             new MemPageReader(
-                readableChunk.getTsBlock(), readableChunk.getChunkMetaData(), filter));
+                tsBlock.getRegion(offset, pointNum),
+                readableChunk.getChunkMetaData(),
+                pageStatistics,
+                filter));
+        offset += pointNum;
+      }
+    }
   }
 
   @Override
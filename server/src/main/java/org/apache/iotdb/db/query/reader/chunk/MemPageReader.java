@@ -41,11 +41,18 @@ public class MemPageReader implements IPageReader {
 
   private final TsBlock tsBlock;
   private final IChunkMetadata chunkMetadata;
+  private final Statistics pageStatistics;
   private Filter valueFilter;
 
   public MemPageReader(TsBlock tsBlock, IChunkMetadata chunkMetadata, Filter filter) {
+    this(tsBlock, chunkMetadata, chunkMetadata.getStatistics(), filter);
+  }
+
+  public MemPageReader(
+      TsBlock tsBlock, IChunkMetadata chunkMetadata, Statistics pageStatistics, Filter filter) {
     this.tsBlock = tsBlock;
     this.chunkMetadata = chunkMetadata;
+    this.pageStatistics = pageStatistics;
     this.valueFilter = filter;
   }
 
@@ -169,7 +176,7 @@ public class MemPageReader implements IPageReader {
 
   @Override
   public Statistics getStatistics() {
-    return chunkMetadata.getStatistics();
+    return pageStatistics;
   }
 
   @Override
@@ -20,6 +20,7 @@ package org.apache.iotdb.db.rescon;
 
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.service.metrics.MetricService;
 import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.utils.Binary;
@@ -27,11 +28,17 @@ import org.apache.iotdb.tsfile.utils.Binary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicLong;
-
-/** Manage all primitive data lists in memory, including get and release operations. */
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Manage all primitive data lists in memory, including get and release operations. The pool of each
+ * data type is striped by threads and is lock-free, so that concurrent writers do not contend on a
+ * monitor when their TVLists expand.
+ */
 public class PrimitiveArrayManager {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(PrimitiveArrayManager.class);
@@ -52,30 +59,51 @@ public class PrimitiveArrayManager {
           * CONFIG.getBufferedArraysMemoryProportion()
           / AMPLIFICATION_FACTOR;
 
-  /** TSDataType#serialize() -> ArrayDeque<Array>, VECTOR is ignored */
-  private static final ArrayDeque[] POOLED_ARRAYS = new ArrayDeque[TSDataType.values().length - 1];
+  /**
+   * TSDataType#serialize() -> stripes of pooled arrays, VECTOR is ignored. A thread releases arrays
+   * to and allocates arrays from its own stripe first, so threads rarely contend on the same queue.
+   */
+  private static final Queue<Object>[][] POOLED_ARRAYS =
+      new Queue[TSDataType.values().length - 1][];
 
-  /** TSDataType#serialize() -> max size of ArrayDeque<Array>, VECTOR is ignored */
+  /** TSDataType#serialize() -> count of pooled arrays in all stripes, VECTOR is ignored */
+  private static final AtomicInteger[] POOLED_ARRAY_COUNTS =
+      new AtomicInteger[TSDataType.values().length - 1];
+
+  /** number of stripes of each data type, a power of 2 */
+  private static final int STRIPE_NUM =
+      Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1);
+
+  /** TSDataType#serialize() -> max size of pooled arrays, VECTOR is ignored */
   private static final int[] LIMITS = new int[TSDataType.values().length - 1];
 
-  /** LIMITS should be updated if (TOTAL_ALLOCATION_REQUEST_COUNT.get() > limitUpdateThreshold) */
-  private static long limitUpdateThreshold;
+  /** LIMITS should be updated if (TOTAL_ALLOCATION_REQUEST_COUNT.sum() > limitUpdateThreshold) */
+  private static volatile long limitUpdateThreshold;
 
   /** TSDataType#serialize() -> count of allocation requests, VECTOR is ignored */
-  private static final AtomicLong[] ALLOCATION_REQUEST_COUNTS =
-      new AtomicLong[] {
-        new AtomicLong(0),
-        new AtomicLong(0),
-        new AtomicLong(0),
-        new AtomicLong(0),
-        new AtomicLong(0),
-        new AtomicLong(0)
+  private static final LongAdder[] ALLOCATION_REQUEST_COUNTS =
+      new LongAdder[] {
+        new LongAdder(),
+        new LongAdder(),
+        new LongAdder(),
+        new LongAdder(),
+        new LongAdder(),
+        new LongAdder()
       };
 
-  private static final AtomicLong TOTAL_ALLOCATION_REQUEST_COUNT = new AtomicLong(0);
+  private static final LongAdder TOTAL_ALLOCATION_REQUEST_COUNT = new LongAdder();
+
+  /** count of allocations served by pooled arrays, never reset by updateLimits */
+  private static final LongAdder POOL_HIT_COUNT = new LongAdder();
+
+  /** count of allocations that create new arrays, never reset by updateLimits */
+  private static final LongAdder POOL_MISS_COUNT = new LongAdder();
+
+  private static final Object LIMIT_UPDATE_LOCK = new Object();
 
   static {
     init();
+    MetricService.getInstance().addMetricSet(new PrimitiveArrayManagerMetrics());
   }
 
   private static void init() {
@@ -100,14 +128,18 @@ public class PrimitiveArrayManager {
     limitUpdateThreshold = (long) ((TSDataType.values().length - 1) * limit);
 
     for (int i = 0; i < POOLED_ARRAYS.length; ++i) {
-      POOLED_ARRAYS[i] = new ArrayDeque<>((int) limit);
+      POOLED_ARRAYS[i] = new Queue[STRIPE_NUM];
+      for (int j = 0; j < STRIPE_NUM; j++) {
+        POOLED_ARRAYS[i][j] = new ConcurrentLinkedQueue<>();
+      }
+      POOLED_ARRAY_COUNTS[i] = new AtomicInteger(0);
     }
 
-    for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
-      allocationRequestCount.set(0);
+    for (LongAdder allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
+      allocationRequestCount.reset();
     }
 
-    TOTAL_ALLOCATION_REQUEST_COUNT.set(0);
+    TOTAL_ALLOCATION_REQUEST_COUNT.reset();
   }
 
   private PrimitiveArrayManager() {}
@@ -122,9 +154,9 @@ public class PrimitiveArrayManager {
       throw new UnSupportedDataTypeException(TSDataType.VECTOR.name());
     }
 
-    if (TOTAL_ALLOCATION_REQUEST_COUNT.get() > limitUpdateThreshold) {
-      synchronized (TOTAL_ALLOCATION_REQUEST_COUNT) {
-        if (TOTAL_ALLOCATION_REQUEST_COUNT.get() > limitUpdateThreshold) {
+    if (TOTAL_ALLOCATION_REQUEST_COUNT.sum() > limitUpdateThreshold) {
+      synchronized (LIMIT_UPDATE_LOCK) {
+        if (TOTAL_ALLOCATION_REQUEST_COUNT.sum() > limitUpdateThreshold) {
           updateLimits();
         }
       }
@@ -132,25 +164,46 @@ public class PrimitiveArrayManager {
 
     int order = dataType.serialize();
 
-    ALLOCATION_REQUEST_COUNTS[order].incrementAndGet();
-    TOTAL_ALLOCATION_REQUEST_COUNT.incrementAndGet();
+    ALLOCATION_REQUEST_COUNTS[order].increment();
+    TOTAL_ALLOCATION_REQUEST_COUNT.increment();
 
-    Object array;
-    synchronized (POOLED_ARRAYS[order]) {
-      array = POOLED_ARRAYS[order].poll();
-    }
+    Object array = pollPooledArray(order);
     if (array == null) {
+      POOL_MISS_COUNT.increment();
       array = createPrimitiveArray(dataType);
+    } else {
+      POOL_HIT_COUNT.increment();
     }
     return array;
   }
 
+  /** Poll an array from the stripe of current thread, or steal one from the other stripes. */
+  private static Object pollPooledArray(int order) {
+    if (POOLED_ARRAY_COUNTS[order].get() <= 0) {
+      return null;
+    }
+    Queue<Object>[] stripes = POOLED_ARRAYS[order];
+    int stripe = getStripe();
+    for (int i = 0; i < STRIPE_NUM; i++) {
+      Object array = stripes[(stripe + i) & (STRIPE_NUM - 1)].poll();
+      if (array != null) {
+        POOLED_ARRAY_COUNTS[order].decrementAndGet();
+        return array;
+      }
+    }
+    return null;
+  }
+
+  private static int getStripe() {
+    return (int) Thread.currentThread().getId() & (STRIPE_NUM - 1);
+  }
+
   private static void updateLimits() {
     // we want to update LIMITS[i] according to ratios[i]
     double[] ratios = new double[ALLOCATION_REQUEST_COUNTS.length];
+    double totalAllocationRequestCount = TOTAL_ALLOCATION_REQUEST_COUNT.sum();
     for (int i = 0; i < ALLOCATION_REQUEST_COUNTS.length; ++i) {
-      ratios[i] =
-          ALLOCATION_REQUEST_COUNTS[i].get() / (double) TOTAL_ALLOCATION_REQUEST_COUNT.get();
+      ratios[i] = ALLOCATION_REQUEST_COUNTS[i].sum() / totalAllocationRequestCount;
     }
 
     // initially we have:
@@ -199,11 +252,11 @@ public class PrimitiveArrayManager {
         oldLimitUpdateThreshold,
         limitUpdateThreshold);
 
-    for (AtomicLong allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
-      allocationRequestCount.set(0);
+    for (LongAdder allocationRequestCount : ALLOCATION_REQUEST_COUNTS) {
+      allocationRequestCount.reset();
     }
 
-    TOTAL_ALLOCATION_REQUEST_COUNT.set(0);
+    TOTAL_ALLOCATION_REQUEST_COUNT.reset();
   }
 
   private static Object createPrimitiveArray(TSDataType dataType) {
@@ -258,12 +311,29 @@ public class PrimitiveArrayManager {
       throw new UnSupportedDataTypeException(array.getClass().toString());
     }
 
-    synchronized (POOLED_ARRAYS[order]) {
-      ArrayDeque<Object> arrays = POOLED_ARRAYS[order];
-      if (arrays.size() < LIMITS[order]) {
-        arrays.add(array);
-      }
+    // reserve a place in the pool first, so that the pool never exceeds the limit
+    if (POOLED_ARRAY_COUNTS[order].incrementAndGet() <= LIMITS[order]) {
+      POOLED_ARRAYS[order][getStripe()].offer(array);
+    } else {
+      POOLED_ARRAY_COUNTS[order].decrementAndGet();
+    }
+  }
+
+  public static long getPoolHitCount() {
+    return POOL_HIT_COUNT.sum();
+  }
+
+  public static long getPoolMissCount() {
+    return POOL_MISS_COUNT.sum();
+  }
+
+  /** @return count of arrays in the pool of all data types */
+  public static long getPooledArrayCount() {
+    long count = 0;
+    for (AtomicInteger pooledArrayCount : POOLED_ARRAY_COUNTS) {
+      count += pooledArrayCount.get();
     }
+    return count;
   }
 
   public static void close() {
@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import io.netty.util.internal.PlatformDependent;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manage the off-heap arenas of OffHeapTVLists. An arena holds the timestamps and values of {@link
+ * PrimitiveArrayManager#ARRAY_SIZE} points, i.e. ARRAY_SIZE longs followed by ARRAY_SIZE values of
+ * the data type.
+ *
+ * <p>Arenas are fixed size blocks carved out of direct slabs of about {@link #SLAB_SIZE} bytes, one
+ * set of slabs per data type. A slab counts the blocks it has handed out, and once none of them is
+ * in use the slab is freed explicitly, unless the empty slabs are still below the same proportion
+ * of the write memory as the pooled primitive arrays. The arenas of a list that is garbage
+ * collected without being cleared are released after the collection.
+ */
+public class TVListArenaManager {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int ARRAY_SIZE = PrimitiveArrayManager.ARRAY_SIZE;
+
+  /** byte size of a slab, a slab holds at least one arena even if the arena is larger */
+  public static final int SLAB_SIZE = 1024 * 1024;
+
+  private static final long POOLED_SLABS_MEMORY_THRESHOLD =
+      (long)
+          (CONFIG.getAllocateMemoryForStorageEngine() * CONFIG.getBufferedArraysMemoryProportion());
+
+  /** TSDataType#serialize() -> arena pool, TEXT and VECTOR are never used */
+  private static final ArenaPool[] ARENA_POOLS = new ArenaPool[TSDataType.values().length - 1];
+
+  /** total bytes of the slabs that have not been freed */
+  private static final AtomicLong ALLOCATED_SLABS_BYTES = new AtomicLong();
+
+  /** total bytes of the slabs that have no arena in use but are kept for later allocations */
+  private static final AtomicLong POOLED_SLABS_BYTES = new AtomicLong();
+
+  /** the lists whose arenas should be released once they are garbage collected */
+  private static final Set<ArenaListReference> TRACKED_LISTS = ConcurrentHashMap.newKeySet();
+
+  private static final ReferenceQueue<Object> COLLECTED_LISTS = new ReferenceQueue<>();
+
+  static {
+    for (TSDataType dataType : TSDataType.values()) {
+      if (isSupported(dataType)) {
+        ARENA_POOLS[dataType.serialize()] = new ArenaPool((int) arenaSize(dataType));
+      }
+    }
+  }
+
+  private TVListArenaManager() {}
+
+  public static boolean isEnabled() {
+    return CONFIG.isEnableOffHeapMemTable();
+  }
+
+  /** whether the points of the data type can be stored in arenas */
+  public static boolean isSupported(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** byte size of one arena, which is exactly what a TVList reports to SystemInfo for it */
+  public static long arenaSize(TSDataType dataType) {
+    if (!isSupported(dataType)) {
+      throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    return (long) ARRAY_SIZE * (Long.BYTES + dataType.getDataTypeSize());
+  }
+
+  /** get a free arena from a slab, or allocate a new slab. The content of the arena is undefined. */
+  public static ByteBuffer allocate(TSDataType dataType) {
+    releaseCollectedLists();
+    return getArenaPool(dataType).allocate();
+  }
+
+  /** Return an arena to its slab, the arena should not be used after this call. */
+  public static void release(TSDataType dataType, ByteBuffer arena) {
+    getArenaPool(dataType).release(arena);
+  }
+
+  /**
+   * Track a list so that the arenas left in the given list of arenas are released once the owner
+   * is garbage collected. The list of arenas should only be modified by the owner.
+   */
+  public static void track(Object owner, TSDataType dataType, List<ByteBuffer> arenas) {
+    TRACKED_LISTS.add(new ArenaListReference(owner, dataType, arenas));
+  }
+
+  /** release the arenas of the tracked lists that have been garbage collected */
+  public static void releaseCollectedLists() {
+    ArenaListReference reference;
+    while ((reference = (ArenaListReference) COLLECTED_LISTS.poll()) != null) {
+      TRACKED_LISTS.remove(reference);
+      for (ByteBuffer arena : reference.arenas) {
+        release(reference.dataType, arena);
+      }
+      reference.arenas.clear();
+    }
+  }
+
+  public static long getAllocatedSlabsBytes() {
+    return ALLOCATED_SLABS_BYTES.get();
+  }
+
+  public static long getPooledSlabsBytes() {
+    return POOLED_SLABS_BYTES.get();
+  }
+
+  private static ArenaPool getArenaPool(TSDataType dataType) {
+    if (!isSupported(dataType)) {
+      throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    return ARENA_POOLS[dataType.serialize()];
+  }
+
+  /** The slabs of one data type, all methods are guarded by the pool. */
+  private static class ArenaPool {
+
+    private final int arenaSize;
+    private final int arenasPerSlab;
+
+    /**
+     * slabs that have free arenas. Partially used slabs are allocated from first so that empty
+     * slabs stay empty and can be freed.
+     */
+    private final Deque<Slab> availableSlabs = new ArrayDeque<>();
+
+    /** arena in use -> the slab it is carved out of */
+    private final Map<ByteBuffer, Slab> arenaToSlab = new IdentityHashMap<>();
+
+    private ArenaPool(int arenaSize) {
+      this.arenaSize = arenaSize;
+      this.arenasPerSlab = Math.max(1, SLAB_SIZE / arenaSize);
+    }
+
+    private synchronized ByteBuffer allocate() {
+      Slab slab = availableSlabs.peekFirst();
+      if (slab == null) {
+        slab = new Slab(arenaSize, arenasPerSlab);
+        availableSlabs.addFirst(slab);
+      } else if (slab.usedArenaNum == 0) {
+        POOLED_SLABS_BYTES.addAndGet(-slab.capacity());
+      }
+      ByteBuffer arena = slab.freeArenas.pop();
+      slab.usedArenaNum++;
+      if (slab.freeArenas.isEmpty()) {
+        availableSlabs.removeFirst();
+      }
+      arenaToSlab.put(arena, slab);
+      return arena;
+    }
+
+    private synchronized void release(ByteBuffer arena) {
+      Slab slab = arenaToSlab.remove(arena);
+      if (slab == null) {
+        throw new IllegalArgumentException("The arena is not allocated by TVListArenaManager");
+      }
+      if (slab.freeArenas.isEmpty()) {
+        availableSlabs.addFirst(slab);
+      }
+      slab.freeArenas.push(arena);
+      slab.usedArenaNum--;
+      if (slab.usedArenaNum > 0) {
+        return;
+      }
+      availableSlabs.remove(slab);
+      if (POOLED_SLABS_BYTES.get() + slab.capacity() <= POOLED_SLABS_MEMORY_THRESHOLD) {
+        POOLED_SLABS_BYTES.addAndGet(slab.capacity());
+        availableSlabs.addLast(slab);
+      } else {
+        slab.free();
+      }
+    }
+  }
+
+  private static class Slab {
+
+    private final ByteBuffer memory;
+    private final Deque<ByteBuffer> freeArenas;
+    private int usedArenaNum = 0;
+
+    private Slab(int arenaSize, int arenaNum) {
+      memory = ByteBuffer.allocateDirect(arenaSize * arenaNum);
+      ALLOCATED_SLABS_BYTES.addAndGet(memory.capacity());
+      freeArenas = new ArrayDeque<>(arenaNum);
+      for (int i = 0; i < arenaNum; i++) {
+        ByteBuffer arena = memory.duplicate();
+        arena.position(i * arenaSize).limit((i + 1) * arenaSize);
+        // the native order, so that the values are copied without swapping bytes
+        freeArenas.push(arena.slice().order(ByteOrder.nativeOrder()));
+      }
+    }
+
+    private int capacity() {
+      return memory.capacity();
+    }
+
+    /** free the memory of the slab right away, none of its arenas should be in use */
+    private void free() {
+      freeArenas.clear();
+      ALLOCATED_SLABS_BYTES.addAndGet(-memory.capacity());
+      PlatformDependent.freeDirectBuffer(memory);
+    }
+  }
+
+  private static class ArenaListReference extends PhantomReference<Object> {
+
+    private final TSDataType dataType;
+    private final List<ByteBuffer> arenas;
+
+    private ArenaListReference(Object owner, TSDataType dataType, List<ByteBuffer> arenas) {
+      super(owner, COLLECTED_LISTS);
+      this.dataType = dataType;
+      this.arenas = arenas;
+    }
+  }
+}
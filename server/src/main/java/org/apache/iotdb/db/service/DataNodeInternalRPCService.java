@@ -67,7 +67,9 @@ public class DataNodeInternalRPCService extends ThriftService
               config.getThriftServerAwaitTimeForStopService(),
               new InternalServiceThriftHandler(),
               // TODO: hard coded compress strategy
-              false);
+              false,
+              config.isRpcVirtualThreadEnable(),
+              config.getRpcVirtualThreadCarrierNum());
     } catch (RPCServiceException e) {
       throw new IllegalAccessException(e.getMessage());
     }
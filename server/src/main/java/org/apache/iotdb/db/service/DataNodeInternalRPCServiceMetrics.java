@@ -46,6 +46,13 @@ public class DataNodeInternalRPCServiceMetrics implements IMetricSet {
         AbstractThriftServiceThread::getActiveThreadCount,
         Tag.NAME.toString(),
         ThreadName.DATANODE_INTERNAL_RPC_SERVICE.getName());
+    metricService.getOrCreateAutoGauge(
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        MetricLevel.CORE,
+        thriftServiceThread,
+        AbstractThriftServiceThread::getBlockedThreadCount,
+        Tag.NAME.toString(),
+        ThreadName.DATANODE_INTERNAL_RPC_SERVICE.getName());
   }
 
   @Override
@@ -55,6 +62,11 @@ public class DataNodeInternalRPCServiceMetrics implements IMetricSet {
         Metric.THRIFT_ACTIVE_THREADS.toString(),
         Tag.NAME.toString(),
         ThreadName.DATANODE_INTERNAL_RPC_SERVICE.getName());
+    metricService.remove(
+        MetricType.GAUGE,
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        Tag.NAME.toString(),
+        ThreadName.DATANODE_INTERNAL_RPC_SERVICE.getName());
   }
 
   @Override
@@ -74,7 +74,9 @@ public class RPCService extends ThriftService implements RPCServiceMBean {
               config.getRpcMaxConcurrentClientNum(),
               config.getThriftServerAwaitTimeForStopService(),
               new RPCServiceThriftHandler(impl),
-              IoTDBDescriptor.getInstance().getConfig().isRpcThriftCompressionEnable());
+              IoTDBDescriptor.getInstance().getConfig().isRpcThriftCompressionEnable(),
+              config.isRpcVirtualThreadEnable(),
+              config.getRpcVirtualThreadCarrierNum());
     } catch (RPCServiceException e) {
       throw new IllegalAccessException(e.getMessage());
     }
@@ -45,6 +45,13 @@ public class RPCServiceMetrics implements IMetricSet {
         AbstractThriftServiceThread::getActiveThreadCount,
         Tag.NAME.toString(),
         ThreadName.CLIENT_RPC_SERVICE.getName());
+    metricService.getOrCreateAutoGauge(
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        MetricLevel.CORE,
+        thriftServiceThread,
+        AbstractThriftServiceThread::getBlockedThreadCount,
+        Tag.NAME.toString(),
+        ThreadName.CLIENT_RPC_SERVICE.getName());
   }
 
   @Override
@@ -54,6 +61,11 @@ public class RPCServiceMetrics implements IMetricSet {
         Metric.THRIFT_ACTIVE_THREADS.toString(),
         Tag.NAME.toString(),
         ThreadName.CLIENT_RPC_SERVICE.getName());
+    metricService.remove(
+        MetricType.GAUGE,
+        Metric.THRIFT_BLOCKED_THREADS.toString(),
+        Tag.NAME.toString(),
+        ThreadName.CLIENT_RPC_SERVICE.getName());
   }
 
   @Override
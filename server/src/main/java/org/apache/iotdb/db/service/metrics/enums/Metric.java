@@ -61,7 +61,10 @@ public enum Metric {
   REGION,
   SLOT,
   THRIFT_CONNECTIONS,
-  THRIFT_ACTIVE_THREADS;
+  THRIFT_ACTIVE_THREADS,
+  THRIFT_BLOCKED_THREADS,
+  WAL_GROUP_COMMIT,
+  WAL_BATCH_SIZE;
 
   @Override
   public String toString() {
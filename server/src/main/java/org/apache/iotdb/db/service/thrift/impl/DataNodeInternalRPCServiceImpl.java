@@ -343,15 +343,15 @@ public class DataNodeInternalRPCServiceImpl implements IDataNodeRPCService.Iface
   public TSStatus invalidateMatchedSchemaCache(TInvalidateMatchedSchemaCacheReq req)
       throws TException {
     DataNodeSchemaCache cache = DataNodeSchemaCache.getInstance();
-    cache.takeWriteLock();
+    List<PartialPath> pathPatterns =
+        PathPatternTree.deserialize(ByteBuffer.wrap(req.getPathPatternTree())).getAllPathPatterns();
+    int[] lockedStripes = cache.takeWriteLock(pathPatterns);
     try {
-      for (PartialPath pathPattern :
-          PathPatternTree.deserialize(ByteBuffer.wrap(req.getPathPatternTree()))
-              .getAllPathPatterns()) {
+      for (PartialPath pathPattern : pathPatterns) {
         cache.invalidateMatchedSchema(pathPattern);
       }
     } finally {
-      cache.releaseWriteLock();
+      cache.releaseWriteLock(lockedStripes);
     }
     return RpcUtils.SUCCESS_STATUS;
   }
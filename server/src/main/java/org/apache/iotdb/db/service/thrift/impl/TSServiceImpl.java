@@ -85,6 +85,7 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.rpc.RedirectException;
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
+import org.apache.iotdb.rpc.TabletEncodingUtils;
 import org.apache.iotdb.service.rpc.thrift.ServerProperties;
 import org.apache.iotdb.service.rpc.thrift.TSAppendSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCancelOperationReq;
@@ -1591,12 +1592,25 @@ public class TSServiceImpl implements IClientRPCServiceWithHandler {
 
       InsertTabletPlan insertTabletPlan =
           new InsertTabletPlan(new PartialPath(req.getPrefixPath()), req.measurements);
-      insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
-      insertTabletPlan.setColumns(
-          QueryDataSetUtils.readTabletValuesFromBuffer(
-              req.values, req.types, req.types.size(), req.size));
-      insertTabletPlan.setBitMaps(
-          QueryDataSetUtils.readBitMapsFromBuffer(req.values, req.types.size(), req.size));
+      if (req.isIsEncoded()) {
+        TSDataType[] dataTypes = new TSDataType[req.types.size()];
+        for (int i = 0; i < dataTypes.length; i++) {
+          dataTypes[i] = TSDataType.values()[req.types.get(i)];
+        }
+        insertTabletPlan.setTimes(TabletEncodingUtils.decodeTimes(req.timestamps, req.size));
+        ByteBuffer valueBuffer = TabletEncodingUtils.uncompress(req.values);
+        insertTabletPlan.setColumns(
+            TabletEncodingUtils.decodeValues(valueBuffer, dataTypes, dataTypes.length, req.size));
+        insertTabletPlan.setBitMaps(
+            QueryDataSetUtils.readBitMapsFromBuffer(valueBuffer, dataTypes.length, req.size));
+      } else {
+        insertTabletPlan.setTimes(QueryDataSetUtils.readTimesFromBuffer(req.timestamps, req.size));
+        insertTabletPlan.setColumns(
+            QueryDataSetUtils.readTabletValuesFromBuffer(
+                req.values, req.types, req.types.size(), req.size));
+        insertTabletPlan.setBitMaps(
+            QueryDataSetUtils.readBitMapsFromBuffer(req.values, req.types.size(), req.size));
+      }
       insertTabletPlan.setRowCount(req.size);
       insertTabletPlan.setDataTypes(req.types);
       insertTabletPlan.setAligned(req.isAligned);
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.utils;
 
 import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.DeletionIntervalIndex;
 import org.apache.iotdb.db.engine.modification.Modification;
 import org.apache.iotdb.db.engine.querycontext.QueryDataSource;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
@@ -32,6 +33,7 @@ import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class QueryUtils {
@@ -52,24 +54,28 @@ public class QueryUtils {
   @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
   public static void modifyChunkMetaData(
       List<? extends IChunkMetadata> chunkMetaData, List<Modification> modifications) {
+    DeletionIntervalIndex deletionIndex = new DeletionIntervalIndex(modifications);
     for (IChunkMetadata metaData : chunkMetaData) {
-      for (Modification modification : modifications) {
-        // When the chunkMetadata come from an old TsFile, the method modification.getFileOffset()
-        // is gerVersionNum actually. In this case, we compare the versions of modification and
-        // mataData to determine whether need to do modify.
-        if (metaData.isFromOldTsFile()) {
-          if (modification.getFileOffset() > metaData.getVersion()) {
-            doModifyChunkMetaData(modification, metaData);
-          }
-          continue;
-        }
-        // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
-        // is not supposed to exist as getFileOffset() is offset containing full chunk,
-        // while getOffsetOfChunkHeader() returns the chunk header offset
-        if (modification.getFileOffset() > metaData.getOffsetOfChunkHeader()) {
-          doModifyChunkMetaData(modification, metaData);
-        }
-      }
+      forEachDeletion(
+          deletionIndex,
+          metaData,
+          deletion -> {
+            // When the chunkMetadata come from an old TsFile, the method
+            // modification.getFileOffset() is gerVersionNum actually. In this case, we compare the
+            // versions of modification and mataData to determine whether need to do modify.
+            if (metaData.isFromOldTsFile()) {
+              if (deletion.getFileOffset() > metaData.getVersion()) {
+                doModifyChunkMetaData(deletion, metaData);
+              }
+              return;
+            }
+            // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
+            // is not supposed to exist as getFileOffset() is offset containing full chunk,
+            // while getOffsetOfChunkHeader() returns the chunk header offset
+            if (deletion.getFileOffset() > metaData.getOffsetOfChunkHeader()) {
+              doModifyChunkMetaData(deletion, metaData);
+            }
+          });
     }
     // remove chunks that are completely deleted
     chunkMetaData.removeIf(
@@ -93,21 +99,27 @@ public class QueryUtils {
 
   public static void modifyAlignedChunkMetaData(
       List<AlignedChunkMetadata> chunkMetaData, List<List<Modification>> modifications) {
+    DeletionIntervalIndex[] deletionIndexes = new DeletionIntervalIndex[modifications.size()];
+    for (int i = 0; i < deletionIndexes.length; i++) {
+      deletionIndexes[i] = new DeletionIntervalIndex(modifications.get(i));
+    }
     for (AlignedChunkMetadata metaData : chunkMetaData) {
       List<IChunkMetadata> valueChunkMetadataList = metaData.getValueChunkMetadataList();
       // deal with each sub sensor
       for (int i = 0; i < valueChunkMetadataList.size(); i++) {
         IChunkMetadata v = valueChunkMetadataList.get(i);
         if (v != null) {
-          List<Modification> modificationList = modifications.get(i);
-          for (Modification modification : modificationList) {
-            // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
-            // is not supposed to exist as getFileOffset() is offset containing full chunk,
-            // while getOffsetOfChunkHeader() returns the chunk header offset
-            if (modification.getFileOffset() > v.getOffsetOfChunkHeader()) {
-              doModifyChunkMetaData(modification, v);
-            }
-          }
+          forEachDeletion(
+              deletionIndexes[i],
+              v,
+              deletion -> {
+                // The case modification.getFileOffset() == metaData.getOffsetOfChunkHeader()
+                // is not supposed to exist as getFileOffset() is offset containing full chunk,
+                // while getOffsetOfChunkHeader() returns the chunk header offset
+                if (deletion.getFileOffset() > v.getOffsetOfChunkHeader()) {
+                  doModifyChunkMetaData(deletion, v);
+                }
+              });
         }
       }
     }
@@ -159,6 +171,19 @@ public class QueryUtils {
         });
   }
 
+  /**
+   * Apply the action to the deletions that may delete data of the chunk. Deletions not overlapping
+   * the time range of the chunk are skipped, unless the chunk has no data at all.
+   */
+  private static void forEachDeletion(
+      DeletionIntervalIndex deletionIndex, IChunkMetadata metaData, Consumer<Deletion> action) {
+    if (metaData.getStartTime() > metaData.getEndTime()) {
+      deletionIndex.forEach(action);
+    } else {
+      deletionIndex.forEachOverlapping(metaData.getStartTime(), metaData.getEndTime(), action);
+    }
+  }
+
   private static void doModifyChunkMetaData(Modification modification, IChunkMetadata metaData) {
     if (modification instanceof Deletion) {
       Deletion deletion = (Deletion) modification;
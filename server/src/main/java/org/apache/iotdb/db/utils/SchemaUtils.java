@@ -195,9 +195,12 @@ public class SchemaUtils {
       case SQLConstant.MIN_TIME:
       case SQLConstant.MAX_TIME:
       case SQLConstant.COUNT:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SQLConstant.AVG:
       case SQLConstant.SUM:
+      case SQLConstant.APPROX_MEDIAN:
+      case SQLConstant.PERCENTILE:
         return TSDataType.DOUBLE;
       case SQLConstant.LAST_VALUE:
       case SQLConstant.FIRST_VALUE:
@@ -228,6 +231,9 @@ public class SchemaUtils {
       case EXTREME:
       case COUNT:
       case AVG:
+      case APPROX_COUNT_DISTINCT:
+      case APPROX_MEDIAN:
+      case PERCENTILE:
         return true;
       default:
         throw new IllegalArgumentException(
@@ -279,6 +285,9 @@ public class SchemaUtils {
       case COUNT:
       case MIN_TIME:
       case MAX_TIME:
+      case APPROX_COUNT_DISTINCT:
+      case APPROX_MEDIAN:
+      case PERCENTILE:
         return Collections.emptyList();
       default:
         throw new IllegalArgumentException(
@@ -112,13 +112,14 @@ public class TypeInferenceUtils {
     }
     if (!verifyIsAggregationDataTypeMatched(aggrFuncName, dataType)) {
       throw new SemanticException(
-          "Aggregate functions [AVG, SUM, EXTREME, MIN_VALUE, MAX_VALUE] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]");
+          "Aggregate functions [AVG, SUM, EXTREME, MIN_VALUE, MAX_VALUE, APPROX_MEDIAN, PERCENTILE] only support numeric data types [INT32, INT64, FLOAT, DOUBLE]");
     }
 
     switch (aggrFuncName.toLowerCase()) {
       case SQLConstant.MIN_TIME:
       case SQLConstant.MAX_TIME:
       case SQLConstant.COUNT:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
         return TSDataType.INT64;
       case SQLConstant.MIN_VALUE:
       case SQLConstant.LAST_VALUE:
@@ -128,6 +129,8 @@ public class TypeInferenceUtils {
         return dataType;
       case SQLConstant.AVG:
       case SQLConstant.SUM:
+      case SQLConstant.APPROX_MEDIAN:
+      case SQLConstant.PERCENTILE:
         return TSDataType.DOUBLE;
       default:
         throw new IllegalArgumentException("Invalid Aggregation function: " + aggrFuncName);
@@ -142,8 +145,11 @@ public class TypeInferenceUtils {
       case SQLConstant.EXTREME:
       case SQLConstant.MIN_VALUE:
       case SQLConstant.MAX_VALUE:
+      case SQLConstant.APPROX_MEDIAN:
+      case SQLConstant.PERCENTILE:
         return dataType.isNumeric();
       case SQLConstant.COUNT:
+      case SQLConstant.APPROX_COUNT_DISTINCT:
       case SQLConstant.MIN_TIME:
       case SQLConstant.MAX_TIME:
       case SQLConstant.FIRST_VALUE:
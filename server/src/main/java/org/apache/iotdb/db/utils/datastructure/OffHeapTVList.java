@@ -0,0 +1,544 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.rescon.TVListArenaManager;
+import org.apache.iotdb.db.wal.buffer.IWALByteBufferView;
+import org.apache.iotdb.db.wal.utils.WALWriteUtils;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.TimeRange;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.iotdb.db.rescon.PrimitiveArrayManager.ARRAY_SIZE;
+
+/**
+ * A TVList of a BOOLEAN, INT32, INT64, FLOAT or DOUBLE series whose points are stored in off-heap
+ * arenas of {@link TVListArenaManager}, so that full GCs do not scan them. Each arena holds
+ * ARRAY_SIZE timestamps followed by ARRAY_SIZE values, and sorting moves the points inside the
+ * arenas. The values are kept as raw bits of their width and converted only when they are read.
+ *
+ * <p>The arenas are returned to their slabs by {@link #clear()}. A list that is still referenced by
+ * queries is never cleared, its arenas are returned after the list is garbage collected.
+ */
+public class OffHeapTVList extends TVList implements TimSort {
+
+  private final TSDataType dataType;
+  // byte width of a value in the arena
+  private final int valueWidth;
+  // byte offset of the first value in the arena
+  private final int valueOffset;
+
+  // list of arenas, add 1 when expanded
+  // index relation: arrayIndex -> elementIndex
+  private final List<ByteBuffer> arenas;
+
+  // arenas for merging during sort, shared by times and values
+  private List<ByteBuffer> sortedArenas;
+  private long pivotTime;
+  private long pivotValue;
+
+  public OffHeapTVList(TSDataType dataType) {
+    super();
+    if (!TVListArenaManager.isSupported(dataType)) {
+      throw new UnSupportedDataTypeException(dataType.toString());
+    }
+    this.dataType = dataType;
+    this.valueWidth = dataType.getDataTypeSize();
+    this.valueOffset = ARRAY_SIZE * Long.BYTES;
+    this.arenas = new ArrayList<>();
+    TVListArenaManager.track(this, dataType, arenas);
+  }
+
+  private long getTime(ByteBuffer arena, int elementIndex) {
+    return arena.getLong(elementIndex * Long.BYTES);
+  }
+
+  private long getRawValue(ByteBuffer arena, int elementIndex) {
+    int offset = valueOffset + elementIndex * valueWidth;
+    switch (valueWidth) {
+      case Long.BYTES:
+        return arena.getLong(offset);
+      case Integer.BYTES:
+        return arena.getInt(offset);
+      default:
+        return arena.get(offset);
+    }
+  }
+
+  private void putPoint(ByteBuffer arena, int elementIndex, long time, long rawValue) {
+    arena.putLong(elementIndex * Long.BYTES, time);
+    int offset = valueOffset + elementIndex * valueWidth;
+    switch (valueWidth) {
+      case Long.BYTES:
+        arena.putLong(offset, rawValue);
+        break;
+      case Integer.BYTES:
+        arena.putInt(offset, (int) rawValue);
+        break;
+      default:
+        arena.put(offset, (byte) rawValue);
+        break;
+    }
+  }
+
+  @Override
+  public long getTime(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return getTime(arenas.get(index / ARRAY_SIZE), index % ARRAY_SIZE);
+  }
+
+  private long getRawValue(int index) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    return getRawValue(arenas.get(index / ARRAY_SIZE), index % ARRAY_SIZE);
+  }
+
+  private void set(int index, long time, long rawValue) {
+    if (index >= rowCount) {
+      throw new ArrayIndexOutOfBoundsException(index);
+    }
+    putPoint(arenas.get(index / ARRAY_SIZE), index % ARRAY_SIZE, time, rawValue);
+  }
+
+  private void putRawValue(long time, long rawValue) {
+    checkExpansion();
+    putPoint(arenas.get(rowCount / ARRAY_SIZE), rowCount % ARRAY_SIZE, time, rawValue);
+    minTime = Math.min(minTime, time);
+    rowCount++;
+    if (sorted && rowCount > 1 && time < getTime(rowCount - 2)) {
+      sorted = false;
+    }
+  }
+
+  private void checkDataType(TSDataType type) {
+    if (dataType != type) {
+      throw new UnsupportedOperationException(ERR_DATATYPE_NOT_CONSISTENT);
+    }
+  }
+
+  @Override
+  public void putLong(long time, long value) {
+    checkDataType(TSDataType.INT64);
+    putRawValue(time, value);
+  }
+
+  @Override
+  public void putInt(long time, int value) {
+    checkDataType(TSDataType.INT32);
+    putRawValue(time, value);
+  }
+
+  @Override
+  public void putFloat(long time, float value) {
+    checkDataType(TSDataType.FLOAT);
+    putRawValue(time, Float.floatToRawIntBits(value));
+  }
+
+  @Override
+  public void putDouble(long time, double value) {
+    checkDataType(TSDataType.DOUBLE);
+    putRawValue(time, Double.doubleToRawLongBits(value));
+  }
+
+  @Override
+  public void putBoolean(long time, boolean value) {
+    checkDataType(TSDataType.BOOLEAN);
+    putRawValue(time, value ? 1 : 0);
+  }
+
+  @Override
+  public void putLongs(long[] time, long[] value, BitMap bitMap, int start, int end) {
+    checkDataType(TSDataType.INT64);
+    for (int i = start; i < end; i++) {
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRawValue(time[i], value[i]);
+      }
+    }
+  }
+
+  @Override
+  public void putInts(long[] time, int[] value, BitMap bitMap, int start, int end) {
+    checkDataType(TSDataType.INT32);
+    for (int i = start; i < end; i++) {
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRawValue(time[i], value[i]);
+      }
+    }
+  }
+
+  @Override
+  public void putFloats(long[] time, float[] value, BitMap bitMap, int start, int end) {
+    checkDataType(TSDataType.FLOAT);
+    for (int i = start; i < end; i++) {
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRawValue(time[i], Float.floatToRawIntBits(value[i]));
+      }
+    }
+  }
+
+  @Override
+  public void putDoubles(long[] time, double[] value, BitMap bitMap, int start, int end) {
+    checkDataType(TSDataType.DOUBLE);
+    for (int i = start; i < end; i++) {
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRawValue(time[i], Double.doubleToRawLongBits(value[i]));
+      }
+    }
+  }
+
+  @Override
+  public void putBooleans(long[] time, boolean[] value, BitMap bitMap, int start, int end) {
+    checkDataType(TSDataType.BOOLEAN);
+    for (int i = start; i < end; i++) {
+      if (bitMap == null || !bitMap.isMarked(i)) {
+        putRawValue(time[i], value[i] ? 1 : 0);
+      }
+    }
+  }
+
+  @Override
+  public long getLong(int index) {
+    checkDataType(TSDataType.INT64);
+    return getRawValue(index);
+  }
+
+  @Override
+  public int getInt(int index) {
+    checkDataType(TSDataType.INT32);
+    return (int) getRawValue(index);
+  }
+
+  @Override
+  public float getFloat(int index) {
+    checkDataType(TSDataType.FLOAT);
+    return Float.intBitsToFloat((int) getRawValue(index));
+  }
+
+  @Override
+  public double getDouble(int index) {
+    checkDataType(TSDataType.DOUBLE);
+    return Double.longBitsToDouble(getRawValue(index));
+  }
+
+  @Override
+  public boolean getBoolean(int index) {
+    checkDataType(TSDataType.BOOLEAN);
+    return getRawValue(index) != 0;
+  }
+
+  @Override
+  protected void checkExpansion() {
+    if ((rowCount % ARRAY_SIZE) == 0) {
+      expandValues();
+    }
+  }
+
+  @Override
+  protected void expandValues() {
+    arenas.add(TVListArenaManager.allocate(dataType));
+  }
+
+  @Override
+  protected void releaseLastValueArray() {
+    TVListArenaManager.release(dataType, arenas.remove(arenas.size() - 1));
+  }
+
+  @Override
+  protected void releaseLastTimeArray() {
+    // the timestamps are released together with the values in the same arena
+  }
+
+  @Override
+  void clearValue() {
+    for (ByteBuffer arena : arenas) {
+      TVListArenaManager.release(dataType, arena);
+    }
+    arenas.clear();
+  }
+
+  @Override
+  public int delete(long lowerBound, long upperBound) {
+    int deletedNumber = super.delete(lowerBound, upperBound);
+    // TVList#delete releases arrays by the number of timestamp arrays, which is always 0 here
+    int newArrayNum = (rowCount + ARRAY_SIZE - 1) / ARRAY_SIZE;
+    while (arenas.size() > newArrayNum) {
+      releaseLastValueArray();
+    }
+    return deletedNumber;
+  }
+
+  @Override
+  public OffHeapTVList clone() {
+    OffHeapTVList cloneList = new OffHeapTVList(dataType);
+    cloneAs(cloneList);
+    for (ByteBuffer arena : arenas) {
+      ByteBuffer cloneArena = TVListArenaManager.allocate(dataType);
+      cloneArena.clear();
+      cloneArena.put(arena.duplicate()).clear();
+      cloneList.arenas.add(cloneArena);
+    }
+    return cloneList;
+  }
+
+  @Override
+  public void sort() {
+    if (!sorted) {
+      int arrayNum = (rowCount + ARRAY_SIZE - 1) / ARRAY_SIZE;
+      sortedArenas = new ArrayList<>(arrayNum);
+      for (int i = 0; i < arrayNum; i++) {
+        sortedArenas.add(TVListArenaManager.allocate(dataType));
+      }
+      sort(0, rowCount);
+    }
+    clearSortedValue();
+    clearSortedTime();
+    sorted = true;
+  }
+
+  @Override
+  public void tim_set(int src, int dest) {
+    set(src, dest);
+  }
+
+  @Override
+  protected void set(int src, int dest) {
+    set(dest, getTime(src), getRawValue(src));
+  }
+
+  @Override
+  public void setToSorted(int src, int dest) {
+    putPoint(
+        sortedArenas.get(dest / ARRAY_SIZE), dest % ARRAY_SIZE, getTime(src), getRawValue(src));
+  }
+
+  @Override
+  public void setFromSorted(int src, int dest) {
+    ByteBuffer sortedArena = sortedArenas.get(src / ARRAY_SIZE);
+    int elementIndex = src % ARRAY_SIZE;
+    set(dest, getTime(sortedArena, elementIndex), getRawValue(sortedArena, elementIndex));
+  }
+
+  @Override
+  public void saveAsPivot(int pos) {
+    pivotTime = getTime(pos);
+    pivotValue = getRawValue(pos);
+  }
+
+  @Override
+  public void setPivotTo(int pos) {
+    set(pos, pivotTime, pivotValue);
+  }
+
+  @Override
+  public void clearSortedTime() {
+    if (sortedArenas != null) {
+      for (ByteBuffer arena : sortedArenas) {
+        TVListArenaManager.release(dataType, arena);
+      }
+      sortedArenas = null;
+    }
+  }
+
+  @Override
+  public void clearSortedValue() {
+    // the sorted values share the arenas with the sorted timestamps
+  }
+
+  @Override
+  public int compare(int idx1, int idx2) {
+    return Long.compare(getTime(idx1), getTime(idx2));
+  }
+
+  @Override
+  public void reverseRange(int lo, int hi) {
+    hi--;
+    while (lo < hi) {
+      long loT = getTime(lo);
+      long loV = getRawValue(lo);
+      long hiT = getTime(hi);
+      long hiV = getRawValue(hi);
+      set(lo++, hiT, hiV);
+      set(hi--, loT, loV);
+    }
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    clearSortedTime();
+  }
+
+  @Override
+  public TimeValuePair getTimeValuePair(int index) {
+    return new TimeValuePair(getTime(index), getPrimitiveValue(index));
+  }
+
+  @Override
+  protected TimeValuePair getTimeValuePair(
+      int index, long time, Integer floatPrecision, TSEncoding encoding) {
+    switch (dataType) {
+      case FLOAT:
+        return new TimeValuePair(
+            time,
+            TsPrimitiveType.getByType(
+                TSDataType.FLOAT,
+                roundValueWithGivenPrecision(getFloat(index), floatPrecision, encoding)));
+      case DOUBLE:
+        return new TimeValuePair(
+            time,
+            TsPrimitiveType.getByType(
+                TSDataType.DOUBLE,
+                roundValueWithGivenPrecision(getDouble(index), floatPrecision, encoding)));
+      default:
+        return new TimeValuePair(time, getPrimitiveValue(index));
+    }
+  }
+
+  private TsPrimitiveType getPrimitiveValue(int index) {
+    switch (dataType) {
+      case BOOLEAN:
+        return TsPrimitiveType.getByType(TSDataType.BOOLEAN, getBoolean(index));
+      case INT32:
+        return TsPrimitiveType.getByType(TSDataType.INT32, getInt(index));
+      case INT64:
+        return TsPrimitiveType.getByType(TSDataType.INT64, getLong(index));
+      case FLOAT:
+        return TsPrimitiveType.getByType(TSDataType.FLOAT, getFloat(index));
+      case DOUBLE:
+        return TsPrimitiveType.getByType(TSDataType.DOUBLE, getDouble(index));
+      default:
+        throw new UnSupportedDataTypeException(dataType.toString());
+    }
+  }
+
+  @Override
+  protected void writeValidValuesIntoTsBlock(
+      TsBlockBuilder builder,
+      int floatPrecision,
+      TSEncoding encoding,
+      List<TimeRange> deletionList) {
+    ColumnBuilder valueBuilder = builder.getColumnBuilder(0);
+    Integer deleteCursor = 0;
+    for (int i = 0; i < rowCount; i++) {
+      ByteBuffer arena = arenas.get(i / ARRAY_SIZE);
+      int elementIndex = i % ARRAY_SIZE;
+      long time = getTime(arena, elementIndex);
+      if (isPointDeleted(time, deletionList, deleteCursor)
+          || (i != rowCount - 1 && time == getTime(i + 1))) {
+        continue;
+      }
+      builder.getTimeColumnBuilder().writeLong(time);
+      long rawValue = getRawValue(arena, elementIndex);
+      switch (dataType) {
+        case BOOLEAN:
+          valueBuilder.writeBoolean(rawValue != 0);
+          break;
+        case INT32:
+          valueBuilder.writeInt((int) rawValue);
+          break;
+        case INT64:
+          valueBuilder.writeLong(rawValue);
+          break;
+        case FLOAT:
+          valueBuilder.writeFloat(
+              roundValueWithGivenPrecision(
+                  Float.intBitsToFloat((int) rawValue), floatPrecision, encoding));
+          break;
+        case DOUBLE:
+          valueBuilder.writeDouble(
+              roundValueWithGivenPrecision(
+                  Double.longBitsToDouble(rawValue), floatPrecision, encoding));
+          break;
+        default:
+          throw new UnSupportedDataTypeException(dataType.toString());
+      }
+      builder.declarePosition();
+    }
+  }
+
+  @Override
+  public TSDataType getDataType() {
+    return dataType;
+  }
+
+  /** the same format as the on-heap TVList of the data type */
+  @Override
+  public int serializedSize() {
+    return Byte.BYTES + Integer.BYTES + rowCount * (Long.BYTES + valueWidth);
+  }
+
+  @Override
+  public void serializeToWAL(IWALByteBufferView buffer) {
+    WALWriteUtils.write(dataType, buffer);
+    buffer.putInt(rowCount);
+    for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
+      ByteBuffer arena = arenas.get(rowIdx / ARRAY_SIZE);
+      int elementIndex = rowIdx % ARRAY_SIZE;
+      buffer.putLong(getTime(arena, elementIndex));
+      long rawValue = getRawValue(arena, elementIndex);
+      switch (valueWidth) {
+        case Long.BYTES:
+          buffer.putLong(rawValue);
+          break;
+        case Integer.BYTES:
+          buffer.putInt((int) rawValue);
+          break;
+        default:
+          buffer.put((byte) rawValue);
+          break;
+      }
+    }
+  }
+
+  public static OffHeapTVList deserialize(TSDataType dataType, DataInputStream stream)
+      throws IOException {
+    OffHeapTVList tvList = new OffHeapTVList(dataType);
+    int rowCount = stream.readInt();
+    for (int rowIdx = 0; rowIdx < rowCount; ++rowIdx) {
+      long time = stream.readLong();
+      switch (tvList.valueWidth) {
+        case Long.BYTES:
+          tvList.putRawValue(time, stream.readLong());
+          break;
+        case Integer.BYTES:
+          tvList.putRawValue(time, stream.readInt());
+          break;
+        default:
+          tvList.putRawValue(time, stream.readByte());
+          break;
+      }
+    }
+    return tvList;
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.utils.datastructure;
 
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.rescon.PrimitiveArrayManager;
+import org.apache.iotdb.db.rescon.TVListArenaManager;
 import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.wal.buffer.WALEntryValue;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -68,6 +69,9 @@ public abstract class TVList implements WALEntryValue {
   }
 
   public static TVList newList(TSDataType dataType) {
+    if (TVListArenaManager.isEnabled() && TVListArenaManager.isSupported(dataType)) {
+      return new OffHeapTVList(dataType);
+    }
     switch (dataType) {
       case TEXT:
         return new TimBinaryTVList();
@@ -88,6 +92,11 @@ public abstract class TVList implements WALEntryValue {
   }
 
   public static long tvListArrayMemCost(TSDataType type) {
+    if (TVListArenaManager.isEnabled() && TVListArenaManager.isSupported(type)) {
+      // the points are in an arena of a direct slab, its bytes are reported so that the write
+      // memory budget also bounds the direct memory of the memtables
+      return TVListArenaManager.arenaSize(type);
+    }
     long size = 0;
     // time array mem size
     size += (long) PrimitiveArrayManager.ARRAY_SIZE * 8L;
@@ -389,6 +398,9 @@ public abstract class TVList implements WALEntryValue {
 
   public static TVList deserialize(DataInputStream stream) throws IOException {
     TSDataType dataType = ReadWriteIOUtils.readDataType(stream);
+    if (TVListArenaManager.isEnabled() && TVListArenaManager.isSupported(dataType)) {
+      return OffHeapTVList.deserialize(dataType, stream);
+    }
     switch (dataType) {
       case TEXT:
         return TimBinaryTVList.deserialize(stream);
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.wal.buffer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class decides how long the serialize thread of one wal node waits to enlarge a write batch
+ * before calling fsync. It estimates the arrival rate of WALEntries and the latency of fsync with
+ * exponential moving averages, and expects {@code arrivalRate * fsyncLatency} entries to arrive
+ * during one fsync. When less than one entry is expected, waiting only adds latency, so fsync is
+ * called immediately; otherwise, the serialize thread waits until the expected batch is gathered,
+ * but no longer than one fsync latency and the configured max delay.
+ */
+public class GroupCommitController {
+  /** weight of the newest sample in the moving averages */
+  private static final double ALPHA = 0.2;
+
+  /** max number of entries in one batch */
+  private final int maxBatchSize;
+  /** count of WALEntries written to the buffer, updated by writing threads */
+  private final LongAdder arrivedEntriesNum = new LongAdder();
+
+  // region these variables are only updated by serialize thread
+  private long lastArrivedEntriesNum = 0;
+  private long lastSampleTimeInNs;
+  /** estimated arrival rate, unit is entries per nanosecond */
+  private double arrivalRate = 0;
+  // endregion
+
+  /** estimated latency of fsync, only updated by sync thread */
+  private volatile double fsyncCostInNs = 0;
+
+  public GroupCommitController(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+    this.lastSampleTimeInNs = System.nanoTime();
+  }
+
+  /** Called by writing threads when a WALEntry is put into the buffer. */
+  public void onArrival() {
+    arrivedEntriesNum.increment();
+  }
+
+  /** Called by sync thread after each fsync. */
+  public void onFsync(long costInNs) {
+    double oldCost = fsyncCostInNs;
+    fsyncCostInNs = oldCost == 0 ? costInNs : ALPHA * costInNs + (1 - ALPHA) * oldCost;
+  }
+
+  /** Called by serialize thread before each batch to update the estimated arrival rate. */
+  public void sample(long nowInNs) {
+    long elapsed = nowInNs - lastSampleTimeInNs;
+    if (elapsed <= 0) {
+      return;
+    }
+    long num = arrivedEntriesNum.sum();
+    double rate = (num - lastArrivedEntriesNum) / (double) elapsed;
+    arrivalRate = ALPHA * rate + (1 - ALPHA) * arrivalRate;
+    lastArrivedEntriesNum = num;
+    lastSampleTimeInNs = nowInNs;
+  }
+
+  /** @return number of entries expected to arrive during one fsync */
+  public double getExpectedBatchSize() {
+    return arrivalRate * fsyncCostInNs;
+  }
+
+  /** @return target size of current batch, no more than max batch size */
+  public int getTargetBatchSize() {
+    return (int) Math.min(maxBatchSize, Math.ceil(getExpectedBatchSize()));
+  }
+
+  /**
+   * @param maxDelayInMs upper bound of the wait time
+   * @return time to wait for more entries before fsync, 0 means fsync immediately
+   */
+  public long getWaitTimeInNs(long maxDelayInMs) {
+    if (getExpectedBatchSize() < 1) {
+      return 0;
+    }
+    return Math.min((long) fsyncCostInNs, TimeUnit.MILLISECONDS.toNanos(maxDelayInMs));
+  }
+
+  public double getFsyncCostInNs() {
+    return fsyncCostInNs;
+  }
+}
@@ -25,11 +25,15 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.DeleteDataNode;
 import org.apache.iotdb.db.mpp.plan.planner.plan.node.write.InsertNode;
+import org.apache.iotdb.db.service.metrics.MetricService;
+import org.apache.iotdb.db.service.metrics.enums.Metric;
+import org.apache.iotdb.db.service.metrics.enums.Tag;
 import org.apache.iotdb.db.utils.MmapUtil;
 import org.apache.iotdb.db.wal.exception.WALNodeClosedException;
 import org.apache.iotdb.db.wal.io.WALMetaData;
 import org.apache.iotdb.db.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.wal.utils.listener.WALFlushListener;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +87,11 @@ public class WALBuffer extends AbstractWALBuffer {
   private final ExecutorService serializeThread;
   /** single thread to sync syncingBuffer to disk */
   private final ExecutorService syncBufferThread;
+  /** decides how long to wait for enlarging write batch when group commit is adaptive */
+  private final GroupCommitController groupCommitController =
+      new GroupCommitController(QUEUE_CAPACITY);
+  /** tag value of this node in metrics */
+  private final String metricTag;
 
   public WALBuffer(String identifier, String logDirectory) throws FileNotFoundException {
     this(identifier, logDirectory, 0, 0L);
@@ -93,6 +102,7 @@ public class WALBuffer extends AbstractWALBuffer {
       throws FileNotFoundException {
     super(identifier, logDirectory, startFileVersion, startSearchIndex);
     currentFileStatus = WALFileStatus.CONTAINS_NONE_SEARCH_INDEX;
+    metricTag = "wal_node_" + identifier;
     allocateBuffers();
     serializeThread =
         IoTDBThreadPoolFactory.newSingleThreadExecutor(
@@ -126,6 +136,7 @@ public class WALBuffer extends AbstractWALBuffer {
     // just add this WALEntry to queue
     try {
       walEntries.put(walEntry);
+      groupCommitController.onArrival();
     } catch (InterruptedException e) {
       logger.warn("Interrupted when waiting for adding WALEntry to buffer.");
       Thread.currentThread().interrupt();
@@ -172,9 +183,14 @@ public class WALBuffer extends AbstractWALBuffer {
         Thread.currentThread().interrupt();
       }
 
-      // for better fsync performance, sleep a while to enlarge write batch
+      // for better fsync performance, wait a while to enlarge write batch
       long fsyncDelay = config.getFsyncWalDelayInMs();
-      if (fsyncDelay > 0) {
+      if (config.isWalGroupCommitAdaptive()) {
+        boolean returnFlag = waitForAdaptiveBatch(fsyncDelay);
+        if (returnFlag) {
+          return;
+        }
+      } else if (fsyncDelay > 0) {
         try {
           Thread.sleep(fsyncDelay);
         } catch (InterruptedException e) {
@@ -198,6 +214,46 @@ public class WALBuffer extends AbstractWALBuffer {
       }
     }
 
+    /**
+     * Wait until the batch size expected by {@link GroupCommitController} is reached, or the wait
+     * time decided by it is used up.
+     *
+     * @return true if fsyncWorkingBuffer has been called, which means this serialization task
+     *     should be ended.
+     */
+    private boolean waitForAdaptiveBatch(long maxDelayInMs) {
+      long startTime = System.nanoTime();
+      groupCommitController.sample(startTime);
+      long waitTime = groupCommitController.getWaitTimeInNs(maxDelayInMs);
+      int targetBatchSize = groupCommitController.getTargetBatchSize();
+      long deadline = startTime + waitTime;
+      try {
+        long remaining = waitTime;
+        while (batchSize < targetBatchSize && remaining > 0) {
+          WALEntry walEntry = walEntries.poll(remaining, TimeUnit.NANOSECONDS);
+          if (walEntry != null && handleWALEntry(walEntry)) {
+            return true;
+          }
+          remaining = deadline - System.nanoTime();
+        }
+      } catch (InterruptedException e) {
+        logger.warn("Interrupted when waiting a while to enlarge wal write batch.");
+        Thread.currentThread().interrupt();
+      } finally {
+        MetricService.getInstance()
+            .timer(
+                System.nanoTime() - startTime,
+                TimeUnit.NANOSECONDS,
+                Metric.WAL_GROUP_COMMIT.toString(),
+                MetricLevel.IMPORTANT,
+                Tag.NAME.toString(),
+                metricTag,
+                Tag.TYPE.toString(),
+                "wait");
+      }
+      return false;
+    }
+
     /**
      * @return true if fsyncWorkingBuffer has been called, which means this serialization task
      *     should be ended.
@@ -453,6 +509,7 @@ public class WALBuffer extends AbstractWALBuffer {
         try {
           currentWALFileWriter.force();
           forceSuccess = true;
+          recordFsync(currentWALFileWriter.getLastForceCostInNs(), info.fsyncListeners.size());
         } catch (IOException e) {
           logger.error(
               "Fail to fsync wal node-{}'s log writer, change system mode to error.",
@@ -474,6 +531,28 @@ public class WALBuffer extends AbstractWALBuffer {
     }
   }
 
+  // only called by syncBufferThread
+  private void recordFsync(long costInNs, int batchSize) {
+    groupCommitController.onFsync(costInNs);
+    MetricService.getInstance()
+        .timer(
+            costInNs,
+            TimeUnit.NANOSECONDS,
+            Metric.WAL_GROUP_COMMIT.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            metricTag,
+            Tag.TYPE.toString(),
+            "fsync");
+    MetricService.getInstance()
+        .histogram(
+            batchSize,
+            Metric.WAL_BATCH_SIZE.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            metricTag);
+  }
+
   // only called by syncBufferThread
   private void switchSyncingBufferToIdle() {
     buffersLock.lock();
@@ -37,6 +37,8 @@ public class WALWriter extends LogWriter {
 
   /** wal files' metadata */
   protected final WALMetaData metaData = new WALMetaData();
+  /** time cost of the last force operation, in nanoseconds */
+  private long lastForceCostInNs = 0;
 
   public WALWriter(File logFile) throws FileNotFoundException {
     super(logFile);
@@ -54,6 +56,17 @@ public class WALWriter extends LogWriter {
     this.metaData.addAll(metaData);
   }
 
+  @Override
+  public void force(boolean metaData) throws IOException {
+    long startTime = System.nanoTime();
+    super.force(metaData);
+    lastForceCostInNs = System.nanoTime() - startTime;
+  }
+
+  public long getLastForceCostInNs() {
+    return lastForceCostInNs;
+  }
+
   private void endFile() throws IOException {
     WALSignalEntry endMarker = new WALSignalEntry(WALEntryType.WAL_FILE_INFO_END_MARKER);
     int metaDataSize = metaData.serializedSize();
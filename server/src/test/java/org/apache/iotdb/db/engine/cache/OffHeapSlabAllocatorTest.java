@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OffHeapSlabAllocatorTest {
+
+  @Test
+  public void testAllocateSmallBuffers() {
+    OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024);
+    List<OffHeapSlabAllocator.Allocation> allocations = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      OffHeapSlabAllocator.Allocation allocation = allocator.allocate(100);
+      ByteBuffer buffer = allocation.getBuffer();
+      Assert.assertTrue(buffer.isDirect());
+      Assert.assertEquals(0, buffer.position());
+      Assert.assertEquals(100, buffer.limit());
+      Assert.assertEquals(100, buffer.capacity());
+      for (int j = 0; j < 100; j++) {
+        buffer.put(j, (byte) i);
+      }
+      allocations.add(allocation);
+    }
+    // ten buffers of 100 bytes fit into one slab of 1024 bytes
+    Assert.assertEquals(1024, allocator.getAllocatedBytes());
+    Assert.assertEquals(1000, allocator.getUsedBytes());
+    // buffers in the same slab do not overlap
+    for (int i = 0; i < 10; i++) {
+      ByteBuffer buffer = allocations.get(i).getBuffer();
+      for (int j = 0; j < 100; j++) {
+        Assert.assertEquals((byte) i, buffer.get(j));
+      }
+    }
+
+    // the next one does not fit, so a new slab is opened and the old one is sealed
+    OffHeapSlabAllocator.Allocation last = allocator.allocate(100);
+    Assert.assertEquals(2048, allocator.getAllocatedBytes());
+    for (OffHeapSlabAllocator.Allocation allocation : allocations) {
+      allocator.release(allocation);
+    }
+    // the sealed slab is retired once all of its buffers are released
+    Assert.assertEquals(1024, allocator.getAllocatedBytes());
+    Assert.assertEquals(100, allocator.getUsedBytes());
+
+    // the current slab is kept even if it is empty
+    allocator.release(last);
+    Assert.assertEquals(1024, allocator.getAllocatedBytes());
+    Assert.assertEquals(0, allocator.getUsedBytes());
+  }
+
+  @Test
+  public void testAllocateLargeBuffer() {
+    OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024);
+    OffHeapSlabAllocator.Allocation allocation = allocator.allocate(4096);
+    Assert.assertEquals(4096, allocation.getBuffer().capacity());
+    Assert.assertEquals(4096, allocator.getAllocatedBytes());
+    Assert.assertEquals(4096, allocator.getUsedBytes());
+
+    allocator.release(allocation);
+    // the dedicated slab is freed right away
+    Assert.assertEquals(0, allocator.getAllocatedBytes());
+    Assert.assertEquals(0, allocator.getUsedBytes());
+  }
+
+  @Test
+  public void testRetainAllocation() {
+    OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024);
+    OffHeapSlabAllocator.Allocation allocation = allocator.allocate(4096);
+    Assert.assertTrue(allocation.retain());
+
+    // the slab is kept until the reader drops its reference
+    allocator.release(allocation);
+    Assert.assertEquals(4096, allocator.getAllocatedBytes());
+    Assert.assertEquals(4096, allocator.getUsedBytes());
+    allocator.release(allocation);
+    Assert.assertEquals(0, allocator.getAllocatedBytes());
+    Assert.assertEquals(0, allocator.getUsedBytes());
+
+    // a released allocation can not be retained any more
+    Assert.assertFalse(allocation.retain());
+  }
+
+  @Test
+  public void testUnderusedSlab() {
+    OffHeapSlabAllocator allocator = new OffHeapSlabAllocator(1024);
+    List<OffHeapSlabAllocator.Allocation> allocations = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      allocations.add(allocator.allocate(256));
+    }
+    // the current slab is never underused
+    Assert.assertFalse(allocations.get(0).isInUnderusedSlab());
+
+    // seal the first slab by opening a new one
+    OffHeapSlabAllocator.Allocation next = allocator.allocate(256);
+    Assert.assertFalse(allocations.get(0).isInUnderusedSlab());
+    allocator.release(allocations.get(1));
+    allocator.release(allocations.get(2));
+    Assert.assertFalse(allocations.get(0).isInUnderusedSlab());
+    allocator.release(allocations.get(3));
+    Assert.assertTrue(allocations.get(0).isInUnderusedSlab());
+    Assert.assertFalse(next.isInUnderusedSlab());
+
+    allocator.release(allocations.get(0));
+    Assert.assertEquals(1024, allocator.getAllocatedBytes());
+  }
+}
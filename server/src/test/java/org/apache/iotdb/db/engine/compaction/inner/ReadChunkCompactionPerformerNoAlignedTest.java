@@ -25,6 +25,7 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
+import org.apache.iotdb.db.engine.compaction.CompactionTaskManager;
 import org.apache.iotdb.db.engine.compaction.performer.ICompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.performer.impl.ReadChunkCompactionPerformer;
 import org.apache.iotdb.db.engine.compaction.task.CompactionTaskSummary;
@@ -943,4 +944,69 @@ public class ReadChunkCompactionPerformerNoAlignedTest {
           .setChunkPointNumLowerBoundInCompaction(originChunkPointNumLowerBound);
     }
   }
+
+  /**
+   * Compact the series by sub tasks, and check that the target file is the same as the one
+   * compacted in a single thread. With the smaller target chunk point num, the series are too large
+   * to be buffered and are compacted directly into the target file.
+   */
+  @Test
+  public void testCompactSeriesBySubTasks() throws Exception {
+    long originTargetChunkPointNum =
+        IoTDBDescriptor.getInstance().getConfig().getTargetChunkPointNum();
+    int originSubCompactionTaskNum =
+        IoTDBDescriptor.getInstance().getConfig().getSubCompactionTaskNum();
+    CompactionTaskManager.getInstance().start();
+    try {
+      List<TsFileResource> sourceFiles = new ArrayList<>();
+      int fileNum = 6;
+      long pointStep = 300L;
+      for (int i = 0; i < fileNum; ++i) {
+        List<List<Long>> chunkPagePointsNum = new ArrayList<>();
+        List<Long> pagePointsNum = new ArrayList<>();
+        pagePointsNum.add(pointStep);
+        chunkPagePointsNum.add(pagePointsNum);
+        TsFileResource resource =
+            new TsFileResource(new File(SEQ_DIRS, String.format("%d-%d-0-0.tsfile", i + 1, i + 1)));
+        sourceFiles.add(resource);
+        CompactionFileGeneratorUtils.writeTsFile(
+            fullPathSet, chunkPagePointsNum, i * pointStep, resource);
+      }
+      Map<PartialPath, List<TimeValuePair>> originData =
+          CompactionCheckerUtils.getDataByQuery(paths, schemaList, sourceFiles, new ArrayList<>());
+
+      int targetIndex = 0;
+      for (long targetChunkPointNum : new long[] {1000L, 100L}) {
+        IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(targetChunkPointNum);
+        TsFileResource[] targetResources = new TsFileResource[2];
+        for (int subTaskNum = 1; subTaskNum <= 2; subTaskNum++) {
+          IoTDBDescriptor.getInstance().getConfig().setSubCompactionTaskNum(subTaskNum);
+          targetIndex++;
+          TsFileResource targetResource =
+              new TsFileResource(
+                  new File(SEQ_DIRS, String.format("%d-%d-1-0.tsfile", targetIndex, targetIndex)));
+          ICompactionPerformer performer =
+              new ReadChunkCompactionPerformer(sourceFiles, targetResource);
+          performer.setSummary(new CompactionTaskSummary());
+          performer.perform();
+          Map<PartialPath, List<TimeValuePair>> compactedData =
+              CompactionCheckerUtils.getDataByQuery(
+                  paths, schemaList, Collections.singletonList(targetResource), new ArrayList<>());
+          CompactionCheckerUtils.validDataByValueList(originData, compactedData);
+          targetResources[subTaskNum - 1] = targetResource;
+        }
+        Assert.assertEquals(
+            targetResources[0].getTsFile().length(), targetResources[1].getTsFile().length());
+        for (PartialPath device : devicePath) {
+          Assert.assertEquals(0L, targetResources[1].getStartTime(device.getFullPath()));
+          Assert.assertEquals(
+              fileNum * pointStep - 1, targetResources[1].getEndTime(device.getFullPath()));
+        }
+      }
+    } finally {
+      CompactionTaskManager.getInstance().stop();
+      IoTDBDescriptor.getInstance().getConfig().setTargetChunkPointNum(originTargetChunkPointNum);
+      IoTDBDescriptor.getInstance().getConfig().setSubCompactionTaskNum(originSubCompactionTaskNum);
+    }
+  }
 }
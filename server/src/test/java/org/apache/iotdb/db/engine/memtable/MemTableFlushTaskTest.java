@@ -19,9 +19,12 @@
 package org.apache.iotdb.db.engine.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.MetadataManagerHelper;
 import org.apache.iotdb.db.engine.flush.MemTableFlushTask;
+import org.apache.iotdb.db.engine.flush.pool.FlushEncodingTaskPoolManager;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
@@ -33,6 +36,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
@@ -158,4 +162,42 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testFlushMemTableWithParallelEncoding()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    int prevEncodingThread = config.getConcurrentFlushEncodingThread();
+    config.setConcurrentFlushEncodingThread(4);
+    // the pool may have been created with the previous thread number, so recreate it
+    FlushEncodingTaskPoolManager poolManager = FlushEncodingTaskPoolManager.getInstance();
+    poolManager.stop();
+    poolManager.start();
+    try {
+      assertEquals(4, poolManager.getCorePoolSize());
+      for (int d = 0; d < 5; d++) {
+        for (int s = 0; s < 10; s++) {
+          MemTableTestUtils.produceData(
+              memTable, startTime, endTime, "d" + d, "s" + s, MemTableTestUtils.dataType0);
+        }
+      }
+      MemTableFlushTask memTableFlushTask = new MemTableFlushTask(memTable, writer, storageGroup);
+      memTableFlushTask.syncFlushMemTable();
+      writer.makeMetadataVisible();
+      for (int d = 0; d < 5; d++) {
+        for (int s = 0; s < 10; s++) {
+          List<ChunkMetadata> chunkMetadataList =
+              writer.getVisibleMetadataList("d" + d, "s" + s, MemTableTestUtils.dataType0);
+          assertEquals(1, chunkMetadataList.size());
+          assertEquals(startTime, chunkMetadataList.get(0).getStartTime());
+          assertEquals(endTime, chunkMetadataList.get(0).getEndTime());
+          assertEquals(endTime - startTime + 1, chunkMetadataList.get(0).getNumOfPoints());
+        }
+      }
+    } finally {
+      config.setConcurrentFlushEncodingThread(prevEncodingThread);
+      poolManager.stop();
+      poolManager.start();
+    }
+  }
 }
@@ -30,6 +30,7 @@ import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
 import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
+import org.apache.iotdb.db.query.reader.chunk.MemChunkReader;
 import org.apache.iotdb.db.qp.physical.crud.InsertTabletPlan;
 import org.apache.iotdb.db.utils.MathUtils;
 import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
@@ -38,7 +39,10 @@ import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
 import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.reader.IPageReader;
 import org.apache.iotdb.tsfile.read.reader.IPointReader;
 import org.apache.iotdb.tsfile.utils.Binary;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -51,6 +55,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -161,6 +166,59 @@ public class PrimitiveMemTableTest {
     }
   }
 
+  @Test
+  public void blockStatisticsTest() throws IOException, QueryProcessException, MetadataException {
+    IMemTable memTable = new PrimitiveMemTable();
+    String deviceId = "d1";
+    MeasurementSchema schema = new MeasurementSchema("s1", TSDataType.INT64, TSEncoding.PLAIN);
+    int dataSize = 1000;
+    for (int i = 0; i < dataSize; i++) {
+      memTable.write(
+          DeviceIDFactory.getInstance().getDeviceID(new PartialPath(deviceId)),
+          Collections.singletonList(schema),
+          i,
+          new Object[] {(long) i});
+    }
+    MeasurementPath fullPath = new MeasurementPath(deviceId, "s1", schema);
+
+    ReadOnlyMemChunk memChunk = memTable.query(fullPath, Long.MIN_VALUE, null);
+    Statistics<? extends Serializable> chunkStatistics =
+        memChunk.getChunkMetaData().getStatistics();
+    Assert.assertEquals(dataSize, chunkStatistics.getCount());
+    Assert.assertEquals(0, chunkStatistics.getStartTime());
+    Assert.assertEquals(dataSize - 1, chunkStatistics.getEndTime());
+    Assert.assertEquals(dataSize - 1L, chunkStatistics.getMaxValue());
+
+    List<IPageReader> pageReaders = new MemChunkReader(memChunk, null).loadPageReaderList();
+    int blockSize = MemChunkStatistics.BLOCK_SIZE;
+    Assert.assertEquals((dataSize + blockSize - 1) / blockSize, pageReaders.size());
+    long expectedTime = 0;
+    for (IPageReader pageReader : pageReaders) {
+      TsBlock tsBlock = pageReader.getAllSatisfiedData();
+      Statistics<?> pageStatistics = pageReader.getStatistics();
+      Assert.assertEquals(tsBlock.getPositionCount(), pageStatistics.getCount());
+      Assert.assertEquals(expectedTime, pageStatistics.getStartTime());
+      Assert.assertEquals(expectedTime, tsBlock.getTimeByIndex(0));
+      expectedTime += tsBlock.getPositionCount();
+      Assert.assertEquals(expectedTime - 1, pageStatistics.getEndTime());
+      Assert.assertEquals(expectedTime - 1, pageStatistics.getMaxValue());
+    }
+    Assert.assertEquals(dataSize, expectedTime);
+
+    // out of order insertion drops the block statistics
+    memTable.write(
+        DeviceIDFactory.getInstance().getDeviceID(new PartialPath(deviceId)),
+        Collections.singletonList(schema),
+        10,
+        new Object[] {-1L});
+    memChunk = memTable.query(fullPath, Long.MIN_VALUE, null);
+    Assert.assertNull(memChunk.getPageStatisticsList());
+    chunkStatistics = memChunk.getChunkMetaData().getStatistics();
+    Assert.assertEquals(dataSize, chunkStatistics.getCount());
+    Assert.assertEquals(-1L, chunkStatistics.getMinValue());
+    Assert.assertEquals(1, new MemChunkReader(memChunk, null).loadPageReaderList().size());
+  }
+
   @Test
   public void totalSeriesNumberTest() throws IOException, QueryProcessException, MetadataException {
     IMemTable memTable = new PrimitiveMemTable();
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification;
+
+import org.apache.iotdb.commons.path.PartialPath;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class DeletionIntervalIndexTest {
+
+  @Test
+  public void testForEachOverlapping() {
+    Random random = new Random(42);
+    PartialPath path = new PartialPath(new String[] {"root", "sg", "d1", "s1"});
+    List<Modification> deletions = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      long startTime = random.nextInt(100_000);
+      deletions.add(new Deletion(path, i, startTime, startTime + random.nextInt(1000)));
+    }
+    DeletionIntervalIndex index = new DeletionIntervalIndex(deletions);
+
+    for (int i = 0; i < 100; i++) {
+      long startTime = random.nextInt(100_000);
+      long endTime = startTime + random.nextInt(5000);
+      Set<Modification> expected = new HashSet<>();
+      for (Modification modification : deletions) {
+        Deletion deletion = (Deletion) modification;
+        if (deletion.getStartTime() <= endTime && deletion.getEndTime() >= startTime) {
+          expected.add(deletion);
+        }
+      }
+      Set<Modification> actual = new HashSet<>();
+      index.forEachOverlapping(startTime, endTime, actual::add);
+      assertEquals(expected, actual);
+    }
+  }
+}
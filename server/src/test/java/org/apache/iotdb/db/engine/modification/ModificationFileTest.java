@@ -19,16 +19,24 @@
 
 package org.apache.iotdb.db.engine.modification;
 
+import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.io.LocalBinaryModificationAccessor;
+import org.apache.iotdb.db.engine.modification.io.LocalTextModificationAccessor;
 
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class ModificationFileTest {
@@ -100,4 +108,109 @@ public class ModificationFileTest {
       new File(tempFileName).delete();
     }
   }
+
+  @Test
+  public void testKeepTextFormatByDefault() throws IOException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    Modification[] modifications =
+        new Modification[] {
+          new Deletion(new PartialPath(new String[] {"d1", "s1"}), 1, 1),
+          new Deletion(new PartialPath(new String[] {"d1", "s2"}), 2, 2, 3),
+        };
+    try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+      mFile.write(modifications[0]);
+      assertEquals(Collections.singletonList(modifications[0]), mFile.getModifications());
+      mFile.write(modifications[1]);
+      assertFalse(LocalBinaryModificationAccessor.isBinaryFormat(new File(tempFileName)));
+    }
+    // the file can still be read by the text accessor
+    try (LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(tempFileName)) {
+      assertEquals(Arrays.asList(modifications), accessor.read());
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
+
+  @Test
+  public void testConvertTextFile() throws IOException {
+    boolean prevEnableBinaryModsFile =
+        IoTDBDescriptor.getInstance().getConfig().isEnableBinaryModsFile();
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    Modification[] modifications =
+        new Modification[] {
+          new Deletion(new PartialPath(new String[] {"d1", "s1"}), 1, 1),
+          new Deletion(new PartialPath(new String[] {"d1", "s2"}), 2, 2, 3),
+          new Deletion(new PartialPath(new String[] {"d1", "s3"}), 3, 3, 4),
+        };
+    try (LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(tempFileName)) {
+      accessor.write(modifications[0]);
+      accessor.write(modifications[1]);
+    }
+    IoTDBDescriptor.getInstance().getConfig().setEnableBinaryModsFile(true);
+    try {
+      try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+        // reading never rewrites the file
+        assertEquals(Arrays.asList(modifications[0], modifications[1]), mFile.getModifications());
+        assertFalse(LocalBinaryModificationAccessor.isBinaryFormat(new File(tempFileName)));
+        // the text file is converted before a new modification is appended
+        mFile.write(modifications[2]);
+        assertTrue(LocalBinaryModificationAccessor.isBinaryFormat(new File(tempFileName)));
+        assertEquals(Arrays.asList(modifications), mFile.getModifications());
+      }
+      // no temporary file is left
+      File[] convertingFiles =
+          new File(tempFileName)
+              .getAbsoluteFile()
+              .getParentFile()
+              .listFiles((dir, name) -> name.endsWith(".converting"));
+      assertEquals(0, convertingFiles == null ? 0 : convertingFiles.length);
+
+      // a binary file keeps being written in the binary format after the option is turned off
+      IoTDBDescriptor.getInstance().getConfig().setEnableBinaryModsFile(false);
+      try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+        mFile.abort();
+        assertTrue(LocalBinaryModificationAccessor.isBinaryFormat(new File(tempFileName)));
+        assertEquals(Arrays.asList(modifications[0], modifications[1]), mFile.getModifications());
+      }
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setEnableBinaryModsFile(prevEnableBinaryModsFile);
+      new File(tempFileName).delete();
+    }
+  }
+
+  @Test
+  public void testGetModificationsOfPath() throws IOException, IllegalPathException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    Modification[] modifications =
+        new Modification[] {
+          new Deletion(new PartialPath("root.sg.d1.s1"), 1, 1),
+          new Deletion(new PartialPath("root.sg.d1.s2"), 2, 2),
+          new Deletion(new PartialPath("root.sg.d1.*"), 3, 3),
+          new Deletion(new PartialPath("root.**.s1"), 4, 4),
+        };
+    try (ModificationFile mFile = new ModificationFile(tempFileName)) {
+      for (Modification modification : modifications) {
+        mFile.write(modification);
+      }
+      assertEquals(
+          Arrays.asList(modifications[0], modifications[2], modifications[3]),
+          mFile.getModifications(new PartialPath("root.sg.d1.s1")));
+      assertEquals(
+          Arrays.asList(modifications[1], modifications[2]),
+          mFile.getModifications(new PartialPath("root.sg.d1.s2")));
+
+      // modifications written through another ModificationFile are seen
+      try (ModificationFile another = new ModificationFile(tempFileName)) {
+        another.write(new Deletion(new PartialPath("root.sg.d2.s1"), 5, 5));
+      }
+      assertEquals(2, mFile.getModifications(new PartialPath("root.sg.d2.s1")).size());
+
+      mFile.abort();
+      assertEquals(
+          Arrays.asList(modifications[3]),
+          mFile.getModifications(new PartialPath("root.sg.d2.s1")));
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
 }
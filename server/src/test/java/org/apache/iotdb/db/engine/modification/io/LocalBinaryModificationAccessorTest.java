@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.engine.modification.io;
+
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.modification.Deletion;
+import org.apache.iotdb.db.engine.modification.Modification;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LocalBinaryModificationAccessorTest {
+
+  private final Modification[] modifications =
+      new Modification[] {
+        new Deletion(new PartialPath(new String[] {"d1", "s1"}), 1, 1),
+        new Deletion(new PartialPath(new String[] {"d1", "s2"}), 2, 2),
+        new Deletion(new PartialPath(new String[] {"d1", "s3"}), 3, 3, 4),
+        new Deletion(new PartialPath(new String[] {"d1", "s,4"}), 4, 4, 5),
+      };
+
+  @Test
+  public void readMyWrite() {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    try (LocalBinaryModificationAccessor accessor =
+        new LocalBinaryModificationAccessor(tempFileName)) {
+      for (int i = 0; i < 2; i++) {
+        accessor.write(modifications[i]);
+      }
+      List<Modification> modificationList = (List<Modification>) accessor.read();
+      assertEquals(Arrays.asList(modifications).subList(0, 2), modificationList);
+
+      for (int i = 2; i < 4; i++) {
+        accessor.write(modifications[i]);
+      }
+      accessor.abort();
+      modificationList = (List<Modification>) accessor.read();
+      assertEquals(Arrays.asList(modifications).subList(0, 3), modificationList);
+      assertTrue(LocalBinaryModificationAccessor.isBinaryFormat(new File(tempFileName)));
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } finally {
+      new File(tempFileName).delete();
+    }
+  }
+
+  @Test
+  public void readNull() {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    LocalBinaryModificationAccessor accessor = new LocalBinaryModificationAccessor(tempFileName);
+    new File(tempFileName).delete();
+    Collection<Modification> modifications = accessor.read();
+    assertEquals(new ArrayList<>(), modifications);
+  }
+
+  @Test
+  public void readAndTruncate() {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    File file = new File(tempFileName);
+    if (file.exists()) {
+      file.delete();
+    }
+    try (LocalBinaryModificationAccessor accessor =
+        new LocalBinaryModificationAccessor(tempFileName)) {
+      for (int i = 0; i < 2; i++) {
+        accessor.write(modifications[i]);
+      }
+      accessor.close();
+      long length = file.length();
+      // a record that is not completely written
+      try (FileOutputStream outputStream = new FileOutputStream(file, true)) {
+        outputStream.write(new byte[] {0, 0, 0, 30, 0, 1, 2});
+      }
+
+      List<Modification> modificationList = (List<Modification>) accessor.read();
+      assertEquals(Arrays.asList(modifications).subList(0, 2), modificationList);
+      assertEquals(length, file.length());
+
+      // new records are appended after the truncated position
+      accessor.write(modifications[2]);
+      modificationList = (List<Modification>) accessor.read();
+      assertEquals(Arrays.asList(modifications).subList(0, 3), modificationList);
+    } catch (IOException e) {
+      fail(e.getMessage());
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void detectTextFormat() throws IOException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    File file = new File(tempFileName);
+    try (LocalTextModificationAccessor accessor = new LocalTextModificationAccessor(tempFileName)) {
+      accessor.write(modifications[0]);
+      assertFalse(LocalBinaryModificationAccessor.isBinaryFormat(file));
+    } finally {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void readBothFormats() throws IOException {
+    String tempFileName = TestConstant.BASE_OUTPUT_PATH.concat("mod.temp");
+    File file = new File(tempFileName);
+    try {
+      try (LocalTextModificationAccessor accessor =
+          new LocalTextModificationAccessor(tempFileName)) {
+        accessor.write(modifications[0]);
+      }
+      long textFileLength = file.length();
+      // a text file is neither misread nor truncated by the binary accessor
+      assertEquals(
+          Collections.singletonList(modifications[0]),
+          new LocalBinaryModificationAccessor(tempFileName).read());
+      assertEquals(textFileLength, file.length());
+      assertTrue(file.delete());
+
+      try (LocalBinaryModificationAccessor accessor =
+          new LocalBinaryModificationAccessor(tempFileName)) {
+        accessor.write(modifications[0]);
+      }
+      long binaryFileLength = file.length();
+      // and vice versa
+      assertEquals(
+          Collections.singletonList(modifications[0]),
+          new LocalTextModificationAccessor(tempFileName).read());
+      assertEquals(binaryFileLength, file.length());
+    } finally {
+      file.delete();
+    }
+  }
+}
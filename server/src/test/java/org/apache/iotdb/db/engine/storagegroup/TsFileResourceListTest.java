@@ -20,12 +20,16 @@
 package org.apache.iotdb.db.engine.storagegroup;
 
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.tsfile.read.filter.TimeFilter;
+import org.apache.iotdb.tsfile.read.filter.factory.FilterFactory;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -212,4 +216,112 @@ public class TsFileResourceListTest {
         tsFileResourceList.getHeader(), tsFileResources.get(tsFileResources.size() - 1));
     Assert.assertEquals(tsFileResourceList.getTail(), tsFileResources.get(0));
   }
+
+  private TsFileResource generateClosedTsFileResource(int id, String device, long start, long end)
+      throws Exception {
+    TsFileResource resource = generateTsFileResource(id);
+    resource.updateStartTime(device, start);
+    resource.updateEndTime(device, end);
+    resource.close();
+    return resource;
+  }
+
+  @Test
+  public void testGetCandidatesForQuery() throws Exception {
+    TsFileResourceList tsFileResourceList = new TsFileResourceList();
+    List<TsFileResource> d1Resources = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      TsFileResource resource =
+          generateClosedTsFileResource(2 * i, "root.sg.d1", i * 100L, i * 100L + 99);
+      d1Resources.add(resource);
+      tsFileResourceList.add(resource);
+      tsFileResourceList.add(
+          generateClosedTsFileResource(2 * i + 1, "root.sg.d2", i * 100L, i * 100L + 99));
+    }
+    // an unclosed file is always a candidate
+    TsFileResource unclosed = generateTsFileResource(100);
+    unclosed.updateStartTime("root.sg.d2", 1000);
+    unclosed.updateEndTime("root.sg.d2", 1050);
+    tsFileResourceList.add(unclosed);
+
+    Assert.assertEquals(
+        Arrays.asList(d1Resources.get(2), d1Resources.get(3), unclosed),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1", TimeFilter.between(250, 300, false)));
+    Assert.assertEquals(
+        Arrays.asList(d1Resources.get(9), unclosed),
+        tsFileResourceList.getCandidatesForQuery("root.sg.d1", TimeFilter.gtEq(950)));
+    Assert.assertEquals(
+        Collections.singletonList(unclosed),
+        tsFileResourceList.getCandidatesForQuery("root.sg.d3", null));
+
+    // a closed file is indexed by its device time ranges
+    unclosed.close();
+    Assert.assertEquals(
+        Collections.singletonList(d1Resources.get(9)),
+        tsFileResourceList.getCandidatesForQuery("root.sg.d1", TimeFilter.gtEq(950)));
+    Assert.assertEquals(
+        Collections.singletonList(unclosed),
+        tsFileResourceList.getCandidatesForQuery("root.sg.d2", TimeFilter.gtEq(1000)));
+
+    // a degraded file falls back to its file time range
+    d1Resources.get(3).degradeTimeIndex();
+    Assert.assertEquals(
+        Arrays.asList(d1Resources.get(2), d1Resources.get(3)),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1", TimeFilter.between(250, 300, false)));
+
+    tsFileResourceList.remove(d1Resources.get(2));
+    Assert.assertEquals(
+        Collections.singletonList(d1Resources.get(3)),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1", TimeFilter.between(250, 300, false)));
+  }
+
+  @Test
+  public void testGetCandidatesForQueryWithNotFilter() throws Exception {
+    TsFileResourceList tsFileResourceList = new TsFileResourceList();
+    TsFileResource early = generateClosedTsFileResource(0, "root.sg.d1", 0, 50);
+    TsFileResource wide = generateClosedTsFileResource(1, "root.sg.d1", 0, 200);
+    TsFileResource late = generateClosedTsFileResource(2, "root.sg.d1", 300, 400);
+    tsFileResourceList.add(early);
+    tsFileResourceList.add(wide);
+    tsFileResourceList.add(late);
+
+    // the span of all the files fails the negation, while the early file alone satisfies it
+    Assert.assertEquals(
+        Collections.singletonList(early),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1", FilterFactory.not(TimeFilter.gtEq(100))));
+    Assert.assertEquals(
+        Collections.singletonList(early),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1",
+            FilterFactory.and(TimeFilter.gtEq(10), FilterFactory.not(TimeFilter.gtEq(100)))));
+    Assert.assertEquals(
+        Arrays.asList(early, late),
+        tsFileResourceList.getCandidatesForQuery(
+            "root.sg.d1",
+            FilterFactory.or(TimeFilter.gtEq(350), FilterFactory.not(TimeFilter.gtEq(100)))));
+  }
+
+  @Test
+  public void testGetCandidatesForQueryKeepOrder() throws Exception {
+    TsFileResourceList tsFileResourceList = new TsFileResourceList();
+    TsFileResource first = generateClosedTsFileResource(0, "root.sg.d1", 0, 0);
+    TsFileResource last = generateClosedTsFileResource(1, "root.sg.d1", 1, 1);
+    tsFileResourceList.add(first);
+    tsFileResourceList.add(last);
+    // keep inserting right after the first file to exhaust the gap of order keys
+    List<TsFileResource> expected = new ArrayList<>();
+    for (int i = 0; i < 64; i++) {
+      TsFileResource resource = generateClosedTsFileResource(i + 2, "root.sg.d1", 100 - i, 200);
+      tsFileResourceList.insertAfter(first, resource);
+      expected.add(0, resource);
+    }
+    expected.add(0, first);
+    expected.add(last);
+    Assert.assertEquals(expected, tsFileResourceList.getArrayList());
+    Assert.assertEquals(expected, tsFileResourceList.getCandidatesForQuery("root.sg.d1", null));
+  }
 }
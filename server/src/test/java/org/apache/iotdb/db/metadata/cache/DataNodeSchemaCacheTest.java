@@ -33,7 +33,16 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 public class DataNodeSchemaCacheTest {
@@ -174,6 +183,122 @@ public class DataNodeSchemaCacheTest {
     Assert.assertNull(dataNodeSchemaCache.getLastCache(seriesPath3));
   }
 
+  @Test
+  public void testBatchUpdateLastCache() throws IllegalPathException {
+    dataNodeSchemaCache.put(generateSchemaTree1());
+    PartialPath device = new PartialPath("root.sg1.d1");
+    String[] measurements = new String[] {"s1", null, "s3", "s4"};
+    TimeValuePair[] timeValuePairs =
+        new TimeValuePair[] {
+          new TimeValuePair(10, TsPrimitiveType.getByType(TSDataType.INT32, 1)),
+          null,
+          new TimeValuePair(20, TsPrimitiveType.getByType(TSDataType.BOOLEAN, true)),
+          new TimeValuePair(30, TsPrimitiveType.getByType(TSDataType.INT32, 3))
+        };
+    Set<Integer> composedIndexes = new HashSet<>();
+    dataNodeSchemaCache.updateLastCache(
+        device,
+        measurements,
+        i -> {
+          composedIndexes.add(i);
+          return timeValuePairs[i];
+        },
+        true,
+        Long.MIN_VALUE);
+    // the null measurement and the uncached series are skipped without composing their points
+    Assert.assertEquals(new HashSet<>(Arrays.asList(0, 2)), composedIndexes);
+    Assert.assertEquals(
+        timeValuePairs[0], dataNodeSchemaCache.getLastCache(new PartialPath("root.sg1.d1.s1")));
+    Assert.assertNull(dataNodeSchemaCache.getLastCache(new PartialPath("root.sg1.d1.s2")));
+    Assert.assertEquals(
+        timeValuePairs[2], dataNodeSchemaCache.getLastCache(new PartialPath("root.sg1.d1.s3")));
+    Assert.assertNull(dataNodeSchemaCache.getLastCache(new PartialPath("root.sg1.d1.s4")));
+  }
+
+  @Test
+  public void testConcurrentUpdateLastCache() throws Exception {
+    dataNodeSchemaCache.put(generateSchemaTree1());
+    PartialPath seriesPath = new PartialPath("root.sg1.d1.s1");
+    int threadNum = 4;
+    int pointNum = 10000;
+    ExecutorService executorService = Executors.newFixedThreadPool(threadNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        int threadIndex = i;
+        futures.add(
+            executorService.submit(
+                () -> {
+                  for (int time = threadIndex; time < pointNum; time += threadNum) {
+                    dataNodeSchemaCache.updateLastCache(
+                        seriesPath,
+                        new TimeValuePair(time, TsPrimitiveType.getByType(TSDataType.INT32, time)),
+                        true,
+                        Long.MIN_VALUE);
+                    TimeValuePair cachedLast = dataNodeSchemaCache.getLastCache(seriesPath);
+                    // a reader never sees a timestamp paired with the value of another point
+                    Assert.assertEquals(cachedLast.getTimestamp(), cachedLast.getValue().getInt());
+                  }
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    TimeValuePair cachedLast = dataNodeSchemaCache.getLastCache(seriesPath);
+    Assert.assertEquals(pointNum - 1, cachedLast.getTimestamp());
+    Assert.assertEquals(pointNum - 1, cachedLast.getValue().getInt());
+  }
+
+  @Test
+  public void testBatchGetSchemaEntity() throws IllegalPathException {
+    dataNodeSchemaCache.put(generateSchemaTree1());
+    dataNodeSchemaCache.put(generateSchemaTree2());
+
+    ClusterSchemaTree schemaTree =
+        dataNodeSchemaCache.get(
+            Arrays.asList(new PartialPath("root.sg1.d1"), new PartialPath("root.sg1.d2")),
+            Arrays.asList(new String[] {"s1", "s5", "s6"}, new String[] {"s1"}));
+    List<String> fullPaths =
+        schemaTree.getAllMeasurement().stream()
+            .map(PartialPath::getFullPath)
+            .sorted()
+            .collect(Collectors.toList());
+    Assert.assertEquals(Arrays.asList("root.sg1.d1.s1", "root.sg1.d1.s5"), fullPaths);
+  }
+
+  @Test
+  public void testInvalidateMatchedSchema() throws IllegalPathException {
+    dataNodeSchemaCache.put(generateSchemaTree1());
+    dataNodeSchemaCache.put(generateSchemaTree2());
+    Assert.assertEquals(5, dataNodeSchemaCache.estimatedSize());
+
+    List<PartialPath> patterns = Collections.singletonList(new PartialPath("root.sg1.d1.s1"));
+    int[] lockedStripes = dataNodeSchemaCache.takeWriteLock(patterns);
+    try {
+      Assert.assertEquals(1, lockedStripes.length);
+      dataNodeSchemaCache.invalidateMatchedSchema(patterns.get(0));
+    } finally {
+      dataNodeSchemaCache.releaseWriteLock(lockedStripes);
+    }
+    Assert.assertEquals(4, dataNodeSchemaCache.estimatedSize());
+
+    patterns = Collections.singletonList(new PartialPath("root.sg1.**"));
+    lockedStripes = dataNodeSchemaCache.takeWriteLock(patterns);
+    try {
+      Assert.assertTrue(lockedStripes.length > 1);
+      dataNodeSchemaCache.invalidateMatchedSchema(patterns.get(0));
+    } finally {
+      dataNodeSchemaCache.releaseWriteLock(lockedStripes);
+    }
+    Assert.assertTrue(
+        dataNodeSchemaCache
+            .get(new PartialPath("root.sg1.d1"), new String[] {"s2", "s3", "s4", "s5"})
+            .isEmpty());
+  }
+
   private ISchemaTree generateSchemaTree1() throws IllegalPathException {
     ClusterSchemaTree schemaTree = new ClusterSchemaTree();
 
@@ -562,6 +562,73 @@ public class SchemaFileTest {
     sf.close();
   }
 
+  @Test
+  public void testLoadEvictedPageFromPendingWrites() throws MetadataException, IOException {
+    int pageCacheSize = SchemaFile.PAGE_CACHE_SIZE;
+    SchemaFile.PAGE_CACHE_SIZE = 2;
+    try {
+      IMNode sgNode = getDevicesWithMeasurements(30, 300);
+      SchemaFile sf =
+          (SchemaFile) SchemaFile.initSchemaFile(sgNode.getName(), TEST_SCHEMA_REGION_ID);
+      // nothing is written back in background, so the pages are only in pendingWrites
+      sf.lockWriteBackOnTest();
+      try {
+        writeTree(sf, sgNode);
+        Assert.assertTrue(sf.getPendingPageNumOnTest() > SchemaFile.PAGE_CACHE_SIZE);
+
+        int evictedNum = 0;
+        for (IMNode device : sgNode.getChildren().values()) {
+          if (!sf.isPageCachedOnTest(SchemaFile.getPageIndex(getSegAddrInContainer(device)))) {
+            evictedNum++;
+          }
+          checkMeasurements(sf, device, 300);
+        }
+        Assert.assertTrue(evictedNum > 0);
+        sf.sync();
+        Assert.assertEquals(0, sf.getPendingPageNumOnTest());
+      } finally {
+        sf.unlockWriteBackOnTest();
+      }
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile(sgNode.getName(), TEST_SCHEMA_REGION_ID);
+      for (IMNode device : sgNode.getChildren().values()) {
+        checkMeasurements(nsf, device, 300);
+      }
+      nsf.close();
+    } finally {
+      SchemaFile.PAGE_CACHE_SIZE = pageCacheSize;
+    }
+  }
+
+  @Test
+  public void testWritePendingPagesInlineOverLimit() throws MetadataException, IOException {
+    int pendingPagesLimit = SchemaFile.PENDING_PAGES_LIMIT;
+    SchemaFile.PENDING_PAGES_LIMIT = 2;
+    try {
+      IMNode sgNode = getDevicesWithMeasurements(30, 300);
+      SchemaFile sf =
+          (SchemaFile) SchemaFile.initSchemaFile(sgNode.getName(), TEST_SCHEMA_REGION_ID);
+      // the writer has to write the pages itself while the write back thread is held back
+      sf.lockWriteBackOnTest();
+      try {
+        writeTree(sf, sgNode);
+        Assert.assertTrue(sf.getPendingPageNumOnTest() <= SchemaFile.PENDING_PAGES_LIMIT);
+      } finally {
+        sf.unlockWriteBackOnTest();
+      }
+      sf.close();
+
+      ISchemaFile nsf = SchemaFile.loadSchemaFile(sgNode.getName(), TEST_SCHEMA_REGION_ID);
+      for (IMNode device : sgNode.getChildren().values()) {
+        checkMeasurements(nsf, device, 300);
+      }
+      nsf.close();
+    } finally {
+      SchemaFile.PENDING_PAGES_LIMIT = pendingPagesLimit;
+    }
+  }
+
   @Test
   public void bitwiseTest() {
     long initGlbAdr = 1099780063232L;
@@ -676,6 +743,37 @@ public class SchemaFileTest {
     ICachedMNodeContainer.getCachedMNodeContainer(par).updateMNode(childName);
   }
 
+  private IMNode getDevicesWithMeasurements(int deviceNum, int measurementNum) {
+    IMNode sgNode = new StorageGroupMNode(null, "sgRoot", 11111111L);
+    ICachedMNodeContainer.getCachedMNodeContainer(sgNode).setSegmentAddress(0L);
+    for (int i = 0; i < deviceNum; i++) {
+      IMNode device = new EntityMNode(sgNode, "dev_" + i);
+      sgNode.addChild(device);
+      for (int j = 0; j < measurementNum; j++) {
+        addMeasurementChild(device, "m_" + j);
+      }
+    }
+    return sgNode;
+  }
+
+  private void writeTree(ISchemaFile sf, IMNode root) throws MetadataException, IOException {
+    Iterator<IMNode> orderedTree = getTreeBFT(root);
+    while (orderedTree.hasNext()) {
+      IMNode node = orderedTree.next();
+      if (!node.isMeasurement()) {
+        sf.writeMNode(node);
+      }
+    }
+  }
+
+  private void checkMeasurements(ISchemaFile sf, IMNode device, int measurementNum)
+      throws MetadataException, IOException {
+    for (int j = 0; j < measurementNum; j++) {
+      IMNode measurement = sf.getChildNode(device, "m_" + j);
+      Assert.assertEquals("m_" + j + "alias", measurement.getAsMeasurementMNode().getAlias());
+    }
+  }
+
   private static long getSegAddrInContainer(IMNode par) {
     return ICachedMNodeContainer.getCachedMNodeContainer(par).getSegmentAddress();
   }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.mtree.schemafile;
+
+import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.ISchemaPage;
+import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.SchemaFile;
+import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.SchemaPage;
+import org.apache.iotdb.db.metadata.mtree.store.disk.schemafile.SchemaPageCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class SchemaPageCacheTest {
+
+  @Test
+  public void testScanResistance() {
+    SchemaPageCache cache = new SchemaPageCache();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, newPage(i));
+    }
+    // pages 0 to 4 are hit again, while the others are only touched once
+    for (int i = 0; i < 5; i++) {
+      Assert.assertNotNull(cache.get(i));
+    }
+
+    Assert.assertEquals(5, cache.evict(5, id -> true));
+    Assert.assertEquals(5, cache.size());
+    for (int i = 0; i < 5; i++) {
+      Assert.assertNotNull(cache.get(i));
+    }
+    for (int i = 5; i < 10; i++) {
+      Assert.assertNull(cache.get(i));
+    }
+  }
+
+  @Test
+  public void testEvictable() {
+    SchemaPageCache cache = new SchemaPageCache();
+    for (int i = 0; i < 10; i++) {
+      cache.put(i, newPage(i));
+    }
+
+    Assert.assertEquals(5, cache.evict(10, id -> id % 2 == 0));
+    Assert.assertEquals(5, cache.size());
+    for (int i = 1; i < 10; i += 2) {
+      Assert.assertNotNull(cache.get(i));
+    }
+    Assert.assertEquals(0, cache.evict(10, id -> id % 2 == 0));
+  }
+
+  @Test
+  public void testReplaceAndFind() {
+    SchemaPageCache cache = new SchemaPageCache();
+    ISchemaPage oldPage = newPage(1);
+    ISchemaPage newPage = newPage(1);
+    cache.put(1, oldPage);
+    cache.put(1, newPage);
+    Assert.assertEquals(1, cache.size());
+    Assert.assertSame(newPage, cache.get(1));
+    Assert.assertSame(newPage, cache.findPage(page -> page.getPageIndex() == 1));
+    Assert.assertNull(cache.findPage(page -> page.getPageIndex() == 2));
+
+    // the stale frame of the replaced page must not evict the new one
+    Assert.assertEquals(1, cache.evict(2, id -> true));
+    Assert.assertEquals(0, cache.size());
+  }
+
+  private ISchemaPage newPage(int index) {
+    return SchemaPage.initPage(ByteBuffer.allocate(SchemaFile.PAGE_LENGTH), index);
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.commons.exception.MetadataException;
+import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.metadata.mnode.EntityMNode;
+import org.apache.iotdb.db.metadata.mnode.IEntityMNode;
+import org.apache.iotdb.db.metadata.mnode.IMeasurementMNode;
+import org.apache.iotdb.db.metadata.mnode.InternalMNode;
+import org.apache.iotdb.db.metadata.mnode.MeasurementMNode;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TagManagerTest {
+
+  private File testFolder;
+  private TagManager tagManager;
+  private IEntityMNode device;
+
+  @Before
+  public void setUp() throws IOException {
+    testFolder = new File(TestConstant.BASE_OUTPUT_PATH.concat("tagManagerTest"));
+    testFolder.mkdirs();
+    tagManager = new TagManager(testFolder.getPath());
+    device = new EntityMNode(new InternalMNode(new InternalMNode(null, "root"), "sg"), "d");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    tagManager.clear();
+    FileUtils.deleteDirectory(testFolder);
+  }
+
+  @Test
+  public void testMatchExactly() throws MetadataException, IOException {
+    createTimeseries("s1", tags("unit", "cm", "owner", "a"));
+    createTimeseries("s2", tags("unit", "cm", "owner", "b"));
+    createTimeseries("s3", tags("unit", "m", "owner", "a"));
+
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s1", "root.sg.d.s2"),
+        tagManager.getMatchedTimeseriesInIndex("unit", "cm", false));
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s1", "root.sg.d.s3"),
+        tagManager.getMatchedTimeseriesInIndex("owner", "a", false));
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("unit", "c", false).isEmpty());
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("missing", "a", false).isEmpty());
+  }
+
+  @Test
+  public void testMatchContains() throws MetadataException, IOException {
+    IMeasurementMNode s1 = createTimeseries("s1", tags("city", "beijing"));
+    createTimeseries("s2", tags("city", "beihai"));
+    createTimeseries("s3", tags("city", "shanghai"));
+    createTimeseries("s4", tags("city", "be"));
+
+    // searched by the gram index
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s2", "root.sg.d.s3"),
+        tagManager.getMatchedTimeseriesInIndex("city", "hai", true));
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s3"),
+        tagManager.getMatchedTimeseriesInIndex("city", "anghai", true));
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s1"),
+        tagManager.getMatchedTimeseriesInIndex("city", "beijing", true));
+    // "haibei" has the gram "hai" of s2 and s3, but none of them contains it
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("city", "haibei", true).isEmpty());
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("city", "xyz", true).isEmpty());
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("country", "bei", true).isEmpty());
+
+    // shorter than a gram
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s1", "root.sg.d.s2", "root.sg.d.s4"),
+        tagManager.getMatchedTimeseriesInIndex("city", "be", true));
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s1", "root.sg.d.s2", "root.sg.d.s3", "root.sg.d.s4"),
+        tagManager.getMatchedTimeseriesInIndex("city", "", true));
+
+    // the grams of a removed value are removed
+    tagManager.removeFromTagInvertedIndex(s1);
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("city", "jing", true).isEmpty());
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s2"),
+        tagManager.getMatchedTimeseriesInIndex("city", "bei", true));
+  }
+
+  @Test
+  public void testReuseIdOfRemovedTimeseries() throws MetadataException, IOException {
+    IMeasurementMNode s1 = createTimeseries("s1", tags("unit", "cm", "owner", "a"));
+    createTimeseries("s2", tags("unit", "cm", "owner", "b"));
+
+    tagManager.removeFromTagInvertedIndex(s1);
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s2"),
+        tagManager.getMatchedTimeseriesInIndex("unit", "cm", false));
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("owner", "a", false).isEmpty());
+
+    // s3 takes the id released by s1, it must not show up in the postings s1 was removed from
+    createTimeseries("s3", tags("unit", "km"));
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s2"),
+        tagManager.getMatchedTimeseriesInIndex("unit", "cm", false));
+    Assert.assertTrue(tagManager.getMatchedTimeseriesInIndex("owner", "a", false).isEmpty());
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s3"),
+        tagManager.getMatchedTimeseriesInIndex("unit", "km", false));
+
+    // s1 is added again with another id
+    createTimeseries("s1", tags("unit", "cm", "owner", "a"));
+    Assert.assertEquals(
+        Collections.singletonList("root.sg.d.s1"),
+        tagManager.getMatchedTimeseriesInIndex("owner", "a", false));
+    Assert.assertEquals(
+        Arrays.asList("root.sg.d.s1", "root.sg.d.s2"),
+        tagManager.getMatchedTimeseriesInIndex("unit", "c", true));
+  }
+
+  private IMeasurementMNode createTimeseries(String measurement, Map<String, String> tags)
+      throws MetadataException, IOException {
+    IMeasurementMNode node =
+        MeasurementMNode.getMeasurementMNode(
+            device, measurement, new MeasurementSchema(measurement, TSDataType.INT64), null);
+    node.setOffset(tagManager.writeTagFile(tags, Collections.emptyMap()));
+    tagManager.addIndex(tags, node);
+    return node;
+  }
+
+  private static Map<String, String> tags(String... keyValues) {
+    Map<String, String> tags = new HashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      tags.put(keyValues[i], keyValues[i + 1]);
+    }
+    return tags;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.metadata.tag;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class TagPostingListTest {
+
+  private static List<Integer> toList(TagPostingList postingList) {
+    List<Integer> ids = new ArrayList<>();
+    postingList.forEach(ids::add);
+    return ids;
+  }
+
+  @Test
+  public void testAddAndRemove() {
+    Random random = new Random();
+    TagPostingList postingList = new TagPostingList();
+    TreeSet<Integer> expected = new TreeSet<>();
+    // dense enough in the first container to be converted to a bitmap
+    for (int i = 0; i < 20000; i++) {
+      int id = random.nextInt(1 << 17);
+      postingList.add(id);
+      expected.add(id);
+    }
+    Assert.assertEquals(expected.size(), postingList.getCardinality());
+    Assert.assertEquals(new ArrayList<>(expected), toList(postingList));
+
+    for (int i = 0; i < 15000; i++) {
+      int id = random.nextInt(1 << 17);
+      postingList.remove(id);
+      expected.remove(id);
+    }
+    Assert.assertEquals(expected.size(), postingList.getCardinality());
+    Assert.assertEquals(new ArrayList<>(expected), toList(postingList));
+    for (int id : expected) {
+      Assert.assertTrue(postingList.contains(id));
+    }
+
+    for (int id : expected) {
+      postingList.remove(id);
+    }
+    Assert.assertTrue(postingList.isEmpty());
+  }
+
+  @Test
+  public void testAddAndRemoveAroundThreshold() {
+    TagPostingList postingList = new TagPostingList();
+    for (int i = 0; i <= TagPostingList.ARRAY_CONTAINER_MAX_SIZE; i++) {
+      postingList.add(i * 2);
+    }
+    // stays a bitmap while the cardinality goes up and down around the threshold
+    for (int round = 0; round < 10; round++) {
+      postingList.remove(0);
+      Assert.assertFalse(postingList.contains(0));
+      postingList.add(0);
+      Assert.assertTrue(postingList.contains(0));
+    }
+    Assert.assertEquals(TagPostingList.ARRAY_CONTAINER_MAX_SIZE + 1, postingList.getCardinality());
+
+    // shrinks below the lower bound and becomes an array again
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i <= TagPostingList.ARRAY_CONTAINER_MAX_SIZE; i++) {
+      if (i < TagPostingList.BITMAP_CONTAINER_MIN_SIZE - 1) {
+        expected.add(i * 2);
+      } else {
+        postingList.remove(i * 2);
+      }
+    }
+    Assert.assertEquals(new ArrayList<>(expected), toList(postingList));
+    postingList.add(1);
+    expected.add(1);
+    Assert.assertEquals(new ArrayList<>(expected), toList(postingList));
+  }
+
+  @Test
+  public void testAndOr() {
+    TagPostingList multiplesOf2 = new TagPostingList();
+    TagPostingList multiplesOf3 = new TagPostingList();
+    TreeSet<Integer> and = new TreeSet<>();
+    TreeSet<Integer> or = new TreeSet<>();
+    for (int i = 0; i < 200000; i++) {
+      if (i % 2 == 0) {
+        multiplesOf2.add(i);
+        or.add(i);
+      }
+      // sparse in some containers and dense in others
+      if (i % 3 == 0 && (i >> 16) % 2 == 0 || i % 300 == 0) {
+        multiplesOf3.add(i);
+        or.add(i);
+        if (i % 2 == 0) {
+          and.add(i);
+        }
+      }
+    }
+    TagPostingList andResult = multiplesOf2.and(multiplesOf3);
+    TagPostingList orResult = multiplesOf2.or(multiplesOf3);
+    Assert.assertEquals(new ArrayList<>(and), toList(andResult));
+    Assert.assertEquals(new ArrayList<>(or), toList(orResult));
+
+    // the inputs are not changed
+    Assert.assertEquals(100000, multiplesOf2.getCardinality());
+    orResult.remove(0);
+    Assert.assertTrue(multiplesOf2.contains(0));
+    Assert.assertTrue(multiplesOf2.and(new TagPostingList()).isEmpty());
+  }
+}
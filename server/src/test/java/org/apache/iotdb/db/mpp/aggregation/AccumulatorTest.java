@@ -25,6 +25,7 @@ import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
 import org.apache.iotdb.tsfile.read.common.TimeRange;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.iotdb.tsfile.read.common.block.column.BinaryColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.Column;
 import org.apache.iotdb.tsfile.read.common.block.column.ColumnBuilder;
 import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumnBuilder;
@@ -36,7 +37,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class AccumulatorTest {
 
@@ -422,4 +425,129 @@ public class AccumulatorTest {
     sumAccumulator.outputFinal(finalResult);
     Assert.assertEquals(100d, finalResult.build().getDouble(0), 0.001);
   }
+
+  @Test
+  public void approxCountDistinctAccumulatorTest() {
+    Accumulator approxCountDistinctAccumulator =
+        AccumulatorFactory.createAccumulator(
+            AggregationType.APPROX_COUNT_DISTINCT, TSDataType.DOUBLE, true);
+    Assert.assertEquals(TSDataType.TEXT, approxCountDistinctAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.INT64, approxCountDistinctAccumulator.getFinalType());
+    // statistics can only be used if all the values are the same
+    Assert.assertTrue(approxCountDistinctAccumulator.canUseStatistics(statistics));
+    Assert.assertFalse(approxCountDistinctAccumulator.canUseStatistics(rangeStatistics()));
+    // check returning null while no data
+    ColumnBuilder[] intermediateResult = new ColumnBuilder[1];
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputIntermediate(intermediateResult);
+    Assert.assertTrue(intermediateResult[0].build().isNull(0));
+    ColumnBuilder finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(0, finalResult.build().getLong(0));
+
+    approxCountDistinctAccumulator.addInput(rawData.getTimeAndValueColumn(0), defaultTimeRange);
+    Assert.assertFalse(approxCountDistinctAccumulator.hasFinalResult());
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputIntermediate(intermediateResult);
+
+    // the same values are merged, so the number of distinct values is not changed
+    approxCountDistinctAccumulator.addIntermediate(new Column[] {intermediateResult[0].build()});
+    finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(100, finalResult.build().getLong(0), 2);
+
+    // the value of statistics is one of the raw values
+    approxCountDistinctAccumulator.addStatistics(statistics);
+    approxCountDistinctAccumulator.addStatistics(statistics);
+    finalResult = new LongColumnBuilder(null, 1);
+    approxCountDistinctAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(101, finalResult.build().getLong(0), 2);
+  }
+
+  @Test
+  public void approxMedianAccumulatorTest() {
+    Accumulator approxMedianAccumulator =
+        AccumulatorFactory.createAccumulator(
+            AggregationType.APPROX_MEDIAN, TSDataType.DOUBLE, true);
+    Assert.assertEquals(TSDataType.TEXT, approxMedianAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.DOUBLE, approxMedianAccumulator.getFinalType());
+    Assert.assertTrue(approxMedianAccumulator.canUseStatistics(statistics));
+    Assert.assertFalse(approxMedianAccumulator.canUseStatistics(rangeStatistics()));
+    // check returning null while no data
+    ColumnBuilder[] intermediateResult = new ColumnBuilder[1];
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxMedianAccumulator.outputIntermediate(intermediateResult);
+    Assert.assertTrue(intermediateResult[0].build().isNull(0));
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    approxMedianAccumulator.outputFinal(finalResult);
+    Assert.assertTrue(finalResult.build().isNull(0));
+
+    approxMedianAccumulator.addInput(rawData.getTimeAndValueColumn(0), defaultTimeRange);
+    Assert.assertFalse(approxMedianAccumulator.hasFinalResult());
+    intermediateResult[0] = new BinaryColumnBuilder(null, 1);
+    approxMedianAccumulator.outputIntermediate(intermediateResult);
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxMedianAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(49d, finalResult.build().getDouble(0), 0.001);
+
+    // add intermediate result as input
+    approxMedianAccumulator.addIntermediate(new Column[] {intermediateResult[0].build()});
+    finalResult = new DoubleColumnBuilder(null, 1);
+    approxMedianAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(49d, finalResult.build().getDouble(0), 0.001);
+  }
+
+  @Test
+  public void percentileAccumulatorTest() {
+    Map<String, String> attributes = new HashMap<>();
+    attributes.put(ApproxPercentileAccumulator.QUANTILE_ATTRIBUTE, "0.9");
+    Accumulator percentileAccumulator =
+        AccumulatorFactory.createAccumulator(
+            AggregationType.PERCENTILE, TSDataType.DOUBLE, attributes, true);
+    Assert.assertEquals(TSDataType.TEXT, percentileAccumulator.getIntermediateType()[0]);
+    Assert.assertEquals(TSDataType.DOUBLE, percentileAccumulator.getFinalType());
+
+    percentileAccumulator.addInput(rawData.getTimeAndValueColumn(0), defaultTimeRange);
+    ColumnBuilder finalResult = new DoubleColumnBuilder(null, 1);
+    percentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(89d, finalResult.build().getDouble(0), 0.001);
+
+    // 50 points of value 100 from statistics
+    Statistics constantStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    for (int i = 0; i < 50; i++) {
+      constantStatistics.update(100L + i, 100d);
+    }
+    Assert.assertTrue(percentileAccumulator.canUseStatistics(constantStatistics));
+    percentileAccumulator.addStatistics(constantStatistics);
+    finalResult = new DoubleColumnBuilder(null, 1);
+    percentileAccumulator.outputFinal(finalResult);
+    Assert.assertEquals(100d, finalResult.build().getDouble(0), 0.001);
+  }
+
+  @Test
+  public void percentileQuantileTest() {
+    Map<String, String> attributes = new HashMap<>();
+    try {
+      ApproxPercentileAccumulator.parseQuantile(attributes);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // quantile is required
+    }
+    attributes.put(ApproxPercentileAccumulator.QUANTILE_ATTRIBUTE, "1.5");
+    try {
+      ApproxPercentileAccumulator.parseQuantile(attributes);
+      Assert.fail();
+    } catch (IllegalArgumentException e) {
+      // quantile should be in [0, 1]
+    }
+    attributes.put(ApproxPercentileAccumulator.QUANTILE_ATTRIBUTE, "0.25");
+    Assert.assertEquals(0.25, ApproxPercentileAccumulator.parseQuantile(attributes), 0);
+  }
+
+  private Statistics rangeStatistics() {
+    Statistics rangeStatistics = Statistics.getStatsByType(TSDataType.DOUBLE);
+    rangeStatistics.update(1L, 1d);
+    rangeStatistics.update(2L, 2d);
+    return rangeStatistics;
+  }
 }
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.aggregation.sketch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class KLLSketchTest {
+
+  private static final int VALUE_NUM = 200_000;
+
+  // the expected rank error with the default k is about 1.65%, leave some room for randomness
+  private static final double RANK_ERROR = 0.03 * VALUE_NUM;
+
+  // 3k items of the default k and the level headers, far less than the offered values
+  private static final int MAX_SERIALIZED_SIZE = 1000 * Double.BYTES;
+
+  private static List<Double> shuffledValues(int from, int to) {
+    List<Double> values = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(to));
+    return values;
+  }
+
+  private static void assertQuantiles(KLLSketch sketch) {
+    for (double fraction : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+      Assert.assertEquals(fraction * VALUE_NUM, sketch.quantile(fraction), RANK_ERROR);
+    }
+  }
+
+  @Test
+  public void testCompaction() {
+    KLLSketch sketch = new KLLSketch();
+    for (double value : shuffledValues(0, VALUE_NUM)) {
+      sketch.offer(value);
+    }
+    assertQuantiles(sketch);
+    Assert.assertTrue(sketch.serialize().length < MAX_SERIALIZED_SIZE);
+  }
+
+  @Test
+  public void testMergeCompactedSketches() {
+    KLLSketch lower = new KLLSketch();
+    for (double value : shuffledValues(0, VALUE_NUM / 2)) {
+      lower.offer(value);
+    }
+    KLLSketch upper = new KLLSketch();
+    for (double value : shuffledValues(VALUE_NUM / 2, VALUE_NUM)) {
+      upper.offer(value);
+    }
+    Assert.assertEquals(VALUE_NUM / 4.0, lower.quantile(0.5), RANK_ERROR);
+    Assert.assertEquals(VALUE_NUM * 3 / 4.0, upper.quantile(0.5), RANK_ERROR);
+
+    lower.merge(upper);
+    assertQuantiles(lower);
+    Assert.assertTrue(lower.serialize().length < MAX_SERIALIZED_SIZE);
+
+    // the merged sketch is transferred as an intermediate result
+    KLLSketch deserialized = KLLSketch.deserialize(lower.serialize());
+    for (double fraction : new double[] {0.01, 0.25, 0.5, 0.75, 0.99}) {
+      Assert.assertEquals(lower.quantile(fraction), deserialized.quantile(fraction), 0);
+    }
+
+    lower.reset();
+    Assert.assertTrue(lower.isEmpty());
+    lower.offer(1);
+    Assert.assertEquals(1, lower.quantile(0.5), 0);
+  }
+}
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.mpp.execution.exchange;
 
 import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.column.TsBlockSerde;
 import org.apache.iotdb.tsfile.utils.Pair;
@@ -28,6 +29,7 @@ import com.google.common.util.concurrent.SettableFuture;
 import org.mockito.Mockito;
 import org.mockito.stubbing.Answer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
@@ -114,6 +116,14 @@ public class Utils {
     Mockito.when(mockTsBlock.getRetainedSizeInBytes()).thenReturn(mockTsBlockSize);
     Mockito.when(mockTsBlockSerde.deserialize(Mockito.any(ByteBuffer.class)))
         .thenReturn(mockTsBlock);
+    try {
+      Mockito.when(
+              mockTsBlockSerde.deserialize(
+                  Mockito.any(ByteBuffer.class), Mockito.any(CompressionType.class)))
+          .thenReturn(mockTsBlock);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
     return mockTsBlockSerde;
   }
 }
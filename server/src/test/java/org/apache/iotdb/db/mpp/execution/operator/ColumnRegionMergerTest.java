@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.AscTimeComparator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.ColumnRegionMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.DescTimeComparator;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.MultiColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.SingleColumnMerger;
+import org.apache.iotdb.db.mpp.execution.operator.process.join.merge.TimeComparator;
+import org.apache.iotdb.db.mpp.plan.planner.plan.parameter.InputLocation;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ColumnRegionMergerTest {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.INT32, TSDataType.INT32);
+
+  private static TsBlock buildInput(long... times) {
+    TsBlockBuilder builder = new TsBlockBuilder(Collections.singletonList(TSDataType.INT32));
+    for (long time : times) {
+      builder.getTimeColumnBuilder().writeLong(time);
+      builder.getColumnBuilder(0).writeInt((int) time * 10);
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private static ColumnRegionMerger createMerger(TimeComparator comparator) {
+    List<ColumnMerger> mergers =
+        Arrays.asList(
+            new SingleColumnMerger(new InputLocation(0, 0), comparator),
+            new SingleColumnMerger(new InputLocation(1, 0), comparator));
+    return new ColumnRegionMerger(2, mergers, DATA_TYPES, comparator);
+  }
+
+  /** both inputs have the same timestamps */
+  @Test
+  public void mergeIdenticalTest() {
+    ColumnRegionMerger merger = createMerger(new AscTimeComparator());
+    TsBlock[] inputTsBlocks = new TsBlock[] {buildInput(1, 2, 3, 4), buildInput(2, 3, 4, 5)};
+    int[] inputIndex = new int[] {1, 0};
+
+    TsBlock result = merger.tryMerge(inputTsBlocks, inputIndex, 4);
+
+    assertArrayEquals(new int[] {4, 3}, inputIndex);
+    assertEquals(3, result.getPositionCount());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(i + 2, result.getTimeByIndex(i));
+      assertEquals((i + 2) * 10, result.getColumn(0).getInt(i));
+      assertEquals((i + 2) * 10, result.getColumn(1).getInt(i));
+    }
+  }
+
+  /** the second input starts after currentEndTime */
+  @Test
+  public void mergeDisjointTest() {
+    ColumnRegionMerger merger = createMerger(new DescTimeComparator());
+    TsBlock[] inputTsBlocks = new TsBlock[] {buildInput(9, 8, 7), buildInput(3, 2)};
+    int[] inputIndex = new int[] {0, 0};
+
+    TsBlock result = merger.tryMerge(inputTsBlocks, inputIndex, 7);
+
+    assertArrayEquals(new int[] {3, 0}, inputIndex);
+    assertEquals(3, result.getPositionCount());
+    for (int i = 0; i < 3; i++) {
+      assertEquals(9 - i, result.getTimeByIndex(i));
+      assertEquals((9 - i) * 10, result.getColumn(0).getInt(i));
+      assertTrue(result.getColumn(1).isNull(i));
+    }
+  }
+
+  /** the inputs overlap with different timestamps */
+  @Test
+  public void mergeOverlappedTest() {
+    ColumnRegionMerger merger = createMerger(new AscTimeComparator());
+    TsBlock[] inputTsBlocks = new TsBlock[] {buildInput(1, 3, 5), buildInput(2, 4, 6)};
+    int[] inputIndex = new int[] {0, 0};
+
+    assertNull(merger.tryMerge(inputTsBlocks, inputIndex, 5));
+    assertArrayEquals(new int[] {0, 0}, inputIndex);
+  }
+
+  /** an output column merged from several inputs is not supported */
+  @Test
+  public void multiColumnMergerTest() {
+    AscTimeComparator comparator = new AscTimeComparator();
+    List<ColumnMerger> mergers =
+        Collections.singletonList(
+            new MultiColumnMerger(Arrays.asList(new InputLocation(0, 0), new InputLocation(1, 0))));
+    ColumnRegionMerger merger =
+        new ColumnRegionMerger(2, mergers, Collections.singletonList(TSDataType.INT32), comparator);
+    TsBlock[] inputTsBlocks = new TsBlock[] {buildInput(1, 2), buildInput(1, 2)};
+
+    assertNull(merger.tryMerge(inputTsBlocks, new int[] {0, 0}, 2));
+  }
+}
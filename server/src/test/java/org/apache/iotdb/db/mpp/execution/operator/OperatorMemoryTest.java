@@ -30,6 +30,7 @@ import org.apache.iotdb.db.mpp.common.PlanFragmentId;
 import org.apache.iotdb.db.mpp.common.QueryId;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
 import org.apache.iotdb.db.mpp.execution.operator.process.AggregationOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.DeviceMergeOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.DeviceViewOperator;
@@ -51,6 +52,7 @@ import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryMergeOpe
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQueryOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.LastQuerySortOperator;
 import org.apache.iotdb.db.mpp.execution.operator.process.last.UpdateLastCacheOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortUtil;
 import org.apache.iotdb.db.mpp.execution.operator.schema.CountMergeOperator;
 import org.apache.iotdb.db.mpp.execution.operator.schema.DevicesCountOperator;
 import org.apache.iotdb.db.mpp.execution.operator.schema.DevicesSchemaScanOperator;
@@ -443,10 +445,43 @@ public class OperatorMemoryTest {
 
   @Test
   public void sortOperatorTest() {
-    SortOperator sortOperator = new SortOperator();
-    assertEquals(0, sortOperator.calculateMaxPeekMemory());
-    assertEquals(0, sortOperator.calculateMaxReturnSize());
-    assertEquals(0, sortOperator.calculateRetainedSizeAfterCallingNext());
+    ExecutorService instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try {
+      QueryId queryId = new QueryId("stub_query");
+      FragmentInstanceId instanceId =
+          new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+      FragmentInstanceStateMachine stateMachine =
+          new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+      FragmentInstanceContext fragmentInstanceContext =
+          createFragmentInstanceContext(instanceId, stateMachine);
+      PlanNodeId planNodeId = new PlanNodeId("1");
+      fragmentInstanceContext.addOperatorContext(1, planNodeId, SortOperator.class.getSimpleName());
+
+      Operator child = Mockito.mock(Operator.class);
+      Mockito.when(child.calculateMaxPeekMemory()).thenReturn(2 * 1024L);
+      Mockito.when(child.calculateMaxReturnSize()).thenReturn(1024L);
+      Mockito.when(child.calculateRetainedSizeAfterCallingNext()).thenReturn(512L);
+
+      SortOperator sortOperator =
+          new SortOperator(
+              fragmentInstanceContext.getOperatorContexts().get(0),
+              child,
+              Collections.singletonList(TSDataType.INT32),
+              SortUtil.getTimeComparator(Ordering.ASC),
+              new MemoryPool("test", 64 * 1024 * 1024L, 64 * 1024 * 1024L),
+              32 * 1024 * 1024L,
+              "target");
+
+      // the sort buffer is reserved from the MemoryPool at runtime, so it is not estimated here
+      assertEquals(
+          2 * 1024L + 512L + DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES,
+          sortOperator.calculateMaxPeekMemory());
+      assertEquals(DEFAULT_MAX_TSBLOCK_SIZE_IN_BYTES, sortOperator.calculateMaxReturnSize());
+      assertEquals(512L, sortOperator.calculateRetainedSizeAfterCallingNext());
+    } finally {
+      instanceNotificationExecutor.shutdown();
+    }
   }
 
   @Test
@@ -0,0 +1,264 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.execution.operator;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.mpp.common.FragmentInstanceId;
+import org.apache.iotdb.db.mpp.common.PlanFragmentId;
+import org.apache.iotdb.db.mpp.common.QueryId;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.mpp.execution.memory.MemoryPool;
+import org.apache.iotdb.db.mpp.execution.operator.process.SortOperator;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.MergeSortKey;
+import org.apache.iotdb.db.mpp.execution.operator.process.sort.SortUtil;
+import org.apache.iotdb.db.mpp.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.mpp.plan.statement.component.Ordering;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import static org.apache.iotdb.db.mpp.execution.fragment.FragmentInstanceContext.createFragmentInstanceContext;
+import static org.apache.iotdb.db.mpp.execution.operator.AggregationOperatorTest.TEST_TIME_SLICE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SortOperatorTest {
+
+  private static final String SPILL_DIRECTORY =
+      "target" + File.separator + "SortOperatorTest" + File.separator + "1";
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE);
+
+  private static final int BLOCK_COUNT = 20;
+  private static final int ROWS_PER_BLOCK = 500;
+
+  private ExecutorService instanceNotificationExecutor;
+
+  @Before
+  public void setUp() {
+    instanceNotificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    instanceNotificationExecutor.shutdown();
+    FileUtils.deleteDirectory(new File(SPILL_DIRECTORY).getParentFile());
+  }
+
+  @Test
+  public void sortByTimeInMemoryTest() throws Exception {
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024L, 1024 * 1024 * 1024L);
+    SortOperator sortOperator =
+        createSortOperator(
+            SortUtil.getTimeComparator(Ordering.DESC), memoryPool, 1024 * 1024 * 1024L);
+
+    long lastTime = Long.MAX_VALUE;
+    int count = 0;
+    while (sortOperator.hasNext()) {
+      TsBlock tsBlock = sortOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        long time = tsBlock.getTimeByIndex(i);
+        assertTrue(time < lastTime);
+        // each row is output along with its own values
+        assertEquals(time, tsBlock.getColumn(0).getLong(i));
+        lastTime = time;
+        count++;
+      }
+    }
+    assertEquals(BLOCK_COUNT * ROWS_PER_BLOCK, count);
+    assertFalse(new File(SPILL_DIRECTORY).exists());
+    assertTrue(memoryPool.getQueryMemoryReservedBytes("stub_query") > 0);
+
+    sortOperator.close();
+    assertEquals(0, memoryPool.getQueryMemoryReservedBytes("stub_query"));
+  }
+
+  @Test
+  public void sortByValueWithSpillTest() throws Exception {
+    MemoryPool memoryPool = new MemoryPool("test", 1024 * 1024 * 1024L, 1024 * 1024 * 1024L);
+    // sort by the double column desc, then by time asc
+    Comparator<MergeSortKey> comparator =
+        SortUtil.getComparator(
+            Arrays.asList(1, SortUtil.TIME_COLUMN_INDEX),
+            Arrays.asList(Ordering.DESC, Ordering.ASC),
+            DATA_TYPES);
+    // the buffer can only hold about two input TsBlocks
+    SortOperator sortOperator = createSortOperator(comparator, memoryPool, 64 * 1024L);
+
+    Double lastValue = null;
+    long lastTime = Long.MIN_VALUE;
+    boolean metNull = false;
+    int count = 0;
+    while (sortOperator.hasNext()) {
+      TsBlock tsBlock = sortOperator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      if (count == 0 && tsBlock.getPositionCount() > 0) {
+        assertTrue(new File(SPILL_DIRECTORY).exists());
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        long time = tsBlock.getTimeByIndex(i);
+        assertEquals(time, tsBlock.getColumn(0).getLong(i));
+        if (tsBlock.getColumn(1).isNull(i)) {
+          // null values are placed at last
+          assertEquals(0, time % 7);
+          if (metNull) {
+            assertTrue(time > lastTime);
+          }
+          metNull = true;
+        } else {
+          assertFalse(metNull);
+          double value = tsBlock.getColumn(1).getDouble(i);
+          assertEquals(time % 100, value, 0);
+          if (lastValue != null) {
+            assertTrue(value <= lastValue);
+            if (value == lastValue) {
+              assertTrue(time > lastTime);
+            }
+          }
+          lastValue = value;
+        }
+        lastTime = time;
+        count++;
+      }
+    }
+    assertEquals(BLOCK_COUNT * ROWS_PER_BLOCK, count);
+    assertTrue(memoryPool.getQueryMemoryReservedBytes("stub_query") <= 64 * 1024L);
+
+    sortOperator.close();
+    assertFalse(new File(SPILL_DIRECTORY).exists());
+    assertEquals(0, memoryPool.getQueryMemoryReservedBytes("stub_query"));
+  }
+
+  private SortOperator createSortOperator(
+      Comparator<MergeSortKey> comparator, MemoryPool memoryPool, long sortBufferSize) {
+    QueryId queryId = new QueryId("stub_query");
+    FragmentInstanceId instanceId =
+        new FragmentInstanceId(new PlanFragmentId(queryId, 0), "stub-instance");
+    FragmentInstanceStateMachine stateMachine =
+        new FragmentInstanceStateMachine(instanceId, instanceNotificationExecutor);
+    FragmentInstanceContext fragmentInstanceContext =
+        createFragmentInstanceContext(instanceId, stateMachine);
+    PlanNodeId planNodeId = new PlanNodeId("1");
+    fragmentInstanceContext.addOperatorContext(1, planNodeId, SortOperator.class.getSimpleName());
+    OperatorContext operatorContext = fragmentInstanceContext.getOperatorContexts().get(0);
+    operatorContext.setMaxRunTime(TEST_TIME_SLICE);
+
+    return new SortOperator(
+        operatorContext,
+        new ShuffledInputOperator(),
+        DATA_TYPES,
+        comparator,
+        memoryPool,
+        sortBufferSize,
+        SPILL_DIRECTORY);
+  }
+
+  /**
+   * Outputs the times [0, BLOCK_COUNT * ROWS_PER_BLOCK) in a random order, with value columns
+   * (time, time % 100). The double value is null if time % 7 == 0.
+   */
+  private static class ShuffledInputOperator implements Operator {
+
+    private final long[] times;
+    private int index = 0;
+
+    private ShuffledInputOperator() {
+      times = new long[BLOCK_COUNT * ROWS_PER_BLOCK];
+      for (int i = 0; i < times.length; i++) {
+        times[i] = i;
+      }
+      Random random = new Random(2022);
+      for (int i = times.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        long tmp = times[i];
+        times[i] = times[j];
+        times[j] = tmp;
+      }
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return null;
+    }
+
+    @Override
+    public TsBlock next() {
+      TsBlockBuilder builder = new TsBlockBuilder(DATA_TYPES);
+      for (int i = 0; i < ROWS_PER_BLOCK; i++, index++) {
+        long time = times[index];
+        builder.getTimeColumnBuilder().writeLong(time);
+        builder.getColumnBuilder(0).writeLong(time);
+        if (time % 7 == 0) {
+          builder.getColumnBuilder(1).appendNull();
+        } else {
+          builder.getColumnBuilder(1).writeDouble(time % 100);
+        }
+        builder.declarePosition();
+      }
+      return builder.build();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < times.length;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return !hasNext();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 0;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 0;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.mpp.execution.schedule.queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class MultilevelFeedbackQueueTest {
+
+  private static final long TIME_SLICE = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /** the value of an element is regarded as its accumulated CPU time in nanoseconds */
+  private static MultilevelFeedbackQueue<QueueElement> createQueue(int maxCapacity) {
+    return new MultilevelFeedbackQueue<>(
+        maxCapacity,
+        2,
+        TIME_SLICE,
+        QueueElement::getValue,
+        new QueueElement(new QueueElement.QueueElementID(0), 0));
+  }
+
+  @Test
+  public void testPollBlocked() throws InterruptedException {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10);
+    List<QueueElement> res = Collections.synchronizedList(new ArrayList<>());
+    Thread t1 =
+        new Thread(
+            () -> {
+              try {
+                res.add(queue.poll());
+              } catch (InterruptedException e) {
+                e.printStackTrace();
+                Assert.fail();
+              }
+            });
+    t1.start();
+    Thread.sleep(100);
+    Assert.assertEquals(Thread.State.WAITING, t1.getState());
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(1), 1);
+    queue.push(e2);
+    t1.join(1000);
+    Assert.assertEquals(Thread.State.TERMINATED, t1.getState());
+    Assert.assertEquals(1, res.size());
+    Assert.assertEquals(e2.getId().toString(), res.get(0).getId().toString());
+  }
+
+  @Test
+  public void testPushExceedCapacity() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(1);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(2), 2));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // ignore;
+    }
+    Assert.assertEquals(1, queue.size());
+  }
+
+  @Test
+  public void testPushDuplicated() {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10);
+    queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+    try {
+      queue.push(new QueueElement(new QueueElement.QueueElementID(1), 1));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      // ignore;
+    }
+  }
+
+  @Test
+  public void testRemoveAndGet() throws InterruptedException {
+    IndexedBlockingQueue<QueueElement> queue = createQueue(10);
+    QueueElement e1 = new QueueElement(new QueueElement.QueueElementID(1), 1);
+    QueueElement e2 = new QueueElement(new QueueElement.QueueElementID(2), 2);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(e1, queue.get(e1.getId()));
+    Assert.assertEquals(e1, queue.remove(e1.getId()));
+    Assert.assertNull(queue.get(e1.getId()));
+    Assert.assertNull(queue.remove(e1.getId()));
+    Assert.assertEquals(1, queue.size());
+    // the removed element is skipped
+    Assert.assertEquals(e2, queue.poll());
+    Assert.assertEquals(0, queue.size());
+
+    // an element can be pushed again after removed
+    queue.push(e1);
+    Assert.assertEquals(e1, queue.poll());
+  }
+
+  @Test
+  public void testDemoteAndPromote() throws InterruptedException {
+    MultilevelFeedbackQueue<QueueElement> queue = createQueue(10);
+    QueueElement.QueueElementID id = new QueueElement.QueueElementID(1);
+    long cpuTime = 0;
+    queue.push(new QueueElement(id, (int) cpuTime));
+    Assert.assertEquals(0, queue.getLevel(id));
+    queue.poll();
+
+    // the budget of level 0 is 1 second
+    cpuTime += TimeUnit.MILLISECONDS.toNanos(500);
+    queue.push(new QueueElement(id, (int) cpuTime));
+    Assert.assertEquals(0, queue.getLevel(id));
+    queue.poll();
+    cpuTime += TimeUnit.MILLISECONDS.toNanos(600);
+    queue.push(new QueueElement(id, (int) cpuTime));
+    Assert.assertEquals(1, queue.getLevel(id));
+    queue.poll();
+
+    // yields in less than half a time slice, promoted
+    cpuTime += TIME_SLICE / 4;
+    queue.push(new QueueElement(id, (int) cpuTime));
+    Assert.assertEquals(0, queue.getLevel(id));
+  }
+
+  @Test
+  public void testLowerLevelFirst() throws InterruptedException {
+    MultilevelFeedbackQueue<QueueElement> queue = createQueue(10);
+    QueueElement.QueueElementID longId = new QueueElement.QueueElementID(1);
+    queue.push(new QueueElement(longId, 0));
+    queue.poll();
+    // demote the long running element to level 1
+    queue.push(new QueueElement(longId, (int) TimeUnit.SECONDS.toNanos(2)));
+    Assert.assertEquals(1, queue.getLevel(longId));
+    QueueElement shortElement = new QueueElement(new QueueElement.QueueElementID(2), 0);
+    queue.push(shortElement);
+    // level 0 has used the CPU time of 2s, while level 1 has used nothing
+    Assert.assertEquals(longId, queue.poll().getId());
+    Assert.assertEquals(shortElement, queue.poll());
+  }
+
+  @Test
+  public void testConcurrentPushAndPoll() throws InterruptedException {
+    MultilevelFeedbackQueue<QueueElement> queue = createQueue(1000);
+    int elementNum = 1000;
+    Set<Integer> polled = Collections.synchronizedSet(new HashSet<>());
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      int start = i * (elementNum / 4);
+      threads.add(
+          new Thread(
+              () -> {
+                try {
+                  for (int j = 0; j < elementNum / 4; j++) {
+                    queue.push(new QueueElement(new QueueElement.QueueElementID(start + j), 0));
+                    QueueElement element = queue.poll();
+                    Assert.assertTrue(
+                        polled.add(((QueueElement.QueueElementID) element.getId()).getId()));
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+              }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(elementNum, polled.size());
+    Assert.assertEquals(0, queue.size());
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.mpp.plan.plan.distribution;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
@@ -92,6 +93,80 @@ public class AggregationDistributionTest {
         f -> verifyAggregationStep(expectedStep, f.getFragment().getPlanNodeTree()));
   }
 
+  @Test
+  public void testAggregation1SeriesSplitByTimeRange() throws IllegalPathException {
+    int prevMaxSeriesScanSplitNum =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanSplitNum();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(2);
+    try {
+      QueryId queryId = new QueryId("test_query_aggregation_split_by_time_range");
+      String d2s1Path = "root.sg.d22.s1";
+      PlanNode root = genAggregationSourceNode(queryId, d2s1Path, AggregationType.COUNT);
+
+      Analysis analysis = Util.constructAnalysis();
+      Util.setTimePartitionSlots(analysis, "root.sg.d22", 4);
+      MPPQueryContext context =
+          new MPPQueryContext("", queryId, null, new TEndPoint(), new TEndPoint());
+      DistributionPlanner planner =
+          new DistributionPlanner(analysis, new LogicalQueryPlan(context, root));
+      DistributedQueryPlan plan = planner.planFragments();
+      assertEquals(2, plan.getInstances().size());
+      PlanNode rootFragmentRoot = plan.getInstances().get(0).getFragment().getPlanNodeTree();
+      assertTrue(rootFragmentRoot.getChildren().get(0) instanceof AggregationNode);
+      Map<String, AggregationStep> expectedStep = new HashMap<>();
+      expectedStep.put(d2s1Path, AggregationStep.PARTIAL);
+      plan.getInstances()
+          .forEach(f -> verifyAggregationStep(expectedStep, f.getFragment().getPlanNodeTree()));
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(prevMaxSeriesScanSplitNum);
+    }
+  }
+
+  @Test
+  public void testAggregation1SeriesWithSlidingWindowSplitByTimeRange()
+      throws IllegalPathException {
+    int prevMaxSeriesScanSplitNum =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanSplitNum();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(2);
+    try {
+      QueryId queryId = new QueryId("test_query_aggregation_sliding_split_by_time_range");
+      String d2s1Path = "root.sg.d22.s1";
+      SlidingWindowAggregationNode slidingWindowAggregationNode =
+          genSlidingWindowAggregationNode(
+              queryId,
+              Collections.singletonList(new PartialPath(d2s1Path)),
+              AggregationType.COUNT,
+              AggregationStep.FINAL,
+              null);
+      slidingWindowAggregationNode.addChild(
+          genAggregationSourceNode(
+              queryId, d2s1Path, AggregationType.COUNT, AggregationStep.PARTIAL));
+
+      Analysis analysis = Util.constructAnalysis();
+      Util.setTimePartitionSlots(analysis, "root.sg.d22", 4);
+      MPPQueryContext context =
+          new MPPQueryContext("", queryId, null, new TEndPoint(), new TEndPoint());
+      DistributionPlanner planner =
+          new DistributionPlanner(
+              analysis, new LogicalQueryPlan(context, slidingWindowAggregationNode));
+      DistributedQueryPlan plan = planner.planFragments();
+      assertEquals(2, plan.getInstances().size());
+      Map<String, AggregationStep> expectedStep = new HashMap<>();
+      expectedStep.put(d2s1Path, AggregationStep.PARTIAL);
+      plan.getInstances()
+          .forEach(f -> verifyAggregationStep(expectedStep, f.getFragment().getPlanNodeTree()));
+      PlanNode rootFragmentRoot = plan.getInstances().get(0).getFragment().getPlanNodeTree();
+      assertTrue(rootFragmentRoot.getChildren().get(0) instanceof SlidingWindowAggregationNode);
+      PlanNode aggregationNode = rootFragmentRoot.getChildren().get(0).getChildren().get(0);
+      assertTrue(aggregationNode instanceof AggregationNode);
+      ((AggregationNode) aggregationNode)
+          .getAggregationDescriptorList()
+          .forEach(d -> assertEquals(AggregationStep.INTERMEDIATE, d.getStep()));
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(prevMaxSeriesScanSplitNum);
+    }
+  }
+
   private void verifyAggregationStep(Map<String, AggregationStep> expected, PlanNode root) {
     if (root == null) {
       return;
@@ -681,11 +756,17 @@ public class AggregationDistributionTest {
 
   private SeriesAggregationSourceNode genAggregationSourceNode(
       QueryId queryId, String path, AggregationType type) throws IllegalPathException {
+    return genAggregationSourceNode(queryId, path, type, AggregationStep.FINAL);
+  }
+
+  private SeriesAggregationSourceNode genAggregationSourceNode(
+      QueryId queryId, String path, AggregationType type, AggregationStep step)
+      throws IllegalPathException {
     List<AggregationDescriptor> descriptors = new ArrayList<>();
     descriptors.add(
         new AggregationDescriptor(
             type.name().toLowerCase(),
-            AggregationStep.FINAL,
+            step,
             Collections.singletonList(new TimeSeriesOperand(new PartialPath(path)))));
 
     return new SeriesAggregationScanNode(
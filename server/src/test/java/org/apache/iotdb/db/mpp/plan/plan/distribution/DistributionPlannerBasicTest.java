@@ -22,6 +22,8 @@ package org.apache.iotdb.db.mpp.plan.plan.distribution;
 import org.apache.iotdb.common.rpc.thrift.TEndPoint;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngineV2;
 import org.apache.iotdb.db.metadata.path.AlignedPath;
 import org.apache.iotdb.db.metadata.path.MeasurementPath;
 import org.apache.iotdb.db.mpp.common.MPPQueryContext;
@@ -51,6 +53,8 @@ import org.junit.Test;
 import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class DistributionPlannerBasicTest {
 
@@ -92,6 +96,46 @@ public class DistributionPlannerBasicTest {
     assertEquals(2, rootAfterRewrite.getChildren().size());
   }
 
+  @Test
+  public void testSingleSeriesScanSplitByTimeRange() throws IllegalPathException {
+    int prevMaxSeriesScanSplitNum =
+        IoTDBDescriptor.getInstance().getConfig().getMaxSeriesScanSplitNum();
+    IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(2);
+    try {
+      QueryId queryId = new QueryId("test_query");
+      SeriesScanNode root =
+          new SeriesScanNode(
+              queryId.genPlanNodeId(),
+              new MeasurementPath("root.sg.d22.s1", TSDataType.INT32),
+              Ordering.ASC);
+
+      Analysis analysis = Util.constructAnalysis();
+      Util.setTimePartitionSlots(analysis, "root.sg.d22", 3);
+
+      MPPQueryContext context =
+          new MPPQueryContext("", queryId, null, new TEndPoint(), new TEndPoint());
+      DistributionPlanner planner =
+          new DistributionPlanner(analysis, new LogicalQueryPlan(context, root));
+      PlanNode rootAfterRewrite = planner.rewriteSource();
+      assertTrue(rootAfterRewrite instanceof TimeJoinNode);
+      assertEquals(2, rootAfterRewrite.getChildren().size());
+      long boundary = StorageEngineV2.getTimePartitionInterval();
+      SeriesScanNode firstSplit = (SeriesScanNode) rootAfterRewrite.getChildren().get(0);
+      assertTrue(firstSplit.getTimeFilter().satisfy(boundary - 1, null));
+      assertFalse(firstSplit.getTimeFilter().satisfy(boundary, null));
+      SeriesScanNode secondSplit = (SeriesScanNode) rootAfterRewrite.getChildren().get(1);
+      assertFalse(secondSplit.getTimeFilter().satisfy(boundary - 1, null));
+      assertTrue(secondSplit.getTimeFilter().satisfy(boundary, null));
+
+      // the splits are in the same DataRegion but should be executed by separate instances
+      PlanNode rootWithExchange = planner.addExchangeNode(rootAfterRewrite);
+      assertTrue(rootWithExchange.getChildren().get(0) instanceof SeriesScanNode);
+      assertTrue(rootWithExchange.getChildren().get(1) instanceof ExchangeNode);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setMaxSeriesScanSplitNum(prevMaxSeriesScanSplitNum);
+    }
+  }
+
   @Test
   public void testRewriteSourceNode() throws IllegalPathException {
     QueryId queryId = new QueryId("test_query");
@@ -32,12 +32,14 @@ import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.partition.executor.SeriesPartitionExecutor;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.engine.StorageEngineV2;
 import org.apache.iotdb.db.mpp.plan.analyze.Analysis;
 import org.apache.iotdb.db.mpp.plan.expression.Expression;
 import org.apache.iotdb.db.mpp.plan.expression.leaf.TimeSeriesOperand;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -188,6 +190,27 @@ public class Util {
     return analysis;
   }
 
+  /** Let the data of the device be stored in slotNum time partitions of its first DataRegion. */
+  public static void setTimePartitionSlots(Analysis analysis, String device, int slotNum) {
+    SeriesPartitionExecutor executor =
+        SeriesPartitionExecutor.getSeriesPartitionExecutor(
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionExecutorClass(),
+            IoTDBDescriptor.getInstance().getConfig().getSeriesPartitionSlotNum());
+    DataPartition dataPartition = analysis.getDataPartitionInfo();
+    TRegionReplicaSet dataRegion = dataPartition.getDataRegionReplicaSet(device, null).get(0);
+
+    Map<TTimePartitionSlot, List<TRegionReplicaSet>> dataRegionMap = new HashMap<>();
+    for (int i = 0; i < slotNum; i++) {
+      dataRegionMap.put(
+          new TTimePartitionSlot(i * StorageEngineV2.getTimePartitionInterval()),
+          Collections.singletonList(dataRegion));
+    }
+    dataPartition
+        .getDataPartitionMap()
+        .get("root.sg")
+        .put(executor.getSeriesPartitionSlot(device), dataRegionMap);
+  }
+
   private static TDataNodeLocation genDataNodeLocation(int dataNodeId, String ip) {
     return new TDataNodeLocation()
         .setDataNodeId(dataNodeId)
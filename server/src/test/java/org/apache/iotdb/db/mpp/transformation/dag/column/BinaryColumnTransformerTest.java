@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.mpp.transformation.dag.column;
+
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.ArithmeticAdditionColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.ArithmeticMultiplicationColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.CompareGreaterThanColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.CompareNonEqualColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.LogicAndColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.binary.LogicOrColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.IdentityColumnTransformer;
+import org.apache.iotdb.db.mpp.transformation.dag.column.leaf.LeafColumnTransformer;
+import org.apache.iotdb.tsfile.read.common.block.column.BooleanColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.Column;
+import org.apache.iotdb.tsfile.read.common.block.column.DoubleColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.IntColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.LongColumn;
+import org.apache.iotdb.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.iotdb.tsfile.read.common.type.BooleanType;
+import org.apache.iotdb.tsfile.read.common.type.DoubleType;
+import org.apache.iotdb.tsfile.read.common.type.IntType;
+import org.apache.iotdb.tsfile.read.common.type.LongType;
+import org.apache.iotdb.tsfile.read.common.type.Type;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class BinaryColumnTransformerTest {
+
+  @Test
+  public void testArithmetic() {
+    Column left =
+        new LongColumn(
+            4, Optional.of(new boolean[] {false, true, false, false}), new long[] {1, 2, 3, 4});
+    // a region of a larger column, so the arrays do not start at the first position
+    Column right =
+        new IntColumn(5, Optional.empty(), new int[] {100, 10, 20, 30, 40}).getRegion(1, 4);
+    Column result =
+        evaluate(
+            new ArithmeticMultiplicationColumnTransformer(
+                DoubleType.getInstance(),
+                leaf(LongType.getInstance(), left),
+                leaf(IntType.getInstance(), right)));
+    Assert.assertEquals(4, result.getPositionCount());
+    Assert.assertEquals(10.0, result.getDouble(0), 0);
+    Assert.assertTrue(result.isNull(1));
+    Assert.assertEquals(90.0, result.getDouble(2), 0);
+    Assert.assertEquals(160.0, result.getDouble(3), 0);
+
+    // no null in either operand
+    Column constant =
+        new RunLengthEncodedColumn(
+            new DoubleColumn(1, Optional.of(new boolean[] {false}), new double[] {0.5}), 4);
+    result =
+        evaluate(
+            new ArithmeticAdditionColumnTransformer(
+                DoubleType.getInstance(),
+                leaf(IntType.getInstance(), right),
+                leaf(DoubleType.getInstance(), constant)));
+    Assert.assertFalse(result.mayHaveNull());
+    Assert.assertArrayEquals(
+        new double[] {10.5, 20.5, 30.5, 40.5},
+        new double[] {
+          result.getDouble(0), result.getDouble(1), result.getDouble(2), result.getDouble(3)
+        },
+        0);
+  }
+
+  @Test
+  public void testCompare() {
+    Column left =
+        new DoubleColumn(
+            4,
+            Optional.of(new boolean[] {false, false, true, false}),
+            new double[] {1.5, Double.NaN, 0, 3.0});
+    Column right =
+        new RunLengthEncodedColumn(
+            new LongColumn(1, Optional.of(new boolean[] {false}), new long[] {2}), 4);
+
+    Column result =
+        evaluate(
+            new CompareGreaterThanColumnTransformer(
+                BooleanType.getInstance(),
+                leaf(DoubleType.getInstance(), left),
+                leaf(LongType.getInstance(), right)));
+    Assert.assertFalse(result.getBoolean(0));
+    Assert.assertFalse(result.getBoolean(1));
+    Assert.assertTrue(result.isNull(2));
+    Assert.assertTrue(result.getBoolean(3));
+
+    // NaN is not equal to anything, but is not unequal either
+    result =
+        evaluate(
+            new CompareNonEqualColumnTransformer(
+                BooleanType.getInstance(),
+                leaf(DoubleType.getInstance(), left),
+                leaf(LongType.getInstance(), right)));
+    Assert.assertTrue(result.getBoolean(0));
+    Assert.assertFalse(result.getBoolean(1));
+    Assert.assertTrue(result.isNull(2));
+    Assert.assertTrue(result.getBoolean(3));
+  }
+
+  @Test
+  public void testLogic() {
+    Column left =
+        new BooleanColumn(
+            4,
+            Optional.of(new boolean[] {false, true, false, true}),
+            new boolean[] {true, false, true, false});
+    Column right =
+        new BooleanColumn(
+            4,
+            Optional.of(new boolean[] {false, false, true, true}),
+            new boolean[] {true, true, false, false});
+
+    Column result =
+        evaluate(
+            new LogicAndColumnTransformer(
+                BooleanType.getInstance(),
+                leaf(BooleanType.getInstance(), left),
+                leaf(BooleanType.getInstance(), right)));
+    Assert.assertTrue(result.getBoolean(0));
+    Assert.assertFalse(result.getBoolean(1));
+    Assert.assertFalse(result.getBoolean(2));
+    Assert.assertTrue(result.isNull(3));
+
+    result =
+        evaluate(
+            new LogicOrColumnTransformer(
+                BooleanType.getInstance(),
+                leaf(BooleanType.getInstance(), left),
+                leaf(BooleanType.getInstance(), right)));
+    Assert.assertTrue(result.getBoolean(0));
+    Assert.assertTrue(result.getBoolean(1));
+    Assert.assertTrue(result.getBoolean(2));
+    Assert.assertTrue(result.isNull(3));
+  }
+
+  private static LeafColumnTransformer leaf(Type type, Column column) {
+    LeafColumnTransformer leaf = new IdentityColumnTransformer(type, 0);
+    leaf.addReferenceCount();
+    leaf.initializeColumnCache(column);
+    return leaf;
+  }
+
+  private static Column evaluate(ColumnTransformer columnTransformer) {
+    columnTransformer.addReferenceCount();
+    columnTransformer.tryEvaluate();
+    return columnTransformer.getColumn();
+  }
+}
@@ -22,7 +22,10 @@ import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.constant.TestConstant;
+import org.apache.iotdb.db.engine.compaction.utils.CompactionFileGeneratorUtils;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.read.TsFileSequenceReader;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -31,6 +34,12 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.fail;
 
@@ -134,4 +143,70 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testMappedReader() throws Exception {
+    boolean mmapTsFileReadEnable = dbConfig.isMmapTsFileReadEnable();
+    long mmapTsFileMaxSizeInBytes = dbConfig.getMmapTsFileMaxSizeInBytes();
+    FileReaderManager manager = FileReaderManager.getInstance();
+    int fileNum = 3;
+    TsFileResource[] tsFileResources = new TsFileResource[fileNum];
+    try {
+      Set<String> fullPaths = new HashSet<>();
+      for (int i = 0; i < 5; i++) {
+        fullPaths.add("root.sg.d" + i + ".s" + i);
+      }
+      long maxFileLength = 0;
+      for (int i = 0; i < fileNum; i++) {
+        File file =
+            SystemFileFactory.INSTANCE.getFile(TestConstant.BASE_OUTPUT_PATH, i + ".tsfile");
+        tsFileResources[i] = new TsFileResource(file);
+        CompactionFileGeneratorUtils.writeTsFile(
+            fullPaths,
+            Collections.singletonList(Arrays.asList(100L, 100L)),
+            i * 200L,
+            tsFileResources[i]);
+        maxFileLength = Math.max(maxFileLength, file.length());
+      }
+      // only two files can be mapped at the same time
+      dbConfig.setMmapTsFileReadEnable(true);
+      dbConfig.setMmapTsFileMaxSizeInBytes(maxFileLength * 2);
+
+      for (int round = 0; round < 2; round++) {
+        for (TsFileResource tsFileResource : tsFileResources) {
+          TsFileSequenceReader mappedReader = manager.get(tsFileResource.getTsFilePath(), true);
+          try (TsFileSequenceReader reader =
+              new TsFileSequenceReader(tsFileResource.getTsFilePath())) {
+            Assert.assertEquals(reader.getAllDevices(), mappedReader.getAllDevices());
+            for (String device : reader.getAllDevices()) {
+              Map<String, List<ChunkMetadata>> chunkMetadataMap =
+                  reader.readChunkMetadataInDevice(device);
+              Assert.assertEquals(
+                  chunkMetadataMap.toString(),
+                  mappedReader.readChunkMetadataInDevice(device).toString());
+              for (List<ChunkMetadata> chunkMetadataList : chunkMetadataMap.values()) {
+                for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+                  Assert.assertEquals(
+                      reader.readMemChunk(chunkMetadata).getData(),
+                      mappedReader.readMemChunk(chunkMetadata).getData());
+                }
+              }
+            }
+          }
+          Assert.assertTrue(manager.getTotalMappedSize() > 0);
+          Assert.assertTrue(manager.getTotalMappedSize() <= maxFileLength * 2);
+        }
+      }
+    } finally {
+      manager.closeAndRemoveAllOpenedReaders();
+      Assert.assertEquals(0, manager.getTotalMappedSize());
+      dbConfig.setMmapTsFileReadEnable(mmapTsFileReadEnable);
+      dbConfig.setMmapTsFileMaxSizeInBytes(mmapTsFileMaxSizeInBytes);
+      for (TsFileResource tsFileResource : tsFileResources) {
+        if (tsFileResource != null) {
+          tsFileResource.remove();
+        }
+      }
+    }
+  }
 }
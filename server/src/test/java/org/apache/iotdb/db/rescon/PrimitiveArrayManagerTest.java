@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveArrayManagerTest {
+
+  @Before
+  public void setUp() {
+    PrimitiveArrayManager.close();
+  }
+
+  @After
+  public void tearDown() {
+    PrimitiveArrayManager.close();
+  }
+
+  @Test
+  public void testReuseReleasedArray() {
+    long hitCount = PrimitiveArrayManager.getPoolHitCount();
+    long missCount = PrimitiveArrayManager.getPoolMissCount();
+
+    long[] array = (long[]) PrimitiveArrayManager.allocate(TSDataType.INT64);
+    assertEquals(PrimitiveArrayManager.ARRAY_SIZE, array.length);
+    assertEquals(missCount + 1, PrimitiveArrayManager.getPoolMissCount());
+
+    PrimitiveArrayManager.release(array);
+    assertEquals(1, PrimitiveArrayManager.getPooledArrayCount());
+    assertSame(array, PrimitiveArrayManager.allocate(TSDataType.INT64));
+    assertEquals(hitCount + 1, PrimitiveArrayManager.getPoolHitCount());
+    assertEquals(0, PrimitiveArrayManager.getPooledArrayCount());
+  }
+
+  @Test
+  public void testReleaseBinaryArray() {
+    Binary[] array = (Binary[]) PrimitiveArrayManager.allocate(TSDataType.TEXT);
+    array[0] = new Binary("a");
+    PrimitiveArrayManager.release(array);
+    assertNull(((Binary[]) PrimitiveArrayManager.allocate(TSDataType.TEXT))[0]);
+  }
+
+  @Test
+  public void testStealFromOtherThreads() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        futures.add(
+            pool.submit(
+                () -> PrimitiveArrayManager.release(new double[PrimitiveArrayManager.ARRAY_SIZE])));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    long pooled = PrimitiveArrayManager.getPooledArrayCount();
+    assertTrue(pooled > 0);
+    // arrays released by other threads can be allocated by this thread
+    long hitCount = PrimitiveArrayManager.getPoolHitCount();
+    for (long i = 0; i < pooled; i++) {
+      PrimitiveArrayManager.allocate(TSDataType.DOUBLE);
+    }
+    assertEquals(hitCount + pooled, PrimitiveArrayManager.getPoolHitCount());
+    assertEquals(0, PrimitiveArrayManager.getPooledArrayCount());
+  }
+}
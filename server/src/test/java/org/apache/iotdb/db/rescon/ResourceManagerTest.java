@@ -27,6 +27,7 @@ import org.apache.iotdb.db.constant.TestConstant;
 import org.apache.iotdb.db.engine.cache.ChunkCache;
 import org.apache.iotdb.db.engine.cache.TimeSeriesMetadataCache;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResource;
+import org.apache.iotdb.db.engine.storagegroup.TsFileResourceIntervalIndex;
 import org.apache.iotdb.db.engine.storagegroup.TsFileResourceStatus;
 import org.apache.iotdb.db.engine.storagegroup.timeindex.TimeIndexLevel;
 import org.apache.iotdb.db.exception.StorageEngineException;
@@ -67,6 +68,13 @@ public class ResourceManagerTest {
   long flushInterval = 20;
   TSEncoding encoding = TSEncoding.PLAIN;
 
+  // the interval index entries of a file are counted in its memory cost as well, a file of the
+  // tests has deviceNum devices
+  private static final long DEVICE_INTERVAL_INDEX_RAM_SIZE =
+      TsFileResourceIntervalIndex.estimateRamSize(10);
+  private static final long FILE_INTERVAL_INDEX_RAM_SIZE =
+      TsFileResourceIntervalIndex.estimateRamSize(1);
+
   String[] deviceIds;
   MeasurementSchema[] measurementSchemas;
 
@@ -252,7 +260,7 @@ public class ResourceManagerTest {
         TimeIndexLevel.DEVICE_TIME_INDEX,
         TimeIndexLevel.valueOf(tsFileResource.getTimeIndexType()));
     long previousRamSize = tsFileResource.calculateRamSize();
-    double curTimeIndexMemoryThreshold = 3221;
+    double curTimeIndexMemoryThreshold = 3221 + DEVICE_INTERVAL_INDEX_RAM_SIZE;
     tsFileResourceManager.setTimeIndexMemoryThreshold(curTimeIndexMemoryThreshold);
     tsFileResourceManager.registerSealedTsFileResource(tsFileResource);
     assertEquals(0, previousRamSize - tsFileResource.calculateRamSize());
@@ -281,7 +289,8 @@ public class ResourceManagerTest {
     assertEquals(
         TimeIndexLevel.DEVICE_TIME_INDEX,
         TimeIndexLevel.valueOf(tsFileResource1.getTimeIndexType()));
-    double curTimeIndexMemoryThreshold = 3221;
+    double curTimeIndexMemoryThreshold =
+        3221 + DEVICE_INTERVAL_INDEX_RAM_SIZE + FILE_INTERVAL_INDEX_RAM_SIZE;
     tsFileResourceManager.setTimeIndexMemoryThreshold(curTimeIndexMemoryThreshold);
     tsFileResourceManager.registerSealedTsFileResource(tsFileResource1);
     assertEquals(
@@ -315,7 +324,8 @@ public class ResourceManagerTest {
 
   @Test
   public void testMultiDeviceTimeIndexDegrade() throws IOException, WriteProcessException {
-    double curTimeIndexMemoryThreshold = 9663.7;
+    double curTimeIndexMemoryThreshold =
+        9663.7 + 3 * DEVICE_INTERVAL_INDEX_RAM_SIZE + 7 * FILE_INTERVAL_INDEX_RAM_SIZE;
     tsFileResourceManager.setTimeIndexMemoryThreshold(curTimeIndexMemoryThreshold);
     for (int i = 0; i < seqFileNum; i++) {
       File file =
@@ -357,7 +367,7 @@ public class ResourceManagerTest {
   public void testAllFileTimeIndexDegrade() throws IOException, WriteProcessException {
     long reducedMemory = 0;
     CONFIG.setTimeIndexLevel(String.valueOf(TimeIndexLevel.FILE_TIME_INDEX));
-    double curTimeIndexMemoryThreshold = 322;
+    double curTimeIndexMemoryThreshold = 322 + 6 * FILE_INTERVAL_INDEX_RAM_SIZE;
     tsFileResourceManager.setTimeIndexMemoryThreshold(curTimeIndexMemoryThreshold);
     try {
       for (int i = 0; i < seqFileNum; i++) {
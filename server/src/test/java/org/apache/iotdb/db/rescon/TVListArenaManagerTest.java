@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.rescon;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class TVListArenaManagerTest {
+
+  @Test
+  public void testArenasOfSlab() {
+    int arenaSize = (int) TVListArenaManager.arenaSize(TSDataType.INT64);
+    ByteBuffer first = TVListArenaManager.allocate(TSDataType.INT64);
+    ByteBuffer second = TVListArenaManager.allocate(TSDataType.INT64);
+    try {
+      assertNotSame(first, second);
+      assertTrue(first.isDirect());
+      assertEquals(arenaSize, first.capacity());
+      assertEquals(arenaSize, second.capacity());
+      assertTrue(TVListArenaManager.getAllocatedSlabsBytes() >= TVListArenaManager.SLAB_SIZE);
+
+      // the arenas of a slab do not overlap
+      for (int i = 0; i < arenaSize / Long.BYTES; i++) {
+        first.putLong(i * Long.BYTES, 1L);
+        second.putLong(i * Long.BYTES, 2L);
+      }
+      for (int i = 0; i < arenaSize / Long.BYTES; i++) {
+        assertEquals(1L, first.getLong(i * Long.BYTES));
+      }
+    } finally {
+      TVListArenaManager.release(TSDataType.INT64, first);
+      TVListArenaManager.release(TSDataType.INT64, second);
+    }
+  }
+
+  @Test
+  public void testReuseReleasedSlab() {
+    List<ByteBuffer> arenas = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      arenas.add(TVListArenaManager.allocate(TSDataType.DOUBLE));
+    }
+    long allocatedBytes = TVListArenaManager.getAllocatedSlabsBytes();
+    for (ByteBuffer arena : arenas) {
+      TVListArenaManager.release(TSDataType.DOUBLE, arena);
+    }
+    arenas.clear();
+
+    // the empty slab is pooled, so no new slab is needed
+    for (int i = 0; i < 10; i++) {
+      arenas.add(TVListArenaManager.allocate(TSDataType.DOUBLE));
+    }
+    assertEquals(allocatedBytes, TVListArenaManager.getAllocatedSlabsBytes());
+    for (ByteBuffer arena : arenas) {
+      TVListArenaManager.release(TSDataType.DOUBLE, arena);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReleaseUnknownArena() {
+    TVListArenaManager.release(
+        TSDataType.INT32,
+        ByteBuffer.allocateDirect((int) TVListArenaManager.arenaSize(TSDataType.INT32)));
+  }
+}
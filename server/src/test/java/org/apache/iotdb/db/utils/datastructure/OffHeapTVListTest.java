@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.iotdb.db.wal.utils.WALByteBufferForTest;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.read.TimeValuePair;
+import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.TsPrimitiveType.TsLong;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class OffHeapTVListTest {
+
+  @Test
+  public void testSortLongs() {
+    Random random = new Random();
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.INT64);
+    List<TimeValuePair> inputs = new ArrayList<>();
+    for (long i = 0; i < 10000; i++) {
+      long time = random.nextInt(10000);
+      long value = random.nextInt(10000);
+      tvList.putLong(time, value);
+      inputs.add(new TimeValuePair(time, new TsLong(value)));
+    }
+    tvList.sort();
+    inputs.sort(TimeValuePair::compareTo);
+    for (int i = 0; i < tvList.rowCount; i++) {
+      Assert.assertEquals(inputs.get(i).getTimestamp(), tvList.getTime(i));
+      Assert.assertEquals(inputs.get(i).getValue().getLong(), tvList.getLong(i));
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testPutDoublesWithBitMap() {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.DOUBLE);
+    long[] times = new long[1001];
+    double[] values = new double[1001];
+    BitMap bitMap = new BitMap(1001);
+    for (int i = 0; i <= 1000; i++) {
+      times[i] = 1000 - i;
+      values[i] = 1000 - i + 0.5;
+      if (i % 100 == 0) {
+        bitMap.mark(i);
+      }
+    }
+    tvList.putDoubles(times, values, bitMap, 0, 1001);
+    tvList.sort();
+    Assert.assertEquals(990, tvList.rowCount());
+    for (int i = 1; i < tvList.rowCount(); i++) {
+      Assert.assertTrue(tvList.getTime(i - 1) < tvList.getTime(i));
+      Assert.assertEquals(tvList.getTime(i) + 0.5, tvList.getDouble(i), 0);
+    }
+    tvList.clear();
+  }
+
+  @Test
+  public void testBuildTsBlockAndDelete() {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.INT32);
+    for (int i = 0; i < 100; i++) {
+      tvList.putInt(i, i);
+    }
+    // a duplicated timestamp, the last value wins
+    tvList.putInt(99, -1);
+    Assert.assertEquals(10, tvList.delete(10, 19));
+    tvList.sort();
+    TsBlock tsBlock = tvList.buildTsBlock();
+    Assert.assertEquals(90, tsBlock.getPositionCount());
+    Assert.assertEquals(20, tsBlock.getTimeByIndex(10));
+    Assert.assertEquals(-1, tsBlock.getColumn(0).getInt(89));
+    tvList.clear();
+  }
+
+  @Test
+  public void testCloneAndWAL() throws IOException {
+    OffHeapTVList tvList = new OffHeapTVList(TSDataType.BOOLEAN);
+    for (int i = 100; i > 0; i--) {
+      tvList.putBoolean(i, i % 3 == 0);
+    }
+    OffHeapTVList clonedTvList = tvList.clone();
+    tvList.clear();
+
+    WALByteBufferForTest walBuffer =
+        new WALByteBufferForTest(ByteBuffer.allocate(clonedTvList.serializedSize()));
+    clonedTvList.serializeToWAL(walBuffer);
+    Assert.assertFalse(walBuffer.getBuffer().hasRemaining());
+
+    DataInputStream stream =
+        new DataInputStream(new ByteArrayInputStream(walBuffer.getBuffer().array()));
+    stream.readByte();
+    OffHeapTVList deserializedTvList = OffHeapTVList.deserialize(TSDataType.BOOLEAN, stream);
+    Assert.assertEquals(100, deserializedTvList.rowCount());
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(100 - i, deserializedTvList.getTime(i));
+      Assert.assertEquals((100 - i) % 3 == 0, deserializedTvList.getBoolean(i));
+    }
+    clonedTvList.clear();
+    deserializedTvList.clear();
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.wal.buffer;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GroupCommitControllerTest {
+
+  @Test
+  public void testNoWaitAtLowLoad() {
+    GroupCommitController controller = new GroupCommitController(50);
+    long now = System.nanoTime();
+    controller.onFsync(TimeUnit.MILLISECONDS.toNanos(1));
+    // 1 entry per second
+    controller.onArrival();
+    controller.sample(now + TimeUnit.SECONDS.toNanos(1));
+    assertTrue(controller.getExpectedBatchSize() < 1);
+    assertEquals(0, controller.getWaitTimeInNs(10));
+  }
+
+  @Test
+  public void testWaitAtHighLoad() {
+    GroupCommitController controller = new GroupCommitController(50);
+    long now = System.nanoTime();
+    controller.onFsync(TimeUnit.MILLISECONDS.toNanos(2));
+    // 1000 entries per millisecond
+    for (int round = 1; round <= 20; round++) {
+      for (int i = 0; i < 1000; i++) {
+        controller.onArrival();
+      }
+      controller.sample(now + TimeUnit.MILLISECONDS.toNanos(round));
+    }
+    assertTrue(controller.getExpectedBatchSize() > 50);
+    assertEquals(50, controller.getTargetBatchSize());
+    // bounded by fsync latency
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(2), controller.getWaitTimeInNs(10));
+    // bounded by max delay
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(1), controller.getWaitTimeInNs(1));
+  }
+}
@@ -71,6 +71,16 @@ public class RpcUtils {
             new SynchronizedHandler(client));
   }
 
+  /** Like {@link #newSynchronizedClient(IClientRPCService.Iface)}, but calls hold the given lock. */
+  public static IClientRPCService.Iface newSynchronizedClient(
+      IClientRPCService.Iface client, Object lock) {
+    return (IClientRPCService.Iface)
+        Proxy.newProxyInstance(
+            RpcUtils.class.getClassLoader(),
+            new Class[] {IClientRPCService.Iface.class},
+            new SynchronizedHandler(client, lock));
+  }
+
   public static InfluxDBService.Iface newSynchronizedClient(InfluxDBService.Iface client) {
     return (InfluxDBService.Iface)
         Proxy.newProxyInstance(
@@ -29,15 +29,21 @@ import java.lang.reflect.Method;
 public class SynchronizedHandler implements InvocationHandler {
 
   private final IClientRPCService.Iface client;
+  private final Object lock;
 
   public SynchronizedHandler(IClientRPCService.Iface client) {
+    this(client, client);
+  }
+
+  public SynchronizedHandler(IClientRPCService.Iface client, Object lock) {
     this.client = client;
+    this.lock = lock;
   }
 
   @Override
   public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
     try {
-      synchronized (client) {
+      synchronized (lock) {
         return method.invoke(client, args);
       }
     } catch (InvocationTargetException e) {
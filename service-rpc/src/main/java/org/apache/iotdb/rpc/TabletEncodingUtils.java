@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
+import org.apache.iotdb.tsfile.encoding.encoder.Encoder;
+import org.apache.iotdb.tsfile.encoding.encoder.TSEncodingBuilder;
+import org.apache.iotdb.tsfile.exception.write.UnSupportedDataTypeException;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BitMap;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Columnar encoding of the time and value buffers of an insertTablet request. The time column is
+ * encoded with TS_2DIFF and each value column with the encoding returned by {@link
+ * #getColumnEncoding(TSDataType)}, so that regular series shrink to a fraction of their plain size
+ * before they go through the wire. Both buffers are compressed by {@link #COMPRESSION_TYPE} and are
+ * laid out as [int uncompressedLength][compressed bytes].
+ *
+ * <p>The uncompressed value buffer contains [int encodedLength][encoded bytes] for each column,
+ * followed by the same bitmap section as the plain value buffer.
+ */
+public class TabletEncodingUtils {
+
+  /** snappy is the only codec whose library is shipped with service-rpc */
+  public static final CompressionType COMPRESSION_TYPE = CompressionType.SNAPPY;
+
+  public static final TSEncoding TIME_ENCODING = TSEncoding.TS_2DIFF;
+
+  private TabletEncodingUtils() {
+    // util class
+  }
+
+  public static TSEncoding getColumnEncoding(TSDataType dataType) {
+    switch (dataType) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+        return TSEncoding.RLE;
+      case FLOAT:
+      case DOUBLE:
+        return TSEncoding.GORILLA;
+      case TEXT:
+        return TSEncoding.PLAIN;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+  }
+
+  public static ByteBuffer encodeTimes(Tablet tablet) throws IOException {
+    PublicBAOS out = new PublicBAOS();
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(TIME_ENCODING).getEncoder(TSDataType.INT64);
+    for (int i = 0; i < tablet.rowSize; i++) {
+      encoder.encode(tablet.timestamps[i], out);
+    }
+    encoder.flush(out);
+    return compress(out);
+  }
+
+  public static ByteBuffer encodeValues(Tablet tablet) throws IOException {
+    PublicBAOS out = new PublicBAOS();
+    PublicBAOS columnOut = new PublicBAOS();
+    for (int i = 0; i < tablet.getSchemas().size(); i++) {
+      columnOut.reset();
+      encodeColumn(tablet, i, columnOut);
+      out.write(BytesUtils.intToBytes(columnOut.size()));
+      out.write(columnOut.getBuf(), 0, columnOut.size());
+    }
+    if (tablet.bitMaps != null) {
+      for (BitMap bitMap : tablet.bitMaps) {
+        boolean columnHasNull = bitMap != null && !bitMap.isAllUnmarked();
+        out.write(BytesUtils.boolToByte(columnHasNull));
+        if (columnHasNull) {
+          out.write(bitMap.getByteArray(), 0, tablet.rowSize / Byte.SIZE + 1);
+        }
+      }
+    }
+    return compress(out);
+  }
+
+  /**
+   * Null positions are filled with the previous non-null value of the column, which keeps the delta
+   * based encodings tight. They are masked by the bitmaps on the receiver anyway.
+   */
+  @SuppressWarnings("squid:S3776") // Suppress high Cognitive Complexity warning
+  private static void encodeColumn(Tablet tablet, int i, PublicBAOS out) throws IOException {
+    TSDataType dataType = tablet.getSchemas().get(i).getType();
+    Encoder encoder =
+        TSEncodingBuilder.getEncodingBuilder(getColumnEncoding(dataType)).getEncoder(dataType);
+    BitMap bitMap = tablet.bitMaps == null ? null : tablet.bitMaps[i];
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] boolValues = (boolean[]) tablet.values[i];
+        boolean lastBool = false;
+        for (int index = 0; index < tablet.rowSize; index++) {
+          if (bitMap == null || !bitMap.isMarked(index)) {
+            lastBool = boolValues[index];
+          }
+          encoder.encode(lastBool, out);
+        }
+        break;
+      case INT32:
+        int[] intValues = (int[]) tablet.values[i];
+        int lastInt = 0;
+        for (int index = 0; index < tablet.rowSize; index++) {
+          if (bitMap == null || !bitMap.isMarked(index)) {
+            lastInt = intValues[index];
+          }
+          encoder.encode(lastInt, out);
+        }
+        break;
+      case INT64:
+        long[] longValues = (long[]) tablet.values[i];
+        long lastLong = 0;
+        for (int index = 0; index < tablet.rowSize; index++) {
+          if (bitMap == null || !bitMap.isMarked(index)) {
+            lastLong = longValues[index];
+          }
+          encoder.encode(lastLong, out);
+        }
+        break;
+      case FLOAT:
+        float[] floatValues = (float[]) tablet.values[i];
+        float lastFloat = 0;
+        for (int index = 0; index < tablet.rowSize; index++) {
+          if (bitMap == null || !bitMap.isMarked(index)) {
+            lastFloat = floatValues[index];
+          }
+          encoder.encode(lastFloat, out);
+        }
+        break;
+      case DOUBLE:
+        double[] doubleValues = (double[]) tablet.values[i];
+        double lastDouble = 0;
+        for (int index = 0; index < tablet.rowSize; index++) {
+          if (bitMap == null || !bitMap.isMarked(index)) {
+            lastDouble = doubleValues[index];
+          }
+          encoder.encode(lastDouble, out);
+        }
+        break;
+      case TEXT:
+        Binary[] binaryValues = (Binary[]) tablet.values[i];
+        for (int index = 0; index < tablet.rowSize; index++) {
+          Binary value = binaryValues[index];
+          encoder.encode(
+              value == null || (bitMap != null && bitMap.isMarked(index))
+                  ? Binary.EMPTY_VALUE
+                  : value,
+              out);
+        }
+        break;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("Data type %s is not supported.", dataType));
+    }
+    encoder.flush(out);
+  }
+
+  public static long[] decodeTimes(ByteBuffer buffer, int size) throws IOException {
+    ByteBuffer uncompressed = uncompress(buffer);
+    Decoder decoder = Decoder.getDecoderByType(TIME_ENCODING, TSDataType.INT64);
+    long[] times = new long[size];
+    for (int i = 0; i < size; i++) {
+      times[i] = decoder.readLong(uncompressed);
+    }
+    return times;
+  }
+
+  /**
+   * Decode the value columns from an uncompressed value buffer, see {@link
+   * #uncompress(ByteBuffer)}. The buffer is left positioned at the start of the bitmap section.
+   *
+   * @param buffer uncompressed value buffer
+   * @param types data types of the columns
+   * @param columns column number
+   * @param size value count in each column
+   */
+  public static Object[] decodeValues(
+      ByteBuffer buffer, TSDataType[] types, int columns, int size) {
+    Object[] values = new Object[columns];
+    for (int i = 0; i < columns; i++) {
+      int encodedLength = buffer.getInt();
+      ByteBuffer columnBuffer = buffer.slice();
+      columnBuffer.limit(encodedLength);
+      buffer.position(buffer.position() + encodedLength);
+      values[i] = decodeColumn(columnBuffer, types[i], size);
+    }
+    return values;
+  }
+
+  private static Object decodeColumn(ByteBuffer buffer, TSDataType dataType, int size) {
+    Decoder decoder = Decoder.getDecoderByType(getColumnEncoding(dataType), dataType);
+    switch (dataType) {
+      case BOOLEAN:
+        boolean[] boolValues = new boolean[size];
+        for (int index = 0; index < size; index++) {
+          boolValues[index] = decoder.readBoolean(buffer);
+        }
+        return boolValues;
+      case INT32:
+        int[] intValues = new int[size];
+        for (int index = 0; index < size; index++) {
+          intValues[index] = decoder.readInt(buffer);
+        }
+        return intValues;
+      case INT64:
+        long[] longValues = new long[size];
+        for (int index = 0; index < size; index++) {
+          longValues[index] = decoder.readLong(buffer);
+        }
+        return longValues;
+      case FLOAT:
+        float[] floatValues = new float[size];
+        for (int index = 0; index < size; index++) {
+          floatValues[index] = decoder.readFloat(buffer);
+        }
+        return floatValues;
+      case DOUBLE:
+        double[] doubleValues = new double[size];
+        for (int index = 0; index < size; index++) {
+          doubleValues[index] = decoder.readDouble(buffer);
+        }
+        return doubleValues;
+      case TEXT:
+        Binary[] binaryValues = new Binary[size];
+        for (int index = 0; index < size; index++) {
+          binaryValues[index] = decoder.readBinary(buffer);
+        }
+        return binaryValues;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format("data type %s is not supported when convert data at client", dataType));
+    }
+  }
+
+  private static ByteBuffer compress(PublicBAOS out) throws IOException {
+    ICompressor compressor = ICompressor.getCompressor(COMPRESSION_TYPE);
+    byte[] compressed = new byte[compressor.getMaxBytesForCompression(out.size())];
+    int compressedLength = compressor.compress(out.getBuf(), 0, out.size(), compressed);
+    ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + compressedLength);
+    buffer.putInt(out.size());
+    buffer.put(compressed, 0, compressedLength);
+    buffer.flip();
+    return buffer;
+  }
+
+  /** Uncompress a time or value buffer produced by this class. */
+  public static ByteBuffer uncompress(ByteBuffer buffer) throws IOException {
+    ByteBuffer compressed = buffer.duplicate();
+    int uncompressedLength = compressed.getInt();
+    byte[] uncompressed = new byte[uncompressedLength];
+    byte[] compressedBytes = new byte[compressed.remaining()];
+    compressed.get(compressedBytes);
+    IUnCompressor.getUnCompressor(COMPRESSION_TYPE)
+        .uncompress(compressedBytes, 0, compressedBytes.length, uncompressed, 0);
+    return ByteBuffer.wrap(uncompressed);
+  }
+}
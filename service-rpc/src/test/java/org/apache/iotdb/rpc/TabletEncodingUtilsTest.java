@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.rpc;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.utils.Binary;
+import org.apache.iotdb.tsfile.utils.BytesUtils;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TabletEncodingUtilsTest {
+
+  @Test
+  public void testEncodeAndDecode() throws IOException {
+    TSDataType[] types =
+        new TSDataType[] {
+          TSDataType.BOOLEAN,
+          TSDataType.INT32,
+          TSDataType.INT64,
+          TSDataType.FLOAT,
+          TSDataType.DOUBLE,
+          TSDataType.TEXT
+        };
+    List<MeasurementSchema> schemas = new ArrayList<>();
+    for (int i = 0; i < types.length; i++) {
+      schemas.add(new MeasurementSchema("s" + i, types[i]));
+    }
+    int rowSize = 1000;
+    Tablet tablet = new Tablet("root.sg.d1", schemas, rowSize);
+    for (int row = 0; row < rowSize; row++) {
+      tablet.addTimestamp(row, 1_600_000_000_000L + row * 1000L);
+      tablet.addValue("s0", row, row % 10 == 0);
+      tablet.addValue("s1", row, row % 7 == 0 ? null : row);
+      tablet.addValue("s2", row, (long) row * 3);
+      tablet.addValue("s3", row, row * 0.5f);
+      tablet.addValue("s4", row, row % 5 == 0 ? null : row * 0.25);
+      tablet.addValue("s5", row, row % 3 == 0 ? null : new Binary("v" + row));
+    }
+    tablet.rowSize = rowSize;
+
+    ByteBuffer timeBuffer = TabletEncodingUtils.encodeTimes(tablet);
+    ByteBuffer valueBuffer = TabletEncodingUtils.encodeValues(tablet);
+    // regular series should be much smaller than the plain buffers
+    Assert.assertTrue(timeBuffer.remaining() < tablet.getTimeBytesSize() / 4);
+    Assert.assertTrue(valueBuffer.remaining() < tablet.getTotalValueOccupation() / 2);
+
+    Assert.assertArrayEquals(
+        tablet.timestamps, TabletEncodingUtils.decodeTimes(timeBuffer, rowSize));
+    ByteBuffer uncompressed = TabletEncodingUtils.uncompress(valueBuffer);
+    Object[] values = TabletEncodingUtils.decodeValues(uncompressed, types, types.length, rowSize);
+
+    Assert.assertArrayEquals((boolean[]) tablet.values[0], (boolean[]) values[0]);
+    Assert.assertArrayEquals((long[]) tablet.values[2], (long[]) values[2]);
+    Assert.assertArrayEquals((float[]) tablet.values[3], (float[]) values[3], 0);
+    for (int row = 0; row < rowSize; row++) {
+      if (row % 7 != 0) {
+        Assert.assertEquals(((int[]) tablet.values[1])[row], ((int[]) values[1])[row]);
+      }
+      if (row % 5 != 0) {
+        Assert.assertEquals(((double[]) tablet.values[4])[row], ((double[]) values[4])[row], 0);
+      }
+      if (row % 3 != 0) {
+        Assert.assertEquals(((Binary[]) tablet.values[5])[row], ((Binary[]) values[5])[row]);
+      }
+    }
+
+    // the bitmap section follows the encoded columns
+    for (int i = 0; i < types.length; i++) {
+      boolean hasBitMap = BytesUtils.byteToBool(uncompressed.get());
+      Assert.assertEquals(i == 1 || i == 4 || i == 5, hasBitMap);
+      if (hasBitMap) {
+        byte[] bytes = new byte[rowSize / Byte.SIZE + 1];
+        uncompressed.get(bytes);
+        Assert.assertEquals((byte) 1, (byte) (bytes[0] & 1));
+      }
+    }
+    Assert.assertFalse(uncompressed.hasRemaining());
+  }
+}
@@ -34,6 +34,10 @@ public class Config {
   public static final int DEFAULT_SESSION_EXECUTOR_THREAD_NUM = 2 * CPU_CORES;
   public static final int DEFAULT_SESSION_EXECUTOR_TASK_NUM = 1_000;
 
+  public static final int DEFAULT_MAX_IN_FLIGHT_INSERT_NUM = 16;
+  public static final int DEFAULT_ASYNC_INSERT_BATCH_SIZE = 1_000;
+  public static final long DEFAULT_ASYNC_INSERT_LINGER_MS = 10;
+
   public static final int RETRY_NUM = 3;
   public static final long RETRY_INTERVAL_MS = 1000;
 
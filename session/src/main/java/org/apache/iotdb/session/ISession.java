@@ -34,6 +34,7 @@ import java.io.IOException;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface ISession {
 
@@ -287,6 +288,26 @@ public interface ISession {
   void insertAlignedTablets(Map<String, Tablet> tablets, boolean sorted)
       throws IoTDBConnectionException, StatementExecutionException;
 
+  CompletableFuture<Void> insertTabletAsync(Tablet tablet);
+
+  CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet);
+
+  CompletableFuture<Void> insertRecordsAsync(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList);
+
+  CompletableFuture<Void> insertRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values);
+
+  void flushAsyncInsertRecords();
+
   void testInsertTablet(Tablet tablet) throws IoTDBConnectionException, StatementExecutionException;
 
   void testInsertTablet(Tablet tablet, boolean sorted)
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.session.util.ThreadUtils;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Buffers single rows and hands them over as one insertRecords request once {@code batchSize} rows
+ * are buffered or the first buffered row has waited {@code lingerInMs}. All rows of a batch share
+ * the result of that request.
+ */
+public class InsertRecordsCoalescer {
+
+  @FunctionalInterface
+  public interface RecordsInserter {
+    CompletableFuture<Void> insertRecords(
+        List<String> deviceIds,
+        List<Long> times,
+        List<List<String>> measurementsList,
+        List<List<TSDataType>> typesList,
+        List<List<Object>> valuesList);
+  }
+
+  private final RecordsInserter inserter;
+  private final int batchSize;
+  private final long lingerInMs;
+
+  // the inserter may block on a full window, so it is never called while holding the monitor of
+  // this object, which only guards the buffered batch. Batches are detached and handed over under
+  // sendLock, so that they are sent in the order they were filled.
+  private final Object sendLock = new Object();
+  private Batch batch;
+  private ScheduledExecutorService lingerTimer;
+  private boolean closed;
+
+  public InsertRecordsCoalescer(RecordsInserter inserter, int batchSize, long lingerInMs) {
+    this.inserter = inserter;
+    this.batchSize = batchSize;
+    this.lingerInMs = lingerInMs;
+  }
+
+  public CompletableFuture<Void> add(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    Batch current;
+    boolean full;
+    synchronized (this) {
+      if (closed) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("The session is closed"));
+        return future;
+      }
+      if (batch == null) {
+        Batch newBatch = new Batch();
+        if (lingerInMs > 0) {
+          if (lingerTimer == null) {
+            // one timer per session, a slow session never delays the batches of another
+            lingerTimer =
+                Executors.newSingleThreadScheduledExecutor(
+                    ThreadUtils.createThreadFactory("SessionInsertLinger", true));
+          }
+          newBatch.lingerFuture =
+              lingerTimer.schedule(() -> flush(newBatch), lingerInMs, TimeUnit.MILLISECONDS);
+        }
+        batch = newBatch;
+      }
+      current = batch;
+      current.deviceIds.add(deviceId);
+      current.times.add(time);
+      current.measurementsList.add(measurements);
+      current.typesList.add(types);
+      current.valuesList.add(values);
+      full = current.deviceIds.size() >= batchSize || lingerInMs <= 0;
+    }
+    if (full) {
+      flush(current);
+    }
+    // a dependent future, so that one caller cancelling it does not affect the others
+    return current.result.thenApply(Function.identity());
+  }
+
+  /**
+   * Send the buffered rows without waiting for the batch to fill up. Returns once every row added
+   * before has been handed over, including the batches that are being sent by other threads.
+   */
+  public void flush() {
+    synchronized (sendLock) {
+      Batch current;
+      synchronized (this) {
+        current = batch;
+      }
+      if (current != null) {
+        flush(current);
+      }
+    }
+  }
+
+  /** Send the buffered rows and stop accepting new ones. */
+  public void close() {
+    ScheduledExecutorService timer;
+    synchronized (this) {
+      closed = true;
+      timer = lingerTimer;
+    }
+    flush();
+    if (timer != null) {
+      // the lingering tasks are cancelled by the flush, a running one is not interrupted
+      timer.shutdown();
+    }
+  }
+
+  private void flush(Batch toFlush) {
+    synchronized (sendLock) {
+      synchronized (this) {
+        if (batch != toFlush) {
+          // already flushed by size, by the timer or by an explicit flush
+          return;
+        }
+        batch = null;
+      }
+      if (toFlush.lingerFuture != null) {
+        toFlush.lingerFuture.cancel(false);
+      }
+      CompletableFuture<Void> future;
+      try {
+        future =
+            inserter.insertRecords(
+                toFlush.deviceIds,
+                toFlush.times,
+                toFlush.measurementsList,
+                toFlush.typesList,
+                toFlush.valuesList);
+      } catch (RuntimeException e) {
+        future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+      }
+      future.whenComplete(
+          (v, t) -> {
+            if (t == null) {
+              toFlush.result.complete(null);
+            } else {
+              toFlush.result.completeExceptionally(t);
+            }
+          });
+    }
+  }
+
+  private static class Batch {
+    private final List<String> deviceIds = new ArrayList<>();
+    private final List<Long> times = new ArrayList<>();
+    private final List<List<String>> measurementsList = new ArrayList<>();
+    private final List<List<TSDataType>> typesList = new ArrayList<>();
+    private final List<List<Object>> valuesList = new ArrayList<>();
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+    private ScheduledFuture<?> lingerFuture;
+  }
+}
@@ -24,6 +24,7 @@ import org.apache.iotdb.rpc.IoTDBConnectionException;
 import org.apache.iotdb.rpc.NoValidValueException;
 import org.apache.iotdb.rpc.RedirectException;
 import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.rpc.TabletEncodingUtils;
 import org.apache.iotdb.service.rpc.thrift.TSAppendSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateAlignedTimeseriesReq;
 import org.apache.iotdb.service.rpc.thrift.TSCreateMultiTimeseriesReq;
@@ -133,6 +134,18 @@ public class Session implements ISession {
 
   protected boolean enableQueryRedirection = false;
 
+  // whether to send insertTablet requests with column encoded and compressed buffers, the server
+  // must understand TSInsertTabletReq.isEncoded
+  protected boolean enableTabletEncoding = false;
+
+  // max number of asynchronous insertions queued or running on one SessionConnection
+  protected int maxInFlightInsertNum = Config.DEFAULT_MAX_IN_FLIGHT_INSERT_NUM;
+  // rows of insertRecordAsync are sent as one insertRecords request when this many rows are
+  // buffered or the first buffered row has waited asyncInsertLingerInMs
+  protected int asyncInsertBatchSize = Config.DEFAULT_ASYNC_INSERT_BATCH_SIZE;
+  protected long asyncInsertLingerInMs = Config.DEFAULT_ASYNC_INSERT_LINGER_MS;
+  private InsertRecordsCoalescer insertRecordsCoalescer;
+
   // The version number of the client which used for compatibility in the server
   protected Version version;
 
@@ -405,6 +418,9 @@ public class Session implements ISession {
     if (isClosed) {
       return;
     }
+    if (insertRecordsCoalescer != null) {
+      insertRecordsCoalescer.close();
+    }
     try {
       if (enableCacheLeader) {
         for (SessionConnection sessionConnection : endPointToSessionConnection.values()) {
@@ -2215,7 +2231,7 @@ public class Session implements ISession {
   }
 
   private TSInsertTabletReq genTSInsertTabletReq(Tablet tablet, boolean sorted, boolean isAligned)
-      throws BatchExecutionException {
+      throws BatchExecutionException, IoTDBConnectionException {
     if (!checkSorted(tablet)) {
       sortTablet(tablet);
     }
@@ -2229,12 +2245,139 @@ public class Session implements ISession {
 
     request.setPrefixPath(tablet.deviceId);
     request.setIsAligned(isAligned);
-    request.setTimestamps(SessionUtils.getTimeBuffer(tablet));
-    request.setValues(SessionUtils.getValueBuffer(tablet));
+    if (enableTabletEncoding) {
+      try {
+        request.setTimestamps(TabletEncodingUtils.encodeTimes(tablet));
+        request.setValues(TabletEncodingUtils.encodeValues(tablet));
+      } catch (IOException e) {
+        throw new IoTDBConnectionException("Failed to encode tablet of " + tablet.deviceId, e);
+      }
+      request.setIsEncoded(true);
+    } else {
+      request.setTimestamps(SessionUtils.getTimeBuffer(tablet));
+      request.setValues(SessionUtils.getValueBuffer(tablet));
+    }
     request.setSize(tablet.rowSize);
     return request;
   }
 
+  /**
+   * Asynchronous version of {@link #insertTablet(Tablet)}. Insertions submitted to the same
+   * connection are sent one after another in submission order, this method only blocks when
+   * maxInFlightInsertNum insertions are already pending on that connection. The tablet must not be
+   * modified until the returned future completes.
+   */
+  @Override
+  public CompletableFuture<Void> insertTabletAsync(Tablet tablet) {
+    return submitAsyncInsertTablet(tablet, false);
+  }
+
+  /** Asynchronous version of {@link #insertAlignedTablet(Tablet)}. */
+  @Override
+  public CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet) {
+    return submitAsyncInsertTablet(tablet, true);
+  }
+
+  private CompletableFuture<Void> submitAsyncInsertTablet(Tablet tablet, boolean isAligned) {
+    // the connection is chosen here, the insertion thread only talks to this connection
+    SessionConnection connection = getSessionConnection(tablet.deviceId);
+    return connection.submitAsyncInsert(
+        () -> {
+          TSInsertTabletReq request = genTSInsertTabletReq(tablet, false, isAligned);
+          try {
+            connection.insertTablet(request);
+          } catch (RedirectException e) {
+            cacheAsyncRedirection(tablet.deviceId, e.getEndPoint());
+          }
+        });
+  }
+
+  /**
+   * Asynchronous version of {@link #insertRecords(List, List, List, List, List)}. The request is
+   * pipelined on the connection of the first device, the lists must not be modified until the
+   * returned future completes.
+   */
+  @Override
+  public CompletableFuture<Void> insertRecordsAsync(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    if (deviceIds.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    SessionConnection connection = getSessionConnection(deviceIds.get(0));
+    return connection.submitAsyncInsert(
+        () -> {
+          TSInsertRecordsReq request;
+          try {
+            request =
+                filterAndGenTSInsertRecordsReq(
+                    deviceIds, times, measurementsList, typesList, valuesList, false);
+          } catch (NoValidValueException e) {
+            logger.warn(
+                "All values are null and this submission is ignored,deviceIds are [{}],times are [{}],measurements are [{}]",
+                deviceIds.toString(),
+                times.toString(),
+                measurementsList.toString());
+            return;
+          }
+          try {
+            connection.insertRecords(request);
+          } catch (RedirectException e) {
+            if (e.getDeviceEndPointMap() != null) {
+              e.getDeviceEndPointMap().forEach(this::cacheAsyncRedirection);
+            }
+          }
+        });
+  }
+
+  /**
+   * The data of a redirected asynchronous insertion is already written, remember the leader for
+   * the next insertions. Unlike {@link #handleRedirection(String, TEndPoint)} this never opens a
+   * connection, as it runs on the insertion thread of another connection.
+   */
+  private void cacheAsyncRedirection(String deviceId, TEndPoint endPoint) {
+    if (enableCacheLeader
+        && endPoint != null
+        && endPointToSessionConnection.containsKey(endPoint)) {
+      deviceIdToEndpoint.put(deviceId, endPoint);
+    }
+  }
+
+  /**
+   * Buffer one row and send it together with other buffered rows by {@link
+   * #insertRecordsAsync(List, List, List, List, List)}, see asyncInsertBatchSize and
+   * asyncInsertLingerInMs. The returned future completes when the whole batch is inserted.
+   */
+  @Override
+  public CompletableFuture<Void> insertRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    return getInsertRecordsCoalescer().add(deviceId, time, measurements, types, values);
+  }
+
+  /** Send the rows buffered by insertRecordAsync without waiting for the batch to fill up. */
+  @Override
+  public void flushAsyncInsertRecords() {
+    if (insertRecordsCoalescer != null) {
+      insertRecordsCoalescer.flush();
+    }
+  }
+
+  private synchronized InsertRecordsCoalescer getInsertRecordsCoalescer() {
+    if (insertRecordsCoalescer == null) {
+      insertRecordsCoalescer =
+          new InsertRecordsCoalescer(
+              this::insertRecordsAsync, asyncInsertBatchSize, asyncInsertLingerInMs);
+    }
+    return insertRecordsCoalescer;
+  }
+
   /**
    * insert the data of several deivces. Given a deivce, for each timestamp, the number of
    * measurements is the same.
@@ -3143,6 +3286,39 @@ public class Session implements ISession {
     this.enableQueryRedirection = enableQueryRedirection;
   }
 
+  public boolean isEnableTabletEncoding() {
+    return enableTabletEncoding;
+  }
+
+  public void setEnableTabletEncoding(boolean enableTabletEncoding) {
+    this.enableTabletEncoding = enableTabletEncoding;
+  }
+
+  public int getMaxInFlightInsertNum() {
+    return maxInFlightInsertNum;
+  }
+
+  /** Only affects connections which have not submitted any asynchronous insertion yet. */
+  public void setMaxInFlightInsertNum(int maxInFlightInsertNum) {
+    this.maxInFlightInsertNum = maxInFlightInsertNum;
+  }
+
+  public int getAsyncInsertBatchSize() {
+    return asyncInsertBatchSize;
+  }
+
+  public void setAsyncInsertBatchSize(int asyncInsertBatchSize) {
+    this.asyncInsertBatchSize = asyncInsertBatchSize;
+  }
+
+  public long getAsyncInsertLingerInMs() {
+    return asyncInsertLingerInMs;
+  }
+
+  public void setAsyncInsertLingerInMs(long asyncInsertLingerInMs) {
+    this.asyncInsertLingerInMs = asyncInsertLingerInMs;
+  }
+
   @Override
   public boolean isEnableCacheLeader() {
     return enableCacheLeader;
@@ -3165,6 +3341,10 @@ public class Session implements ISession {
     private boolean enableCacheLeader = Config.DEFAULT_CACHE_LEADER_MODE;
     private Version version = Config.DEFAULT_VERSION;
     private long timeOut = Config.DEFAULT_QUERY_TIME_OUT;
+    private boolean enableTabletEncoding = false;
+    private int maxInFlightInsertNum = Config.DEFAULT_MAX_IN_FLIGHT_INSERT_NUM;
+    private int asyncInsertBatchSize = Config.DEFAULT_ASYNC_INSERT_BATCH_SIZE;
+    private long asyncInsertLingerInMs = Config.DEFAULT_ASYNC_INSERT_LINGER_MS;
 
     private List<String> nodeUrls = null;
 
@@ -3228,6 +3408,26 @@ public class Session implements ISession {
       return this;
     }
 
+    public Builder enableTabletEncoding(boolean enableTabletEncoding) {
+      this.enableTabletEncoding = enableTabletEncoding;
+      return this;
+    }
+
+    public Builder maxInFlightInsertNum(int maxInFlightInsertNum) {
+      this.maxInFlightInsertNum = maxInFlightInsertNum;
+      return this;
+    }
+
+    public Builder asyncInsertBatchSize(int asyncInsertBatchSize) {
+      this.asyncInsertBatchSize = asyncInsertBatchSize;
+      return this;
+    }
+
+    public Builder asyncInsertLingerInMs(long asyncInsertLingerInMs) {
+      this.asyncInsertLingerInMs = asyncInsertLingerInMs;
+      return this;
+    }
+
     public Session build() {
       if (nodeUrls != null
           && (!Config.DEFAULT_HOST.equals(host) || rpcPort != Config.DEFAULT_PORT)) {
@@ -3248,20 +3448,30 @@ public class Session implements ISession {
                 enableCacheLeader,
                 version);
         newSession.setEnableQueryRedirection(true);
+        newSession.setEnableTabletEncoding(enableTabletEncoding);
+        newSession.setMaxInFlightInsertNum(maxInFlightInsertNum);
+        newSession.setAsyncInsertBatchSize(asyncInsertBatchSize);
+        newSession.setAsyncInsertLingerInMs(asyncInsertLingerInMs);
         return newSession;
       }
 
-      return new Session(
-          host,
-          rpcPort,
-          username,
-          password,
-          fetchSize,
-          zoneId,
-          thriftDefaultBufferSize,
-          thriftMaxFrameSize,
-          enableCacheLeader,
-          version);
+      Session newSession =
+          new Session(
+              host,
+              rpcPort,
+              username,
+              password,
+              fetchSize,
+              zoneId,
+              thriftDefaultBufferSize,
+              thriftMaxFrameSize,
+              enableCacheLeader,
+              version);
+      newSession.setEnableTabletEncoding(enableTabletEncoding);
+      newSession.setMaxInFlightInsertNum(maxInFlightInsertNum);
+      newSession.setAsyncInsertBatchSize(asyncInsertBatchSize);
+      newSession.setAsyncInsertLingerInMs(asyncInsertLingerInMs);
+      return newSession;
     }
   }
 }
@@ -56,6 +56,7 @@ import org.apache.iotdb.service.rpc.thrift.TSSetSchemaTemplateReq;
 import org.apache.iotdb.service.rpc.thrift.TSSetTimeZoneReq;
 import org.apache.iotdb.service.rpc.thrift.TSUnsetSchemaTemplateReq;
 import org.apache.iotdb.session.util.SessionUtils;
+import org.apache.iotdb.session.util.ThreadUtils;
 
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TBinaryProtocol;
@@ -70,6 +71,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 public class SessionConnection {
 
@@ -86,9 +93,26 @@ public class SessionConnection {
   private List<TEndPoint> endPointList = new ArrayList<>();
   private boolean enableRedirect = false;
 
+  // every RPC, including reconnection, holds this lock, so that the asynchronous insertions never
+  // interleave with synchronous calls on the same thrift client
+  private final Object rpcLock = new Object();
+
+  // asynchronous insertions run one after another in submission order, at most
+  // maxInFlightInsertNum of them are queued or running at the same time. Their futures are
+  // completed on asyncCallbackExecutor, so that a callback blocked on a full window never stalls
+  // the insertion thread that would free it.
+  private ExecutorService asyncInsertExecutor;
+  private ExecutorService asyncCallbackExecutor;
+  private Semaphore asyncInsertPermits;
+
   // TestOnly
   public SessionConnection() {}
 
+  // TestOnly
+  protected SessionConnection(Session session) {
+    this.session = session;
+  }
+
   public SessionConnection(Session session, TEndPoint endPoint, ZoneId zoneId)
       throws IoTDBConnectionException {
     this.session = session;
@@ -129,7 +153,7 @@ public class SessionConnection {
     } else {
       client = new IClientRPCService.Client(new TBinaryProtocol(transport));
     }
-    client = RpcUtils.newSynchronizedClient(client);
+    client = RpcUtils.newSynchronizedClient(client, rpcLock);
 
     TSOpenSessionReq openReq = new TSOpenSessionReq();
     openReq.setUsername(session.username);
@@ -182,6 +206,7 @@ public class SessionConnection {
   }
 
   public void close() throws IoTDBConnectionException {
+    shutdownAsyncInsertExecutor();
     TSCloseSessionReq req = new TSCloseSessionReq(sessionId);
     try {
       client.closeSession(req);
@@ -195,6 +220,135 @@ public class SessionConnection {
     }
   }
 
+  /**
+   * Submit an insertion that runs after all the insertions submitted to this connection before.
+   * The caller is blocked only when maxInFlightInsertNum insertions are already pending.
+   */
+  protected CompletableFuture<Void> submitAsyncInsert(AsyncInsertTask task) {
+    ExecutorService executor;
+    ExecutorService callbackExecutor;
+    Semaphore permits;
+    synchronized (this) {
+      if (asyncInsertExecutor == null) {
+        int maxInFlightInsertNum =
+            session == null
+                ? Config.DEFAULT_MAX_IN_FLIGHT_INSERT_NUM
+                : session.maxInFlightInsertNum;
+        asyncInsertPermits = new Semaphore(maxInFlightInsertNum);
+        asyncInsertExecutor =
+            Executors.newSingleThreadExecutor(
+                ThreadUtils.createThreadFactory("SessionAsyncInsert-" + endPoint, true));
+        asyncCallbackExecutor =
+            Executors.newSingleThreadExecutor(
+                ThreadUtils.createThreadFactory("SessionAsyncCallback-" + endPoint, true));
+      }
+      executor = asyncInsertExecutor;
+      callbackExecutor = asyncCallbackExecutor;
+      permits = asyncInsertPermits;
+    }
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(e);
+      return future;
+    }
+    AsyncInsertRunnable runnable = new AsyncInsertRunnable(task, future, permits, callbackExecutor);
+    try {
+      executor.execute(runnable);
+    } catch (RejectedExecutionException e) {
+      runnable.complete(
+          new IoTDBConnectionException("Session connection to " + endPoint + " is closed", e));
+    }
+    return future;
+  }
+
+  protected void shutdownAsyncInsertExecutor() {
+    ExecutorService executor;
+    ExecutorService callbackExecutor;
+    synchronized (this) {
+      executor = asyncInsertExecutor;
+      callbackExecutor = asyncCallbackExecutor;
+    }
+    if (executor == null) {
+      return;
+    }
+    executor.shutdown();
+    try {
+      // let the pending insertions finish before the connection is closed
+      if (!executor.awaitTermination(Config.DEFAULT_QUERY_TIME_OUT, TimeUnit.MILLISECONDS)) {
+        logger.warn("Pending asynchronous insertions on {} are not finished in time", endPoint);
+        failPendingInsertions(executor.shutdownNow());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      failPendingInsertions(executor.shutdownNow());
+    }
+    // the completions already queued still run, only new ones are rejected
+    callbackExecutor.shutdown();
+  }
+
+  private void failPendingInsertions(List<Runnable> pending) {
+    for (Runnable runnable : pending) {
+      ((AsyncInsertRunnable) runnable)
+          .complete(
+              new IoTDBConnectionException("Session connection to " + endPoint + " is closed"));
+    }
+  }
+
+  private class AsyncInsertRunnable implements Runnable {
+
+    private final AsyncInsertTask task;
+    private final CompletableFuture<Void> future;
+    private final Semaphore permits;
+    private final ExecutorService callbackExecutor;
+
+    private AsyncInsertRunnable(
+        AsyncInsertTask task,
+        CompletableFuture<Void> future,
+        Semaphore permits,
+        ExecutorService callbackExecutor) {
+      this.task = task;
+      this.future = future;
+      this.permits = permits;
+      this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public void run() {
+      Throwable failure = null;
+      try {
+        synchronized (rpcLock) {
+          task.insert();
+        }
+      } catch (Throwable t) {
+        failure = t;
+      }
+      complete(failure);
+    }
+
+    private void complete(Throwable failure) {
+      // release before completing, callbacks of the future may submit new insertions
+      permits.release();
+      Runnable completion =
+          failure == null
+              ? () -> future.complete(null)
+              : () -> future.completeExceptionally(failure);
+      try {
+        callbackExecutor.execute(completion);
+      } catch (RejectedExecutionException e) {
+        // the connection is closed and the callback thread is gone
+        completion.run();
+      }
+    }
+  }
+
+  @FunctionalInterface
+  protected interface AsyncInsertTask {
+    void insert() throws IoTDBConnectionException, StatementExecutionException;
+  }
+
   protected IClientRPCService.Iface getClient() {
     return client;
   }
@@ -782,6 +936,12 @@ public class SessionConnection {
   }
 
   private boolean reconnect() {
+    synchronized (rpcLock) {
+      return reconnectWithLock();
+    }
+  }
+
+  private boolean reconnectWithLock() {
     boolean connectedSuccess = false;
     Random random = new Random();
     for (int i = 1; i <= Config.RETRY_NUM; i++) {
@@ -36,6 +36,8 @@ import java.io.IOException;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentMap;
@@ -93,6 +95,11 @@ public class SessionPool {
   // whether the queue is closed.
   private boolean closed;
 
+  // asynchronous insertions are pipelined on this session instead of occupying pooled sessions,
+  // it is not counted in size
+  private Session asyncSession;
+  private final Object asyncSessionLock = new Object();
+
   // Redirect-able SessionPool
   private final List<String> nodeUrls;
 
@@ -457,6 +464,14 @@ public class SessionPool {
         logger.warn(CLOSE_THE_SESSION_FAILED, e);
       }
     }
+    Session toClose;
+    synchronized (asyncSessionLock) {
+      // no asynchronous session can be opened after this
+      this.closed = true;
+      toClose = asyncSession;
+      asyncSession = null;
+    }
+    closeSession(toClose);
     logger.info("closing the session pool, cleaning queues...");
     this.closed = true;
     queue.clear();
@@ -723,6 +738,117 @@ public class SessionPool {
     }
   }
 
+  /**
+   * Asynchronous version of {@link #insertTablet(Tablet)}, see {@link
+   * Session#insertTabletAsync(Tablet)}. All asynchronous insertions of the pool are pipelined on
+   * one dedicated session, so they do not wait for or occupy the pooled sessions.
+   */
+  public CompletableFuture<Void> insertTabletAsync(Tablet tablet) {
+    try {
+      Session session = getAsyncSession();
+      return watchAsyncInsert(session, session.insertTabletAsync(tablet));
+    } catch (IoTDBConnectionException e) {
+      return failedFuture(e);
+    }
+  }
+
+  /** Asynchronous version of {@link #insertAlignedTablet(Tablet)}. */
+  public CompletableFuture<Void> insertAlignedTabletAsync(Tablet tablet) {
+    try {
+      Session session = getAsyncSession();
+      return watchAsyncInsert(session, session.insertAlignedTabletAsync(tablet));
+    } catch (IoTDBConnectionException e) {
+      return failedFuture(e);
+    }
+  }
+
+  /** Asynchronous version of {@link #insertRecords(List, List, List, List, List)}. */
+  public CompletableFuture<Void> insertRecordsAsync(
+      List<String> deviceIds,
+      List<Long> times,
+      List<List<String>> measurementsList,
+      List<List<TSDataType>> typesList,
+      List<List<Object>> valuesList) {
+    try {
+      Session session = getAsyncSession();
+      return watchAsyncInsert(
+          session,
+          session.insertRecordsAsync(deviceIds, times, measurementsList, typesList, valuesList));
+    } catch (IoTDBConnectionException e) {
+      return failedFuture(e);
+    }
+  }
+
+  /**
+   * Buffer one row on the asynchronous session and send it in an insertRecords batch, see {@link
+   * Session#insertRecordAsync(String, long, List, List, List)}.
+   */
+  public CompletableFuture<Void> insertRecordAsync(
+      String deviceId,
+      long time,
+      List<String> measurements,
+      List<TSDataType> types,
+      List<Object> values) {
+    try {
+      Session session = getAsyncSession();
+      return watchAsyncInsert(
+          session, session.insertRecordAsync(deviceId, time, measurements, types, values));
+    } catch (IoTDBConnectionException e) {
+      return failedFuture(e);
+    }
+  }
+
+  /** Send the rows buffered by insertRecordAsync without waiting for the batch to fill up. */
+  public void flushAsyncInsertRecords() {
+    Session session;
+    synchronized (asyncSessionLock) {
+      session = asyncSession;
+    }
+    if (session != null) {
+      session.flushAsyncInsertRecords();
+    }
+  }
+
+  private Session getAsyncSession() throws IoTDBConnectionException {
+    synchronized (asyncSessionLock) {
+      if (closed) {
+        throw new IoTDBConnectionException(SESSION_POOL_IS_CLOSED);
+      }
+      if (asyncSession == null) {
+        Session session = constructNewSession();
+        session.open(enableCompression, connectionTimeoutInMs);
+        asyncSession = session;
+      }
+      return asyncSession;
+    }
+  }
+
+  /** Drop the asynchronous session once it fails with a broken connection. */
+  private CompletableFuture<Void> watchAsyncInsert(
+      Session session, CompletableFuture<Void> future) {
+    return future.whenComplete(
+        (v, t) -> {
+          Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+          if (cause instanceof IoTDBConnectionException) {
+            logger.warn("asynchronous insertion failed", cause);
+            synchronized (asyncSessionLock) {
+              if (asyncSession != session) {
+                return;
+              }
+              asyncSession = null;
+            }
+            // close outside the callback thread, closing waits for the pending insertions
+            CompletableFuture.runAsync(() -> closeSession(session));
+          }
+        });
+  }
+
+  private static CompletableFuture<Void> failedFuture(Throwable t) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    future.completeExceptionally(t);
+    return future;
+  }
+
   /**
    * Insert aligned data in batch format, which can reduce the overhead of network. This method is
    * just like jdbc batch insert, we pack some insert request in batch and send them to server If
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class InsertRecordsCoalescerTest {
+
+  private final List<List<String>> sentBatches = Collections.synchronizedList(new ArrayList<>());
+
+  private CompletableFuture<Void> record(List<String> deviceIds) {
+    sentBatches.add(new ArrayList<>(deviceIds));
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Test
+  public void testBatchBySize() throws Exception {
+    InsertRecordsCoalescer coalescer =
+        new InsertRecordsCoalescer(
+            (deviceIds, times, measurementsList, typesList, valuesList) -> record(deviceIds),
+            3,
+            TimeUnit.HOURS.toMillis(1));
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(add(coalescer, "root.sg.d" + i, i));
+    }
+    assertEquals(1, sentBatches.size());
+    assertEquals(3, sentBatches.get(0).size());
+    for (int i = 0; i < 3; i++) {
+      futures.get(i).get(10, TimeUnit.SECONDS);
+    }
+    assertFalse(futures.get(3).isDone());
+
+    coalescer.flush();
+    futures.get(3).get(10, TimeUnit.SECONDS);
+    assertEquals(2, sentBatches.size());
+    assertEquals(Collections.singletonList("root.sg.d3"), sentBatches.get(1));
+    coalescer.close();
+  }
+
+  @Test
+  public void testLingerFlush() throws Exception {
+    InsertRecordsCoalescer coalescer =
+        new InsertRecordsCoalescer(
+            (deviceIds, times, measurementsList, typesList, valuesList) -> record(deviceIds),
+            100,
+            20);
+    CompletableFuture<Void> first = add(coalescer, "root.sg.d1", 1);
+    CompletableFuture<Void> second = add(coalescer, "root.sg.d2", 2);
+    first.get(10, TimeUnit.SECONDS);
+    second.get(10, TimeUnit.SECONDS);
+    assertEquals(1, sentBatches.size());
+    assertEquals(2, sentBatches.get(0).size());
+    coalescer.close();
+  }
+
+  @Test
+  public void testFailurePropagation() throws Exception {
+    IllegalStateException failure = new IllegalStateException("insertion failed");
+    InsertRecordsCoalescer coalescer =
+        new InsertRecordsCoalescer(
+            (deviceIds, times, measurementsList, typesList, valuesList) -> {
+              CompletableFuture<Void> future = new CompletableFuture<>();
+              future.completeExceptionally(failure);
+              return future;
+            },
+            2,
+            TimeUnit.HOURS.toMillis(1));
+    CompletableFuture<Void> first = add(coalescer, "root.sg.d1", 1);
+    CompletableFuture<Void> second = add(coalescer, "root.sg.d2", 2);
+    for (CompletableFuture<Void> future : Arrays.asList(first, second)) {
+      try {
+        future.get(10, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertEquals(failure, e.getCause());
+      }
+    }
+    coalescer.close();
+  }
+
+  @Test
+  public void testAddWhileBatchIsSent() throws Exception {
+    CountDownLatch sending = new CountDownLatch(1);
+    CountDownLatch sent = new CountDownLatch(1);
+    InsertRecordsCoalescer coalescer =
+        new InsertRecordsCoalescer(
+            (deviceIds, times, measurementsList, typesList, valuesList) -> {
+              sending.countDown();
+              try {
+                // a full insertion window blocks the sender
+                sent.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return record(deviceIds);
+            },
+            2,
+            TimeUnit.HOURS.toMillis(1));
+    Thread sender =
+        new Thread(
+            () -> {
+              add(coalescer, "root.sg.d1", 1);
+              add(coalescer, "root.sg.d2", 2);
+            });
+    sender.start();
+    assertTrue(sending.await(10, TimeUnit.SECONDS));
+
+    // buffering a row must not wait for the blocked sender
+    CompletableFuture<Void> third =
+        CompletableFuture.supplyAsync(() -> add(coalescer, "root.sg.d3", 3))
+            .get(10, TimeUnit.SECONDS);
+    assertFalse(third.isDone());
+
+    sent.countDown();
+    sender.join();
+    coalescer.close();
+    third.get(10, TimeUnit.SECONDS);
+    assertEquals(2, sentBatches.size());
+    assertEquals(Collections.singletonList("root.sg.d3"), sentBatches.get(1));
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    InsertRecordsCoalescer coalescer =
+        new InsertRecordsCoalescer(
+            (deviceIds, times, measurementsList, typesList, valuesList) -> record(deviceIds),
+            100,
+            TimeUnit.HOURS.toMillis(1));
+    CompletableFuture<Void> pending = add(coalescer, "root.sg.d1", 1);
+    coalescer.close();
+    pending.get(10, TimeUnit.SECONDS);
+    assertEquals(1, sentBatches.size());
+
+    try {
+      add(coalescer, "root.sg.d2", 2).get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private CompletableFuture<Void> add(
+      InsertRecordsCoalescer coalescer, String deviceId, long time) {
+    return coalescer.add(
+        deviceId,
+        time,
+        Collections.singletonList("s1"),
+        Collections.singletonList(TSDataType.INT64),
+        Collections.singletonList(time));
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.session;
+
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.rpc.IoTDBConnectionException;
+import org.apache.iotdb.rpc.RedirectException;
+import org.apache.iotdb.rpc.StatementExecutionException;
+import org.apache.iotdb.service.rpc.thrift.TSInsertRecordsReq;
+import org.apache.iotdb.service.rpc.thrift.TSInsertTabletReq;
+import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
+import org.apache.iotdb.tsfile.write.record.Tablet;
+import org.apache.iotdb.tsfile.write.schema.MeasurementSchema;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SessionAsyncInsertTest {
+
+  private static final int MAX_IN_FLIGHT_INSERT_NUM = 2;
+
+  private MockSession session;
+
+  @Before
+  public void setUp() throws IoTDBConnectionException {
+    session = new MockSession();
+    session.setMaxInFlightInsertNum(MAX_IN_FLIGHT_INSERT_NUM);
+    session.open();
+  }
+
+  @After
+  public void tearDown() throws IoTDBConnectionException {
+    session.connection.gate.release(Integer.MAX_VALUE / 2);
+    session.close();
+  }
+
+  @Test
+  public void testPermitWindow() throws Exception {
+    MockSessionConnection connection = session.connection;
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < MAX_IN_FLIGHT_INSERT_NUM; i++) {
+      futures.add(session.insertTabletAsync(genTablet("root.sg.d" + i)));
+    }
+
+    // the window is full, the next submission waits until an insertion finishes
+    CompletableFuture<CompletableFuture<Void>> blocked =
+        CompletableFuture.supplyAsync(() -> session.insertTabletAsync(genTablet("root.sg.d2")));
+    Thread.sleep(200);
+    assertFalse(blocked.isDone());
+
+    connection.gate.release();
+    futures.add(blocked.get(10, TimeUnit.SECONDS));
+    connection.gate.release(MAX_IN_FLIGHT_INSERT_NUM);
+    for (CompletableFuture<Void> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    // sent one after another in submission order
+    assertEquals(
+        Arrays.asList("root.sg.d0", "root.sg.d1", "root.sg.d2"), connection.insertedDevices);
+  }
+
+  @Test
+  public void testFailurePropagation() throws Exception {
+    MockSessionConnection connection = session.connection;
+    connection.gate.release(Integer.MAX_VALUE / 2);
+
+    connection.failure = new StatementExecutionException("insertion failed");
+    try {
+      session.insertTabletAsync(genTablet("root.sg.d1")).get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertEquals(connection.failure, e.getCause());
+    }
+
+    // a redirection means the data is written, the insertion is not sent again
+    connection.failure = new RedirectException(new TEndPoint("127.0.0.1", 55561));
+    session.insertTabletAsync(genTablet("root.sg.d2")).get(10, TimeUnit.SECONDS);
+
+    connection.failure = null;
+    session
+        .insertRecordsAsync(
+            Collections.singletonList("root.sg.d3"),
+            Collections.singletonList(1L),
+            Collections.singletonList(Collections.singletonList("s1")),
+            Collections.singletonList(Collections.singletonList(TSDataType.INT64)),
+            Collections.singletonList(Collections.singletonList(1L)))
+        .get(10, TimeUnit.SECONDS);
+    // the failed insertion wrote nothing
+    assertEquals(Arrays.asList("root.sg.d2", "root.sg.d3"), connection.insertedDevices);
+  }
+
+  @Test
+  public void testCallbackSubmitsIntoFullWindow() throws Exception {
+    MockSessionConnection connection = session.connection;
+    AtomicReference<CompletableFuture<Void>> lastSubmitted = new AtomicReference<>();
+    CompletableFuture<Void> first = session.insertTabletAsync(genTablet("root.sg.d0"));
+    first.thenRun(
+        () -> {
+          // more submissions than the window, the callback has to wait for free permits
+          for (int i = 1; i <= MAX_IN_FLIGHT_INSERT_NUM + 1; i++) {
+            lastSubmitted.set(session.insertTabletAsync(genTablet("root.sg.d" + i)));
+          }
+        });
+    connection.gate.release(Integer.MAX_VALUE / 2);
+
+    first.get(10, TimeUnit.SECONDS);
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (lastSubmitted.get() == null || !lastSubmitted.get().isDone()) {
+      assertTrue(
+          "insertions submitted by a callback never finish",
+          System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+    assertEquals(MAX_IN_FLIGHT_INSERT_NUM + 2, connection.insertedDevices.size());
+  }
+
+  @Test
+  public void testCloseWithPendingInserts() throws Exception {
+    MockSessionConnection connection = session.connection;
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < MAX_IN_FLIGHT_INSERT_NUM; i++) {
+      futures.add(session.insertTabletAsync(genTablet("root.sg.d" + i)));
+    }
+    CompletableFuture<Void> buffered =
+        session.insertRecordAsync(
+            "root.sg.d9",
+            1L,
+            Collections.singletonList("s1"),
+            Collections.singletonList(TSDataType.INT64),
+            Collections.singletonList(1L));
+
+    CompletableFuture<Void> closed =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                session.close();
+              } catch (IoTDBConnectionException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    Thread.sleep(200);
+    // close waits for the pending insertions
+    assertFalse(closed.isDone());
+
+    connection.gate.release(Integer.MAX_VALUE / 2);
+    closed.get(10, TimeUnit.SECONDS);
+    for (CompletableFuture<Void> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    // the buffered row is sent on close as well
+    buffered.get(10, TimeUnit.SECONDS);
+    assertEquals(MAX_IN_FLIGHT_INSERT_NUM + 1, connection.insertedDevices.size());
+
+    try {
+      connection.submitAsyncInsert(() -> {}).get(10, TimeUnit.SECONDS);
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IoTDBConnectionException);
+    }
+  }
+
+  private static Tablet genTablet(String deviceId) {
+    List<MeasurementSchema> schemas = new ArrayList<>();
+    schemas.add(new MeasurementSchema("s1", TSDataType.INT64));
+    Tablet tablet = new Tablet(deviceId, schemas, 1);
+    tablet.addTimestamp(0, 1L);
+    tablet.addValue("s1", 0, 1L);
+    tablet.rowSize++;
+    return tablet;
+  }
+
+  private static class MockSession extends Session {
+
+    private MockSessionConnection connection;
+
+    private MockSession() {
+      super(
+          "127.0.0.1",
+          55560,
+          Config.DEFAULT_USER,
+          Config.DEFAULT_PASSWORD,
+          Config.DEFAULT_FETCH_SIZE,
+          null,
+          Config.DEFAULT_INITIAL_BUFFER_CAPACITY,
+          Config.DEFAULT_MAX_FRAME_SIZE,
+          false,
+          Config.DEFAULT_VERSION);
+    }
+
+    @Override
+    public SessionConnection constructSessionConnection(
+        Session session, TEndPoint endpoint, ZoneId zoneId) {
+      connection = new MockSessionConnection(session);
+      return connection;
+    }
+  }
+
+  private static class MockSessionConnection extends SessionConnection {
+
+    // every insertion takes one permit, so that tests decide when insertions finish
+    private final Semaphore gate = new Semaphore(0);
+    private final List<String> insertedDevices = Collections.synchronizedList(new ArrayList<>());
+    private volatile Exception failure;
+
+    private MockSessionConnection(Session session) {
+      super(session);
+    }
+
+    @Override
+    public void close() {
+      shutdownAsyncInsertExecutor();
+    }
+
+    @Override
+    protected void insertTablet(TSInsertTabletReq request)
+        throws RedirectException, StatementExecutionException {
+      insert(request.getPrefixPath());
+    }
+
+    @Override
+    protected void insertRecords(TSInsertRecordsReq request)
+        throws RedirectException, StatementExecutionException {
+      insert(request.getPrefixPaths().get(0));
+    }
+
+    private void insert(String deviceId) throws RedirectException, StatementExecutionException {
+      gate.acquireUninterruptibly();
+      Exception toThrow = failure;
+      if (toThrow instanceof StatementExecutionException) {
+        throw (StatementExecutionException) toThrow;
+      }
+      insertedDevices.add(deviceId);
+      if (toThrow instanceof RedirectException) {
+        throw (RedirectException) toThrow;
+      }
+    }
+  }
+}
@@ -227,6 +227,8 @@ struct TSInsertTabletReq {
   6: required list<i32> types
   7: required i32 size
   8: optional bool isAligned
+  // whether timestamps and values are column encoded and compressed, see TabletEncodingUtils
+  9: optional bool isEncoded
 }
 
 struct TSInsertTabletsReq {
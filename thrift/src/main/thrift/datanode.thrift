@@ -62,10 +62,14 @@ struct TGetDataBlockRequest {
   1: required TFragmentInstanceId sourceFragmentInstanceId
   2: required i32 startSequenceId
   3: required i32 endSequenceId
+  // compression type the requester accepts, absent means uncompressed
+  4: optional byte compressionType
 }
 
 struct TGetDataBlockResponse {
   1: required list<binary> tsBlocks
+  // compression type of tsBlocks, absent means uncompressed
+  2: optional byte compressionType
 }
 
 struct TAcknowledgeDataBlockEvent {
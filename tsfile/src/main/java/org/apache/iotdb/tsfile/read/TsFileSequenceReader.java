@@ -85,6 +85,7 @@ import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
 import java.util.stream.Collectors;
 
 public class TsFileSequenceReader implements AutoCloseable {
@@ -1104,6 +1105,32 @@ public class TsFileSequenceReader implements AutoCloseable {
     }
   }
 
+  /**
+   * read memory chunk into a buffer supplied by the caller, e.g. a slice of an off-heap slab, so
+   * that the chunk data does not need to be copied once more.
+   *
+   * @param metaData -given chunk meta data
+   * @param bufferAllocator -given the chunk data size, returns a buffer whose remaining is exactly
+   *     the size. The buffer is flipped to be readable after the data is filled in.
+   * @return -chunk whose data is the supplied buffer
+   */
+  public Chunk readMemChunk(ChunkMetadata metaData, IntFunction<ByteBuffer> bufferAllocator)
+      throws IOException {
+    try {
+      int chunkHeadSize = ChunkHeader.getSerializedSize(metaData.getMeasurementUid());
+      ChunkHeader header = readChunkHeader(metaData.getOffsetOfChunkHeader(), chunkHeadSize);
+      ByteBuffer buffer = bufferAllocator.apply(header.getDataSize());
+      readData(
+          metaData.getOffsetOfChunkHeader() + header.getSerializedSize(),
+          header.getDataSize(),
+          buffer);
+      return new Chunk(header, buffer, metaData.getDeleteIntervalList(), metaData.getStatistics());
+    } catch (Throwable t) {
+      logger.warn("Exception {} happened while reading chunk of {}", t.getMessage(), file);
+      throw t;
+    }
+  }
+
   /**
    * read memory chunk.
    *
@@ -1204,10 +1231,28 @@ public class TsFileSequenceReader implements AutoCloseable {
    * @return data that been read.
    */
   protected ByteBuffer readData(long position, int totalSize) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+    readData(position, totalSize, buffer);
+    return buffer;
+  }
+
+  /**
+   * read data from tsFileInput into the given buffer, from the current position (if position = -1),
+   * or the given position. The buffer is flipped after reading.
+   *
+   * @param position the start position of data in the tsFileInput, or the current position if
+   *     position = -1
+   * @param totalSize the size of data that want to read
+   * @param buffer the buffer to fill in, its remaining should not be less than totalSize
+   */
+  private void readData(long position, int totalSize, ByteBuffer buffer) throws IOException {
+    if (totalSize == 0) {
+      buffer.flip();
+      return;
+    }
     int allocateSize = Math.min(MAX_READ_BUFFER_SIZE, totalSize);
     int allocateNum = (int) Math.ceil((double) totalSize / allocateSize);
-    ByteBuffer buffer = ByteBuffer.allocate(totalSize);
-    int bufferLimit = 0;
+    int bufferLimit = buffer.position();
     for (int i = 0; i < allocateNum; i++) {
       if (i == allocateNum - 1) {
         allocateSize = totalSize - allocateSize * (allocateNum - 1);
@@ -1232,7 +1277,6 @@ public class TsFileSequenceReader implements AutoCloseable {
       }
     }
     buffer.flip();
-    return buffer;
   }
 
   /**
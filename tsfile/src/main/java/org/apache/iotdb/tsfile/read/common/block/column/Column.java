@@ -123,6 +123,14 @@ public interface Column {
   /** Returns the array to determine whether each position of the column is null or not. */
   boolean[] isNull();
 
+  /**
+   * Returns the index of the first position of this column in the arrays returned by methods like
+   * {@link #getLongs()} and {@link #isNull()}.
+   */
+  default int getArrayOffset() {
+    return 0;
+  }
+
   /** Returns the number of positions in this block. */
   int getPositionCount();
 
@@ -99,6 +99,11 @@ public class TimeColumn implements Column {
     return null;
   }
 
+  @Override
+  public int getArrayOffset() {
+    return arrayOffset;
+  }
+
   @Override
   public int getPositionCount() {
     return positionCount;
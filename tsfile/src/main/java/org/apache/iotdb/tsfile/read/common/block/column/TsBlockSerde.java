@@ -19,10 +19,13 @@
 
 package org.apache.iotdb.tsfile.read.common.block.column;
 
+import org.apache.iotdb.tsfile.compress.ICompressor;
+import org.apache.iotdb.tsfile.compress.IUnCompressor;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -31,6 +34,40 @@ import java.util.List;
 
 public class TsBlockSerde {
 
+  /** upper bound of the initial capacity of the serialization buffer */
+  private static final int MAX_INITIAL_BUFFER_SIZE = 16 * 1024 * 1024;
+
+  /**
+   * Deserialize a tsblock which may be compressed.
+   *
+   * @param byteBuffer serialized tsblock, compressed by compressionType.
+   * @param compressionType compression type of the serialized tsblock.
+   * @return Deserialized tsblock.
+   */
+  public TsBlock deserialize(ByteBuffer byteBuffer, CompressionType compressionType)
+      throws IOException {
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      return deserialize(byteBuffer);
+    }
+
+    // Compressed tsblock:
+    //    +-------------------+------------------+
+    //    | uncompressed size | compressed bytes |
+    //    +-------------------+------------------+
+    //    | int32             | bytes            |
+    //    +-------------------+------------------+
+    int uncompressedSize = byteBuffer.getInt();
+    byte[] uncompressed = new byte[uncompressedSize];
+    IUnCompressor.getUnCompressor(compressionType)
+        .uncompress(
+            byteBuffer.array(),
+            byteBuffer.arrayOffset() + byteBuffer.position(),
+            byteBuffer.remaining(),
+            uncompressed,
+            0);
+    return deserialize(ByteBuffer.wrap(uncompressed));
+  }
+
   /**
    * Deserialize a tsblock.
    *
@@ -87,7 +124,10 @@ public class TsBlockSerde {
    * @return Serialized tsblock.
    */
   public ByteBuffer serialize(TsBlock tsBlock) throws IOException {
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    // the retained size is a little larger than the serialized size, so that the buffer doesn't
+    // need to be expanded
+    PublicBAOS byteArrayOutputStream =
+        new PublicBAOS((int) Math.min(tsBlock.getRetainedSizeInBytes(), MAX_INITIAL_BUFFER_SIZE));
     DataOutputStream dataOutputStream = new DataOutputStream(byteArrayOutputStream);
 
     // Value column count.
@@ -117,6 +157,30 @@ public class TsBlockSerde {
       columnEncoder.writeColumn(dataOutputStream, tsBlock.getColumn(i));
     }
 
-    return ByteBuffer.wrap(byteArrayOutputStream.toByteArray());
+    // wrap the buffer directly instead of copying it
+    return ByteBuffer.wrap(byteArrayOutputStream.getBuf(), 0, byteArrayOutputStream.size());
+  }
+
+  /**
+   * Serialize a tsblock and compress it.
+   *
+   * @param tsBlock The tsblock to serialize.
+   * @param compressionType compression type of the serialized tsblock.
+   * @return Serialized tsblock.
+   */
+  public ByteBuffer serialize(TsBlock tsBlock, CompressionType compressionType) throws IOException {
+    ByteBuffer uncompressed = serialize(tsBlock);
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      return uncompressed;
+    }
+    ICompressor compressor = ICompressor.getCompressor(compressionType);
+    int uncompressedSize = uncompressed.remaining();
+    byte[] compressed =
+        new byte[Integer.BYTES + compressor.getMaxBytesForCompression(uncompressedSize)];
+    ByteBuffer output = ByteBuffer.wrap(compressed);
+    output.putInt(uncompressedSize);
+    compressor.compress(uncompressed, output);
+    output.flip();
+    return output;
   }
 }
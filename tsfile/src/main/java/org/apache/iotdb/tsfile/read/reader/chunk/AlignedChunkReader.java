@@ -24,6 +24,7 @@ import org.apache.iotdb.tsfile.encoding.decoder.Decoder;
 import org.apache.iotdb.tsfile.file.MetaMarker;
 import org.apache.iotdb.tsfile.file.header.ChunkHeader;
 import org.apache.iotdb.tsfile.file.header.PageHeader;
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSEncoding;
 import org.apache.iotdb.tsfile.file.metadata.statistics.Statistics;
@@ -263,7 +264,6 @@ public class AlignedChunkReader implements IChunkReader {
     pageInfo.pageHeader = pageHeader;
     pageInfo.dataType = chunkHeader.getDataType();
     int compressedPageBodyLength = pageHeader.getCompressedSize();
-    byte[] compressedPageBody = new byte[compressedPageBodyLength];
     // doesn't has a complete page body
     if (compressedPageBodyLength > chunkBuffer.remaining()) {
       throw new IOException(
@@ -273,9 +273,17 @@ public class AlignedChunkReader implements IChunkReader {
               + chunkBuffer.remaining());
     }
 
-    chunkBuffer.get(compressedPageBody);
     pageInfo.decoder =
         Decoder.getDecoderByType(chunkHeader.getEncodingType(), chunkHeader.getDataType());
+    if (chunkHeader.getCompressionType() == CompressionType.UNCOMPRESSED) {
+      // read the page body in place, the chunk data may be a slice of a cached off-heap buffer
+      pageInfo.pageData = chunkBuffer.slice();
+      pageInfo.pageData.limit(compressedPageBodyLength);
+      chunkBuffer.position(chunkBuffer.position() + compressedPageBodyLength);
+      return;
+    }
+    byte[] compressedPageBody = new byte[compressedPageBodyLength];
+    chunkBuffer.get(compressedPageBody);
     byte[] uncompressedPageData = new byte[pageHeader.getUncompressedSize()];
     try {
       unCompressor.uncompress(
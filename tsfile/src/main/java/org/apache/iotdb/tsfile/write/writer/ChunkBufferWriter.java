@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.tsfile.write.writer;
+
+import org.apache.iotdb.tsfile.file.metadata.ChunkMetadata;
+import org.apache.iotdb.tsfile.utils.PublicBAOS;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A TsFileIOWriter which buffers the chunks written into it in memory instead of a file, so that
+ * several threads can write chunks of different series concurrently, and the buffered chunks can be
+ * appended to the current chunk group of the real writer in a given order afterwards.
+ *
+ * <p>Only the chunk level interfaces, i.e. {@link #writeChunk}, {@link #startFlushChunk} and {@link
+ * #endCurrentChunk}, should be used on this writer.
+ */
+public class ChunkBufferWriter extends TsFileIOWriter {
+
+  private final PublicBAOS buffer;
+
+  public ChunkBufferWriter() {
+    this.buffer = new PublicBAOS();
+    this.out = new MemoryOutput(buffer);
+  }
+
+  /** @return the size of the chunks buffered in this writer */
+  public long getBufferedSize() {
+    return buffer.size();
+  }
+
+  /**
+   * Append all the buffered chunks to the current chunk group of the target writer and clear this
+   * buffer. The offsets of the chunk metadata are rebased to the position of the target writer.
+   */
+  public void writeTo(TsFileIOWriter targetWriter) throws IOException {
+    long basePosition = targetWriter.out.getPosition();
+    buffer.writeTo(targetWriter.out.wrapAsStream());
+    for (ChunkMetadata chunkMetadata : chunkMetadataList) {
+      ChunkMetadata rebasedChunkMetadata =
+          new ChunkMetadata(
+              chunkMetadata.getMeasurementUid(),
+              chunkMetadata.getDataType(),
+              basePosition + chunkMetadata.getOffsetOfChunkHeader(),
+              chunkMetadata.getStatistics());
+      rebasedChunkMetadata.setMask(chunkMetadata.getMask());
+      targetWriter.chunkMetadataList.add(rebasedChunkMetadata);
+    }
+    buffer.reset();
+    chunkMetadataList.clear();
+  }
+
+  @Override
+  public void close() {
+    buffer.reset();
+    chunkMetadataList.clear();
+    canWrite = false;
+  }
+
+  /** A TsFileOutput backed by a byte array, behaving the same as {@link LocalTsFileOutput}. */
+  private static class MemoryOutput implements TsFileOutput {
+
+    private final PublicBAOS buffer;
+
+    private MemoryOutput(PublicBAOS buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public void write(byte[] b) {
+      buffer.write(b, 0, b.length);
+    }
+
+    @Override
+    public void write(byte b) {
+      buffer.write(b);
+    }
+
+    @Override
+    public void write(ByteBuffer b) {
+      buffer.write(b.array(), 0, b.array().length);
+    }
+
+    @Override
+    public long getPosition() {
+      return buffer.size();
+    }
+
+    @Override
+    public void close() {
+      // nothing to close for a memory buffer
+    }
+
+    @Override
+    public OutputStream wrapAsStream() {
+      return buffer;
+    }
+
+    @Override
+    public void flush() {
+      // nothing to flush for a memory buffer
+    }
+
+    @Override
+    public void truncate(long size) {
+      buffer.truncate((int) size);
+    }
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.tsfile.common.block;
 
+import org.apache.iotdb.tsfile.file.metadata.enums.CompressionType;
 import org.apache.iotdb.tsfile.file.metadata.enums.TSDataType;
 import org.apache.iotdb.tsfile.read.common.block.TsBlock;
 import org.apache.iotdb.tsfile.read.common.block.TsBlockBuilder;
@@ -36,10 +37,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class TsBlockSerdeTest {
@@ -186,4 +189,31 @@ public class TsBlockSerdeTest {
       fail();
     }
   }
+
+  @Test
+  public void testSerializeAndDeserializeCompressed() throws IOException {
+    final int positionCount = 1000;
+    TsBlockBuilder tsBlockBuilder =
+        new TsBlockBuilder(Arrays.asList(TSDataType.INT64, TSDataType.TEXT));
+    for (int i = 0; i < positionCount; i++) {
+      tsBlockBuilder.getTimeColumnBuilder().writeLong(i);
+      tsBlockBuilder.getColumnBuilder(0).writeLong(i % 10);
+      tsBlockBuilder.getColumnBuilder(1).writeBinary(new Binary("foo"));
+      tsBlockBuilder.declarePosition();
+    }
+    TsBlock tsBlock = tsBlockBuilder.build();
+
+    TsBlockSerde tsBlockSerde = new TsBlockSerde();
+    ByteBuffer uncompressed = tsBlockSerde.serialize(tsBlock);
+    ByteBuffer compressed = tsBlockSerde.serialize(tsBlock, CompressionType.LZ4);
+    assertTrue(compressed.remaining() < uncompressed.remaining());
+
+    TsBlock deserializedTsBlock = tsBlockSerde.deserialize(compressed, CompressionType.LZ4);
+    assertEquals(positionCount, deserializedTsBlock.getPositionCount());
+    for (int i = 0; i < positionCount; i++) {
+      assertEquals(i, deserializedTsBlock.getTimeByIndex(i));
+      assertEquals(i % 10, deserializedTsBlock.getColumn(0).getLong(i));
+      assertEquals("foo", deserializedTsBlock.getColumn(1).getBinary(i).getStringValue());
+    }
+  }
 }